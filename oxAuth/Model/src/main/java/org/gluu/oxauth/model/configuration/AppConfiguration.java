@@ -51,6 +51,13 @@ public class AppConfiguration implements Configuration {
 
     private int discoveryCacheLifetimeInMinutes = 60;
     private int sectorIdentifierCacheLifetimeInMinutes = 1440;
+    private int clientSecretCacheLifetimeInSeconds = 60;
+    private int jwksCacheLifetimeInSeconds = 300;
+    private int jwksCacheRefreshIntervalInSeconds = 60;
+    private int jwksMaxAgeInSeconds = 300;
+    private int discoveryMaxAgeInSeconds = 300;
+    private int clientAccessTimeFlushIntervalInSeconds = 60;
+    private int grantCacheLifetimeInSeconds = 60;
 
     private Boolean sessionAsJwt = false;
     private Boolean forceRopcInAuthorizationEndpoint = false;
@@ -117,6 +124,9 @@ public class AppConfiguration implements Configuration {
 
     private int cleanServiceInterval;
     private int cleanServiceBatchChunkSize = 100;
+    private int cleanServicePoolSize = 4;
+    private int cleanServiceTimeBudgetInSeconds = 20;
+    private Boolean cleanServiceLeaderLeaseEnabled = false;
 
     private Boolean keyRegenerationEnabled;
     private int keyRegenerationInterval;
@@ -355,6 +365,62 @@ public class AppConfiguration implements Configuration {
         this.sectorIdentifierCacheLifetimeInMinutes = sectorIdentifierCacheLifetimeInMinutes;
     }
 
+    public int getClientSecretCacheLifetimeInSeconds() {
+        return clientSecretCacheLifetimeInSeconds;
+    }
+
+    public void setClientSecretCacheLifetimeInSeconds(int clientSecretCacheLifetimeInSeconds) {
+        this.clientSecretCacheLifetimeInSeconds = clientSecretCacheLifetimeInSeconds;
+    }
+
+    public int getJwksCacheLifetimeInSeconds() {
+        return jwksCacheLifetimeInSeconds;
+    }
+
+    public void setJwksCacheLifetimeInSeconds(int jwksCacheLifetimeInSeconds) {
+        this.jwksCacheLifetimeInSeconds = jwksCacheLifetimeInSeconds;
+    }
+
+    public int getJwksCacheRefreshIntervalInSeconds() {
+        return jwksCacheRefreshIntervalInSeconds;
+    }
+
+    public void setJwksCacheRefreshIntervalInSeconds(int jwksCacheRefreshIntervalInSeconds) {
+        this.jwksCacheRefreshIntervalInSeconds = jwksCacheRefreshIntervalInSeconds;
+    }
+
+    public int getJwksMaxAgeInSeconds() {
+        return jwksMaxAgeInSeconds;
+    }
+
+    public void setJwksMaxAgeInSeconds(int jwksMaxAgeInSeconds) {
+        this.jwksMaxAgeInSeconds = jwksMaxAgeInSeconds;
+    }
+
+    public int getDiscoveryMaxAgeInSeconds() {
+        return discoveryMaxAgeInSeconds;
+    }
+
+    public void setDiscoveryMaxAgeInSeconds(int discoveryMaxAgeInSeconds) {
+        this.discoveryMaxAgeInSeconds = discoveryMaxAgeInSeconds;
+    }
+
+    public int getClientAccessTimeFlushIntervalInSeconds() {
+        return clientAccessTimeFlushIntervalInSeconds;
+    }
+
+    public void setClientAccessTimeFlushIntervalInSeconds(int clientAccessTimeFlushIntervalInSeconds) {
+        this.clientAccessTimeFlushIntervalInSeconds = clientAccessTimeFlushIntervalInSeconds;
+    }
+
+    public int getGrantCacheLifetimeInSeconds() {
+        return grantCacheLifetimeInSeconds;
+    }
+
+    public void setGrantCacheLifetimeInSeconds(int grantCacheLifetimeInSeconds) {
+        this.grantCacheLifetimeInSeconds = grantCacheLifetimeInSeconds;
+    }
+
     public String getSoftwareStatementValidationType() {
         if (softwareStatementValidationType == null) return softwareStatementValidationType = SoftwareStatementValidationType.DEFAULT.getValue();
         return softwareStatementValidationType;
@@ -1322,6 +1388,30 @@ public class AppConfiguration implements Configuration {
         this.cleanServiceBatchChunkSize = cleanServiceBatchChunkSize;
     }
 
+    public int getCleanServicePoolSize() {
+        return cleanServicePoolSize;
+    }
+
+    public void setCleanServicePoolSize(int cleanServicePoolSize) {
+        this.cleanServicePoolSize = cleanServicePoolSize;
+    }
+
+    public int getCleanServiceTimeBudgetInSeconds() {
+        return cleanServiceTimeBudgetInSeconds;
+    }
+
+    public void setCleanServiceTimeBudgetInSeconds(int cleanServiceTimeBudgetInSeconds) {
+        this.cleanServiceTimeBudgetInSeconds = cleanServiceTimeBudgetInSeconds;
+    }
+
+    public Boolean getCleanServiceLeaderLeaseEnabled() {
+        return cleanServiceLeaderLeaseEnabled;
+    }
+
+    public void setCleanServiceLeaderLeaseEnabled(Boolean cleanServiceLeaderLeaseEnabled) {
+        this.cleanServiceLeaderLeaseEnabled = cleanServiceLeaderLeaseEnabled;
+    }
+
     public Boolean getKeyRegenerationEnabled() {
         return keyRegenerationEnabled;
     }
@@ -0,0 +1,19 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+package org.gluu.oxauth.model.crypto;
+
+/**
+ * Receives crypto provider events which server publishes as metrics
+ */
+public interface CryptoMetricListener {
+
+    void onSignature();
+
+    void onKeyCacheHit();
+
+    void onKeyCacheMiss();
+
+}
@@ -61,6 +61,10 @@ import java.security.interfaces.ECPublicKey;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.ECGenParameterSpec;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 import static org.gluu.oxauth.model.jwk.JWKParameter.*;
@@ -75,13 +79,34 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
 
     protected static final Logger LOG = Logger.getLogger(OxAuthCryptoProvider.class);
 
-    private KeyStore keyStore;
+    private static final long KEY_STORE_CHECK_INTERVAL = 10 * 1000L;
+
+    private volatile KeyStore keyStore;
     private String keyStoreFile;
     private String keyStoreSecret;
     private String dnName;
     private final boolean rejectNoneAlg;
     private final KeySelectionStrategy keySelectionStrategy;
 
+    // Decrypted private keys by kid. Keystore decrypts key on each getKey call
+    private final ConcurrentMap<String, CachedPrivateKey> privateKeys = new ConcurrentHashMap<>();
+
+    // Signature and Mac instances are not thread safe, each thread reuses own instances
+    private final ThreadLocal<Map<String, CachedSigner>> signers = ThreadLocal.withInitial(HashMap::new);
+    private final ThreadLocal<Map<String, Mac>> macs = ThreadLocal.withInitial(HashMap::new);
+
+    // Changed on each cache clear. Key loaded before clear shouldn't be put back to cache
+    private final AtomicLong keyCacheGeneration = new AtomicLong();
+
+    private final LongAdder signatureCount = new LongAdder();
+    private final LongAdder keyCacheHitCount = new LongAdder();
+    private final LongAdder keyCacheMissCount = new LongAdder();
+    private volatile CryptoMetricListener metricListener;
+
+    private volatile long keyStoreLastModified;
+    private volatile long keyStoreLength;
+    private volatile long nextKeyStoreCheckTime;
+
     public OxAuthCryptoProvider() throws Exception {
         this(null, null, null);
     }
@@ -126,6 +151,7 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
                 }
                 final InputStream is = new FileInputStream(keyStoreFile);
                 keyStore.load(is, keyStoreSecret.toCharArray());
+                updateKeyStoreFileState();
                 LOG.debug("Loaded keys from keystore.");
                 LOG.debug("Security Mode: " + SecurityProviderUtility.getSecurityMode().toString());
                 LOG.debug("Keystore Type: " + keyStorageType.toString());
@@ -141,21 +167,27 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
         this.keyStoreSecret = keyStoreSecret;
         SecurityProviderUtility.KeyStorageType keyStorageType = solveKeyStorageType();
         try(InputStream is = new FileInputStream(keyStoreFile)) {
+            KeyStore loadedKeyStore = null;
             switch (keyStorageType) {
             case JKS_KS: {
-                keyStore = KeyStore.getInstance("JKS");
+                loadedKeyStore = KeyStore.getInstance("JKS");
                 break;
             }
             case PKCS12_KS: {
-                keyStore = KeyStore.getInstance("PKCS12", SecurityProviderUtility.getBCProvider());
+                loadedKeyStore = KeyStore.getInstance("PKCS12", SecurityProviderUtility.getBCProvider());
                 break;
             }
             case BCFKS_KS: {
-                keyStore = KeyStore.getInstance("BCFKS", SecurityProviderUtility.getBCProvider());
+                loadedKeyStore = KeyStore.getInstance("BCFKS", SecurityProviderUtility.getBCProvider());
                 break;
             }
             }
-            keyStore.load(is, keyStoreSecret.toCharArray());
+            loadedKeyStore.load(is, keyStoreSecret.toCharArray());
+
+            // Replace keystore after load to not expose empty keystore to concurrent requests
+            keyStore = loadedKeyStore;
+            clearKeyCache();
+            updateKeyStoreFileState();
             LOG.debug("Loaded keys from keystore.");
             LOG.debug("Security Mode: " + SecurityProviderUtility.getSecurityMode().toString());
             LOG.debug("Keystore Type: " + keyStorageType.toString());
@@ -228,6 +260,8 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
         FileOutputStream stream = new FileOutputStream(keyStoreFile);
         keyStore.store(stream, keyStoreSecret.toCharArray());
         stream.close();
+        clearKeyCache();
+        updateKeyStoreFileState();
 
         PublicKey publicKey = keyPair.getPublic();
 
@@ -291,9 +325,10 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
             return "";
         } else if (AlgorithmFamily.HMAC.equals(signatureAlgorithm.getFamily())) {
             SecretKey secretKey = new SecretKeySpec(sharedSecret.getBytes(Util.UTF8_STRING_ENCODING), signatureAlgorithm.getAlgorithm());
-            Mac mac = Mac.getInstance(signatureAlgorithm.getAlgorithm());
+            Mac mac = getMac(signatureAlgorithm.getAlgorithm());
             mac.init(secretKey);
             byte[] sig = mac.doFinal(signingInput.getBytes());
+            recordSignature();
             return Base64Util.base64urlencode(sig);
         } else { // EC or RSA
             PrivateKey privateKey = getPrivateKey(alias);
@@ -305,11 +340,8 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
                 throw new RuntimeException(error);
             }
 
-            Signature signer = Signature.getInstance(signatureAlgorithm.getAlgorithm(), SecurityProviderUtility.getBCProvider());
-            signer.initSign(privateKey);
-            signer.update(signingInput.getBytes());
-
-            byte[] signature = signer.sign();
+            byte[] signature = getSigner(signatureAlgorithm.getAlgorithm()).sign(privateKey, signingInput.getBytes());
+            recordSignature();
             if (AlgorithmFamily.EC.equals(signatureAlgorithm.getFamily())) {
             	int signatureLenght = ECDSA.getSignatureByteArrayLength(JWSAlgorithm.parse(signatureAlgorithm.getName()));
                 signature = ECDSA.transcodeSignatureToConcat(signature, signatureLenght);
@@ -382,6 +414,9 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
         FileOutputStream stream = new FileOutputStream(keyStoreFile);
         keyStore.store(stream, keyStoreSecret.toCharArray());
         stream.close();
+        keyCacheGeneration.incrementAndGet();
+        privateKeys.remove(alias);
+        updateKeyStoreFileState();
         return true;
     }
 
@@ -456,17 +491,133 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
             return null;
         }
 
+        checkKeyStoreFile();
+
+        CachedPrivateKey cachedPrivateKey = privateKeys.get(alias);
+        if (cachedPrivateKey != null) {
+            keyCacheHitCount.increment();
+            if (metricListener != null) {
+                metricListener.onKeyCacheHit();
+            }
+            checkKeyExpiration(alias, cachedPrivateKey.expirationTime);
+
+            return cachedPrivateKey.privateKey;
+        }
+
+        long generation = keyCacheGeneration.get();
+        keyCacheMissCount.increment();
+        if (metricListener != null) {
+            metricListener.onKeyCacheMiss();
+        }
+
         Key key = keyStore.getKey(alias, keyStoreSecret.toCharArray());
         if (key == null) {
             return null;
         }
         PrivateKey privateKey = (PrivateKey) key;
 
-        checkKeyExpiration(alias);
+        X509Certificate certificate = (X509Certificate) keyStore.getCertificate(alias);
+        long expirationTime = certificate.getNotAfter().getTime();
+        checkKeyExpiration(alias, expirationTime);
+
+        if (keyCacheGeneration.get() == generation) {
+            cachedPrivateKey = new CachedPrivateKey(privateKey, expirationTime);
+            privateKeys.put(alias, cachedPrivateKey);
+            if (keyCacheGeneration.get() != generation) {
+                // Cache was cleared during put
+                privateKeys.remove(alias, cachedPrivateKey);
+            }
+        }
 
         return privateKey;
     }
 
+    /**
+     * Removes decrypted private keys. It's called automatically when keys are generated/deleted
+     * or when keystore file was changed
+     */
+    public void clearKeyCache() {
+        keyCacheGeneration.incrementAndGet();
+        privateKeys.clear();
+    }
+
+    public void setMetricListener(CryptoMetricListener metricListener) {
+        this.metricListener = metricListener;
+    }
+
+    private void recordSignature() {
+        signatureCount.increment();
+        if (metricListener != null) {
+            metricListener.onSignature();
+        }
+    }
+
+    public long getSignatureCount() {
+        return signatureCount.sum();
+    }
+
+    public long getKeyCacheHitCount() {
+        return keyCacheHitCount.sum();
+    }
+
+    public long getKeyCacheMissCount() {
+        return keyCacheMissCount.sum();
+    }
+
+    private void checkKeyStoreFile() {
+        if (keyStoreFile == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now < nextKeyStoreCheckTime) {
+            return;
+        }
+
+        synchronized (this) {
+            if (now < nextKeyStoreCheckTime) {
+                return;
+            }
+            nextKeyStoreCheckTime = now + KEY_STORE_CHECK_INTERVAL;
+
+            File file = new File(keyStoreFile);
+            if ((file.lastModified() == keyStoreLastModified) && (file.length() == keyStoreLength)) {
+                return;
+            }
+
+            LOG.debug("Keystore file was changed, reloading keys from: " + keyStoreFile);
+            load(keyStoreSecret);
+        }
+    }
+
+    private void updateKeyStoreFileState() {
+        File file = new File(keyStoreFile);
+        keyStoreLastModified = file.lastModified();
+        keyStoreLength = file.length();
+    }
+
+    private CachedSigner getSigner(String algorithm) throws NoSuchAlgorithmException {
+        Map<String, CachedSigner> threadSigners = signers.get();
+        CachedSigner signer = threadSigners.get(algorithm);
+        if (signer == null) {
+            signer = new CachedSigner(Signature.getInstance(algorithm, SecurityProviderUtility.getBCProvider()));
+            threadSigners.put(algorithm, signer);
+        }
+
+        return signer;
+    }
+
+    private Mac getMac(String algorithm) throws NoSuchAlgorithmException {
+        Map<String, Mac> threadMacs = macs.get();
+        Mac mac = threadMacs.get(algorithm);
+        if (mac == null) {
+            mac = Mac.getInstance(algorithm);
+            threadMacs.put(algorithm, mac);
+        }
+
+        return mac;
+    }
+
     public X509Certificate generateV3Certificate(KeyPair keyPair, String issuer, String signatureAlgorithm, Long expirationTime) throws CertIOException, OperatorCreationException, CertificateException {
         PrivateKey privateKey = keyPair.getPrivate();
         PublicKey publicKey = keyPair.getPublic();
@@ -582,4 +733,46 @@ public class OxAuthCryptoProvider extends AbstractCryptoProvider {
         }
         return keyStorageType;
     }
-}
\ No newline at end of file
+
+    private static class CachedPrivateKey {
+
+        private final PrivateKey privateKey;
+        private final long expirationTime;
+
+        CachedPrivateKey(PrivateKey privateKey, long expirationTime) {
+            this.privateKey = privateKey;
+            this.expirationTime = expirationTime;
+        }
+    }
+
+    /**
+     * Signature owned by one thread. After sign it's ready for next signature with same key,
+     * so it's initialized again only when key was changed
+     */
+    private static class CachedSigner {
+
+        private final Signature signature;
+        private PrivateKey privateKey;
+
+        CachedSigner(Signature signature) {
+            this.signature = signature;
+        }
+
+        byte[] sign(PrivateKey key, byte[] signingInput) throws InvalidKeyException, SignatureException {
+            if (privateKey != key) {
+                privateKey = null;
+                signature.initSign(key);
+                privateKey = key;
+            }
+
+            try {
+                signature.update(signingInput);
+                return signature.sign();
+            } catch (SignatureException e) {
+                // Force re-init to reset signature state after failure
+                privateKey = null;
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.gluu.oxauth.model.crypto;
+
+import static org.gluu.oxauth.model.jwk.JWKParameter.KEY_ID;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.gluu.oxauth.model.crypto.signature.SignatureAlgorithm;
+import org.gluu.oxauth.model.jwk.Algorithm;
+import org.gluu.oxauth.model.jwk.Use;
+import org.gluu.util.security.SecurityProviderUtility;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class OxAuthCryptoProviderKeyCacheTest {
+
+    static {
+        SecurityProviderUtility.installBCProvider();
+    }
+
+    private static final String SIGNING_INPUT = "eyJhbGciOiJSUzI1NiJ9.eyJzdWIiOiIxMjM0In0";
+
+    private File keyStoreDir;
+    private OxAuthCryptoProvider cryptoProvider;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        keyStoreDir = Files.createTempDirectory("keystore").toFile();
+        File keyStoreFile = new File(keyStoreDir, "oxauth-keys.pkcs12");
+        cryptoProvider = new OxAuthCryptoProvider(keyStoreFile.getAbsolutePath(), "secret", "CN=oxAuth CA Certificates");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        for (File file : keyStoreDir.listFiles()) {
+            file.delete();
+        }
+        keyStoreDir.delete();
+    }
+
+    @Test
+    public void sign_sameKid_decryptsPrivateKeyOnce() throws Exception {
+        String kid = generateKey(Algorithm.RS256);
+
+        String signature = cryptoProvider.sign(SIGNING_INPUT, kid, null, SignatureAlgorithm.RS256);
+        String secondSignature = cryptoProvider.sign(SIGNING_INPUT, kid, null, SignatureAlgorithm.RS256);
+
+        assertEquals(secondSignature, signature);
+        assertTrue(cryptoProvider.verifySignature(SIGNING_INPUT, signature, kid, null, null, SignatureAlgorithm.RS256));
+        assertEquals(cryptoProvider.getKeyCacheMissCount(), 1);
+        assertEquals(cryptoProvider.getKeyCacheHitCount(), 1);
+        assertEquals(cryptoProvider.getSignatureCount(), 2);
+    }
+
+    @Test
+    public void sign_differentKeys_reusesSignerPerKey() throws Exception {
+        String kid = generateKey(Algorithm.ES256);
+        String otherKid = generateKey(Algorithm.RS256);
+
+        for (int i = 0; i < 3; i++) {
+            String signature = cryptoProvider.sign(SIGNING_INPUT, kid, null, SignatureAlgorithm.ES256);
+            assertTrue(cryptoProvider.verifySignature(SIGNING_INPUT, signature, kid, null, null, SignatureAlgorithm.ES256));
+
+            String otherSignature = cryptoProvider.sign(SIGNING_INPUT, otherKid, null, SignatureAlgorithm.RS256);
+            assertTrue(cryptoProvider.verifySignature(SIGNING_INPUT, otherSignature, otherKid, null, null, SignatureAlgorithm.RS256));
+        }
+    }
+
+    @Test
+    public void deleteKey_removesCachedPrivateKey() throws Exception {
+        String kid = generateKey(Algorithm.RS256);
+        assertNotNull(cryptoProvider.getPrivateKey(kid));
+
+        cryptoProvider.deleteKey(kid);
+
+        assertNull(cryptoProvider.getPrivateKey(kid));
+    }
+
+    @Test
+    public void sign_hmac_reusesMac() throws Exception {
+        String signature = cryptoProvider.sign(SIGNING_INPUT, null, "secret", SignatureAlgorithm.HS256);
+
+        assertEquals(cryptoProvider.sign(SIGNING_INPUT, null, "secret", SignatureAlgorithm.HS256), signature);
+        assertTrue(!signature.equals(cryptoProvider.sign(SIGNING_INPUT, null, "other_secret", SignatureAlgorithm.HS256)));
+    }
+
+    @Test
+    public void sign_publishesEventsToMetricListener() throws Exception {
+        TestMetricListener metricListener = new TestMetricListener();
+        cryptoProvider.setMetricListener(metricListener);
+        String kid = generateKey(Algorithm.RS256);
+
+        cryptoProvider.sign(SIGNING_INPUT, kid, null, SignatureAlgorithm.RS256);
+        cryptoProvider.sign(SIGNING_INPUT, kid, null, SignatureAlgorithm.RS256);
+        cryptoProvider.sign(SIGNING_INPUT, null, "secret", SignatureAlgorithm.HS256);
+
+        assertEquals(metricListener.signatures.get(), 3);
+        assertEquals(metricListener.hits.get(), 1);
+        assertEquals(metricListener.misses.get(), 1);
+    }
+
+    @Test
+    public void getPrivateKey_cacheClearedDuringMiss_keyIsNotCached() throws Exception {
+        String kid = generateKey(Algorithm.RS256);
+        cryptoProvider.setMetricListener(new TestMetricListener() {
+
+            @Override
+            public void onKeyCacheMiss() {
+                super.onKeyCacheMiss();
+                // Keystore is reloaded while key is decrypted
+                if (misses.get() == 1) {
+                    cryptoProvider.clearKeyCache();
+                }
+            }
+        });
+
+        assertNotNull(cryptoProvider.getPrivateKey(kid));
+        assertNotNull(cryptoProvider.getPrivateKey(kid));
+        assertNotNull(cryptoProvider.getPrivateKey(kid));
+
+        assertEquals(cryptoProvider.getKeyCacheMissCount(), 2);
+        assertEquals(cryptoProvider.getKeyCacheHitCount(), 1);
+    }
+
+    private String generateKey(Algorithm algorithm) throws Exception {
+        long expirationTime = System.currentTimeMillis() + 48 * 60 * 60 * 1000L;
+
+        return cryptoProvider.generateKey(algorithm, expirationTime, Use.SIGNATURE).getString(KEY_ID);
+    }
+
+    private static class TestMetricListener implements CryptoMetricListener {
+
+        final AtomicInteger signatures = new AtomicInteger();
+        final AtomicInteger hits = new AtomicInteger();
+        final AtomicInteger misses = new AtomicInteger();
+
+        @Override
+        public void onSignature() {
+            signatures.incrementAndGet();
+        }
+
+        @Override
+        public void onKeyCacheHit() {
+            hits.incrementAndGet();
+        }
+
+        @Override
+        public void onKeyCacheMiss() {
+            misses.incrementAndGet();
+        }
+
+    }
+
+}
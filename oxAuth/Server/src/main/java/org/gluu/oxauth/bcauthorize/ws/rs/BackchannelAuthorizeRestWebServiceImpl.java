@@ -12,7 +12,6 @@ import org.gluu.oxauth.audit.ApplicationAuditLogger;
 import org.gluu.oxauth.authorize.ws.rs.AuthorizeRestWebServiceValidator;
 import org.gluu.oxauth.ciba.CIBAAuthorizeParamsValidatorService;
 import org.gluu.oxauth.ciba.CIBAEndUserNotificationService;
-import org.gluu.oxauth.client.JwkClient;
 import org.gluu.oxauth.model.audit.Action;
 import org.gluu.oxauth.model.audit.OAuth2AuditLog;
 import org.gluu.oxauth.model.authorize.JwtAuthorizationRequest;
@@ -36,6 +35,7 @@ import org.gluu.oxauth.model.session.SessionClient;
 import org.gluu.oxauth.security.Identity;
 import org.gluu.oxauth.service.ciba.CibaRequestService;
 import org.gluu.oxauth.service.common.UserService;
+import org.gluu.oxauth.service.net.JwksCacheService;
 import org.gluu.oxauth.util.ServerUtil;
 import org.gluu.util.StringHelper;
 import org.json.JSONException;
@@ -97,6 +97,9 @@ public class BackchannelAuthorizeRestWebServiceImpl implements BackchannelAuthor
     @Inject
     private CIBAEndUserNotificationService cibaEndUserNotificationService;
 
+    @Inject
+    private JwksCacheService jwksCacheService;
+
     @Inject
     private CibaRequestService cibaRequestService;
 
@@ -236,11 +239,11 @@ public class BackchannelAuthorizeRestWebServiceImpl implements BackchannelAuthor
 
                 boolean validSignature = false;
                 if (algorithm.getFamily() == AlgorithmFamily.RSA) {
-                    RSAPublicKey publicKey = JwkClient.getRSAPublicKey(client.getJwksUri(), keyId);
+                    RSAPublicKey publicKey = jwksCacheService.getRSAPublicKey(client.getJwksUri(), keyId);
                     RSASigner rsaSigner = new RSASigner(algorithm, publicKey);
                     validSignature = rsaSigner.validate(jwt);
                 } else if (algorithm.getFamily() == AlgorithmFamily.EC) {
-                    ECDSAPublicKey publicKey = JwkClient.getECDSAPublicKey(client.getJwksUri(), keyId);
+                    ECDSAPublicKey publicKey = jwksCacheService.getECDSAPublicKey(client.getJwksUri(), keyId);
                     ECDSASigner ecdsaSigner = new ECDSASigner(algorithm, publicKey);
                     validSignature = ecdsaSigner.validate(jwt);
                 }
@@ -9,10 +9,16 @@ package org.gluu.oxauth.jwk.ws.rs;
 import org.gluu.oxauth.model.config.WebKeysConfiguration;
 import org.gluu.oxauth.model.configuration.AppConfiguration;
 import org.gluu.oxauth.model.jwk.JSONWebKey;
+import org.gluu.oxauth.service.LocalResponseCache;
+import org.gluu.oxauth.service.RenderedResponse;
 import org.slf4j.Logger;
 
 import javax.inject.Inject;
 import javax.ws.rs.Path;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 import java.util.List;
@@ -36,15 +42,23 @@ public class JwkRestWebServiceImpl implements JwkRestWebService {
     @Inject
     private WebKeysConfiguration webKeysConfiguration;
 
+    @Inject
+    private LocalResponseCache localResponseCache;
+
     @Override
-    public Response requestJwk(SecurityContext sec) {
+    public Response requestJwk(SecurityContext sec, Request request) {
         log.debug("Attempting to request JWK, Is Secure = {}", sec.isSecure());
-        Response.ResponseBuilder builder = Response.ok();
+        Response.ResponseBuilder builder;
 
         try {
-            WebKeysConfiguration webKeysConfiguration = new WebKeysConfiguration();
-            webKeysConfiguration.setKeys(this.filterKeys(this.webKeysConfiguration.getKeys()));
-            builder.entity(webKeysConfiguration.toString());
+            RenderedResponse jwks = localResponseCache.getJwksResponse(this::renderJwks);
+            EntityTag entityTag = jwks.getEntityTag();
+
+            builder = request.evaluatePreconditions(entityTag);
+            if (builder == null) {
+                builder = Response.ok(jwks.getBody(), MediaType.APPLICATION_JSON_TYPE);
+            }
+            builder.tag(entityTag).cacheControl(createCacheControl());
         } catch (Exception e) {
             log.error(e.getMessage(), e);
             builder = Response.status(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode()); // 500
@@ -53,6 +67,25 @@ public class JwkRestWebServiceImpl implements JwkRestWebService {
         return builder.build();
     }
 
+    private String renderJwks() {
+        WebKeysConfiguration webKeysConfiguration = new WebKeysConfiguration();
+        webKeysConfiguration.setKeys(this.filterKeys(this.webKeysConfiguration.getKeys()));
+
+        return webKeysConfiguration.toString();
+    }
+
+    private CacheControl createCacheControl() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoTransform(false);
+        if (appConfiguration.getJwksMaxAgeInSeconds() > 0) {
+            cacheControl.setMaxAge(appConfiguration.getJwksMaxAgeInSeconds());
+        } else {
+            cacheControl.setNoCache(true);
+        }
+
+        return cacheControl;
+    }
+
     /**
      * Method responsible to filter keys and return a new list of keys with all
      * algorithms that it is inside Json config attribute called "jwksAlgorithmsSupported"
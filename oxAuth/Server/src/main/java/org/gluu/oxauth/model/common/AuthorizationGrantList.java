@@ -17,6 +17,7 @@ import org.gluu.oxauth.model.registration.Client;
 import org.gluu.oxauth.model.util.Util;
 import org.gluu.oxauth.service.ClientService;
 import org.gluu.oxauth.service.GrantService;
+import org.gluu.oxauth.service.GrantViewCache;
 import org.gluu.oxauth.service.MetricService;
 import org.gluu.oxauth.service.common.UserService;
 import org.gluu.oxauth.util.ServerUtil;
@@ -69,6 +70,9 @@ public class AuthorizationGrantList implements IAuthorizationGrantList {
 	@Inject
 	private MetricService metricService;
 
+    @Inject
+    private GrantViewCache grantViewCache;
+
     @Override
     public void removeAuthorizationGrants(List<AuthorizationGrant> authorizationGrants) {
         if (authorizationGrants != null && !authorizationGrants.isEmpty()) {
@@ -247,12 +251,9 @@ public class AuthorizationGrantList implements IAuthorizationGrantList {
         if (tokenLdap != null) {
             final AuthorizationGrantType grantType = AuthorizationGrantType.fromString(tokenLdap.getGrantType());
             if (grantType != null) {
-            	String userId = tokenLdap.getUserId();
-            	User user = null;
-            	if (StringHelper.isNotEmpty(userId)) {
-                    user = userService.getUser(userId);
-            	}
                 final Client client = clientService.getClient(tokenLdap.getClientId());
+                final GrantViewCache.GrantView view = getGrantView(tokenLdap, client);
+                final User user = view.getUser();
                 final Date authenticationTime = tokenLdap.getAuthenticationTime();
                 final String nonce = tokenLdap.getNonce();
 
@@ -299,7 +300,6 @@ public class AuthorizationGrantList implements IAuthorizationGrantList {
                 }
 
                 final String grantId = tokenLdap.getGrantId();
-                final String jwtRequest = tokenLdap.getJwtRequest();
                 final String authMode = tokenLdap.getAuthMode();
                 final String sessionDn = tokenLdap.getSessionDn();
                 final String claims = tokenLdap.getClaims();
@@ -316,12 +316,8 @@ public class AuthorizationGrantList implements IAuthorizationGrantList {
                 result.setCodeChallenge(tokenLdap.getCodeChallenge());
                 result.setCodeChallengeMethod(tokenLdap.getCodeChallengeMethod());
 
-                if (StringUtils.isNotBlank(jwtRequest)) {
-                    try {
-                        result.setJwtAuthorizationRequest(new JwtAuthorizationRequest(appConfiguration, cryptoProvider, jwtRequest, client));
-                    } catch (Exception e) {
-                        log.trace(e.getMessage(), e);
-                    }
+                if (view.getJwtAuthorizationRequest() != null) {
+                    result.setJwtAuthorizationRequest(view.getJwtAuthorizationRequest());
                 }
 
                 result.setAcrValues(authMode);
@@ -366,4 +362,33 @@ public class AuthorizationGrantList implements IAuthorizationGrantList {
         return null;
     }
 
+    /**
+     * Returns user and parsed request object of token. They are loaded only once per token (until cache entry
+     * expiration) because introspection and userinfo requests with the same token are frequent.
+     */
+    private GrantViewCache.GrantView getGrantView(TokenLdap tokenLdap, Client client) {
+        GrantViewCache.GrantView view = grantViewCache.get(tokenLdap);
+        if (view != null) {
+            return view;
+        }
+
+        String userId = tokenLdap.getUserId();
+        User user = null;
+        if (StringHelper.isNotEmpty(userId)) {
+            user = userService.getUser(userId);
+        }
+
+        JwtAuthorizationRequest jwtAuthorizationRequest = null;
+        String jwtRequest = tokenLdap.getJwtRequest();
+        if (StringUtils.isNotBlank(jwtRequest)) {
+            try {
+                jwtAuthorizationRequest = new JwtAuthorizationRequest(appConfiguration, cryptoProvider, jwtRequest, client);
+            } catch (Exception e) {
+                log.trace(e.getMessage(), e);
+            }
+        }
+
+        return grantViewCache.put(tokenLdap, user, jwtAuthorizationRequest);
+    }
+
 }
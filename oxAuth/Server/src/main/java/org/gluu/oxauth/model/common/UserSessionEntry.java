@@ -0,0 +1,76 @@
+package org.gluu.oxauth.model.common;
+
+import java.io.Serializable;
+
+/**
+ * Entry of user sessions index which is stored in cache. Each session of user is stored in own cache key,
+ * so sessions can be added and removed without modification of shared value.
+ */
+public class UserSessionEntry implements Serializable {
+
+    private static final long serialVersionUID = 6107525637421547802L;
+
+    private String userDn;
+
+    private String sessionDn;
+
+    private long expiresAt;
+
+    public UserSessionEntry() {
+    }
+
+    public UserSessionEntry(String userDn, String sessionDn, long expiresAt) {
+        this.userDn = userDn;
+        this.sessionDn = sessionDn;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getUserDn() {
+        return userDn;
+    }
+
+    public void setUserDn(String userDn) {
+        this.userDn = userDn;
+    }
+
+    public String getSessionDn() {
+        return sessionDn;
+    }
+
+    public void setSessionDn(String sessionDn) {
+        this.sessionDn = sessionDn;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isActive(long now) {
+        return expiresAt > now;
+    }
+
+    /**
+     * @return expiration of entry in seconds, it's expiration of session
+     */
+    public int getExpirationInSeconds(long now) {
+        long expirationInSeconds = (expiresAt - now + 999) / 1000;
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, expirationInSeconds));
+    }
+
+    public static String cacheKey(String userDn, int slot) {
+        return userDn + "_sessions_" + slot;
+    }
+
+    @Override
+    public String toString() {
+        return "UserSessionEntry{" +
+                "userDn='" + userDn + '\'' +
+                ", sessionDn='" + sessionDn + '\'' +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
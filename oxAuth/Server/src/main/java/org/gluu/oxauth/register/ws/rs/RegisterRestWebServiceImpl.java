@@ -34,7 +34,6 @@ import org.gluu.oxauth.model.register.RegisterResponseParam;
 import org.gluu.oxauth.model.registration.Client;
 import org.gluu.oxauth.model.registration.RegisterParamsValidator;
 import org.gluu.oxauth.model.token.HandleTokenFactory;
-import org.gluu.oxauth.model.util.JwtUtil;
 import org.gluu.oxauth.model.util.Pair;
 import org.gluu.oxauth.model.util.Util;
 import org.gluu.oxauth.service.AttributeService;
@@ -43,6 +42,7 @@ import org.gluu.oxauth.service.MetricService;
 import org.gluu.oxauth.service.ScopeService;
 import org.gluu.oxauth.service.common.InumService;
 import org.gluu.oxauth.service.external.ExternalDynamicClientRegistrationService;
+import org.gluu.oxauth.service.net.JwksCacheService;
 import org.gluu.oxauth.service.token.TokenService;
 import org.gluu.oxauth.util.ServerUtil;
 import org.gluu.persist.model.base.CustomAttribute;
@@ -121,6 +121,9 @@ public class RegisterRestWebServiceImpl implements RegisterRestWebService {
     @Inject
     private AbstractCryptoProvider cryptoProvider;
 
+    @Inject
+    private JwksCacheService jwksCacheService;
+
     @Inject
     private CIBARegisterParamsValidatorService cibaRegisterParamsValidatorService;
 
@@ -413,7 +416,7 @@ public class RegisterRestWebServiceImpl implements RegisterRestWebService {
 
             JSONObject jwks = Strings.isNullOrEmpty(jwksUriClaim) ?
                     new JSONObject(jwksClaim) :
-                    JwtUtil.getJSONWebKeys(jwksUriClaim);
+                    jwksCacheService.getJwks(jwksUriClaim, softwareStatement.getHeader().getKeyId());
 
             boolean validSignature = cryptoProvider.verifySignature(softwareStatement.getSigningInput(),
                     softwareStatement.getEncodedSignature(),
@@ -149,6 +149,9 @@ public class AppInitializer {
 	@Inject
 	private KeyGeneratorTimer keyGeneratorTimer;
 
+	@Inject
+	private ClientAccessTimeRecorder clientAccessTimeRecorder;
+
     @Inject
     private StatService statService;
 
@@ -230,6 +233,7 @@ public class AppInitializer {
 		keyGeneratorTimer.initTimer();
         statTimer.initTimer();
 		expirationNotificatorTimer.initTimer();
+		clientAccessTimeRecorder.initTimer();
 		initTimer();
 		initCibaRequestsProcessor();
 
@@ -442,6 +446,8 @@ public class AppInitializer {
 
 		recreatePersistanceEntryManagerImpl(persistenceEntryManagerInstance,
 				ApplicationFactory.PERSISTENCE_METRIC_ENTRY_MANAGER_NAME, ReportMetric.Literal.INSTANCE);
+
+		metricService.reregisterPersistenceMetrics();
 	}
 
 	protected void recreatePersistanceEntryManagerImpl(Instance<PersistenceEntryManager> instance,
@@ -682,6 +688,9 @@ public class AppInitializer {
 
 		metricService.close();
 
+		// Write recorded client access time before closing DB connections
+		clientAccessTimeRecorder.flush(true);
+
 		PersistenceEntryManager persistenceEntryManager = persistenceEntryManagerInstance.get();
 		closePersistenceEntryManager(persistenceEntryManager, ApplicationFactory.PERSISTENCE_ENTRY_MANAGER_NAME);
 
@@ -134,6 +134,10 @@ public class AuthenticationService {
 
 		boolean authenticated = false;
 		boolean protectionServiceEnabled = authenticationProtectionService.isEnabled();
+		if (protectionServiceEnabled && isAttemptDelayed(userName)) {
+			setAuthenticatedUserSessionAttribute(userName, false);
+			return false;
+		}
 
 		com.codahale.metrics.Timer.Context timerContext = null;
 		timerContext = metricService
@@ -165,7 +169,6 @@ public class AuthenticationService {
 
 		if (protectionServiceEnabled) {
 			authenticationProtectionService.storeAttempt(userId, authenticated);
-			authenticationProtectionService.doDelayIfNeeded(userId);
 		}
 
 		return authenticated;
@@ -190,6 +193,10 @@ public class AuthenticationService {
 		Pair<Boolean, User> authenticatedPair = null;
 		boolean authenticated = false;
 		boolean protectionServiceEnabled = authenticationProtectionService.isEnabled();
+		if (protectionServiceEnabled && isAttemptDelayed(nameValue)) {
+			setAuthenticatedUserSessionAttribute(null, false);
+			return false;
+		}
 
 		com.codahale.metrics.Timer.Context timerContext = metricService
 				.getTimer(MetricType.OXAUTH_USER_AUTHENTICATION_RATE).time();
@@ -216,13 +223,29 @@ public class AuthenticationService {
 		metricService.incCounter(metricType);
 
 		if (protectionServiceEnabled) {
-			authenticationProtectionService.storeAttempt(userId, authenticated);
-			authenticationProtectionService.doDelayIfNeeded(userId);
+			// User is unknown if attempt failed, so attempts are counted by name value
+			authenticationProtectionService.storeAttempt(nameValue, authenticated);
 		}
 
 		return authenticated;
 	}
 
+	/*
+	 * Attempts of key which reached brute force protection limit are rejected without credentials check
+	 * until delay time passes
+	 */
+	private boolean isAttemptDelayed(String key) {
+		if (!authenticationProtectionService.isAttemptDelayed(key)) {
+			return false;
+		}
+
+		log.debug("Rejecting authentication attempt of '{}' by brute force protection, retry after '{}' seconds",
+				key, authenticationProtectionService.getRetryAfter(key));
+		metricService.incCounter(MetricType.OXAUTH_USER_AUTHENTICATION_FAILURES);
+
+		return true;
+	}
+
 	private void setAuthenticatedUserSessionAttribute(String userName, boolean authenticated) {
 		SessionId sessionId = sessionIdService.getSessionId();
 		if (sessionId != null) {
@@ -321,6 +344,10 @@ public class AuthenticationService {
 
 		boolean authenticated = false;
 		boolean protectionServiceEnabled = authenticationProtectionService.isEnabled();
+		if (protectionServiceEnabled && isAttemptDelayed(keyValue)) {
+			setAuthenticatedUserSessionAttribute(keyValue, false);
+			return false;
+		}
 
 		com.codahale.metrics.Timer.Context timerContext = metricService
 				.getTimer(MetricType.OXAUTH_USER_AUTHENTICATION_RATE).time();
@@ -355,7 +382,6 @@ public class AuthenticationService {
 
 		if (protectionServiceEnabled) {
 			authenticationProtectionService.storeAttempt(keyValue, authenticated);
-			authenticationProtectionService.doDelayIfNeeded(keyValue);
 		}
 
 		return authenticated;
@@ -377,6 +403,11 @@ public class AuthenticationService {
 			String keyValue, String password, String primaryKey, String localPrimaryKey, boolean updateMetrics) {
 		boolean authenticated = false;
 		boolean protectionServiceEnabled = authenticationProtectionService.isEnabled();
+		// Attempt which is part of multi server authentication is checked by caller
+		if (updateMetrics && protectionServiceEnabled && isAttemptDelayed(keyValue)) {
+			setAuthenticatedUserSessionAttribute(keyValue, false);
+			return false;
+		}
 
 		com.codahale.metrics.Timer.Context timerContext = null;
 		
@@ -411,7 +442,6 @@ public class AuthenticationService {
 
 		if (protectionServiceEnabled) {
 			authenticationProtectionService.storeAttempt(userId, authenticated);
-			authenticationProtectionService.doDelayIfNeeded(userId);
 		}
 
 		return authenticated;
@@ -514,7 +544,6 @@ public class AuthenticationService {
 
 		if (protectionServiceEnabled) {
 			authenticationProtectionService.storeAttempt(userName, authenticated);
-			authenticationProtectionService.doDelayIfNeeded(userName);
 		}
 
 		return authenticated;
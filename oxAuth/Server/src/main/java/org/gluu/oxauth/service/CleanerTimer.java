@@ -6,8 +6,9 @@
 
 package org.gluu.oxauth.service;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Stopwatch;
-import com.google.common.collect.Maps;
 import org.gluu.model.ApplicationType;
 import org.gluu.model.metric.ldap.MetricEntry;
 import org.gluu.oxauth.model.config.StaticConfiguration;
@@ -26,6 +27,7 @@ import org.gluu.oxauth.uma.service.UmaPctService;
 import org.gluu.oxauth.uma.service.UmaResourceService;
 import org.gluu.persist.PersistenceEntryManager;
 import org.gluu.search.filter.Filter;
+import org.gluu.service.CacheService;
 import org.gluu.service.cache.CacheProvider;
 import org.gluu.service.cdi.async.Asynchronous;
 import org.gluu.service.cdi.event.CleanerEvent;
@@ -35,18 +37,33 @@ import org.gluu.service.timer.schedule.TimerSchedule;
 import org.oxauth.persistence.model.Scope;
 import org.slf4j.Logger;
 
+import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Event;
 import javax.enterprise.event.Observes;
 import javax.inject.Inject;
 import javax.inject.Named;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.gluu.oxauth.util.ServerUtil.daemonThreadFactory;
+import static org.gluu.oxauth.util.ServerUtil.isTrue;
+
 /**
  * @author Yuriy Zabrovarnyy
  * @author Javier Rojas Blum
@@ -57,6 +74,14 @@ public class CleanerTimer {
 
     public final static int BATCH_SIZE = 1000;
     private final static int DEFAULT_INTERVAL = 30; // 30 seconds
+    private final static int DEFAULT_TIME_BUDGET = 20; // 20 seconds
+
+    private final static int MIN_BATCH_SIZE = 10;
+    private final static int MAX_BATCH_SIZE = 10000;
+    private final static long TARGET_BATCH_TIME = 500; // target duration of one remove request in ms
+    private final static long BACKLOG_COUNT_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+
+    private final static String LEADER_LEASE_KEY_PREFIX = "cleaner_leader_";
 
     @Inject
     private Logger log;
@@ -89,10 +114,20 @@ public class CleanerTimer {
 	@Inject
 	private MetricService metricService;
 
+    @Inject
+    private CacheService cacheService;
+
     private long lastFinishedTime;
 
     private AtomicBoolean isActive;
 
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ConcurrentMap<String, BranchState> branchStates = new ConcurrentHashMap<>();
+
+    private ExecutorService executorService;
+    private int executorPoolSize;
+
     public void initTimer() {
         log.debug("Initializing Cleaner Timer");
         this.isActive = new AtomicBoolean(false);
@@ -104,6 +139,16 @@ public class CleanerTimer {
         this.lastFinishedTime = System.currentTimeMillis();
     }
 
+    @PreDestroy
+    public void destroy() {
+        synchronized (this) {
+            if (executorService != null) {
+                executorService.shutdownNow();
+                executorService = null;
+            }
+        }
+    }
+
     @Asynchronous
     public void process(@Observes @Scheduled CleanerEvent cleanerEvent) {
         if (this.isActive.get()) {
@@ -148,9 +193,11 @@ public class CleanerTimer {
                 chunkSize = BATCH_SIZE;
 
             Date now = new Date();
+            final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(getTimeBudget());
 
             final Set<String> processedBaseDns = new HashSet<>();
-            for (Map.Entry<String, Class<?>> baseDn : createCleanServiceBaseDns().entrySet()) {
+            final List<Callable<Void>> tasks = new ArrayList<>();
+            for (Map.Entry<String, Class<?>> baseDn : createCleanServiceBaseDns()) {
                 try {
                     if (entryManager.hasExpirationSupport(baseDn.getKey())) {
                         continue;
@@ -164,17 +211,19 @@ public class CleanerTimer {
 
                     processedBaseDns.add(processedBaseDn);
 
-                    log.debug("Start clean up for baseDn: " + baseDn.getValue() + ", class: " + baseDn.getValue());
-                    final Stopwatch started = Stopwatch.createStarted();
-
-                    int removed = cleanup(baseDn, now, chunkSize);
-
-                    log.debug("Finished clean up for baseDn: {}, takes: {}ms, removed items: {}", baseDn, started.elapsed(TimeUnit.MILLISECONDS), removed);
+                    final BranchState state = branchStates.computeIfAbsent(processedBaseDn, key -> createBranchState(key, baseDn));
+                    final int branchChunkSize = chunkSize;
+                    tasks.add(() -> {
+                        cleanupBranch(state, now, branchChunkSize, deadline);
+                        return null;
+                    });
                 } catch (Exception e) {
                     log.error("Failed to process clean up for baseDn: " + baseDn + ", class: " + baseDn.getValue(), e);
                 }
             }
 
+            runTasks(tasks);
+
             processCache(now);
 
             this.lastFinishedTime = System.currentTimeMillis();
@@ -183,36 +232,169 @@ public class CleanerTimer {
         }
     }
 
-    private Map<String, Class<?>> createCleanServiceBaseDns() {
+    private BranchState createBranchState(String key, Map.Entry<String, Class<?>> baseDn) {
+        final BranchState state = new BranchState(key, baseDn);
+
+        // Publish clean up progress of base dn as cleaner.<base dn>_<entry class>.<name>
+        metricService.registerGauge(MetricRegistry.name("cleaner", key, "backlog"), (Gauge<Integer>) () -> state.backlog);
+        metricService.registerGauge(MetricRegistry.name("cleaner", key, "rate"), (Gauge<Double>) () -> state.rate);
+        metricService.registerGauge(MetricRegistry.name("cleaner", key, "lag"), (Gauge<Long>) state::getLag);
+
+        return state;
+    }
+
+    private List<Map.Entry<String, Class<?>>> createCleanServiceBaseDns() {
         final String u2fBase = staticConfiguration.getBaseDn().getU2fBase();
 
-        final Map<String, Class<?>> cleanServiceBaseDns = Maps.newHashMap();
-
-        cleanServiceBaseDns.put(staticConfiguration.getBaseDn().getClients(), Client.class);
-        cleanServiceBaseDns.put(umaPctService.branchBaseDn(), UmaPCT.class);
-        cleanServiceBaseDns.put(umaResourceService.getBaseDnForResource(), UmaResource.class);
-        cleanServiceBaseDns.put(String.format("ou=registration_requests,%s", u2fBase), RegisterRequestMessageLdap.class);
-        cleanServiceBaseDns.put(String.format("ou=registered_devices,%s", u2fBase), DeviceRegistration.class);
-        // cleanServiceBaseDns.put(staticConfiguration.getBaseDn().getPeople(), User.class);
-        cleanServiceBaseDns.put(metricService.buildDn(null, null, ApplicationType.OX_AUTH), MetricEntry.class);
-        cleanServiceBaseDns.put(staticConfiguration.getBaseDn().getTokens(), TokenLdap.class);
-        cleanServiceBaseDns.put(staticConfiguration.getBaseDn().getAuthorizations(), ClientAuthorization.class);
-        cleanServiceBaseDns.put(staticConfiguration.getBaseDn().getScopes(), Scope.class);
-        cleanServiceBaseDns.put(staticConfiguration.getBaseDn().getSessions(), SessionId.class);
-        cleanServiceBaseDns.put(staticConfiguration.getBaseDn().getSessions(), AuthorizationChallengeSession.class);
+        // List instead of map because one base dn can contain entries of few types (e.g. sessions)
+        final List<Map.Entry<String, Class<?>>> cleanServiceBaseDns = new ArrayList<>();
+
+        addBaseDn(cleanServiceBaseDns, staticConfiguration.getBaseDn().getClients(), Client.class);
+        addBaseDn(cleanServiceBaseDns, umaPctService.branchBaseDn(), UmaPCT.class);
+        addBaseDn(cleanServiceBaseDns, umaResourceService.getBaseDnForResource(), UmaResource.class);
+        addBaseDn(cleanServiceBaseDns, String.format("ou=registration_requests,%s", u2fBase), RegisterRequestMessageLdap.class);
+        addBaseDn(cleanServiceBaseDns, String.format("ou=registered_devices,%s", u2fBase), DeviceRegistration.class);
+        // addBaseDn(cleanServiceBaseDns, staticConfiguration.getBaseDn().getPeople(), User.class);
+        addBaseDn(cleanServiceBaseDns, metricService.buildDn(null, null, ApplicationType.OX_AUTH), MetricEntry.class);
+        addBaseDn(cleanServiceBaseDns, staticConfiguration.getBaseDn().getTokens(), TokenLdap.class);
+        addBaseDn(cleanServiceBaseDns, staticConfiguration.getBaseDn().getAuthorizations(), ClientAuthorization.class);
+        addBaseDn(cleanServiceBaseDns, staticConfiguration.getBaseDn().getScopes(), Scope.class);
+        addBaseDn(cleanServiceBaseDns, staticConfiguration.getBaseDn().getSessions(), SessionId.class);
+        addBaseDn(cleanServiceBaseDns, staticConfiguration.getBaseDn().getSessions(), AuthorizationChallengeSession.class);
 
         return cleanServiceBaseDns;
     }
 
-    public int cleanup(final Map.Entry<String, Class<?>> baseDn, final Date now, final int batchSize) {
+    private static void addBaseDn(List<Map.Entry<String, Class<?>>> baseDns, String baseDn, Class<?> entryClass) {
+        baseDns.add(new AbstractMap.SimpleImmutableEntry<String, Class<?>>(baseDn, entryClass));
+    }
+
+    private void runTasks(List<Callable<Void>> tasks) throws Exception {
+        final ExecutorService executor = getExecutorService();
+        if (executor == null) {
+            for (Callable<Void> task : tasks) {
+                task.call();
+            }
+            return;
+        }
+
+        try {
+            // Each task stops after time budget, so it's safe to wait for all of them
+            executor.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Clean up was interrupted.");
+        }
+    }
+
+    private synchronized ExecutorService getExecutorService() {
+        int poolSize = appConfiguration.getCleanServicePoolSize();
+        if (poolSize <= 1) {
+            return null;
+        }
+
+        if ((executorService == null) || (executorPoolSize != poolSize)) {
+            if (executorService != null) {
+                executorService.shutdown();
+            }
+            executorService = Executors.newFixedThreadPool(poolSize, daemonThreadFactory());
+            executorPoolSize = poolSize;
+            log.debug("Created clean up pool, size: {}", poolSize);
+        }
+
+        return executorService;
+    }
+
+    private int getTimeBudget() {
+        int timeBudget = appConfiguration.getCleanServiceTimeBudgetInSeconds();
+        return timeBudget > 0 ? timeBudget : DEFAULT_TIME_BUDGET;
+    }
+
+    /**
+     * Removes expired entries of base dn chunk by chunk until base dn is drained or time budget is exceeded.
+     * Chunk size is adjusted after each request to keep duration of request close to target.
+     */
+    private void cleanupBranch(BranchState state, Date now, int chunkSize, long deadline) {
+        final Map.Entry<String, Class<?>> baseDn = state.baseDn;
+        try {
+            state.leader = acquireLeadership(state);
+            if (!state.leader) {
+                log.trace("Skipping clean up for baseDn: {}, it's cleaned up by another node", baseDn);
+                return;
+            }
+
+            log.debug("Start clean up for baseDn: " + baseDn.getKey() + ", class: " + baseDn.getValue());
+            final Stopwatch started = Stopwatch.createStarted();
+
+            int batchSize = state.getBatchSize(chunkSize);
+            int removed = 0;
+            boolean drained = false;
+            while (true) {
+                final Stopwatch batchStarted = Stopwatch.createStarted();
+                int batchRemoved = remove(baseDn, now, batchSize);
+                long batchTime = batchStarted.elapsed(TimeUnit.MILLISECONDS);
+
+                removed += batchRemoved;
+                drained = batchRemoved < batchSize;
+                batchSize = adaptBatchSize(batchSize, batchTime);
+
+                if (drained || System.currentTimeMillis() >= deadline) {
+                    break;
+                }
+            }
+
+            long elapsed = started.elapsed(TimeUnit.MILLISECONDS);
+            int backlog = drained ? 0 : getBacklog(state, now, removed);
+            state.update(batchSize, removed, elapsed, drained, backlog);
+
+            log.debug("Finished clean up for baseDn: {}, takes: {}ms, removed items: {}, drained: {}, backlog: {}", baseDn, elapsed, removed, drained, backlog);
+        } catch (Exception e) {
+            log.error("Failed to process clean up for baseDn: " + baseDn + ", class: " + baseDn.getValue(), e);
+        }
+    }
+
+    static int adaptBatchSize(int batchSize, long batchTime) {
+        if (batchTime < TARGET_BATCH_TIME / 2) {
+            return Math.min(batchSize * 2, MAX_BATCH_SIZE);
+        }
+        if (batchTime > TARGET_BATCH_TIME * 2) {
+            return Math.max(batchSize / 2, MIN_BATCH_SIZE);
+        }
+
+        return batchSize;
+    }
+
+    /**
+     * Lease is stored in cache and renewed by leader on each run. Another node takes over base dn after
+     * lease expiration. Concurrent acquisition is resolved by last writer, clean up is idempotent so
+     * rare double clean up is harmless.
+     */
+    private boolean acquireLeadership(BranchState state) {
+        if (!isTrue(appConfiguration.getCleanServiceLeaderLeaseEnabled())) {
+            return true;
+        }
+
+        final String leaseKey = LEADER_LEASE_KEY_PREFIX + state.key;
         try {
-            Filter filter = Filter.createANDFilter(
-                    Filter.createEqualityFilter("del", true),
-                    Filter.createLessOrEqualFilter("exp", entryManager.encodeTime(baseDn.getKey(), now)));
+            Object leader = cacheService.get(leaseKey);
+            if ((leader != null) && !nodeId.equals(leader)) {
+                return false;
+            }
 
-            int removedCount = entryManager.remove(baseDn.getKey(), baseDn.getValue(), filter, batchSize);
-            log.trace("Removed " + removedCount + " entries from " + baseDn.getKey());
-            return removedCount;
+            int interval = Math.max(appConfiguration.getCleanServiceInterval(), DEFAULT_INTERVAL);
+            cacheService.put(2 * interval + getTimeBudget(), leaseKey, nodeId);
+
+            return nodeId.equals(cacheService.get(leaseKey));
+        } catch (Exception e) {
+            // Clean up is idempotent, so without cache each node cleans up base dn
+            log.warn("Failed to acquire clean up lease for baseDn: " + state.baseDn + ". Cleaning up without lease", e);
+            return true;
+        }
+    }
+
+    public int cleanup(final Map.Entry<String, Class<?>> baseDn, final Date now, final int batchSize) {
+        try {
+            return remove(baseDn, now, batchSize);
         } catch (Exception e) {
             log.error("Failed to perform clean up.", e);
         }
@@ -220,6 +402,62 @@ public class CleanerTimer {
         return 0;
     }
 
+    private int remove(final Map.Entry<String, Class<?>> baseDn, final Date now, final int batchSize) {
+        int removedCount = entryManager.remove(baseDn.getKey(), baseDn.getValue(), createExpiredFilter(baseDn, now), batchSize);
+        log.trace("Removed " + removedCount + " entries from " + baseDn.getKey());
+        return removedCount;
+    }
+
+    private int countExpired(final Map.Entry<String, Class<?>> baseDn, final Date now) {
+        try {
+            return entryManager.countEntries(baseDn.getKey(), baseDn.getValue(), createExpiredFilter(baseDn, now));
+        } catch (Exception e) {
+            log.trace("Failed to count expired entries of baseDn: " + baseDn, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Full count of expired entries is expensive on big base dn, so it's done at most once per interval.
+     * Between counts backlog is estimated from last count and removed entries. Base dn is counted again
+     * when estimate is exhausted but base dn is not drained yet.
+     */
+    private int getBacklog(BranchState state, Date now, int removed) {
+        final long currentTime = System.currentTimeMillis();
+        if ((state.backlog != 0) && (currentTime - state.backlogCountTime < BACKLOG_COUNT_INTERVAL)) {
+            if (state.backlog < 0) {
+                // Last count failed
+                return -1;
+            }
+
+            int estimatedBacklog = state.backlog - removed;
+            if (estimatedBacklog > 0) {
+                return estimatedBacklog;
+            }
+        }
+
+        state.backlogCountTime = currentTime;
+        return countExpired(state.baseDn, now);
+    }
+
+    private Filter createExpiredFilter(final Map.Entry<String, Class<?>> baseDn, final Date now) {
+        return Filter.createANDFilter(
+                Filter.createEqualityFilter("del", true),
+                Filter.createLessOrEqualFilter("exp", entryManager.encodeTime(baseDn.getKey(), now)));
+    }
+
+    /**
+     * @return statistic of last clean up run per base dn. Backlog, rate and lag are also published as gauges
+     * in metric registry
+     */
+    public Map<String, BranchStat> getBranchStats() {
+        final Map<String, BranchStat> stats = new TreeMap<>();
+        for (BranchState state : branchStates.values()) {
+            stats.put(state.key, state.toStat());
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+
     private void processCache(Date now) {
         try {
             cacheProvider.cleanup(now);
@@ -227,4 +465,144 @@ public class CleanerTimer {
             log.error("Failed to clean up cache.", e);
         }
     }
+
+    private static class BranchState {
+
+        private final String key;
+        private final Map.Entry<String, Class<?>> baseDn;
+
+        private volatile int chunkSize;
+        private volatile int batchSize;
+        private volatile boolean leader = true;
+        private volatile int lastRemoved;
+        private volatile long totalRemoved;
+        private volatile double rate;
+        private volatile int backlog;
+        private volatile long backlogCountTime;
+        private volatile long lastDrainedTime = System.currentTimeMillis();
+
+        BranchState(String key, Map.Entry<String, Class<?>> baseDn) {
+            this.key = key;
+            this.baseDn = baseDn;
+        }
+
+        int getBatchSize(int chunkSize) {
+            // Start from configured chunk size after configuration update
+            if ((this.chunkSize != chunkSize) || (batchSize <= 0)) {
+                this.chunkSize = chunkSize;
+                this.batchSize = chunkSize;
+            }
+            return batchSize;
+        }
+
+        void update(int batchSize, int removed, long elapsed, boolean drained, int backlog) {
+            this.batchSize = batchSize;
+            this.lastRemoved = removed;
+            this.totalRemoved += removed;
+            this.rate = elapsed > 0 ? removed * 1000.0 / elapsed : removed;
+            this.backlog = backlog;
+            if (drained) {
+                this.lastDrainedTime = System.currentTimeMillis();
+            }
+        }
+
+        long getLag() {
+            return backlog == 0 ? 0 : System.currentTimeMillis() - lastDrainedTime;
+        }
+
+        BranchStat toStat() {
+            return new BranchStat(baseDn.getKey(), baseDn.getValue() == null ? null : baseDn.getValue().getSimpleName(),
+                    leader, batchSize, lastRemoved, totalRemoved, rate, backlog, getLag());
+        }
+    }
+
+    public static class BranchStat {
+
+        private final String baseDn;
+        private final String entryClass;
+        private final boolean leader;
+        private final int batchSize;
+        private final int lastRemoved;
+        private final long totalRemoved;
+        private final double rate;
+        private final int backlog;
+        private final long lag;
+
+        BranchStat(String baseDn, String entryClass, boolean leader, int batchSize, int lastRemoved, long totalRemoved,
+                   double rate, int backlog, long lag) {
+            this.baseDn = baseDn;
+            this.entryClass = entryClass;
+            this.leader = leader;
+            this.batchSize = batchSize;
+            this.lastRemoved = lastRemoved;
+            this.totalRemoved = totalRemoved;
+            this.rate = rate;
+            this.backlog = backlog;
+            this.lag = lag;
+        }
+
+        public String getBaseDn() {
+            return baseDn;
+        }
+
+        public String getEntryClass() {
+            return entryClass;
+        }
+
+        /**
+         * @return false if base dn is cleaned up by another node
+         */
+        public boolean isLeader() {
+            return leader;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public int getLastRemoved() {
+            return lastRemoved;
+        }
+
+        public long getTotalRemoved() {
+            return totalRemoved;
+        }
+
+        /**
+         * @return removed entries per second during last run
+         */
+        public double getRate() {
+            return rate;
+        }
+
+        /**
+         * @return count of expired entries left after last run, -1 if unknown. It's estimated between
+         * periodic full counts
+         */
+        public int getBacklog() {
+            return backlog;
+        }
+
+        /**
+         * @return time in ms since base dn was drained last time
+         */
+        public long getLag() {
+            return lag;
+        }
+
+        @Override
+        public String toString() {
+            return "BranchStat{" +
+                    "baseDn='" + baseDn + '\'' +
+                    ", entryClass='" + entryClass + '\'' +
+                    ", leader=" + leader +
+                    ", batchSize=" + batchSize +
+                    ", lastRemoved=" + lastRemoved +
+                    ", totalRemoved=" + totalRemoved +
+                    ", rate=" + rate +
+                    ", backlog=" + backlog +
+                    ", lag=" + lag +
+                    '}';
+        }
+    }
 }
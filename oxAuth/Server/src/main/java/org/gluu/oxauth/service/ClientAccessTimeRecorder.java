@@ -0,0 +1,232 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.oxauth.service;
+
+import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.service.cdi.event.ClientAccessTimeEvent;
+import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.persist.exception.EntryPersistenceException;
+import org.gluu.persist.model.base.CustomAttribute;
+import org.gluu.persist.model.base.CustomEntry;
+import org.gluu.service.cdi.async.Asynchronous;
+import org.gluu.service.cdi.event.Scheduled;
+import org.gluu.service.timer.event.TimerEvent;
+import org.gluu.service.timer.schedule.TimerSchedule;
+import org.slf4j.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Collects client access time in memory and writes it to DB periodically. Each flush writes latest
+ * oxLastAccessTime/oxLastLogonTime of client recorded since previous flush. Failed updates are
+ * written again on next flushes up to MAX_WRITE_ATTEMPTS times.
+ */
+@ApplicationScoped
+public class ClientAccessTimeRecorder {
+
+	private static final int TIMER_TICK_INTERVAL_IN_SECONDS = 10;
+
+	private static final int DEFAULT_FLUSH_INTERVAL_IN_SECONDS = 60;
+
+	private static final int MAX_WRITE_ATTEMPTS = 3;
+
+	@Inject
+	private Logger log;
+
+	@Inject
+	private Event<TimerEvent> timerEvent;
+
+	@Inject
+	private PersistenceEntryManager ldapEntryManager;
+
+	@Inject
+	private AppConfiguration appConfiguration;
+
+	private final ConcurrentMap<String, AccessTime> pending = new ConcurrentHashMap<>();
+
+	private final ReentrantLock flushLock = new ReentrantLock();
+	private volatile long lastFinishedTime = System.currentTimeMillis();
+
+	public void initTimer() {
+		log.info("Initializing Client Access Time Timer");
+
+		timerEvent.fire(new TimerEvent(new TimerSchedule(TIMER_TICK_INTERVAL_IN_SECONDS, TIMER_TICK_INTERVAL_IN_SECONDS),
+				new ClientAccessTimeEvent(), Scheduled.Literal.INSTANCE));
+
+		this.lastFinishedTime = System.currentTimeMillis();
+		log.info("Initialized Client Access Time Timer");
+	}
+
+	@Asynchronous
+	public void process(@Observes @Scheduled ClientAccessTimeEvent event) {
+		if (pending.isEmpty() || !isStartFlush()) {
+			return;
+		}
+
+		flush();
+	}
+
+	/**
+	 * Record client access. It's written to DB on next flush
+	 */
+	public void record(String clientDn, boolean isUpdateLogonTime) {
+		if (clientDn == null) {
+			return;
+		}
+
+		Date now = new Date();
+		pending.merge(clientDn, new AccessTime(now, isUpdateLogonTime ? now : null), AccessTime::merge);
+	}
+
+	/**
+	 * Write all recorded access times to DB. Method does nothing if another flush is running
+	 *
+	 * @return count of updated clients
+	 */
+	public int flush() {
+		return flush(false);
+	}
+
+	/**
+	 * Write all recorded access times to DB
+	 *
+	 * @param waitForRunningFlush wait for flush which is running already and write remaining records after it.
+	 *        It should be used at shutdown to not lose records
+	 * @return count of updated clients
+	 */
+	public int flush(boolean waitForRunningFlush) {
+		if (waitForRunningFlush) {
+			flushLock.lock();
+		} else if (!flushLock.tryLock()) {
+			return 0;
+		}
+
+		int count = 0;
+		try {
+			List<String> clientDns = new ArrayList<>(pending.keySet());
+			for (String clientDn : clientDns) {
+				AccessTime accessTime = pending.remove(clientDn);
+				if (accessTime == null) {
+					continue;
+				}
+
+				if (write(clientDn, accessTime)) {
+					count++;
+				} else {
+					requeue(clientDn, accessTime);
+				}
+			}
+
+			if (count > 0) {
+				log.debug("Updated access time of {} clients", count);
+			}
+		} finally {
+			this.lastFinishedTime = System.currentTimeMillis();
+			flushLock.unlock();
+		}
+
+		return count;
+	}
+
+	public int getPendingCount() {
+		return pending.size();
+	}
+
+	private boolean isStartFlush() {
+		long flushInterval = appConfiguration.getClientAccessTimeFlushIntervalInSeconds();
+		if (flushInterval <= 0) {
+			flushInterval = DEFAULT_FLUSH_INTERVAL_IN_SECONDS;
+		}
+
+		return System.currentTimeMillis() - this.lastFinishedTime >= flushInterval * 1000L;
+	}
+
+	private void requeue(String clientDn, AccessTime accessTime) {
+		AccessTime failedAccessTime = accessTime.failed();
+		if (failedAccessTime.failedAttempts >= MAX_WRITE_ATTEMPTS) {
+			log.error("Skipping update of oxLastAccessTime and oxLastLogonTime of client '{}' after {} attempts", clientDn,
+					failedAccessTime.failedAttempts);
+			return;
+		}
+
+		// Client might be accessed again while it was written
+		pending.merge(clientDn, failedAccessTime, AccessTime::merge);
+	}
+
+	private boolean write(String clientDn, AccessTime accessTime) {
+		CustomEntry customEntry = new CustomEntry();
+		customEntry.setDn(clientDn);
+		customEntry.setCustomObjectClasses(ClientService.CLIENT_OBJECT_CLASSES);
+
+		String lastAccessTime = ldapEntryManager.encodeTime(clientDn, accessTime.lastAccessTime);
+		customEntry.getCustomAttributes().add(new CustomAttribute("oxLastAccessTime", lastAccessTime));
+
+		if (accessTime.lastLogonTime != null) {
+			String lastLogonTime = ldapEntryManager.encodeTime(clientDn, accessTime.lastLogonTime);
+			customEntry.getCustomAttributes().add(new CustomAttribute("oxLastLogonTime", lastLogonTime));
+		}
+
+		try {
+			ldapEntryManager.merge(customEntry);
+			return true;
+		} catch (EntryPersistenceException epe) {
+			log.error("Failed to update oxLastAccessTime and oxLastLogonTime of client '{}'", clientDn);
+		} catch (Exception ex) {
+			log.error("Failed to update oxLastAccessTime and oxLastLogonTime of client '{}'", clientDn, ex);
+		}
+
+		return false;
+	}
+
+	private static class AccessTime {
+
+		private final Date lastAccessTime;
+		private final Date lastLogonTime;
+		private final int failedAttempts;
+
+		AccessTime(Date lastAccessTime, Date lastLogonTime) {
+			this(lastAccessTime, lastLogonTime, 0);
+		}
+
+		private AccessTime(Date lastAccessTime, Date lastLogonTime, int failedAttempts) {
+			this.lastAccessTime = lastAccessTime;
+			this.lastLogonTime = lastLogonTime;
+			this.failedAttempts = failedAttempts;
+		}
+
+		AccessTime merge(AccessTime other) {
+			return new AccessTime(latest(lastAccessTime, other.lastAccessTime), latest(lastLogonTime, other.lastLogonTime),
+					Math.max(failedAttempts, other.failedAttempts));
+		}
+
+		AccessTime failed() {
+			return new AccessTime(lastAccessTime, lastLogonTime, failedAttempts + 1);
+		}
+
+		private static Date latest(Date date, Date otherDate) {
+			if (date == null) {
+				return otherDate;
+			}
+			if (otherDate == null) {
+				return date;
+			}
+
+			return date.after(otherDate) ? date : otherDate;
+		}
+
+	}
+
+}
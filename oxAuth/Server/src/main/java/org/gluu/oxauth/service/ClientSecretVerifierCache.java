@@ -0,0 +1,192 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.oxauth.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.gluu.model.metric.MetricType;
+import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.slf4j.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short lived in-memory cache of verified client secrets. It allows to authenticate client without
+ * client secret decryption.
+ *
+ * Cache stores salted hash of plain client secret per client DN. Each verifier contains fingerprint
+ * of encrypted client secret it was created for, so it's not used after client secret update.
+ */
+@ApplicationScoped
+public class ClientSecretVerifierCache {
+
+	private static final String HASH_ALGORITHM = "SHA-256";
+
+	private static final int SALT_LENGTH = 16;
+
+	private static final int MAX_SIZE = 10000;
+
+	@Inject
+	private Logger log;
+
+	@Inject
+	private AppConfiguration appConfiguration;
+
+	@Inject
+	private MetricService metricService;
+
+	private final SecureRandom secureRandom = new SecureRandom();
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+
+	private volatile Cache<String, Verifier> verifiers;
+	private volatile int currentLifetime;
+
+	/**
+	 * Verify client secret with cached verifier.
+	 *
+	 * @return <code>null</code> if there is no valid verifier for specified encrypted client secret, otherwise verification result
+	 */
+	public Boolean verify(String clientDn, String encryptedClientSecret, String clientSecret) {
+		Cache<String, Verifier> cache = getCache();
+		if ((cache == null) || (clientDn == null) || (encryptedClientSecret == null) || (clientSecret == null)) {
+			return null;
+		}
+
+		Verifier verifier = cache.getIfPresent(clientDn);
+		if ((verifier == null) || !MessageDigest.isEqual(verifier.fingerprint, fingerprint(encryptedClientSecret))) {
+			missCount.increment();
+			metricService.incCounter(MetricType.OXAUTH_CLIENT_SECRET_CACHE_MISS);
+			return null;
+		}
+
+		hitCount.increment();
+		metricService.incCounter(MetricType.OXAUTH_CLIENT_SECRET_CACHE_HIT);
+
+		return MessageDigest.isEqual(verifier.hash, hash(verifier.salt, clientSecret));
+	}
+
+	/**
+	 * Store verifier of decrypted client secret
+	 */
+	public void put(String clientDn, String encryptedClientSecret, String clientSecret) {
+		Cache<String, Verifier> cache = getCache();
+		if ((cache == null) || (clientDn == null) || (encryptedClientSecret == null) || (clientSecret == null)) {
+			return;
+		}
+
+		byte[] salt = new byte[SALT_LENGTH];
+		secureRandom.nextBytes(salt);
+
+		cache.put(clientDn, new Verifier(fingerprint(encryptedClientSecret), salt, hash(salt, clientSecret)));
+	}
+
+	public void remove(String clientDn) {
+		Cache<String, Verifier> cache = this.verifiers;
+		if ((cache != null) && (clientDn != null)) {
+			cache.invalidate(clientDn);
+		}
+	}
+
+	public void clear() {
+		Cache<String, Verifier> cache = this.verifiers;
+		if (cache != null) {
+			cache.invalidateAll();
+		}
+	}
+
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	public double getHitRate() {
+		long hits = hitCount.sum();
+		long requests = hits + missCount.sum();
+
+		return requests == 0 ? 1.0 : (double) hits / requests;
+	}
+
+	/**
+	 * Compare secrets in time which doesn't depend on position of first different character
+	 */
+	public static boolean secretEquals(String secret, String otherSecret) {
+		if ((secret == null) || (otherSecret == null)) {
+			return false;
+		}
+
+		return MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8), otherSecret.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private Cache<String, Verifier> getCache() {
+		int lifetime = appConfiguration.getClientSecretCacheLifetimeInSeconds();
+		if (lifetime <= 0) {
+			return null;
+		}
+
+		Cache<String, Verifier> cache = this.verifiers;
+		if ((cache != null) && (currentLifetime == lifetime)) {
+			return cache;
+		}
+
+		synchronized (this) {
+			if ((this.verifiers == null) || (currentLifetime != lifetime)) {
+				this.verifiers = CacheBuilder.newBuilder().maximumSize(MAX_SIZE)
+						.expireAfterWrite(lifetime, TimeUnit.SECONDS).build();
+				this.currentLifetime = lifetime;
+				log.trace("Re-created client secret verifier cache with lifetime: {}", lifetime);
+			}
+
+			return this.verifiers;
+		}
+	}
+
+	private byte[] fingerprint(String encryptedClientSecret) {
+		return newMessageDigest().digest(encryptedClientSecret.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private byte[] hash(byte[] salt, String clientSecret) {
+		MessageDigest messageDigest = newMessageDigest();
+		messageDigest.update(salt);
+
+		return messageDigest.digest(clientSecret.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private MessageDigest newMessageDigest() {
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static class Verifier {
+
+		private final byte[] fingerprint;
+		private final byte[] salt;
+		private final byte[] hash;
+
+		Verifier(byte[] fingerprint, byte[] salt, byte[] hash) {
+			this.fingerprint = fingerprint;
+			this.salt = salt;
+			this.hash = hash;
+		}
+
+	}
+
+}
@@ -15,12 +15,12 @@ import org.gluu.oxauth.model.exception.InvalidClaimException;
 import org.gluu.oxauth.model.registration.Client;
 import org.gluu.oxauth.service.common.EncryptionService;
 import org.gluu.persist.PersistenceEntryManager;
-import org.gluu.persist.exception.EntryPersistenceException;
 import org.gluu.persist.model.base.CustomAttribute;
-import org.gluu.persist.model.base.CustomEntry;
 import org.gluu.service.BaseCacheService;
 import org.gluu.service.CacheService;
 import org.gluu.service.LocalCacheService;
+import org.gluu.service.cache.CacheConfiguration;
+import org.gluu.service.cache.CacheProviderType;
 import org.gluu.util.StringHelper;
 import org.gluu.util.security.StringEncrypter;
 import org.gluu.util.security.StringEncrypter.EncryptionException;
@@ -44,6 +44,8 @@ public class ClientService {
 
 	public static final String[] CLIENT_OBJECT_CLASSES = new String[] { "oxAuthClient" };
 
+	private static final int CLIENT_CACHE_EXPIRATION_IN_SECONDS = 60;
+
 	@Inject
 	private Logger log;
 
@@ -62,12 +64,21 @@ public class ClientService {
 	@Inject
 	private EncryptionService encryptionService;
 
+	@Inject
+	private ClientSecretVerifierCache clientSecretVerifierCache;
+
+	@Inject
+	private ClientAccessTimeRecorder clientAccessTimeRecorder;
+
 	@Inject
 	private AppConfiguration appConfiguration;
 
 	@Inject
 	private StaticConfiguration staticConfiguration;
 
+	@Inject
+	private CacheConfiguration cacheConfiguration;
+
 	public void persist(Client client) {
 		ldapEntryManager.persist(client);
 	}
@@ -96,8 +107,17 @@ public class ClientService {
 				log.debug("Failed to find client = {}", clientId);
 				return authenticated;
 			}
-			String decryptedClientSecret = decryptSecret(client.getClientSecret());
-			authenticated = client != null && decryptedClientSecret != null && decryptedClientSecret.equals(password);
+
+			String encryptedClientSecret = client.getClientSecret();
+			Boolean verified = clientSecretVerifierCache.verify(client.getDn(), encryptedClientSecret, password);
+			if (verified != null) {
+				return verified;
+			}
+
+			String decryptedClientSecret = decryptSecret(encryptedClientSecret);
+			clientSecretVerifierCache.put(client.getDn(), encryptedClientSecret, decryptedClientSecret);
+
+			authenticated = ClientSecretVerifierCache.secretEquals(decryptedClientSecret, password);
 		} catch (StringEncrypter.EncryptionException e) {
 			log.error(e.getMessage(), e);
 		}
@@ -161,15 +181,61 @@ public class ClientService {
 		Preconditions.checkNotNull(dnList);
 
 		final Set<Client> result = Sets.newHashSet();
-		for (String clientDn : dnList) {
+		if (dnList.isEmpty()) {
+			return result;
+		}
+
+		// Take cached clients first and load rest with one request
+		BaseCacheService usedCacheService = getCacheService();
+		boolean useCache = isCacheUsed(usedCacheService);
+		List<String> notCachedDns = new ArrayList<>(dnList);
+		if (useCache) {
 			try {
-				result.add(getClientByDn(clientDn));
-			} catch (RuntimeException e) {
-				if (!silently) {
-					throw e;
+				Map<String, Object> cachedClients = usedCacheService.getAll(dnList);
+				notCachedDns.clear();
+				for (String clientDn : dnList) {
+					Object cachedClient = cachedClients.get(clientDn);
+					if (cachedClient instanceof Client) {
+						result.add((Client) cachedClient);
+					} else {
+						notCachedDns.add(clientDn);
+					}
 				}
+			} catch (Exception e) {
+				log.trace(e.getMessage(), e);
+				notCachedDns = new ArrayList<>(dnList);
 			}
 		}
+
+		if (notCachedDns.isEmpty()) {
+			return result;
+		}
+
+		List<Client> loadedClients;
+		try {
+			loadedClients = ldapEntryManager.findEntriesByKeys(Client.class, notCachedDns, null);
+		} catch (RuntimeException e) {
+			if (!silently) {
+				throw e;
+			}
+			log.trace(e.getMessage(), e);
+			return result;
+		}
+
+		Map<String, Object> clientsToCache = new HashMap<>();
+		for (Client client : loadedClients) {
+			result.add(client);
+			clientsToCache.put(client.getDn(), client);
+		}
+
+		if (useCache) {
+			try {
+				usedCacheService.putAll(CLIENT_CACHE_EXPIRATION_IN_SECONDS, clientsToCache);
+			} catch (Exception e) {
+				log.trace(e.getMessage(), e);
+			}
+		}
+
 		return result;
 	}
 
@@ -183,7 +249,7 @@ public class ClientService {
 	public Client getClientByDn(String dn) {
 		BaseCacheService usedCacheService = getCacheService();
 	    try {
-            return usedCacheService.getWithPut(dn, () -> ldapEntryManager.find(Client.class, dn), 60);
+            return usedCacheService.getWithPut(dn, () -> ldapEntryManager.find(Client.class, dn), CLIENT_CACHE_EXPIRATION_IN_SECONDS);
         } catch (Exception e) {
 	        log.trace(e.getMessage(), e);
 	        return null;
@@ -244,6 +310,11 @@ public class ClientService {
 	}
 
 	private void removeFromCache(Client client) {
+		clientSecretVerifierCache.remove(client.getDn());
+		removeClientFromCache(client);
+	}
+
+	private void removeClientFromCache(Client client) {
 		BaseCacheService usedCacheService = getCacheService();
 		try {
 			usedCacheService.remove(client.getDn());
@@ -257,30 +328,8 @@ public class ClientService {
 			return;
 		}
 
-		String clientDn = client.getDn();
-
-		CustomEntry customEntry = new CustomEntry();
-		customEntry.setDn(clientDn);
-		customEntry.setCustomObjectClasses(CLIENT_OBJECT_CLASSES);
-
-		Date now = new GregorianCalendar(TimeZone.getTimeZone("UTC")).getTime();
-		String nowDateString = ldapEntryManager.encodeTime(customEntry.getDn(), now);
-
-		CustomAttribute customAttributeLastAccessTime = new CustomAttribute("oxLastAccessTime", nowDateString);
-		customEntry.getCustomAttributes().add(customAttributeLastAccessTime);
-
-		if (isUpdateLogonTime) {
-			CustomAttribute customAttributeLastLogonTime = new CustomAttribute("oxLastLogonTime", nowDateString);
-			customEntry.getCustomAttributes().add(customAttributeLastLogonTime);
-		}
-
-		try {
-			ldapEntryManager.merge(customEntry);
-		} catch (EntryPersistenceException epe) {
-			log.error("Failed to update oxLastAccessTime and oxLastLogonTime of client '{}'", clientDn);
-		}
-
-		removeFromCache(client);
+		// Access time is written in batch by timer, cached client is still valid
+		clientAccessTimeRecorder.record(client.getDn(), isUpdateLogonTime);
 	}
 
 	public Object getAttribute(Client client, String clientAttribute) throws InvalidClaimException {
@@ -344,6 +393,13 @@ public class ClientService {
 		return encryptionService.encrypt(clientSecret);
 	}
 
+    /*
+     * Bulk cache requests to persistence cache only duplicate bulk load of clients
+     */
+    private boolean isCacheUsed(BaseCacheService usedCacheService) {
+    	return (usedCacheService == localCacheService) || (cacheConfiguration.getCacheProviderType() != CacheProviderType.NATIVE_PERSISTENCE);
+    }
+
     private BaseCacheService getCacheService() {
     	if (appConfiguration.getUseLocalCache()) {
     		return localCacheService;
@@ -5,9 +5,12 @@ import javax.enterprise.inject.Produces;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.gluu.model.metric.MetricType;
 import org.gluu.oxauth.model.common.WebKeyStorage;
 import org.gluu.oxauth.model.configuration.AppConfiguration;
 import org.gluu.oxauth.model.crypto.AbstractCryptoProvider;
+import org.gluu.oxauth.model.crypto.CryptoMetricListener;
+import org.gluu.oxauth.model.crypto.OxAuthCryptoProvider;
 import org.slf4j.Logger;
 
 /**
@@ -26,6 +29,9 @@ public class CryptoProviderProviderFactory {
     @Inject
     private AppConfiguration appConfiguration;
 
+    @Inject
+    private MetricService metricService;
+
     @Produces
     @ApplicationScoped
     public AbstractCryptoProvider getCryptoProvider() throws Exception {
@@ -42,6 +48,26 @@ public class CryptoProviderProviderFactory {
             throw new RuntimeException("Failed to initialize cryptoProvider, cryptoProviderType is unsupported: " + webKeyStorage);
         }
 
+        if (cryptoProvider instanceof OxAuthCryptoProvider) {
+            ((OxAuthCryptoProvider) cryptoProvider).setMetricListener(new CryptoMetricListener() {
+
+                @Override
+                public void onSignature() {
+                    metricService.incCounter(MetricType.OXAUTH_SIGNATURE_COUNT);
+                }
+
+                @Override
+                public void onKeyCacheHit() {
+                    metricService.incCounter(MetricType.OXAUTH_KEY_CACHE_HIT);
+                }
+
+                @Override
+                public void onKeyCacheMiss() {
+                    metricService.incCounter(MetricType.OXAUTH_KEY_CACHE_MISS);
+                }
+            });
+        }
+
         return cryptoProvider;
     }
 
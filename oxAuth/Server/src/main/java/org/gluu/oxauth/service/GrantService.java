@@ -61,6 +61,9 @@ public class GrantService {
     @Inject
     private CacheConfiguration cacheConfiguration;
 
+    @Inject
+    private GrantViewCache grantViewCache;
+
     public static String generateGrantId() {
         return UUID.randomUUID().toString();
     }
@@ -109,7 +112,20 @@ public class GrantService {
 
     public void persist(TokenLdap token) {
         if (shouldPutInCache(token.getTokenTypeEnum(), token.isImplicitFlow())) {
-            ClientTokens clientTokens = getCacheClientTokens(token.getClientId());
+            ClientTokens clientTokens = new ClientTokens(token.getClientId());
+            SessionTokens sessionTokens = StringUtils.isNotBlank(token.getSessionDn()) ? new SessionTokens(token.getSessionDn()) : null;
+
+            // Load token indexes with one cache request
+            List<String> indexKeys = Lists.newArrayList(clientTokens.cacheKey());
+            if (sessionTokens != null) {
+                indexKeys.add(sessionTokens.cacheKey());
+            }
+            Map<String, Object> indexes = cacheService.getAll(indexKeys);
+
+            Object cachedClientTokens = indexes.get(clientTokens.cacheKey());
+            if (cachedClientTokens instanceof ClientTokens) {
+                clientTokens = (ClientTokens) cachedClientTokens;
+            }
             clientTokens.getTokenHashes().add(token.getTokenCode());
 
             int expiration = appConfiguration.getDynamicRegistrationExpirationTime(); // fallback to client's lifetime
@@ -136,15 +152,22 @@ public class GrantService {
             }
 
             token.setIsFromCache(true);
-            cacheService.put(expiration, token.getTokenCode(), token);
-            cacheService.put(expiration, clientTokens.cacheKey(), clientTokens);
 
-            if (StringUtils.isNotBlank(token.getSessionDn())) {
-                SessionTokens sessionTokens = getCacheSessionTokens(token.getSessionDn());
+            Map<String, Object> objects = new LinkedHashMap<>();
+            objects.put(token.getTokenCode(), token);
+            objects.put(clientTokens.cacheKey(), clientTokens);
+
+            if (sessionTokens != null) {
+                Object cachedSessionTokens = indexes.get(sessionTokens.cacheKey());
+                if (cachedSessionTokens instanceof SessionTokens) {
+                    sessionTokens = (SessionTokens) cachedSessionTokens;
+                }
                 sessionTokens.getTokenHashes().add(token.getTokenCode());
 
-                cacheService.put(expiration, sessionTokens.cacheKey(), sessionTokens);
+                objects.put(sessionTokens.cacheKey(), sessionTokens);
             }
+
+            cacheService.putAll(expiration, objects);
             return;
         }
 
@@ -172,6 +195,7 @@ public class GrantService {
     }
 
     public void remove(TokenLdap p_token) {
+        grantViewCache.remove(p_token.getTokenCode());
         if (p_token.isFromCache()) {
             cacheService.remove(p_token.getTokenCode());
             log.trace("Removed token from cache, code: " + p_token.getTokenCode());
@@ -206,11 +230,37 @@ public class GrantService {
     }
 
     public void removeSilently(List<TokenLdap> p_entries) {
-        if (p_entries != null && !p_entries.isEmpty()) {
-            for (TokenLdap t : p_entries) {
-                removeSilently(t);
+        if (p_entries == null || p_entries.isEmpty()) {
+            return;
+        }
+
+        grantViewCache.removeAll(p_entries);
+
+        // Collect cache keys to remove them with one cache request
+        List<String> cacheKeys = new ArrayList<>();
+        for (TokenLdap t : p_entries) {
+            if (t.isFromCache()) {
+                cacheKeys.add(t.getTokenCode());
+            } else {
+                try {
+                    ldapEntryManager.remove(t);
+                    log.trace("Removed token from LDAP, code: " + t.getTokenCode());
+                } catch (Exception e) {
+                    log.error(e.getMessage(), e);
+                }
+            }
+
+            if (StringUtils.isNotBlank(t.getAuthorizationCode())) {
+                cacheKeys.add(CacheGrant.cacheKey(t.getAuthorizationCode(), t.getGrantId()));
             }
         }
+
+        try {
+            cacheService.removeAll(cacheKeys);
+            log.trace("Removed tokens from cache, keys count: " + cacheKeys.size());
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+        }
     }
 
     public void remove(AuthorizationGrant p_grant) {
@@ -312,9 +362,12 @@ public class GrantService {
 
     public List<TokenLdap> getCacheTokensEntries(Set<String> tokenHashes) {
         List<TokenLdap> tokens = new ArrayList<>();
+        if (tokenHashes == null || tokenHashes.isEmpty()) {
+            return tokens;
+        }
 
-        for (String tokenHash : tokenHashes) {
-            Object o1 = cacheService.get(tokenHash);
+        Map<String, Object> cachedTokens = cacheService.getAll(tokenHashes);
+        for (Object o1 : cachedTokens.values()) {
             if (o1 instanceof TokenLdap) {
                 TokenLdap token = (TokenLdap) o1;
                 token.setIsFromCache(true);
@@ -0,0 +1,201 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.oxauth.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.lang.SerializationUtils;
+import org.apache.commons.lang.StringUtils;
+import org.gluu.model.metric.MetricType;
+import org.gluu.oxauth.model.authorize.JwtAuthorizationRequest;
+import org.gluu.oxauth.model.common.User;
+import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.model.ldap.TokenLdap;
+import org.slf4j.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per node cache of data which is needed to reconstruct authorization grant from token entry: user of token and
+ * parsed request object. It's keyed by token hash and lives until token expiration, revocation or configured
+ * lifetime (whatever comes first).
+ *
+ * User is kept as serialized snapshot and every caller gets own copy of it. Because of this changes made by
+ * one request are not visible to other requests. User changes made after snapshot was taken are visible
+ * after configured lifetime.
+ *
+ * Parsed request object is shared by all callers. It has no setters and grants only read it, so parsing,
+ * decryption and signature check of request object are done once per token.
+ *
+ * Token entry itself is not cached, so token which is removed on another node is not accepted.
+ */
+@ApplicationScoped
+public class GrantViewCache {
+
+	private static final int MAX_SIZE = 10000;
+
+	@Inject
+	private Logger log;
+
+	@Inject
+	private AppConfiguration appConfiguration;
+
+	@Inject
+	private MetricService metricService;
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+
+	private volatile Cache<String, GrantView> views;
+	private volatile int currentLifetime;
+
+	/**
+	 * @return <code>null</code> if there is no valid view for specified token entry
+	 */
+	public GrantView get(TokenLdap tokenLdap) {
+		Cache<String, GrantView> cache = getCache();
+		if ((cache == null) || (tokenLdap == null) || (tokenLdap.getTokenCode() == null)) {
+			return null;
+		}
+
+		GrantView view = cache.getIfPresent(tokenLdap.getTokenCode());
+		if ((view != null) && !view.isValidFor(tokenLdap)) {
+			cache.invalidate(tokenLdap.getTokenCode());
+			view = null;
+		}
+
+		if (view == null) {
+			missCount.increment();
+			metricService.incCounter(MetricType.OXAUTH_GRANT_CACHE_MISS);
+			return null;
+		}
+
+		hitCount.increment();
+		metricService.incCounter(MetricType.OXAUTH_GRANT_CACHE_HIT);
+
+		return view;
+	}
+
+	public GrantView put(TokenLdap tokenLdap, User user, JwtAuthorizationRequest jwtAuthorizationRequest) {
+		GrantView view = new GrantView(tokenLdap, user, jwtAuthorizationRequest);
+
+		Cache<String, GrantView> cache = getCache();
+		if ((cache != null) && (tokenLdap.getTokenCode() != null) && !view.isExpired()) {
+			cache.put(tokenLdap.getTokenCode(), view);
+		}
+
+		return view;
+	}
+
+	public void remove(String tokenHash) {
+		Cache<String, GrantView> cache = this.views;
+		if ((cache != null) && (tokenHash != null)) {
+			cache.invalidate(tokenHash);
+		}
+	}
+
+	public void removeAll(Collection<TokenLdap> tokens) {
+		Cache<String, GrantView> cache = this.views;
+		if ((cache == null) || (tokens == null)) {
+			return;
+		}
+
+		for (TokenLdap token : tokens) {
+			if (token.getTokenCode() != null) {
+				cache.invalidate(token.getTokenCode());
+			}
+		}
+	}
+
+	public void clear() {
+		Cache<String, GrantView> cache = this.views;
+		if (cache != null) {
+			cache.invalidateAll();
+		}
+	}
+
+	public long getHitCount() {
+		return hitCount.sum();
+	}
+
+	public long getMissCount() {
+		return missCount.sum();
+	}
+
+	private Cache<String, GrantView> getCache() {
+		int lifetime = appConfiguration.getGrantCacheLifetimeInSeconds();
+		if (lifetime <= 0) {
+			return null;
+		}
+
+		Cache<String, GrantView> cache = this.views;
+		if ((cache != null) && (currentLifetime == lifetime)) {
+			return cache;
+		}
+
+		synchronized (this) {
+			if ((this.views == null) || (currentLifetime != lifetime)) {
+				this.views = CacheBuilder.newBuilder().maximumSize(MAX_SIZE)
+						.expireAfterWrite(lifetime, TimeUnit.SECONDS).build();
+				this.currentLifetime = lifetime;
+				log.trace("Re-created grant cache with lifetime: {}", lifetime);
+			}
+
+			return this.views;
+		}
+	}
+
+	/**
+	 * Immutable snapshot of data loaded for token entry
+	 */
+	public static final class GrantView {
+
+		private final String userId;
+		private final String jwtRequest;
+		private final Date expirationDate;
+		private final byte[] userData;
+		private final JwtAuthorizationRequest jwtAuthorizationRequest;
+
+		GrantView(TokenLdap tokenLdap, User user, JwtAuthorizationRequest jwtAuthorizationRequest) {
+			this.userId = tokenLdap.getUserId();
+			this.jwtRequest = tokenLdap.getJwtRequest();
+			this.expirationDate = tokenLdap.getExpirationDate() != null ? new Date(tokenLdap.getExpirationDate().getTime()) : null;
+			this.userData = user != null ? SerializationUtils.serialize(user) : null;
+			this.jwtAuthorizationRequest = jwtAuthorizationRequest;
+		}
+
+		/**
+		 * @return new copy of user on each call
+		 */
+		public User getUser() {
+			return userData != null ? (User) SerializationUtils.deserialize(userData) : null;
+		}
+
+		/**
+		 * @return parsed request object of token, the same instance on each call
+		 */
+		public JwtAuthorizationRequest getJwtAuthorizationRequest() {
+			return jwtAuthorizationRequest;
+		}
+
+		boolean isExpired() {
+			return (expirationDate != null) && !expirationDate.after(new Date());
+		}
+
+		boolean isValidFor(TokenLdap tokenLdap) {
+			return !isExpired() && StringUtils.equals(userId, tokenLdap.getUserId())
+					&& StringUtils.equals(jwtRequest, tokenLdap.getJwtRequest());
+		}
+
+	}
+
+}
@@ -5,8 +5,8 @@ import com.google.common.cache.CacheBuilder;
 import org.gluu.oxauth.model.configuration.AppConfiguration;
 import org.gluu.oxauth.service.cdi.event.AuthConfigurationEvent;
 import org.gluu.service.cdi.async.Asynchronous;
+import org.gluu.service.cdi.event.ConfigurationUpdate;
 import org.gluu.service.cdi.event.Scheduled;
-import org.json.JSONObject;
 import org.slf4j.Logger;
 
 import javax.enterprise.context.ApplicationScoped;
@@ -16,6 +16,7 @@ import javax.inject.Named;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 /**
  * @author Yuriy Zabrovarnyy
@@ -36,7 +37,7 @@ public class LocalResponseCache {
 
     private final AtomicBoolean rebuilding = new AtomicBoolean(false);
 
-    private Cache<String, JSONObject> discoveryCache = CacheBuilder.newBuilder()
+    private Cache<String, RenderedResponse> discoveryCache = CacheBuilder.newBuilder()
             .expireAfterWrite(DEFAULT_DISCOVERY_LIFETIME, TimeUnit.MINUTES).build();
     private Cache<String, List<String>> sectorIdentifierCache = CacheBuilder.newBuilder()
             .expireAfterWrite(DEFAULT_SECTOR_IDENTIFIER_LIFETIME, TimeUnit.MINUTES).build();
@@ -45,6 +46,9 @@ public class LocalResponseCache {
     private int currentDiscoveryLifetime = DEFAULT_DISCOVERY_LIFETIME;
     private int currentSectorIdentifierLifetime = DEFAULT_SECTOR_IDENTIFIER_LIFETIME;
 
+    private volatile RenderedResponse jwksResponse;
+    private long jwksVersion;
+
     @Asynchronous
     public void reloadConfigurationTimerEvent(@Observes @Scheduled AuthConfigurationEvent authConfigurationEvent) {
         try {
@@ -84,16 +88,58 @@ public class LocalResponseCache {
         sectorIdentifierCache.put(sectorIdentifierUri, redirectUris);
     }
 
-    public JSONObject getDiscoveryResponse() {
+    /**
+     * Rendered responses depend on configuration and web keys, build them again after reload
+     */
+    public void updateConfiguration(@Observes @ConfigurationUpdate AppConfiguration appConfiguration) {
+        invalidateJwksResponse();
+        invalidateDiscoveryResponse();
+        log.trace("Invalidated rendered JWKS and discovery responses");
+    }
+
+    public RenderedResponse getDiscoveryResponse() {
         if (discoveryCache == null || rebuilding.get())
             return null;
         return discoveryCache.getIfPresent(DISCOVERY_CACHE_KEY);
     }
 
-    public void putDiscoveryResponse(JSONObject response) {
+    public void putDiscoveryResponse(RenderedResponse response) {
         if (discoveryCache == null || rebuilding.get())
             return;
 
         discoveryCache.put(DISCOVERY_CACHE_KEY, response);
     }
+
+    public void invalidateDiscoveryResponse() {
+        if (discoveryCache != null)
+            discoveryCache.invalidateAll();
+    }
+
+    /**
+     * Returns rendered JWKS response. It's rendered once after each keys update
+     */
+    public RenderedResponse getJwksResponse(Supplier<String> renderer) {
+        RenderedResponse response = jwksResponse;
+        if (response != null)
+            return response;
+
+        long version;
+        synchronized (this) {
+            version = jwksVersion;
+        }
+
+        response = RenderedResponse.of(renderer.get());
+        synchronized (this) {
+            // Don't store response rendered from keys which were replaced during rendering
+            if (version == jwksVersion)
+                jwksResponse = response;
+        }
+
+        return response;
+    }
+
+    public synchronized void invalidateJwksResponse() {
+        jwksVersion++;
+        jwksResponse = null;
+    }
 }
@@ -11,6 +11,7 @@ import org.gluu.oxauth.model.configuration.AppConfiguration;
 import org.gluu.oxauth.service.common.ApplicationFactory;
 import org.gluu.oxauth.service.common.ConfigurationService;
 import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.service.CacheService;
 import org.gluu.service.metric.inject.ReportMetric;
 import org.gluu.service.net.NetworkService;
 import org.gluu.oxauth.model.config.StaticConfiguration;
@@ -53,8 +54,22 @@ public class MetricService extends org.gluu.service.metric.MetricService {
     @ReportMetric
     private PersistenceEntryManager ldapEntryManager;
 
+    @Inject
+    private PersistenceEntryManager persistenceEntryManager;
+
+    @Inject
+    private CacheService cacheService;
+
     public void initTimer() {
     	initTimer(this.appConfiguration.getMetricReporterInterval(), this.appConfiguration.getMetricReporterKeepDataDays());
+    	registerPersistenceMetrics(persistenceEntryManager);
+    	registerCacheMetrics(cacheService);
+    }
+
+    public void reregisterPersistenceMetrics() {
+    	// Old operation services are closed. Injected entry manager proxy resolves recreated instance
+    	unregisterPersistenceMetrics();
+    	registerPersistenceMetrics(persistenceEntryManager);
     }
 
 	@Override
@@ -0,0 +1,160 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.oxauth.service;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.lang.StringUtils;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.core.EntityTag;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized response body which is prepared once and served to many clients. Contains UTF-8 body,
+ * gzipped body (for big responses) and strong ETag calculated from body.
+ */
+public final class RenderedResponse {
+
+    private static final int MIN_GZIP_LENGTH = 1024;
+
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+    private final byte[] body;
+    private final byte[] gzippedBody;
+    private final String tag;
+
+    private RenderedResponse(byte[] body, byte[] gzippedBody, String tag) {
+        this.body = body;
+        this.gzippedBody = gzippedBody;
+        this.tag = tag;
+    }
+
+    public static RenderedResponse of(String content) {
+        byte[] body = content.getBytes(StandardCharsets.UTF_8);
+        byte[] gzippedBody = body.length >= MIN_GZIP_LENGTH ? gzip(body) : null;
+
+        return new RenderedResponse(body, gzippedBody, tag(body));
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public byte[] getGzippedBody() {
+        return gzippedBody;
+    }
+
+    public EntityTag getEntityTag() {
+        return new EntityTag(tag);
+    }
+
+    public String getETag() {
+        return "\"" + tag + "\"";
+    }
+
+    /**
+     * Check If-None-Match request header value against ETag of this response
+     */
+    public boolean isNotModified(String ifNoneMatch) {
+        if (StringUtils.isBlank(ifNoneMatch)) {
+            return false;
+        }
+
+        for (String value : StringUtils.split(ifNoneMatch, ',')) {
+            String etag = value.trim();
+            if ("*".equals(etag)) {
+                return true;
+            }
+
+            // If-None-Match uses weak comparison
+            if (etag.startsWith("W/")) {
+                etag = etag.substring(2);
+            }
+            etag = StringUtils.removeEnd(StringUtils.strip(etag, "\""), GZIP_ETAG_SUFFIX);
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Write response with ETag, Cache-Control headers. Sends 304 if client has the same representation already
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response, String contentType, int maxAgeInSeconds) throws IOException {
+        response.setHeader("Cache-Control", maxAgeInSeconds > 0 ? "public, max-age=" + maxAgeInSeconds : "no-cache");
+        response.setHeader("Vary", "Accept-Encoding");
+
+        boolean gzip = (gzippedBody != null) && acceptsGzip(request.getHeader("Accept-Encoding"));
+        response.setHeader("ETag", gzip ? "\"" + tag + GZIP_ETAG_SUFFIX + "\"" : getETag());
+
+        if (isNotModified(request.getHeader("If-None-Match"))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] content = gzip ? gzippedBody : body;
+        response.setContentType(contentType);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        if (gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+        }
+        response.setContentLength(content.length);
+
+        try (OutputStream out = response.getOutputStream()) {
+            out.write(content);
+        }
+    }
+
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (StringUtils.isBlank(acceptEncoding)) {
+            return false;
+        }
+
+        for (String value : StringUtils.split(acceptEncoding, ',')) {
+            String[] parts = StringUtils.split(value, ';');
+            if ((parts.length == 0) || !"gzip".equalsIgnoreCase(parts[0].trim())) {
+                continue;
+            }
+
+            // gzip;q=0 means that client doesn't accept gzip
+            return !((parts.length > 1) && parts[1].trim().matches("q=0(\\.0*)?"));
+        }
+
+        return false;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(bos)) {
+            gzipOutputStream.write(body);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Failed to gzip response", ex);
+        }
+
+        return bos.toByteArray();
+    }
+
+    private static String tag(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return Hex.encodeHexString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
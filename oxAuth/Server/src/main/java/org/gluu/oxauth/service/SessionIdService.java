@@ -134,6 +134,9 @@ public class SessionIdService {
     @Inject
     private StatService statService;
 
+    @Inject
+    private SessionIndexService sessionIndexService;
+
     private String buildDn(String sessionId) {
         return String.format("oxId=%s,%s", sessionId, staticConfiguration.getBaseDn().getSessions());
     }
@@ -604,6 +607,7 @@ public class SessionIdService {
                 log.trace("sessionIdAttributes: " + sessionId.getPermissionGrantedMap());
                 if (appConfiguration.getSessionIdPersistInCache()) {
                     cacheService.put(expiration.getSecond(), sessionId.getDn(), sessionId);
+                    sessionIndexService.put(sessionId, expiration.getSecond());
                 } else {
                     persistenceEntryManager.persist(sessionId);
                 }
@@ -723,6 +727,7 @@ public class SessionIdService {
             try {
                 if (appConfiguration.getSessionIdPersistInCache()) {
                     cacheService.put(expiration.getSecond(), sessionId.getDn(), sessionId);
+                    sessionIndexService.put(sessionId, expiration.getSecond());
                 } else {
                     persistenceEntryManager.merge(sessionId);
                 }
@@ -777,6 +782,14 @@ public class SessionIdService {
             return null;
         }
 
+        if (appConfiguration.getSessionIdPersistInCache()) {
+            final SessionId sessionId = getSessionByDn(sessionIndexService.getSessionDnBySid(sid), true);
+            if (sessionId == null || !sid.equals(sessionId.getOutsideSid())) {
+                return null;
+            }
+            return sessionId;
+        }
+
         final List<SessionId> entries = persistenceEntryManager.findEntries(staticConfiguration.getBaseDn().getSessions(), SessionId.class, Filter.createEqualityFilter("sid", sid));
         if (entries == null || entries.size() != 1) {
             return null;
@@ -864,6 +877,7 @@ public class SessionIdService {
         try {
             if (appConfiguration.getSessionIdPersistInCache()) {
                 cacheService.remove(sessionId.getDn());
+                sessionIndexService.remove(sessionId);
             } else {
                 persistenceEntryManager.remove(sessionId.getDn(), SessionId.class);
             }
@@ -984,12 +998,28 @@ public class SessionIdService {
 
     public List<SessionId> findByUser(String userDn) {
         if (appConfiguration.getSessionIdPersistInCache()) {
-            throw new UnsupportedOperationException("Operation is not supported with sessionIdPersistInCache=true. Set it to false to avoid this exception.");
+            return findByUserInCache(userDn);
         }
         Filter filter = Filter.createEqualityFilter("oxAuthUserDN", userDn);
         return persistenceEntryManager.findEntries(staticConfiguration.getBaseDn().getSessions(), SessionId.class, filter);
     }
 
+    private List<SessionId> findByUserInCache(String userDn) {
+        final List<String> sessionDns = sessionIndexService.getSessionDnsByUser(userDn);
+        if (sessionDns.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Load all sessions with one cache request
+        final List<SessionId> sessions = new ArrayList<>();
+        for (Object cachedSession : cacheService.getAll(sessionDns).values()) {
+            if (cachedSession instanceof SessionId && userDn.equals(((SessionId) cachedSession).getUserDn())) {
+                sessions.add((SessionId) cachedSession);
+            }
+        }
+        return sessions;
+    }
+
     public void externalEvent(SessionEvent event) {
         externalApplicationSessionService.externalEvent(event);
     }
@@ -0,0 +1,191 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.oxauth.service;
+
+import org.apache.commons.lang.StringUtils;
+import org.gluu.oxauth.model.common.UserSessionEntry;
+import org.gluu.oxauth.model.session.SessionId;
+import org.gluu.service.CacheService;
+import org.slf4j.Logger;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Secondary indexes of sessions which are stored in cache (sessionIdPersistInCache=true): sid -> session DN
+ * and user DN -> session DNs. Cache can't be searched by attribute, so these indexes are used instead of
+ * persistence searches.
+ *
+ * Each session of user is stored in own cache key from fixed set of user keys (user DN with slot number),
+ * so all of them are loaded with one cache request. Session takes slot by hash of session DN or next free one.
+ * Updates don't modify value shared by sessions, so concurrent updates of user sessions on different nodes don't
+ * overwrite each other. Only two new sessions of the same user which take the same free slot at the same time can
+ * replace each other in index. Index entries are not trusted on lookup, so caller should check that found session
+ * still belongs to requested sid/user.
+ */
+@ApplicationScoped
+public class SessionIndexService {
+
+	// Count of cache keys per user, it's max count of indexed sessions of user
+	static final int MAX_USER_SESSIONS = 64;
+
+	@Inject
+	private Logger log;
+
+	@Inject
+	private CacheService cacheService;
+
+	/**
+	 * Add session into indexes. It's cheap to call it on each session update, cache is updated only
+	 * if index doesn't contain session already.
+	 */
+	public void put(SessionId session, int expirationInSeconds) {
+		if ((session == null) || StringUtils.isBlank(session.getDn())) {
+			return;
+		}
+
+		final String sessionDn = session.getDn();
+		final String sid = session.getOutsideSid();
+		final String sidKey = StringUtils.isBlank(sid) ? null : sidCacheKey(sid);
+		final String userDn = session.getUserDn();
+		final List<String> userKeys = StringUtils.isBlank(userDn) ? Collections.<String>emptyList() : userCacheKeys(userDn);
+
+		final List<String> keys = new ArrayList<>(userKeys.size() + 1);
+		if (sidKey != null) {
+			keys.add(sidKey);
+		}
+		keys.addAll(userKeys);
+		if (keys.isEmpty()) {
+			return;
+		}
+
+		try {
+			// Load all indexes with one cache request
+			Map<String, Object> indexes = cacheService.getAll(keys);
+			if ((sidKey != null) && !sessionDn.equals(indexes.get(sidKey))) {
+				cacheService.put(expirationInSeconds, sidKey, sessionDn);
+			}
+
+			if (userKeys.isEmpty()) {
+				return;
+			}
+
+			final long now = System.currentTimeMillis();
+			final long expiresAt = session.getExpirationDate() != null ? session.getExpirationDate().getTime() : now + expirationInSeconds * 1000L;
+
+			String userKey = findUserKey(sessionDn, userKeys, indexes, now);
+			UserSessionEntry currentEntry = toEntry(indexes.get(userKey));
+			if ((currentEntry != null) && sessionDn.equals(currentEntry.getSessionDn()) && (currentEntry.getExpiresAt() == expiresAt)) {
+				return;
+			}
+
+			UserSessionEntry entry = new UserSessionEntry(userDn, sessionDn, expiresAt);
+			cacheService.put(entry.getExpirationInSeconds(now), userKey, entry);
+		} catch (Exception e) {
+			log.error("Failed to update indexes of session: " + sessionDn, e);
+		}
+	}
+
+	public void remove(SessionId session) {
+		if ((session == null) || StringUtils.isBlank(session.getDn())) {
+			return;
+		}
+
+		final String sessionDn = session.getDn();
+		try {
+			if (StringUtils.isNotBlank(session.getOutsideSid())) {
+				cacheService.remove(sidCacheKey(session.getOutsideSid()));
+			}
+
+			final String userDn = session.getUserDn();
+			if (StringUtils.isBlank(userDn)) {
+				return;
+			}
+
+			for (Map.Entry<String, Object> index : cacheService.getAll(userCacheKeys(userDn)).entrySet()) {
+				UserSessionEntry entry = toEntry(index.getValue());
+				if ((entry != null) && sessionDn.equals(entry.getSessionDn())) {
+					cacheService.remove(index.getKey());
+				}
+			}
+		} catch (Exception e) {
+			log.error("Failed to update indexes of session: " + sessionDn, e);
+		}
+	}
+
+	public String getSessionDnBySid(String sid) {
+		if (StringUtils.isBlank(sid)) {
+			return null;
+		}
+
+		Object sessionDn = cacheService.get(sidCacheKey(sid));
+		return sessionDn instanceof String ? (String) sessionDn : null;
+	}
+
+	public List<String> getSessionDnsByUser(String userDn) {
+		if (StringUtils.isBlank(userDn)) {
+			return Collections.emptyList();
+		}
+
+		final long now = System.currentTimeMillis();
+		final List<String> result = new ArrayList<>();
+		for (Object index : cacheService.getAll(userCacheKeys(userDn)).values()) {
+			UserSessionEntry entry = toEntry(index);
+			if ((entry != null) && userDn.equals(entry.getUserDn()) && entry.isActive(now) && !result.contains(entry.getSessionDn())) {
+				result.add(entry.getSessionDn());
+			}
+		}
+
+		return result;
+	}
+
+	/*
+	 * Key which contains session already, otherwise first free key starting from key selected by session DN hash.
+	 * If all keys contain active sessions, session replaces one of them
+	 */
+	private static String findUserKey(String sessionDn, List<String> userKeys, Map<String, Object> indexes, long now) {
+		for (String userKey : userKeys) {
+			UserSessionEntry entry = toEntry(indexes.get(userKey));
+			if ((entry != null) && sessionDn.equals(entry.getSessionDn())) {
+				return userKey;
+			}
+		}
+
+		final int slot = Math.floorMod(sessionDn.hashCode(), userKeys.size());
+		for (int i = 0; i < userKeys.size(); i++) {
+			String userKey = userKeys.get((slot + i) % userKeys.size());
+			UserSessionEntry entry = toEntry(indexes.get(userKey));
+			if ((entry == null) || !entry.isActive(now)) {
+				return userKey;
+			}
+		}
+
+		return userKeys.get(slot);
+	}
+
+	private static List<String> userCacheKeys(String userDn) {
+		List<String> keys = new ArrayList<>(MAX_USER_SESSIONS);
+		for (int i = 0; i < MAX_USER_SESSIONS; i++) {
+			keys.add(UserSessionEntry.cacheKey(userDn, i));
+		}
+
+		return keys;
+	}
+
+	private static UserSessionEntry toEntry(Object cachedEntry) {
+		return cachedEntry instanceof UserSessionEntry ? (UserSessionEntry) cachedEntry : null;
+	}
+
+	private static String sidCacheKey(String sid) {
+		return sid + "_sid";
+	}
+
+}
@@ -0,0 +1,7 @@
+package org.gluu.oxauth.service.cdi.event;
+
+/**
+ * Event which triggers flush of recorded client access time
+ */
+public class ClientAccessTimeEvent {
+}
@@ -0,0 +1,343 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.oxauth.service.net;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.model.crypto.PublicKey;
+import org.gluu.oxauth.model.crypto.signature.ECDSAPublicKey;
+import org.gluu.oxauth.model.crypto.signature.RSAPublicKey;
+import org.gluu.oxauth.model.crypto.signature.SignatureAlgorithm;
+import org.gluu.oxauth.model.jwk.JSONWebKey;
+import org.gluu.oxauth.model.jwk.JSONWebKeySet;
+import org.gluu.oxauth.model.util.JwtUtil;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Shared cache of remote JWKS documents (client jwks_uri). Entry lifetime is taken from Cache-Control
+ * response header or from jwksCacheLifetimeInSeconds configuration property.
+ *
+ * Request with unknown kid reloads JWKS not often than once per jwksCacheRefreshIntervalInSeconds. If JWKS
+ * endpoint is unavailable service returns previously loaded JWKS for up to 24 hours after it expiration.
+ *
+ * jwks_uri comes from client requests, because of this cache size is limited and entries which are not used
+ * for 24 hours are evicted.
+ */
+@ApplicationScoped
+public class JwksCacheService {
+
+	private static final long MAX_AGE_IN_SECONDS = TimeUnit.DAYS.toSeconds(1);
+
+	private static final long MAX_STALE_IN_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+	private static final int CONNECT_TIMEOUT_IN_MILLIS = 5000;
+
+	private static final int SOCKET_TIMEOUT_IN_MILLIS = 10000;
+
+	private static final int MAX_ENTRIES = 10000;
+
+	@Inject
+	private Logger log;
+
+	@Inject
+	private AppConfiguration appConfiguration;
+
+	private PoolingHttpClientConnectionManager connectionManager;
+	private CloseableHttpClient httpClient;
+
+	private final Cache<String, JwksEntry> entries = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES)
+			.expireAfterAccess(MAX_STALE_IN_MILLIS, TimeUnit.MILLISECONDS).build();
+
+	private final LongAdder fetchCount = new LongAdder();
+
+	@PostConstruct
+	public void init() {
+		this.connectionManager = new PoolingHttpClientConnectionManager();
+		this.connectionManager.setMaxTotal(200);
+		this.connectionManager.setDefaultMaxPerRoute(20);
+
+		RequestConfig requestConfig = RequestConfig.custom().setConnectTimeout(CONNECT_TIMEOUT_IN_MILLIS)
+				.setConnectionRequestTimeout(CONNECT_TIMEOUT_IN_MILLIS).setSocketTimeout(SOCKET_TIMEOUT_IN_MILLIS).build();
+
+		this.httpClient = HttpClients.custom().setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(requestConfig).useSystemProperties().build();
+	}
+
+	@PreDestroy
+	public void destroy() {
+		try {
+			if (httpClient != null) {
+				httpClient.close();
+			}
+		} catch (IOException ex) {
+			log.error("Failed to close JWKS http client", ex);
+		}
+
+		if (connectionManager != null) {
+			connectionManager.shutdown();
+		}
+
+		entries.invalidateAll();
+	}
+
+	public JSONObject getJwks(String jwksUri) {
+		return getJwks(jwksUri, null);
+	}
+
+	/**
+	 * Get JWKS which should contain key with specified kid. If cached JWKS has no such key it will be reloaded.
+	 */
+	public JSONObject getJwks(String jwksUri, String keyId) {
+		CachedJwks cachedJwks = getEntry(jwksUri, keyId);
+
+		return cachedJwks == null ? null : cachedJwks.jwks;
+	}
+
+	public RSAPublicKey getRSAPublicKey(String jwksUri, String keyId) {
+		PublicKey publicKey = getPublicKey(jwksUri, keyId);
+
+		return publicKey instanceof RSAPublicKey ? (RSAPublicKey) publicKey : null;
+	}
+
+	public ECDSAPublicKey getECDSAPublicKey(String jwksUri, String keyId) {
+		PublicKey publicKey = getPublicKey(jwksUri, keyId);
+
+		return publicKey instanceof ECDSAPublicKey ? (ECDSAPublicKey) publicKey : null;
+	}
+
+	public void invalidate(String jwksUri) {
+		if (jwksUri != null) {
+			entries.invalidate(jwksUri);
+		}
+	}
+
+	public void clear() {
+		entries.invalidateAll();
+	}
+
+	public long getFetchCount() {
+		return fetchCount.sum();
+	}
+
+	private PublicKey getPublicKey(String jwksUri, String keyId) {
+		if (keyId == null) {
+			return null;
+		}
+
+		CachedJwks cachedJwks = getEntry(jwksUri, keyId);
+		if (cachedJwks == null) {
+			return null;
+		}
+
+		PublicKey publicKey = cachedJwks.publicKeys.get(keyId);
+		if (publicKey != null) {
+			return publicKey;
+		}
+
+		publicKey = toPublicKey(cachedJwks.keySet.getKey(keyId));
+		if (publicKey != null) {
+			cachedJwks.publicKeys.putIfAbsent(keyId, publicKey);
+		}
+
+		return publicKey;
+	}
+
+	private CachedJwks getEntry(String jwksUri, String keyId) {
+		if (StringUtils.isBlank(jwksUri)) {
+			return null;
+		}
+
+		// Entry is created atomically. It's also lock for JWKS loading
+		JwksEntry entry = entries.asMap().computeIfAbsent(jwksUri, key -> new JwksEntry());
+		CachedJwks cachedJwks = entry.cachedJwks;
+		if ((cachedJwks != null) && !isRefreshNeeded(cachedJwks, keyId, System.currentTimeMillis())) {
+			return cachedJwks;
+		}
+
+		synchronized (entry) {
+			// Another thread might load JWKS already
+			long now = System.currentTimeMillis();
+			cachedJwks = entry.cachedJwks;
+			if ((cachedJwks != null) && !isRefreshNeeded(cachedJwks, keyId, now)) {
+				return cachedJwks;
+			}
+
+			CachedJwks loadedJwks = load(jwksUri, now);
+			if (loadedJwks != null) {
+				entry.cachedJwks = loadedJwks;
+				return loadedJwks;
+			}
+
+			if (cachedJwks == null) {
+				entries.asMap().remove(jwksUri, entry);
+				return null;
+			}
+
+			if (now - cachedJwks.expiresAt > MAX_STALE_IN_MILLIS) {
+				log.error("Failed to reload JWKS '{}', removing expired JWKS from cache", jwksUri);
+				entries.asMap().remove(jwksUri, entry);
+				return null;
+			}
+
+			cachedJwks.lastRefreshAttempt = now;
+			cachedJwks.refreshFailed = true;
+			log.warn("Failed to reload JWKS '{}', using previously loaded JWKS", jwksUri);
+
+			return cachedJwks;
+		}
+	}
+
+	private boolean isRefreshNeeded(CachedJwks cachedJwks, String keyId, long now) {
+		boolean expired = now >= cachedJwks.expiresAt;
+		boolean unknownKeyId = (keyId != null) && !cachedJwks.keyIds.contains(keyId);
+		if (!expired && !unknownKeyId) {
+			return false;
+		}
+
+		// Expired JWKS loaded successfully last time should be reloaded immediately
+		if (expired && !cachedJwks.refreshFailed) {
+			return true;
+		}
+
+		// Don't allow to force reload with random kid or to flood unavailable JWKS endpoint
+		long refreshInterval = TimeUnit.SECONDS.toMillis(Math.max(0, appConfiguration.getJwksCacheRefreshIntervalInSeconds()));
+
+		return now - cachedJwks.lastRefreshAttempt >= refreshInterval;
+	}
+
+	private CachedJwks load(String jwksUri, long now) {
+		log.debug("Retrieving jwks {} ...", jwksUri);
+		fetchCount.increment();
+
+		HttpGet request = new HttpGet(jwksUri);
+		request.setHeader(HttpHeaders.ACCEPT, "application/json");
+		try (CloseableHttpResponse response = httpClient.execute(request)) {
+			int status = response.getStatusLine().getStatusCode();
+			String body = response.getEntity() == null ? null : EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8);
+			if (status != HttpStatus.SC_OK) {
+				log.error("Failed to load JWKS '{}', status: {}", jwksUri, status);
+				return null;
+			}
+
+			JSONObject jwks = JwtUtil.fromJson(body);
+			long lifetime = getLifetimeInSeconds(response.getHeaders(HttpHeaders.CACHE_CONTROL));
+			log.debug("Loaded JWKS '{}', cache lifetime: {}", jwksUri, lifetime);
+
+			return new CachedJwks(jwks, now, now + TimeUnit.SECONDS.toMillis(lifetime));
+		} catch (Exception ex) {
+			log.error("Failed to load JWKS '{}'", jwksUri, ex);
+		}
+
+		return null;
+	}
+
+	private long getLifetimeInSeconds(Header[] cacheControlHeaders) {
+		if (cacheControlHeaders != null) {
+			for (Header header : cacheControlHeaders) {
+				for (String directive : StringUtils.split(header.getValue(), ',')) {
+					directive = directive.trim().toLowerCase(Locale.ROOT);
+					if ("no-store".equals(directive) || "no-cache".equals(directive)) {
+						return 0;
+					}
+
+					if (directive.startsWith("max-age=")) {
+						try {
+							long maxAge = Long.parseLong(StringUtils.strip(directive.substring(8), "\""));
+							return Math.max(0, Math.min(maxAge, MAX_AGE_IN_SECONDS));
+						} catch (NumberFormatException ex) {
+							log.debug("Failed to parse Cache-Control directive: {}", directive);
+						}
+					}
+				}
+			}
+		}
+
+		return Math.max(0, appConfiguration.getJwksCacheLifetimeInSeconds());
+	}
+
+	private PublicKey toPublicKey(JSONWebKey jsonWebKey) {
+		if ((jsonWebKey == null) || (jsonWebKey.getKty() == null)) {
+			return null;
+		}
+
+		switch (jsonWebKey.getKty()) {
+			case RSA:
+				return new RSAPublicKey(jsonWebKey.getN(), jsonWebKey.getE());
+			case EC:
+				if (jsonWebKey.getAlg() == null) {
+					return null;
+				}
+				return new ECDSAPublicKey(SignatureAlgorithm.fromString(jsonWebKey.getAlg().getParamName()),
+						jsonWebKey.getX(), jsonWebKey.getY());
+			default:
+				return null;
+		}
+	}
+
+	private static class JwksEntry {
+
+		private volatile CachedJwks cachedJwks;
+
+	}
+
+	private static class CachedJwks {
+
+		private final JSONObject jwks;
+		private final JSONWebKeySet keySet;
+		private final Set<String> keyIds;
+		private final long expiresAt;
+		private final Map<String, PublicKey> publicKeys = new ConcurrentHashMap<>();
+
+		private volatile long lastRefreshAttempt;
+		private volatile boolean refreshFailed;
+
+		CachedJwks(JSONObject jwks, long fetchedAt, long expiresAt) {
+			this.jwks = jwks;
+			this.keySet = JSONWebKeySet.fromJSONObject(jwks);
+			this.expiresAt = expiresAt;
+			this.lastRefreshAttempt = fetchedAt;
+
+			this.keyIds = new HashSet<>();
+			for (JSONWebKey key : keySet.getKeys()) {
+				if (StringUtils.isNotBlank(key.getKid())) {
+					keyIds.add(key.getKid());
+				}
+			}
+		}
+
+	}
+
+}
@@ -17,28 +17,41 @@ import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import java.text.SimpleDateFormat;
 import java.util.Base64;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * Collects token counts and active users per month. Request threads update only in-memory striped counters
+ * and HLL sketches, they are combined with values loaded from persistence in {@link #updateStat()}.
+ *
  * @author Yuriy Zabrovarnyy
  */
 @ApplicationScoped
 public class StatService {
 
     // January - 202001, December - 202012
-    private static final SimpleDateFormat PERIOD_DATE_FORMAT = new SimpleDateFormat("yyyyMM");
+    private static final String PERIOD_DATE_PATTERN = "yyyyMM";
     private static final int regwidth = 5;
     private static final int log2m = 15;
 
+    private static final int HLL_STRIPES = stripesCount();
+
     public static final String ACCESS_TOKEN_KEY = "access_token";
     public static final String ID_TOKEN_KEY = "id_token";
     public static final String REFRESH_TOKEN_KEY = "refresh_token";
     public static final String UMA_TOKEN_KEY = "uma_token";
 
+    // Id of entry with merged stat of all nodes for closed month
+    public static final String SUMMARY_ID = "summary";
+
     @Inject
     private Logger log;
 
@@ -49,12 +62,11 @@ public class StatService {
     private StaticConfiguration staticConfiguration;
 
     private String nodeId;
-    private String monthlyDn;
-    private StatEntry currentEntry;
-    private HLL hll;
-    private ConcurrentMap<String, Map<String, Long>> tokenCounters;
 
-    private boolean initialized = false;
+    private volatile MonthlyStat currentStat;
+    private final Queue<MonthlyStat> finishedStats = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean initialized = false;
 
     @PostConstruct
     public void create() {
@@ -74,11 +86,11 @@ public class StatService {
                 return false;
             }
 
-            final Date now = new Date();
-            prepareMonthlyBranch(now);
-            log.trace("Monthly branch created: " + monthlyDn);
+            final MonthlyStat stat = new MonthlyStat(new Date(), newHll(), HLL_STRIPES);
+            setupEntry(stat);
+            log.trace("Monthly branch created: " + getMonthlyDn(stat.month));
 
-            setupCurrentEntry(now);
+            currentStat = stat;
             log.info("Initialized Stat Service");
             initialized = true;
             return true;
@@ -95,41 +107,49 @@ public class StatService {
 
         log.trace("Started updateStat ...");
 
-        Date now = new Date();
-        prepareMonthlyBranch(now);
-
-        setupCurrentEntry(now);
+        final MonthlyStat stat = getCurrentStat();
 
-        final Stat stat = currentEntry.getStat();
-        stat.setTokenCountPerGrantType(tokenCounters);
-        stat.setLastUpdatedAt(now.getTime());
-
-        synchronized (hll) {
-            currentEntry.setUserHllData(Base64.getEncoder().encodeToString(hll.toBytes()));
+        // Store final values of previous months first
+        MonthlyStat finishedStat;
+        while ((finishedStat = finishedStats.peek()) != null) {
+            updateStat(finishedStat);
+            finishedStats.remove(finishedStat);
         }
-        entryManager.merge(currentEntry);
+
+        updateStat(stat);
 
         log.trace("Finished updateStat.");
     }
 
-    private void setupCurrentEntry() {
-        setupCurrentEntry(new Date());
-    }
+    private void updateStat(MonthlyStat stat) {
+        setupEntry(stat);
 
-    private void setupCurrentEntry(Date now) {
-        final String month = PERIOD_DATE_FORMAT.format(now);
-        String dn = String.format("jansId=%s,%s", nodeId, monthlyDn); // jansId=<id>,ou=yyyyMM,ou=stat,o=gluu
+        final StatEntry entry = stat.entry;
+        entry.getStat().setTokenCountPerGrantType(stat.getTokenCounters());
+        entry.getStat().setLastUpdatedAt(System.currentTimeMillis());
+        entry.setUserHllData(Base64.getEncoder().encodeToString(stat.getHll().toBytes()));
 
-        if (currentEntry != null && month.equals(currentEntry.getStat().getMonth())) {
+        entryManager.merge(entry);
+    }
+
+    /**
+     * Loads stat entry of node for month of specified stat or creates new one. Values loaded from persistence
+     * are used as base of in-memory counters.
+     */
+    private void setupEntry(MonthlyStat stat) {
+        if (stat.entry != null) {
             return;
         }
 
+        prepareMonthlyBranch(stat.month);
+
+        String dn = String.format("jansId=%s,%s", nodeId, getMonthlyDn(stat.month)); // jansId=<id>,ou=yyyyMM,ou=stat,o=gluu
         try {
             StatEntry entryFromPersistence = entryManager.find(StatEntry.class, dn);
-            if (entryFromPersistence != null && month.equals(entryFromPersistence.getStat().getMonth())) {
-                hll = HLL.fromBytes(Base64.getDecoder().decode(entryFromPersistence.getUserHllData()));
-                tokenCounters = new ConcurrentHashMap<>(entryFromPersistence.getStat().getTokenCountPerGrantType());
-                currentEntry = entryFromPersistence;
+            if (entryFromPersistence != null && stat.month.equals(entryFromPersistence.getStat().getMonth())) {
+                stat.baseHll = HLL.fromBytes(Base64.getDecoder().decode(entryFromPersistence.getUserHllData()));
+                stat.baseTokenCounters = entryFromPersistence.getStat().getTokenCountPerGrantType();
+                stat.entry = entryFromPersistence;
                 log.trace("Stat entry loaded.");
                 return;
             }
@@ -137,19 +157,37 @@ public class StatService {
             log.trace("Stat entry is not found in persistence.");
         }
 
-        if (currentEntry == null) {
-            log.trace("Creating stat entry ...");
-            hll = newHll();
-            tokenCounters = new ConcurrentHashMap<>();
-
-            currentEntry = new StatEntry();
-            currentEntry.setId(nodeId);
-            currentEntry.setDn(dn);
-            currentEntry.setUserHllData(Base64.getEncoder().encodeToString(hll.toBytes()));
-            currentEntry.getStat().setMonth(PERIOD_DATE_FORMAT.format(new Date()));
-            entryManager.persist(currentEntry);
-            log.trace("Created stat entry. nodeId:" + nodeId);
+        log.trace("Creating stat entry ...");
+        StatEntry entry = new StatEntry();
+        entry.setId(nodeId);
+        entry.setDn(dn);
+        entry.setUserHllData(Base64.getEncoder().encodeToString(stat.baseHll.toBytes()));
+        entry.getStat().setMonth(stat.month);
+        entryManager.persist(entry);
+
+        stat.entry = entry;
+        log.trace("Created stat entry. nodeId:" + nodeId);
+    }
+
+    /**
+     * Returns stat of current month. If month is over it's queued for final update and new stat is started.
+     */
+    private MonthlyStat getCurrentStat() {
+        MonthlyStat stat = currentStat;
+        if (stat == null || System.currentTimeMillis() < stat.monthEnd) {
+            return stat;
+        }
+
+        synchronized (this) {
+            stat = currentStat;
+            if (System.currentTimeMillis() >= stat.monthEnd) {
+                finishedStats.add(stat);
+                stat = new MonthlyStat(new Date(), newHll(), HLL_STRIPES);
+                currentStat = stat;
+            }
         }
+
+        return stat;
     }
 
     public HLL newHll() {
@@ -184,10 +222,21 @@ public class StatService {
         return staticConfiguration.getBaseDn().getStat();
     }
 
-    private void prepareMonthlyBranch(Date now) {
+    public String getMonthlyDn(String month) {
+        return String.format("ou=%s,%s", month, getBaseDn()); // ou=yyyyMM,ou=stat,o=gluu
+    }
+
+    public String getSummaryDn(String month) {
+        return String.format("jansId=%s,%s", SUMMARY_ID, getMonthlyDn(month)); // jansId=summary,ou=yyyyMM,ou=stat,o=gluu
+    }
+
+    public static boolean isSummary(StatEntry entry) {
+        return SUMMARY_ID.equals(entry.getId());
+    }
+
+    private void prepareMonthlyBranch(String month) {
         final String baseDn = getBaseDn();
-        final String month = PERIOD_DATE_FORMAT.format(now); // yyyyMM
-        monthlyDn = String.format("ou=%s,%s", month, baseDn); // ou=yyyyMM,ou=stat,o=gluu
+        final String monthlyDn = getMonthlyDn(month);
 
         if (!entryManager.hasBranchesSupport(baseDn)) {
             return;
@@ -229,10 +278,7 @@ public class StatService {
 
         final int hash = id.hashCode();
         try {
-            setupCurrentEntry();
-            synchronized (hll) {
-                hll.addRaw(hash);
-            }
+            getCurrentStat().addUser(hash);
         } catch (Exception e) {
             log.error("Failed to report active user, id: " + id + ", hash: " + hash, e);
         }
@@ -263,21 +309,107 @@ public class StatService {
         if (grantType == null || tokenKey == null) {
             return;
         }
-        if (tokenCounters == null) {
-            log.error("Stat service is not initialized.");
-            return;
+
+        getCurrentStat().addToken(grantType.getValue(), tokenKey);
+    }
+
+    private static int stripesCount() {
+        // Power of two which is not less than twice processors count
+        int minStripes = Math.max(1, Runtime.getRuntime().availableProcessors()) * 2;
+        int stripes = Integer.highestOneBit(minStripes - 1) << 1;
+
+        return Math.min(stripes, 64);
+    }
+
+    private static String formatMonth(Date date) {
+        // SimpleDateFormat is not thread safe
+        return new SimpleDateFormat(PERIOD_DATE_PATTERN).format(date);
+    }
+
+    private static long nextMonthStart(Date date) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        calendar.set(Calendar.DAY_OF_MONTH, 1);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        calendar.add(Calendar.MONTH, 1);
+
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * Stat of one month. Token counts are kept in LongAdder per grant type and token type. Active users are
+     * added to one of HLL stripes selected by thread, so concurrent requests rarely wait for the same lock.
+     */
+    private static class MonthlyStat {
+
+        private final String month;
+        private final long monthEnd;
+
+        private final HLL[] hllStripes;
+        private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> tokenCounters = new ConcurrentHashMap<>();
+
+        // Values loaded from persistence, accessed by timer thread only
+        private StatEntry entry;
+        private HLL baseHll;
+        private Map<String, Map<String, Long>> baseTokenCounters = new HashMap<>();
+
+        MonthlyStat(Date now, HLL emptyHll, int stripes) {
+            this.month = formatMonth(now);
+            this.monthEnd = nextMonthStart(now);
+            this.baseHll = emptyHll;
+
+            this.hllStripes = new HLL[stripes];
+            for (int i = 0; i < stripes; i++) {
+                hllStripes[i] = copy(emptyHll);
+            }
         }
 
-        Map<String, Long> tokenMap = tokenCounters.computeIfAbsent(grantType.getValue(), k -> new ConcurrentHashMap<>());
+        void addUser(int hash) {
+            HLL hll = hllStripes[(int) (Thread.currentThread().getId() & (hllStripes.length - 1))];
+            synchronized (hll) {
+                hll.addRaw(hash);
+            }
+        }
+
+        void addToken(String grantType, String tokenKey) {
+            tokenCounters.computeIfAbsent(grantType, k -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(tokenKey, k -> new LongAdder()).increment();
+        }
+
+        HLL getHll() {
+            HLL result = copy(baseHll);
+            for (HLL hll : hllStripes) {
+                synchronized (hll) {
+                    result.union(hll);
+                }
+            }
+
+            return result;
+        }
+
+        Map<String, Map<String, Long>> getTokenCounters() {
+            Map<String, Map<String, Long>> result = new HashMap<>();
+            for (Map.Entry<String, Map<String, Long>> grantEntry : baseTokenCounters.entrySet()) {
+                result.put(grantEntry.getKey(), new HashMap<>(grantEntry.getValue()));
+            }
 
-        Long counter = tokenMap.get(tokenKey);
+            for (Map.Entry<String, ConcurrentMap<String, LongAdder>> grantEntry : tokenCounters.entrySet()) {
+                Map<String, Long> tokenMap = result.computeIfAbsent(grantEntry.getKey(), k -> new HashMap<>());
+                for (Map.Entry<String, LongAdder> tokenEntry : grantEntry.getValue().entrySet()) {
+                    tokenMap.merge(tokenEntry.getKey(), tokenEntry.getValue().sum(), Long::sum);
+                }
+            }
 
-        if (counter == null) {
-            counter = 1L;
-        } else {
-            counter++;
+            return result;
+        }
+
+        private static HLL copy(HLL hll) {
+            return HLL.fromBytes(hll.toBytes());
         }
 
-        tokenMap.put(tokenKey, counter);
     }
-}
\ No newline at end of file
+
+}
@@ -17,6 +17,7 @@ import org.gluu.oxauth.model.common.ScopeType;
 import org.gluu.oxauth.model.configuration.AppConfiguration;
 import org.gluu.oxauth.service.AttributeService;
 import org.gluu.oxauth.service.LocalResponseCache;
+import org.gluu.oxauth.service.RenderedResponse;
 import org.gluu.oxauth.service.ScopeService;
 import org.gluu.oxauth.service.external.ExternalAuthenticationService;
 import org.gluu.oxauth.service.external.ExternalDynamicScopeService;
@@ -33,7 +34,6 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.*;
 
 import static org.gluu.oxauth.model.configuration.ConfigurationResponseClaim.*;
@@ -89,12 +89,11 @@ public class OpenIdConfiguration extends HttpServlet {
 			return;
 		}
 
-		httpResponse.setContentType("application/json");
-		try (PrintWriter out = httpResponse.getWriter()) {
-            final JSONObject cachedResponse = localResponseCache.getDiscoveryResponse();
+		try {
+            final RenderedResponse cachedResponse = localResponseCache.getDiscoveryResponse();
             if (cachedResponse != null) {
                 log.trace("Cached discovery response returned.");
-                out.println(ServerUtil.toPrettyJson(cachedResponse).replace("\\/", "/"));
+                cachedResponse.write(servletRequest, httpResponse, "application/json", appConfiguration.getDiscoveryMaxAgeInSeconds());
                 return;
             }
 
@@ -318,9 +317,10 @@ public class OpenIdConfiguration extends HttpServlet {
 
 			// CIBA Configuration
 			cibaConfigurationService.processConfiguration(jsonObj);
-            localResponseCache.putDiscoveryResponse(jsonObj);
+			RenderedResponse renderedResponse = RenderedResponse.of(ServerUtil.toPrettyJson(jsonObj).replace("\\/", "/"));
+            localResponseCache.putDiscoveryResponse(renderedResponse);
 
-			out.println(ServerUtil.toPrettyJson(jsonObj).replace("\\/", "/"));
+			renderedResponse.write(servletRequest, httpResponse, "application/json", appConfiguration.getDiscoveryMaxAgeInSeconds());
 		} catch (Exception e) {
 			log.error(e.getMessage(), e);
 		}
@@ -95,6 +95,9 @@ public class TokenRestWebServiceImpl implements TokenRestWebService {
     @Inject
     private AuthenticationService authenticationService;
 
+    @Inject
+    private AuthenticationProtectionService authenticationProtectionService;
+
     @Inject
     private AppConfiguration appConfiguration;
 
@@ -382,6 +385,13 @@ public class TokenRestWebServiceImpl implements TokenRestWebService {
                             user = context.getUser();
                         }
                     } else {
+                        if (authenticationProtectionService.isEnabled() && authenticationProtectionService.isAttemptDelayed(username)) {
+                            int retryAfter = authenticationProtectionService.getRetryAfter(username);
+                            log.debug("RO PC - Too many authentication attempts of user: '{}', retry after '{}' seconds", username, retryAfter);
+                            return response(error(429, TokenErrorResponseType.INVALID_GRANT, "Too many authentication attempts.")
+                                    .header("Retry-After", Math.max(1, retryAfter)), oAuth2AuditLog);
+                        }
+
                         try {
                             authenticated = authenticationService.authenticate(username, password);
                             if (authenticated) {
@@ -25,6 +25,7 @@ import javax.inject.Inject;
 import javax.ws.rs.core.Response;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -126,13 +127,9 @@ public class UmaScopeService {
         final List<Scope> result = new ArrayList<Scope>();
         try {
             if (scopeDns != null && !scopeDns.isEmpty()) {
-                for (String dn : scopeDns) {
-                    final Scope scopeDescription = ldapEntryManager.find(Scope.class, dn);
-                    if (scopeDescription != null) {
-                        result.add(scopeDescription);
-                    } else {
-                        log.error("Failed to load UMA scope with dn: {}", dn);
-                    }
+                result.addAll(ldapEntryManager.findEntriesByKeys(Scope.class, scopeDns, null));
+                if (result.size() < new HashSet<String>(scopeDns).size()) {
+                    log.error("Failed to load some of UMA scopes with dns: {}", scopeDns);
                 }
             }
         } catch (Exception e) {
@@ -18,8 +18,8 @@ import com.google.common.base.Strings;
 import org.apache.commons.lang.StringUtils;
 import org.gluu.oxauth.model.registration.Client;
 import org.gluu.oxauth.model.uma.persistence.UmaPermission;
-import org.gluu.oxauth.model.util.JwtUtil;
 import org.gluu.oxauth.service.common.ApplicationFactory;
+import org.gluu.oxauth.service.net.JwksCacheService;
 import org.gluu.oxauth.uma.service.UmaScopeService;
 import org.gluu.persist.PersistenceEntryManager;
 import org.gluu.persist.model.base.CustomAttribute;
@@ -73,8 +73,16 @@ public class ServerUtil {
     }
 
     public static JSONObject getJwks(Client client) {
+        return getJwks(client, null);
+    }
+
+    /**
+     * Returns client JWKS. JWKS loaded from client jwks_uri is taken from shared cache which is
+     * reloaded if it doesn't contain key with specified kid.
+     */
+    public static JSONObject getJwks(Client client, String keyId) {
         return Strings.isNullOrEmpty(client.getJwks())
-                ? JwtUtil.getJSONWebKeys(client.getJwksUri())
+                ? CdiUtil.bean(JwksCacheService.class).getJwks(client.getJwksUri(), keyId)
                 : new JSONObject(client.getJwks());
     }
 
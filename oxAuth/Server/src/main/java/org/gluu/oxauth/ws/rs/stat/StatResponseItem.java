@@ -16,6 +16,9 @@ public class StatResponseItem {
     @JsonProperty("token_count_per_granttype")
     private Map<String, Map<String, Long>> tokenCountPerGrantType;
 
+    @JsonProperty("materialized")
+    private boolean materialized;
+
     public long getMonthlyActiveUsers() {
         return monthlyActiveUsers;
     }
@@ -33,11 +36,20 @@ public class StatResponseItem {
         this.tokenCountPerGrantType = tokenCountPerGrantType;
     }
 
+    public boolean isMaterialized() {
+        return materialized;
+    }
+
+    public void setMaterialized(boolean materialized) {
+        this.materialized = materialized;
+    }
+
     @Override
     public String toString() {
         return "StatResponseItem{" +
                 "monthlyActiveUsers=" + monthlyActiveUsers +
                 ", tokenCountPerGrantType=" + tokenCountPerGrantType +
+                ", materialized=" + materialized +
                 '}';
     }
 }
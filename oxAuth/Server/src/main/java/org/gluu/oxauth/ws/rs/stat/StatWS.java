@@ -1,5 +1,7 @@
 package org.gluu.oxauth.ws.rs.stat;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.Counter;
 import io.prometheus.client.exporter.common.TextFormat;
@@ -16,6 +18,7 @@ import org.gluu.oxauth.service.stat.StatService;
 import org.gluu.oxauth.service.token.TokenService;
 import org.gluu.oxauth.util.ServerUtil;
 import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.persist.exception.EntryPersistenceException;
 import org.gluu.search.filter.Filter;
 import org.slf4j.Logger;
 
@@ -34,14 +37,23 @@ import javax.ws.rs.core.Response;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Calendar;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * Provides server with basic statistic.
  * <p>
+ * Stat of closed month is merged into summary entry once and served from it after that. Stat of current
+ * month is cached for short time.
+ * <p>
  * https://github.com/GluuFederation/oxAuth/issues/1512
  * https://github.com/GluuFederation/oxAuth/issues/1321
  *
@@ -53,6 +65,11 @@ public class StatWS {
 
     private static final int DEFAULT_WS_INTERVAL_LIMIT_IN_SECONDS = 60;
 
+    private static final int OPEN_MONTH_CACHE_LIFETIME_IN_SECONDS = 60;
+
+    // Nodes write final stat of month on first timer run in next month
+    private static final int MATERIALIZATION_DELAY_IN_HOURS = 24;
+
     @Inject
     private Logger log;
 
@@ -76,6 +93,11 @@ public class StatWS {
 
     private long lastProcessedAt;
 
+    private final Cache<String, StatResponseItem> materializedMonthCache = CacheBuilder.newBuilder()
+            .maximumSize(240).build();
+    private final Cache<String, StatResponseItem> openMonthCache = CacheBuilder.newBuilder()
+            .expireAfterWrite(OPEN_MONTH_CACHE_LIFETIME_IN_SECONDS, TimeUnit.SECONDS).build();
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Response statGet(@HeaderParam("Authorization") String authorization, @QueryParam("month") String month, @QueryParam("format") String format) {
@@ -135,21 +157,48 @@ public class StatWS {
         return response;
     }
 
-    private StatResponseItem buildItem(String month) {
+    StatResponseItem buildItem(String month) {
         try {
-            String monthlyDn = String.format("ou=%s,%s", month, statService.getBaseDn());
+            StatResponseItem responseItem = materializedMonthCache.getIfPresent(month);
+            if (responseItem == null) {
+                responseItem = openMonthCache.getIfPresent(month);
+            }
+            if (responseItem != null) {
+                log.trace("Cached stat returned for month: " + month);
+                return responseItem;
+            }
+
+            final boolean materializable = isMaterializable(month, new Date());
+            if (materializable) {
+                responseItem = loadSummary(month);
+                if (responseItem != null) {
+                    materializedMonthCache.put(month, responseItem);
+                    return responseItem;
+                }
+            }
 
-            final List<StatEntry> entries = entryManager.findEntries(monthlyDn, StatEntry.class, Filter.createPresenceFilter("jansId"));
-            if (entries == null || entries.isEmpty()) {
+            String monthlyDn = statService.getMonthlyDn(month);
+
+            final List<StatEntry> entries = findNodeEntries(monthlyDn);
+            if (entries.isEmpty()) {
                 log.trace("Can't find stat entries for month: " + monthlyDn);
                 return null;
             }
 
-            final StatResponseItem responseItem = new StatResponseItem();
-            responseItem.setMonthlyActiveUsers(userCardinality(entries));
+            final HLL hll = unionHll(entries);
+
+            responseItem = new StatResponseItem();
+            responseItem.setMonthlyActiveUsers(hll.cardinality());
 
             unionTokenMapIntoResponseItem(entries, responseItem);
 
+            if (materializable && materialize(month, hll, responseItem)) {
+                responseItem.setMaterialized(true);
+                materializedMonthCache.put(month, responseItem);
+            } else {
+                openMonthCache.put(month, responseItem);
+            }
+
             return responseItem;
         } catch (Exception e) {
             log.error(e.getMessage(), e);
@@ -157,6 +206,78 @@ public class StatWS {
         }
     }
 
+    private List<StatEntry> findNodeEntries(String monthlyDn) {
+        final List<StatEntry> entries = entryManager.findEntries(monthlyDn, StatEntry.class, Filter.createPresenceFilter("jansId"));
+        if (entries == null) {
+            return new ArrayList<>();
+        }
+
+        return entries.stream().filter(entry -> !StatService.isSummary(entry)).collect(Collectors.toList());
+    }
+
+    private StatResponseItem loadSummary(String month) {
+        final StatEntry summary;
+        try {
+            summary = entryManager.find(StatEntry.class, statService.getSummaryDn(month));
+        } catch (EntryPersistenceException e) {
+            log.trace("Stat summary is not found for month: " + month);
+            return null;
+        }
+
+        if (summary == null) {
+            return null;
+        }
+
+        StatResponseItem responseItem = new StatResponseItem();
+        responseItem.setMonthlyActiveUsers(decodeHll(summary).cardinality());
+        responseItem.setTokenCountPerGrantType(summary.getStat().getTokenCountPerGrantType());
+        responseItem.setMaterialized(true);
+
+        return responseItem;
+    }
+
+    /**
+     * Writes merged stat of all nodes for closed month. Summary entry is not updated after that.
+     */
+    private boolean materialize(String month, HLL hll, StatResponseItem responseItem) {
+        StatEntry summary = new StatEntry();
+        summary.setId(StatService.SUMMARY_ID);
+        summary.setDn(statService.getSummaryDn(month));
+        summary.setUserHllData(Base64.getEncoder().encodeToString(hll.toBytes()));
+        summary.getStat().setMonth(month);
+        summary.getStat().setTokenCountPerGrantType(responseItem.getTokenCountPerGrantType());
+        summary.getStat().setLastUpdatedAt(System.currentTimeMillis());
+
+        try {
+            entryManager.persist(summary);
+            log.debug("Stat summary is created for month: " + month);
+            return true;
+        } catch (EntryPersistenceException e) {
+            // Summary might be created by another node
+            log.debug("Failed to persist stat summary for month: " + month, e);
+            return false;
+        }
+    }
+
+    /**
+     * @return true if month is over and all nodes should have written their final stat already
+     */
+    static boolean isMaterializable(String month, Date now) {
+        final SimpleDateFormat format = new SimpleDateFormat("yyyyMM");
+        format.setLenient(false);
+
+        final Calendar materializationTime = Calendar.getInstance();
+        try {
+            materializationTime.setTime(format.parse(month));
+        } catch (ParseException e) {
+            return false;
+        }
+        materializationTime.add(Calendar.MONTH, 1);
+        materializationTime.add(Calendar.HOUR_OF_DAY, MATERIALIZATION_DELAY_IN_HOURS);
+
+        return now.getTime() >= materializationTime.getTimeInMillis();
+    }
+
     private void unionTokenMapIntoResponseItem(List<StatEntry> entries, StatResponseItem responseItem) {
         for (StatEntry entry : entries) {
             for (Map.Entry<String, Map<String, Long>> en : entry.getStat().getTokenCountPerGrantType().entrySet()) {
@@ -183,7 +304,7 @@ public class StatWS {
         }
     }
 
-    private long userCardinality(List<StatEntry> entries) {
+    private HLL unionHll(List<StatEntry> entries) {
         HLL hll = decodeHll(entries.get(0));
 
         // Union hll
@@ -192,7 +313,7 @@ public class StatWS {
                 hll.union(decodeHll(entries.get(i)));
             }
         }
-        return hll.cardinality();
+        return hll;
     }
 
     private HLL decodeHll(StatEntry entry) {
@@ -0,0 +1,160 @@
+/*
+ * oxAuth is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.oxauth.dev;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.gluu.oxauth.model.common.CacheGrant;
+import org.gluu.oxauth.model.common.ClientTokens;
+import org.gluu.oxauth.model.common.GrantType;
+import org.gluu.oxauth.model.common.User;
+import org.gluu.oxauth.model.ldap.TokenLdap;
+import org.gluu.oxauth.model.ldap.TokenType;
+import org.gluu.oxauth.model.registration.Client;
+import org.gluu.oxauth.model.session.SessionId;
+import org.gluu.oxauth.model.session.SessionIdState;
+import org.gluu.service.cache.CacheSerializer;
+import org.gluu.service.cache.CompactCacheSerializer;
+import org.gluu.service.cache.JavaCacheSerializer;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Compares serialized size and serialize/deserialize time of cached objects for cache serializers.
+ */
+public class CacheSerializerBenchmarkManual {
+
+    private static final int WARMUP_ITERATIONS = 20000;
+    private static final int ITERATIONS = 100000;
+
+    public static void main(String[] args) {
+        Map<String, CacheSerializer> serializers = new LinkedHashMap<String, CacheSerializer>();
+        serializers.put("JAVA", JavaCacheSerializer.INSTANCE);
+        serializers.put("COMPACT", new CompactCacheSerializer(0));
+        serializers.put("COMPACT_1KB", new CompactCacheSerializer(1024));
+
+        Map<String, Object> cachedObjects = new LinkedHashMap<String, Object>();
+        cachedObjects.put("SessionId", sessionId());
+        cachedObjects.put("TokenLdap", tokenLdap());
+        cachedObjects.put("CacheGrant", cacheGrant());
+        cachedObjects.put("ClientTokens", clientTokens());
+
+        System.out.println(String.format("%-14s %-12s %10s %12s %12s", "type", "serializer", "bytes", "put ns/op", "get ns/op"));
+        for (Map.Entry<String, Object> cachedObject : cachedObjects.entrySet()) {
+            for (Map.Entry<String, CacheSerializer> serializerEntry : serializers.entrySet()) {
+                CacheSerializer serializer = serializerEntry.getValue();
+                Object object = cachedObject.getValue();
+
+                run(serializer, object, WARMUP_ITERATIONS);
+
+                long start = System.nanoTime();
+                byte[] data = null;
+                for (int i = 0; i < ITERATIONS; i++) {
+                    data = serializer.serialize(object);
+                }
+                long serializeTime = (System.nanoTime() - start) / ITERATIONS;
+
+                start = System.nanoTime();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    serializer.deserialize(data);
+                }
+                long deserializeTime = (System.nanoTime() - start) / ITERATIONS;
+
+                System.out.println(String.format("%-14s %-12s %10d %12d %12d", cachedObject.getKey(), serializerEntry.getKey(),
+                        data.length, serializeTime, deserializeTime));
+            }
+        }
+    }
+
+    private static void run(CacheSerializer serializer, Object object, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            serializer.deserialize(serializer.serialize(object));
+        }
+    }
+
+    private static SessionId sessionId() {
+        Map<String, String> sessionAttributes = new HashMap<String, String>();
+        sessionAttributes.put("auth_step", "1");
+        sessionAttributes.put("acr", "basic");
+        sessionAttributes.put("client_id", "1001." + UUID.randomUUID());
+        sessionAttributes.put("redirect_uri", "https://rp.example.com/callback");
+        sessionAttributes.put("scope", "openid profile email");
+
+        SessionId sessionId = new SessionId();
+        sessionId.setId(UUID.randomUUID().toString());
+        sessionId.setDn(String.format("oxAuthSessionId=%s,ou=sessions,o=gluu", sessionId.getId()));
+        sessionId.setUserDn("inum=" + UUID.randomUUID() + ",ou=people,o=gluu");
+        sessionId.setAuthenticationTime(new Date());
+        sessionId.setLastUsedAt(new Date());
+        sessionId.setCreationDate(new Date());
+        sessionId.setExpirationDate(new Date());
+        sessionId.setState(SessionIdState.AUTHENTICATED);
+        sessionId.setSessionState(UUID.randomUUID().toString());
+        sessionId.setSessionAttributes(sessionAttributes);
+
+        return sessionId;
+    }
+
+    private static TokenLdap tokenLdap() {
+        TokenLdap token = new TokenLdap();
+        token.setDn("tknCde=" + UUID.randomUUID() + ",ou=tokens,o=gluu");
+        token.setTokenCode(UUID.randomUUID().toString());
+        token.setGrantId(UUID.randomUUID().toString());
+        token.setGrantType(GrantType.AUTHORIZATION_CODE.getValue());
+        token.setTokenTypeEnum(TokenType.ACCESS_TOKEN);
+        token.setClientId("1001." + UUID.randomUUID());
+        token.setUserId("admin");
+        token.setScope("openid profile email");
+        token.setCreationDate(new Date());
+        token.setExpirationDate(new Date());
+        token.setAuthenticationTime(new Date());
+        token.setNonce(UUID.randomUUID().toString());
+        token.setSessionDn(UUID.randomUUID().toString());
+
+        return token;
+    }
+
+    private static CacheGrant cacheGrant() {
+        Client client = new Client();
+        client.setClientId("1001." + UUID.randomUUID());
+        client.setClientName("Benchmark client");
+        client.setRedirectUris(new String[] { "https://rp.example.com/callback" });
+        client.setGrantTypes(new GrantType[] { GrantType.AUTHORIZATION_CODE, GrantType.REFRESH_TOKEN });
+        client.setScopes(new String[] { "inum=F0C4,ou=scopes,o=gluu", "inum=43F1,ou=scopes,o=gluu" });
+
+        User user = new User();
+        user.setUserId("admin");
+        user.setAttribute("mail", "admin@example.com");
+        user.setAttribute("givenName", "Admin");
+
+        CacheGrant cacheGrant = new CacheGrant();
+        cacheGrant.setClient(client);
+        cacheGrant.setUser(user);
+        cacheGrant.setGrantId(UUID.randomUUID().toString());
+        cacheGrant.setAuthorizationCodeString(UUID.randomUUID().toString());
+        cacheGrant.setAuthenticationTime(new Date());
+        cacheGrant.setScopes(Sets.newHashSet("openid", "profile", "email"));
+        cacheGrant.setNonce(UUID.randomUUID().toString());
+        cacheGrant.setSessionDn(UUID.randomUUID().toString());
+
+        return cacheGrant;
+    }
+
+    private static ClientTokens clientTokens() {
+        ClientTokens clientTokens = new ClientTokens("1001." + UUID.randomUUID());
+        for (int i = 0; i < 50; i++) {
+            clientTokens.getTokenHashes().add(UUID.randomUUID().toString());
+        }
+
+        return clientTokens;
+    }
+
+}
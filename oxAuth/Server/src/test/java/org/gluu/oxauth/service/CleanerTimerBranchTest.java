@@ -0,0 +1,183 @@
+package org.gluu.oxauth.service;
+
+import com.codahale.metrics.Gauge;
+import org.gluu.model.ApplicationType;
+import org.gluu.oxauth.model.config.BaseDnConfiguration;
+import org.gluu.oxauth.model.config.StaticConfiguration;
+import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.model.ldap.TokenLdap;
+import org.gluu.oxauth.uma.service.UmaPctService;
+import org.gluu.oxauth.uma.service.UmaResourceService;
+import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.search.filter.Filter;
+import org.gluu.service.CacheService;
+import org.gluu.service.cache.CacheProvider;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.slf4j.Logger;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.Date;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+@Listeners(MockitoTestNGListener.class)
+public class CleanerTimerBranchTest {
+
+    private static final String TOKENS_DN = "ou=tokens,o=gluu";
+
+    @InjectMocks
+    private CleanerTimer cleanerTimer;
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    private PersistenceEntryManager entryManager;
+
+    @Mock
+    private UmaPctService umaPctService;
+
+    @Mock
+    private UmaResourceService umaResourceService;
+
+    @Mock
+    private CacheProvider cacheProvider;
+
+    @Mock
+    private AppConfiguration appConfiguration;
+
+    @Mock
+    private StaticConfiguration staticConfiguration;
+
+    @Mock
+    private MetricService metricService;
+
+    @Mock
+    private CacheService cacheService;
+
+    @Test
+    public void adaptBatchSize_followsBatchTime() {
+        assertEquals(CleanerTimer.adaptBatchSize(100, 10), 200);
+        assertEquals(CleanerTimer.adaptBatchSize(100, 500), 100);
+        assertEquals(CleanerTimer.adaptBatchSize(100, 5000), 50);
+        assertEquals(CleanerTimer.adaptBatchSize(10000, 10), 10000);
+        assertEquals(CleanerTimer.adaptBatchSize(10, 5000), 10);
+    }
+
+    @Test
+    public void processImpl_fullBatches_removesUntilDrained() {
+        stubBranches();
+        when(appConfiguration.getCleanServiceLeaderLeaseEnabled()).thenReturn(false);
+        when(entryManager.encodeTime(anyString(), any(Date.class))).thenReturn("20240101000000.000Z");
+        when(entryManager.remove(eq(TOKENS_DN), eq(TokenLdap.class), any(Filter.class), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(3))
+                .thenAnswer(invocation -> invocation.getArgument(3))
+                .thenReturn(5);
+
+        cleanerTimer.processImpl();
+
+        verify(entryManager, times(3)).remove(eq(TOKENS_DN), eq(TokenLdap.class), any(Filter.class), anyInt());
+        verify(cacheProvider).cleanup(any(Date.class));
+
+        CleanerTimer.BranchStat stat = cleanerTimer.getBranchStats().get(TOKENS_DN + "_TokenLdap");
+        assertNotNull(stat);
+        assertTrue(stat.isLeader());
+        assertEquals(stat.getLastRemoved(), 100 + 200 + 5);
+        assertEquals(stat.getBacklog(), 0);
+        assertEquals(stat.getLag(), 0);
+    }
+
+    @Test
+    public void processImpl_laggingBranch_estimatesBacklogBetweenCounts() {
+        stubBranches(1);
+        when(appConfiguration.getCleanServiceLeaderLeaseEnabled()).thenReturn(false);
+        when(entryManager.encodeTime(anyString(), any(Date.class))).thenReturn("20240101000000.000Z");
+        when(entryManager.remove(eq(TOKENS_DN), eq(TokenLdap.class), any(Filter.class), anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return invocation.getArgument(3);
+        });
+        when(entryManager.countEntries(eq(TOKENS_DN), eq(TokenLdap.class), any(Filter.class))).thenReturn(100000);
+
+        cleanerTimer.processImpl();
+        assertEquals(cleanerTimer.getBranchStats().get(TOKENS_DN + "_TokenLdap").getBacklog(), 100000);
+
+        cleanerTimer.processImpl();
+        CleanerTimer.BranchStat stat = cleanerTimer.getBranchStats().get(TOKENS_DN + "_TokenLdap");
+        assertEquals(stat.getBacklog(), 100000 - stat.getLastRemoved());
+
+        verify(entryManager, times(1)).countEntries(eq(TOKENS_DN), eq(TokenLdap.class), any(Filter.class));
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void processImpl_registersBranchGauges() {
+        stubBranches();
+        when(appConfiguration.getCleanServiceLeaderLeaseEnabled()).thenReturn(false);
+        when(entryManager.encodeTime(anyString(), any(Date.class))).thenReturn("20240101000000.000Z");
+        when(entryManager.remove(eq(TOKENS_DN), eq(TokenLdap.class), any(Filter.class), anyInt())).thenReturn(5);
+
+        cleanerTimer.processImpl();
+        cleanerTimer.processImpl();
+
+        ArgumentCaptor<Gauge> backlogGauge = ArgumentCaptor.forClass(Gauge.class);
+        verify(metricService).registerGauge(eq("cleaner." + TOKENS_DN + "_TokenLdap.backlog"), backlogGauge.capture());
+        verify(metricService).registerGauge(eq("cleaner." + TOKENS_DN + "_TokenLdap.rate"), any(Gauge.class));
+        verify(metricService).registerGauge(eq("cleaner." + TOKENS_DN + "_TokenLdap.lag"), any(Gauge.class));
+        assertEquals(backlogGauge.getValue().getValue(), 0);
+    }
+
+    @Test
+    public void processImpl_sessionsBaseDn_cleansBothEntryTypes() {
+        stubBranches();
+        when(appConfiguration.getCleanServiceLeaderLeaseEnabled()).thenReturn(false);
+        when(entryManager.encodeTime(anyString(), any(Date.class))).thenReturn("20240101000000.000Z");
+
+        cleanerTimer.processImpl();
+
+        Map<String, CleanerTimer.BranchStat> stats = cleanerTimer.getBranchStats();
+        assertTrue(stats.containsKey("ou=sessions,o=gluu_SessionId"));
+        assertTrue(stats.containsKey("ou=sessions,o=gluu_AuthorizationChallengeSession"));
+    }
+
+    @Test
+    public void processImpl_leaseOfAnotherNode_skipsBranches() {
+        stubBranches();
+        when(appConfiguration.getCleanServiceLeaderLeaseEnabled()).thenReturn(true);
+        when(cacheService.get(startsWith("cleaner_leader_"))).thenReturn("another-node");
+
+        cleanerTimer.processImpl();
+
+        verify(entryManager, never()).remove(anyString(), any(), any(Filter.class), anyInt());
+        assertFalse(cleanerTimer.getBranchStats().get(TOKENS_DN + "_TokenLdap").isLeader());
+    }
+
+    private void stubBranches() {
+        stubBranches(20);
+    }
+
+    private void stubBranches(int timeBudget) {
+        BaseDnConfiguration baseDn = new BaseDnConfiguration();
+        baseDn.setClients("ou=clients,o=gluu");
+        baseDn.setTokens(TOKENS_DN);
+        baseDn.setAuthorizations("ou=authorizations,o=gluu");
+        baseDn.setScopes("ou=scopes,o=gluu");
+        baseDn.setSessions("ou=sessions,o=gluu");
+        baseDn.setU2fBase("ou=u2f,o=gluu");
+
+        when(appConfiguration.getCleanServiceInterval()).thenReturn(0);
+        when(appConfiguration.getCleanServiceBatchChunkSize()).thenReturn(100);
+        when(appConfiguration.getCleanServiceTimeBudgetInSeconds()).thenReturn(timeBudget);
+        when(appConfiguration.getCleanServicePoolSize()).thenReturn(1);
+        when(staticConfiguration.getBaseDn()).thenReturn(baseDn);
+        when(umaPctService.branchBaseDn()).thenReturn("ou=pct,ou=uma,o=gluu");
+        when(umaResourceService.getBaseDnForResource()).thenReturn("ou=resources,ou=uma,o=gluu");
+        when(metricService.buildDn(isNull(), isNull(), eq(ApplicationType.OX_AUTH))).thenReturn("ou=oxauth,ou=metric,o=gluu");
+    }
+
+}
@@ -0,0 +1,161 @@
+package org.gluu.oxauth.service;
+
+import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.persist.exception.EntryPersistenceException;
+import org.gluu.persist.model.base.CustomEntry;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.slf4j.Logger;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+@Listeners(MockitoTestNGListener.class)
+public class ClientAccessTimeRecorderTest {
+
+    private static final String CLIENT_DN = "inum=1234,ou=clients,o=gluu";
+    private static final String OTHER_CLIENT_DN = "inum=5678,ou=clients,o=gluu";
+
+    @InjectMocks
+    private ClientAccessTimeRecorder clientAccessTimeRecorder;
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    private PersistenceEntryManager ldapEntryManager;
+
+    @Test
+    public void flush_severalRecords_writesClientOnce() {
+        when(ldapEntryManager.encodeTime(eq(CLIENT_DN), any(Date.class))).thenReturn("20240101000000.000Z");
+
+        clientAccessTimeRecorder.record(CLIENT_DN, false);
+        clientAccessTimeRecorder.record(CLIENT_DN, true);
+        clientAccessTimeRecorder.record(CLIENT_DN, false);
+
+        assertEquals(clientAccessTimeRecorder.getPendingCount(), 1);
+        assertEquals(clientAccessTimeRecorder.flush(), 1);
+        assertEquals(clientAccessTimeRecorder.getPendingCount(), 0);
+
+        ArgumentCaptor<CustomEntry> captor = ArgumentCaptor.forClass(CustomEntry.class);
+        verify(ldapEntryManager).merge(captor.capture());
+
+        CustomEntry customEntry = captor.getValue();
+        assertEquals(customEntry.getDn(), CLIENT_DN);
+        assertEquals(customEntry.getCustomAttributeValue("oxLastAccessTime"), "20240101000000.000Z");
+        assertEquals(customEntry.getCustomAttributeValue("oxLastLogonTime"), "20240101000000.000Z");
+    }
+
+    @Test
+    public void flush_accessWithoutLogon_writesAccessTimeOnly() {
+        when(ldapEntryManager.encodeTime(eq(CLIENT_DN), any(Date.class))).thenReturn("20240101000000.000Z");
+
+        clientAccessTimeRecorder.record(CLIENT_DN, false);
+        clientAccessTimeRecorder.flush();
+
+        ArgumentCaptor<CustomEntry> captor = ArgumentCaptor.forClass(CustomEntry.class);
+        verify(ldapEntryManager).merge(captor.capture());
+        assertNull(captor.getValue().getCustomAttributeValue("oxLastLogonTime"));
+    }
+
+    @Test
+    public void flush_failedClient_writesOtherClients() {
+        when(ldapEntryManager.encodeTime(anyString(), any(Date.class))).thenReturn("20240101000000.000Z");
+        doThrow(new EntryPersistenceException("Entry not found")).when(ldapEntryManager)
+                .merge(argThat((CustomEntry entry) -> CLIENT_DN.equals(entry.getDn())));
+
+        clientAccessTimeRecorder.record(CLIENT_DN, false);
+        clientAccessTimeRecorder.record(OTHER_CLIENT_DN, false);
+
+        assertEquals(clientAccessTimeRecorder.flush(), 1);
+        assertEquals(clientAccessTimeRecorder.getPendingCount(), 1);
+        verify(ldapEntryManager, times(2)).merge(any(CustomEntry.class));
+    }
+
+    @Test
+    public void flush_failedClient_retriesLimitedTimes() {
+        when(ldapEntryManager.encodeTime(anyString(), any(Date.class))).thenReturn("20240101000000.000Z");
+        doThrow(new EntryPersistenceException("Entry not found")).when(ldapEntryManager).merge(any(CustomEntry.class));
+
+        clientAccessTimeRecorder.record(CLIENT_DN, false);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(clientAccessTimeRecorder.flush(), 0);
+        }
+        assertEquals(clientAccessTimeRecorder.getPendingCount(), 0);
+        verify(ldapEntryManager, times(3)).merge(any(CustomEntry.class));
+    }
+
+    @Test
+    public void flush_failedClient_writesLatestAccessTimeOnRetry() {
+        when(ldapEntryManager.encodeTime(anyString(), any(Date.class))).thenReturn("20240101000000.000Z");
+        doThrow(new EntryPersistenceException("Connection failed")).doReturn(null).when(ldapEntryManager).merge(any(CustomEntry.class));
+
+        clientAccessTimeRecorder.record(CLIENT_DN, false);
+        assertEquals(clientAccessTimeRecorder.flush(), 0);
+
+        clientAccessTimeRecorder.record(CLIENT_DN, true);
+        assertEquals(clientAccessTimeRecorder.getPendingCount(), 1);
+        assertEquals(clientAccessTimeRecorder.flush(), 1);
+
+        ArgumentCaptor<CustomEntry> captor = ArgumentCaptor.forClass(CustomEntry.class);
+        verify(ldapEntryManager, times(2)).merge(captor.capture());
+        assertEquals(captor.getValue().getCustomAttributeValue("oxLastLogonTime"), "20240101000000.000Z");
+    }
+
+    @Test
+    public void flush_waitForRunningFlush_writesRecordsAddedDuringFlush() throws Exception {
+        when(ldapEntryManager.encodeTime(anyString(), any(Date.class))).thenReturn("20240101000000.000Z");
+
+        final CountDownLatch writeStarted = new CountDownLatch(1);
+        final CountDownLatch writeAllowed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writeStarted.countDown();
+            writeAllowed.await(10, TimeUnit.SECONDS);
+            return null;
+        }).doReturn(null).when(ldapEntryManager).merge(any(CustomEntry.class));
+
+        clientAccessTimeRecorder.record(CLIENT_DN, false);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> runningFlush = executorService.submit(() -> clientAccessTimeRecorder.flush());
+            assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+
+            // Record which comes during flush is not written by it
+            clientAccessTimeRecorder.record(OTHER_CLIENT_DN, false);
+            assertEquals(clientAccessTimeRecorder.flush(), 0);
+
+            Future<Integer> shutdownFlush = executorService.submit(() -> clientAccessTimeRecorder.flush(true));
+            Thread.sleep(100);
+            assertFalse(shutdownFlush.isDone());
+            writeAllowed.countDown();
+
+            assertEquals(runningFlush.get(10, TimeUnit.SECONDS).intValue(), 1);
+            assertEquals(shutdownFlush.get(10, TimeUnit.SECONDS).intValue(), 1);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(clientAccessTimeRecorder.getPendingCount(), 0);
+        verify(ldapEntryManager, times(2)).merge(any(CustomEntry.class));
+    }
+
+    @Test
+    public void flush_noRecords_doesNotWrite() {
+        assertEquals(clientAccessTimeRecorder.flush(), 0);
+        verifyNoMoreInteractions(ldapEntryManager);
+    }
+
+}
@@ -0,0 +1,87 @@
+package org.gluu.oxauth.service;
+
+import org.gluu.model.metric.MetricType;
+import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.slf4j.Logger;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+@Listeners(MockitoTestNGListener.class)
+public class ClientSecretVerifierCacheTest {
+
+    private static final String CLIENT_DN = "inum=1234,ou=clients,o=gluu";
+
+    @InjectMocks
+    private ClientSecretVerifierCache clientSecretVerifierCache;
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    private AppConfiguration appConfiguration;
+
+    @Mock
+    private MetricService metricService;
+
+    @Test
+    public void verify_noVerifier_returnsNullAndCountsMiss() {
+        when(appConfiguration.getClientSecretCacheLifetimeInSeconds()).thenReturn(60);
+
+        assertNull(clientSecretVerifierCache.verify(CLIENT_DN, "encrypted", "secret"));
+        assertEquals(clientSecretVerifierCache.getMissCount(), 1);
+        verify(metricService).incCounter(MetricType.OXAUTH_CLIENT_SECRET_CACHE_MISS);
+    }
+
+    @Test
+    public void verify_cachedVerifier_checksSecret() {
+        when(appConfiguration.getClientSecretCacheLifetimeInSeconds()).thenReturn(60);
+        clientSecretVerifierCache.put(CLIENT_DN, "encrypted", "secret");
+
+        assertEquals(clientSecretVerifierCache.verify(CLIENT_DN, "encrypted", "secret"), Boolean.TRUE);
+        assertEquals(clientSecretVerifierCache.verify(CLIENT_DN, "encrypted", "wrong"), Boolean.FALSE);
+        assertEquals(clientSecretVerifierCache.getHitCount(), 2);
+        assertEquals(clientSecretVerifierCache.getHitRate(), 1.0);
+        verify(metricService, times(2)).incCounter(MetricType.OXAUTH_CLIENT_SECRET_CACHE_HIT);
+    }
+
+    @Test
+    public void verify_clientSecretChanged_returnsNull() {
+        when(appConfiguration.getClientSecretCacheLifetimeInSeconds()).thenReturn(60);
+        clientSecretVerifierCache.put(CLIENT_DN, "encrypted", "secret");
+
+        assertNull(clientSecretVerifierCache.verify(CLIENT_DN, "encrypted_new", "secret"));
+    }
+
+    @Test
+    public void verify_afterRemove_returnsNull() {
+        when(appConfiguration.getClientSecretCacheLifetimeInSeconds()).thenReturn(60);
+        clientSecretVerifierCache.put(CLIENT_DN, "encrypted", "secret");
+        clientSecretVerifierCache.remove(CLIENT_DN);
+
+        assertNull(clientSecretVerifierCache.verify(CLIENT_DN, "encrypted", "secret"));
+    }
+
+    @Test
+    public void verify_cacheDisabled_returnsNull() {
+        when(appConfiguration.getClientSecretCacheLifetimeInSeconds()).thenReturn(0);
+        clientSecretVerifierCache.put(CLIENT_DN, "encrypted", "secret");
+
+        assertNull(clientSecretVerifierCache.verify(CLIENT_DN, "encrypted", "secret"));
+        verifyNoMoreInteractions(metricService);
+    }
+
+    @Test
+    public void secretEquals() {
+        assertTrue(ClientSecretVerifierCache.secretEquals("secret", "secret"));
+        assertFalse(ClientSecretVerifierCache.secretEquals("secret", "secreT"));
+        assertFalse(ClientSecretVerifierCache.secretEquals("secret", null));
+        assertFalse(ClientSecretVerifierCache.secretEquals(null, null));
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.gluu.oxauth.service;
+
+import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.model.registration.Client;
+import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.service.CacheService;
+import org.gluu.service.LocalCacheService;
+import org.gluu.service.cache.CacheConfiguration;
+import org.gluu.service.cache.CacheProviderType;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.slf4j.Logger;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+@Listeners(MockitoTestNGListener.class)
+public class ClientServiceTest {
+
+    private static final String CLIENT_DN = "inum=1234,ou=clients,o=gluu";
+    private static final String OTHER_CLIENT_DN = "inum=5678,ou=clients,o=gluu";
+
+    @InjectMocks
+    private ClientService clientService;
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    private PersistenceEntryManager ldapEntryManager;
+
+    @Mock
+    private CacheService cacheService;
+
+    @Mock
+    private LocalCacheService localCacheService;
+
+    @Mock
+    private AppConfiguration appConfiguration;
+
+    @Mock
+    private CacheConfiguration cacheConfiguration;
+
+    @Test
+    public void getClientsByDns_nativePersistenceCache_loadsWithoutCache() {
+        when(appConfiguration.getUseLocalCache()).thenReturn(false);
+        when(cacheConfiguration.getCacheProviderType()).thenReturn(CacheProviderType.NATIVE_PERSISTENCE);
+        List<String> dns = Arrays.asList(CLIENT_DN, OTHER_CLIENT_DN);
+        when(ldapEntryManager.findEntriesByKeys(Client.class, dns, null))
+                .thenReturn(Arrays.asList(createClient(CLIENT_DN), createClient(OTHER_CLIENT_DN)));
+
+        Set<Client> clients = clientService.getClientsByDns(dns);
+
+        assertEquals(clients.size(), 2);
+        verifyNoInteractions(cacheService);
+    }
+
+    @Test
+    public void getClientsByDns_cachedClient_loadsOnlyMissingOne() {
+        when(appConfiguration.getUseLocalCache()).thenReturn(false);
+        when(cacheConfiguration.getCacheProviderType()).thenReturn(CacheProviderType.REDIS);
+        Client cachedClient = createClient(CLIENT_DN);
+        Map<String, Object> cachedClients = new HashMap<>();
+        cachedClients.put(CLIENT_DN, cachedClient);
+        when(cacheService.getAll(anyCollection())).thenReturn(cachedClients);
+        Client loadedClient = createClient(OTHER_CLIENT_DN);
+        List<String> notCachedDns = Collections.singletonList(OTHER_CLIENT_DN);
+        when(ldapEntryManager.findEntriesByKeys(Client.class, notCachedDns, null))
+                .thenReturn(Collections.singletonList(loadedClient));
+
+        Set<Client> clients = clientService.getClientsByDns(Arrays.asList(CLIENT_DN, OTHER_CLIENT_DN));
+
+        assertEquals(clients.size(), 2);
+        assertTrue(clients.contains(cachedClient));
+        assertTrue(clients.contains(loadedClient));
+        verify(cacheService).putAll(60, Collections.singletonMap(OTHER_CLIENT_DN, loadedClient));
+    }
+
+    private static Client createClient(String dn) {
+        Client client = new Client();
+        client.setDn(dn);
+        return client;
+    }
+
+}
@@ -0,0 +1,153 @@
+package org.gluu.oxauth.service;
+
+import org.gluu.model.metric.MetricType;
+import org.gluu.oxauth.model.authorize.JwtAuthorizationRequest;
+import org.gluu.oxauth.model.common.User;
+import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.model.ldap.TokenLdap;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.slf4j.Logger;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Date;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+@Listeners(MockitoTestNGListener.class)
+public class GrantViewCacheTest {
+
+    private static final String TOKEN_HASH = "5b2f1e0c7a";
+
+    @InjectMocks
+    private GrantViewCache grantViewCache;
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    private AppConfiguration appConfiguration;
+
+    @Mock
+    private MetricService metricService;
+
+    @Test
+    public void get_putView_returnsCachedView() {
+        when(appConfiguration.getGrantCacheLifetimeInSeconds()).thenReturn(60);
+        TokenLdap token = token("user1", new Date(System.currentTimeMillis() + 60000));
+        User user = new User();
+        user.setUserId("user1");
+
+        assertNull(grantViewCache.get(token));
+        GrantViewCache.GrantView view = grantViewCache.put(token, user, null);
+
+        assertSame(grantViewCache.get(token), view);
+        assertEquals(view.getUser().getUserId(), "user1");
+        assertEquals(grantViewCache.getHitCount(), 1);
+        assertEquals(grantViewCache.getMissCount(), 1);
+        verify(metricService).incCounter(MetricType.OXAUTH_GRANT_CACHE_HIT);
+        verify(metricService).incCounter(MetricType.OXAUTH_GRANT_CACHE_MISS);
+    }
+
+    @Test
+    public void getUser_modifiedUser_doesNotModifyCachedView() {
+        when(appConfiguration.getGrantCacheLifetimeInSeconds()).thenReturn(60);
+        TokenLdap token = token("user1", new Date(System.currentTimeMillis() + 60000));
+        User user = new User();
+        user.setUserId("user1");
+        user.setAttribute("mail", "user1@example.com");
+
+        grantViewCache.put(token, user, null);
+        user.setAttribute("mail", "changed@example.com");
+
+        User cachedUser = grantViewCache.get(token).getUser();
+        assertEquals(cachedUser.getAttribute("mail"), "user1@example.com");
+        assertNotSame(cachedUser, user);
+
+        cachedUser.setAttribute("mail", "other@example.com");
+        assertNotSame(grantViewCache.get(token).getUser(), cachedUser);
+        assertEquals(grantViewCache.get(token).getUser().getAttribute("mail"), "user1@example.com");
+    }
+
+    @Test
+    public void getUser_noUser_returnsNull() {
+        when(appConfiguration.getGrantCacheLifetimeInSeconds()).thenReturn(60);
+        TokenLdap token = token(null, new Date(System.currentTimeMillis() + 60000));
+
+        grantViewCache.put(token, null, null);
+
+        assertNull(grantViewCache.get(token).getUser());
+    }
+
+    @Test
+    public void getJwtAuthorizationRequest_returnsParsedRequestOfToken() {
+        when(appConfiguration.getGrantCacheLifetimeInSeconds()).thenReturn(60);
+        TokenLdap token = token("user1", new Date(System.currentTimeMillis() + 60000));
+        token.setJwtRequest("eyJhbGciOiJub25lIn0.eyJpc3MiOiJjbGllbnQifQ.");
+        JwtAuthorizationRequest jwtAuthorizationRequest = mock(JwtAuthorizationRequest.class);
+
+        grantViewCache.put(token, new User(), jwtAuthorizationRequest);
+
+        assertSame(grantViewCache.get(token).getJwtAuthorizationRequest(), jwtAuthorizationRequest);
+
+        // View of other request object is not valid for token
+        TokenLdap otherToken = token("user1", token.getExpirationDate());
+        otherToken.setJwtRequest("eyJhbGciOiJub25lIn0.eyJpc3MiOiJvdGhlciJ9.");
+        assertNull(grantViewCache.get(otherToken));
+    }
+
+    @Test
+    public void get_expiredToken_returnsNull() {
+        when(appConfiguration.getGrantCacheLifetimeInSeconds()).thenReturn(60);
+        TokenLdap token = token("user1", new Date(System.currentTimeMillis() - 1000));
+
+        assertNotNull(grantViewCache.put(token, new User(), null));
+        assertNull(grantViewCache.get(token));
+    }
+
+    @Test
+    public void get_otherUserOfToken_returnsNull() {
+        when(appConfiguration.getGrantCacheLifetimeInSeconds()).thenReturn(60);
+        TokenLdap token = token("user1", new Date(System.currentTimeMillis() + 60000));
+        grantViewCache.put(token, new User(), null);
+
+        assertNull(grantViewCache.get(token("user2", token.getExpirationDate())));
+    }
+
+    @Test
+    public void remove_returnsNull() {
+        when(appConfiguration.getGrantCacheLifetimeInSeconds()).thenReturn(60);
+        TokenLdap token = token("user1", new Date(System.currentTimeMillis() + 60000));
+
+        grantViewCache.put(token, new User(), null);
+        grantViewCache.remove(TOKEN_HASH);
+        assertNull(grantViewCache.get(token));
+
+        grantViewCache.put(token, new User(), null);
+        grantViewCache.removeAll(Collections.singletonList(token));
+        assertNull(grantViewCache.get(token));
+    }
+
+    @Test
+    public void get_disabledCache_returnsNull() {
+        when(appConfiguration.getGrantCacheLifetimeInSeconds()).thenReturn(0);
+        TokenLdap token = token("user1", new Date(System.currentTimeMillis() + 60000));
+
+        assertNotNull(grantViewCache.put(token, new User(), null));
+        assertNull(grantViewCache.get(token));
+        verifyNoMoreInteractions(metricService);
+    }
+
+    private static TokenLdap token(String userId, Date expirationDate) {
+        TokenLdap token = new TokenLdap();
+        token.setTokenCode(TOKEN_HASH);
+        token.setUserId(userId);
+        token.setExpirationDate(expirationDate);
+        return token;
+    }
+
+}
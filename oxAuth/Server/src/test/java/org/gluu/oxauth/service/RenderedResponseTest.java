@@ -0,0 +1,132 @@
+package org.gluu.oxauth.service;
+
+import org.apache.commons.lang.StringUtils;
+import org.testng.annotations.Test;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+public class RenderedResponseTest {
+
+    private static final String CONTENT = "{\"keys\":[]}";
+
+    @Test
+    public void isNotModified_sameETag_returnsTrue() {
+        RenderedResponse response = RenderedResponse.of(CONTENT);
+
+        assertTrue(response.isNotModified(response.getETag()));
+        assertTrue(response.isNotModified("W/" + response.getETag()));
+        assertTrue(response.isNotModified("\"other\", " + response.getETag()));
+        assertTrue(response.isNotModified("*"));
+    }
+
+    @Test
+    public void isNotModified_otherETag_returnsFalse() {
+        RenderedResponse response = RenderedResponse.of(CONTENT);
+
+        assertFalse(response.isNotModified(RenderedResponse.of("{}").getETag()));
+        assertFalse(response.isNotModified(null));
+        assertFalse(response.isNotModified(""));
+    }
+
+    @Test
+    public void of_smallContent_doesNotGzip() {
+        RenderedResponse response = RenderedResponse.of(CONTENT);
+
+        assertEquals(response.getBody(), CONTENT.getBytes(StandardCharsets.UTF_8));
+        assertNull(response.getGzippedBody());
+        assertEquals(response.getETag(), RenderedResponse.of(CONTENT).getETag());
+    }
+
+    @Test
+    public void of_bigContent_gzipsBody() throws IOException {
+        String content = StringUtils.repeat("{\"kid\":\"key\"}", 200);
+        RenderedResponse response = RenderedResponse.of(content);
+
+        assertNotNull(response.getGzippedBody());
+        assertEquals(gunzip(response.getGzippedBody()), content);
+    }
+
+    @Test
+    public void acceptsGzip() {
+        assertTrue(RenderedResponse.acceptsGzip("gzip, deflate, br"));
+        assertTrue(RenderedResponse.acceptsGzip("deflate;q=1.0, GZIP;q=0.5"));
+        assertFalse(RenderedResponse.acceptsGzip("gzip;q=0"));
+        assertFalse(RenderedResponse.acceptsGzip("deflate"));
+        assertFalse(RenderedResponse.acceptsGzip(null));
+    }
+
+    @Test
+    public void write_matchingIfNoneMatch_sendsNotModified() throws IOException {
+        RenderedResponse response = RenderedResponse.of(CONTENT);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse httpResponse = mock(HttpServletResponse.class);
+        when(request.getHeader("If-None-Match")).thenReturn(response.getETag());
+
+        response.write(request, httpResponse, "application/json", 300);
+
+        verify(httpResponse).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(httpResponse).setHeader("ETag", response.getETag());
+        verify(httpResponse).setHeader("Cache-Control", "public, max-age=300");
+        verify(httpResponse, never()).getOutputStream();
+    }
+
+    @Test
+    public void write_noIfNoneMatch_writesBody() throws IOException {
+        RenderedResponse response = RenderedResponse.of(CONTENT);
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        HttpServletResponse httpResponse = mock(HttpServletResponse.class);
+        ServletOutputStream outputStream = mock(ServletOutputStream.class);
+        when(httpResponse.getOutputStream()).thenReturn(outputStream);
+
+        response.write(request, httpResponse, "application/json", 0);
+
+        verify(httpResponse).setHeader("Cache-Control", "no-cache");
+        verify(httpResponse).setContentLength(response.getBody().length);
+        verify(outputStream).write(response.getBody());
+        verify(httpResponse, never()).setStatus(anyInt());
+    }
+
+    @Test
+    public void getJwksResponse_rendersOnceUntilInvalidated() {
+        LocalResponseCache localResponseCache = new LocalResponseCache();
+        AtomicInteger renderCount = new AtomicInteger();
+        Supplier<String> renderer = () -> {
+            renderCount.incrementAndGet();
+            return CONTENT;
+        };
+
+        RenderedResponse response = localResponseCache.getJwksResponse(renderer);
+        assertSame(localResponseCache.getJwksResponse(renderer), response);
+        assertEquals(renderCount.get(), 1);
+
+        localResponseCache.invalidateJwksResponse();
+
+        assertNotSame(localResponseCache.getJwksResponse(renderer), response);
+        assertEquals(renderCount.get(), 2);
+    }
+
+    private static String gunzip(byte[] data) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                bos.write(buffer, 0, read);
+            }
+            return new String(bos.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+}
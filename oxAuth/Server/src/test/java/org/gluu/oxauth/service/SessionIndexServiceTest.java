@@ -0,0 +1,192 @@
+package org.gluu.oxauth.service;
+
+import org.gluu.oxauth.model.common.UserSessionEntry;
+import org.gluu.oxauth.model.session.SessionId;
+import org.gluu.service.CacheService;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.slf4j.Logger;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+@Listeners(MockitoTestNGListener.class)
+public class SessionIndexServiceTest {
+
+    private static final String USER_DN = "inum=0001,ou=people,o=gluu";
+
+    @InjectMocks
+    private SessionIndexService sessionIndexService;
+
+    // Another node which shares cache
+    @InjectMocks
+    private SessionIndexService otherNodeSessionIndexService;
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    private CacheService cacheService;
+
+    private Map<String, Object> cache;
+
+    @BeforeMethod
+    public void setUp() {
+        cache = new HashMap<>();
+    }
+
+    @Test
+    public void put_authenticatedSession_indexesSidAndUser() {
+        stubCache();
+        SessionId first = session("1", "sid1", USER_DN);
+        SessionId second = session("2", "sid2", USER_DN);
+
+        sessionIndexService.put(first, 60);
+        sessionIndexService.put(second, 60);
+
+        assertEquals(sessionIndexService.getSessionDnBySid("sid1"), first.getDn());
+        assertEquals(sessionIndexService.getSessionDnBySid("sid2"), second.getDn());
+        assertEqualsNoOrder(sessionIndexService.getSessionDnsByUser(USER_DN).toArray(), new Object[]{first.getDn(), second.getDn()});
+    }
+
+    @Test
+    public void put_sameSessionTwice_doesNotRewriteIndexes() {
+        stubCache();
+        SessionId session = session("1", "sid1", USER_DN);
+
+        sessionIndexService.put(session, 60);
+        sessionIndexService.put(session, 60);
+
+        verify(cacheService).put(eq(60), eq("sid1_sid"), eq(session.getDn()));
+        verify(cacheService, times(1)).put(anyInt(), startsWith(USER_DN + "_sessions_"), any(UserSessionEntry.class));
+    }
+
+    @Test
+    public void put_concurrentSessionsOnOtherNode_keepsBothSessions() {
+        stubCache();
+        SessionId first = session("1", "sid1", USER_DN);
+        SessionId second = session("2", "sid2", USER_DN);
+
+        // Other node adds session after this node loaded indexes
+        AtomicBoolean raced = new AtomicBoolean();
+        doAnswer(invocation -> {
+            Map<String, Object> result = getAll(invocation.getArgument(0));
+            if (raced.compareAndSet(false, true)) {
+                otherNodeSessionIndexService.put(second, 60);
+            }
+            return result;
+        }).when(cacheService).getAll(anyCollection());
+
+        sessionIndexService.put(first, 60);
+
+        assertEqualsNoOrder(sessionIndexService.getSessionDnsByUser(USER_DN).toArray(), new Object[]{first.getDn(), second.getDn()});
+    }
+
+    @Test
+    public void put_sessionWithoutSid_indexesUserOnly() {
+        stubCache();
+        SessionId session = session("1", null, USER_DN);
+
+        sessionIndexService.put(session, 60);
+        sessionIndexService.remove(session);
+
+        verify(cacheService, never()).put(anyInt(), endsWith("_sid"), any());
+        verify(cacheService, never()).remove(endsWith("_sid"));
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    public void remove_session_removesItFromIndexes() {
+        stubCache();
+        SessionId first = session("1", "sid1", USER_DN);
+        SessionId second = session("2", "sid2", USER_DN);
+        sessionIndexService.put(first, 60);
+        sessionIndexService.put(second, 60);
+
+        sessionIndexService.remove(first);
+
+        assertNull(sessionIndexService.getSessionDnBySid("sid1"));
+        assertEquals(sessionIndexService.getSessionDnsByUser(USER_DN).size(), 1);
+
+        sessionIndexService.remove(second);
+
+        assertTrue(sessionIndexService.getSessionDnsByUser(USER_DN).isEmpty());
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    public void put_unauthenticatedSession_indexesSidOnly() {
+        stubCache();
+        SessionId session = session("1", "sid1", null);
+
+        sessionIndexService.put(session, 60);
+
+        assertEquals(sessionIndexService.getSessionDnBySid("sid1"), session.getDn());
+        assertEquals(cache.size(), 1);
+    }
+
+    @Test
+    public void getSessionDnsByUser_expiredSession_isSkipped() {
+        stubCache();
+        cache.put(UserSessionEntry.cacheKey(USER_DN, 0), new UserSessionEntry(USER_DN, "oxId=1,ou=sessions,o=gluu", System.currentTimeMillis() - 1000));
+        cache.put(UserSessionEntry.cacheKey(USER_DN, 1), new UserSessionEntry(USER_DN, "oxId=2,ou=sessions,o=gluu", System.currentTimeMillis() + 60000));
+
+        assertEquals(sessionIndexService.getSessionDnsByUser(USER_DN).toArray(), new Object[]{"oxId=2,ou=sessions,o=gluu"});
+    }
+
+    @Test
+    public void put_allKeysUsed_replacesExpiredSession() {
+        stubCache();
+        for (int i = 0; i < SessionIndexService.MAX_USER_SESSIONS; i++) {
+            long expiresAt = System.currentTimeMillis() + (i == 5 ? -1000 : 60000);
+            cache.put(UserSessionEntry.cacheKey(USER_DN, i), new UserSessionEntry(USER_DN, "oxId=old" + i + ",ou=sessions,o=gluu", expiresAt));
+        }
+        SessionId session = session("1", "sid1", USER_DN);
+
+        sessionIndexService.put(session, 60);
+
+        assertEquals(((UserSessionEntry) cache.get(UserSessionEntry.cacheKey(USER_DN, 5))).getSessionDn(), session.getDn());
+        assertEquals(sessionIndexService.getSessionDnsByUser(USER_DN).size(), SessionIndexService.MAX_USER_SESSIONS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubCache() {
+        lenient().when(cacheService.get(anyString())).thenAnswer(invocation -> cache.get(invocation.<String>getArgument(0)));
+        lenient().when(cacheService.getAll(anyCollection())).thenAnswer(invocation -> getAll(invocation.getArgument(0)));
+        lenient().doAnswer(invocation -> cache.put(invocation.getArgument(1), invocation.getArgument(2)))
+                .when(cacheService).put(anyInt(), anyString(), any());
+        lenient().doAnswer(invocation -> cache.remove(invocation.<String>getArgument(0)))
+                .when(cacheService).remove(anyString());
+    }
+
+    private Map<String, Object> getAll(Collection<String> keys) {
+        Map<String, Object> result = new HashMap<>();
+        for (String key : keys) {
+            if (cache.containsKey(key)) {
+                result.put(key, cache.get(key));
+            }
+        }
+        return result;
+    }
+
+    private static SessionId session(String id, String sid, String userDn) {
+        SessionId session = new SessionId();
+        session.setId(id);
+        session.setDn("oxId=" + id + ",ou=sessions,o=gluu");
+        session.setOutsideSid(sid);
+        session.setUserDn(userDn);
+        session.setExpirationDate(new Date(System.currentTimeMillis() + 60000));
+        return session;
+    }
+
+}
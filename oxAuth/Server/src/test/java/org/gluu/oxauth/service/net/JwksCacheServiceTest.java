@@ -0,0 +1,226 @@
+package org.gluu.oxauth.service.net;
+
+import com.sun.net.httpserver.HttpServer;
+import org.gluu.oxauth.model.configuration.AppConfiguration;
+import org.gluu.oxauth.model.crypto.signature.RSAPublicKey;
+import org.json.JSONObject;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.slf4j.Logger;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+@Listeners(MockitoTestNGListener.class)
+public class JwksCacheServiceTest {
+
+    private static final String KEY_ID = "a1b2c3";
+
+    private static final String JWKS = "{\"keys\":[{\"kty\":\"RSA\",\"use\":\"sig\",\"alg\":\"RS256\",\"kid\":\"" + KEY_ID + "\"," +
+            "\"n\":\"sXchDaQebHnPiGvyDOAT4saGEUetSyo9MKLOoWFsueri23bOdgWp4Dy1WlUzewbgBHod5pcM9H95GQRV3JDXboIRROSBigeC5yjU1hGzHHyXss8UDprecbAYxknTcQkhslANGRUZmdTOQ5qTRsLAt6BTYuyvVRdhS8exSZEy_c4gs_7svlJJQ4H9_NxsiIoLwAEk7-Q3UXERGYw_75IDrGA84-lA_-Ct4eTlXHBIY2EaV7t7LjJaynVJCpkv4LKjTTAumiGUIuQhrNhZLuF_RJLqHpM2kgWFLU7-VTdL1VbC2tejvcI2BlMkEpk1BzBZI0KQB0GaDWFLN-aEAw3vRw\"," +
+            "\"e\":\"AQAB\"}]}";
+
+    @InjectMocks
+    private JwksCacheService jwksCacheService;
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    private AppConfiguration appConfiguration;
+
+    private HttpServer server;
+    private String jwksUri;
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile int status;
+    private volatile String cacheControl;
+
+    @BeforeClass
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/jwks", exchange -> {
+            requestCount.incrementAndGet();
+
+            byte[] body = JWKS.getBytes(StandardCharsets.UTF_8);
+            if (cacheControl != null) {
+                exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+
+        jwksUri = "http://localhost:" + server.getAddress().getPort() + "/jwks";
+    }
+
+    @AfterClass
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeMethod
+    public void resetServer() {
+        requestCount.set(0);
+        status = 200;
+        cacheControl = "max-age=300";
+    }
+
+    @AfterMethod
+    public void destroyService() {
+        jwksCacheService.destroy();
+    }
+
+    @Test
+    public void getJwks_maxAge_returnsCachedJwks() {
+        jwksCacheService.init();
+
+        JSONObject jwks = jwksCacheService.getJwks(jwksUri);
+
+        assertNotNull(jwks);
+        assertSame(jwksCacheService.getJwks(jwksUri), jwks);
+        assertEquals(requestCount.get(), 1);
+        assertEquals(jwksCacheService.getFetchCount(), 1);
+    }
+
+    @Test
+    public void getJwks_noCache_reloadsJwks() {
+        cacheControl = "no-cache";
+        jwksCacheService.init();
+
+        assertNotNull(jwksCacheService.getJwks(jwksUri));
+        assertNotNull(jwksCacheService.getJwks(jwksUri));
+        assertEquals(requestCount.get(), 2);
+    }
+
+    @Test
+    public void getJwks_noCacheControl_usesConfiguredLifetime() {
+        cacheControl = null;
+        when(appConfiguration.getJwksCacheLifetimeInSeconds()).thenReturn(300);
+        jwksCacheService.init();
+
+        assertNotNull(jwksCacheService.getJwks(jwksUri));
+        assertNotNull(jwksCacheService.getJwks(jwksUri));
+        assertEquals(requestCount.get(), 1);
+    }
+
+    @Test
+    public void getJwks_unknownKeyId_reloadsNotOftenThanRefreshInterval() {
+        when(appConfiguration.getJwksCacheRefreshIntervalInSeconds()).thenReturn(60);
+        jwksCacheService.init();
+
+        assertNotNull(jwksCacheService.getJwks(jwksUri, "unknown"));
+        assertNotNull(jwksCacheService.getJwks(jwksUri, "unknown"));
+        assertNotNull(jwksCacheService.getJwks(jwksUri, KEY_ID));
+        assertEquals(requestCount.get(), 1);
+
+        when(appConfiguration.getJwksCacheRefreshIntervalInSeconds()).thenReturn(0);
+
+        assertNotNull(jwksCacheService.getJwks(jwksUri, "unknown"));
+        assertEquals(requestCount.get(), 2);
+    }
+
+    @Test
+    public void getJwks_endpointUnavailable_returnsPreviouslyLoadedJwks() {
+        cacheControl = "no-cache";
+        when(appConfiguration.getJwksCacheRefreshIntervalInSeconds()).thenReturn(60);
+        jwksCacheService.init();
+
+        JSONObject jwks = jwksCacheService.getJwks(jwksUri);
+        assertNotNull(jwks);
+
+        status = 500;
+
+        assertSame(jwksCacheService.getJwks(jwksUri), jwks);
+        assertSame(jwksCacheService.getJwks(jwksUri), jwks);
+        assertEquals(requestCount.get(), 2);
+    }
+
+    @Test
+    public void getJwks_endpointUnavailable_returnsNull() {
+        status = 500;
+        jwksCacheService.init();
+
+        assertNull(jwksCacheService.getJwks(jwksUri));
+    }
+
+    @Test
+    public void getJwks_concurrentRequests_loadsJwksOnce() throws Exception {
+        jwksCacheService.init();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<JSONObject>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executorService.submit(() -> jwksCacheService.getJwks(jwksUri)));
+            }
+
+            JSONObject jwks = futures.get(0).get(10, TimeUnit.SECONDS);
+            assertNotNull(jwks);
+            for (Future<JSONObject> future : futures) {
+                assertSame(future.get(10, TimeUnit.SECONDS), jwks);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(requestCount.get(), 1);
+    }
+
+    @Test
+    public void getJwks_endpointUnavailable_loadsAgainOnNextRequest() {
+        status = 500;
+        jwksCacheService.init();
+
+        assertNull(jwksCacheService.getJwks(jwksUri));
+
+        status = 200;
+
+        assertNotNull(jwksCacheService.getJwks(jwksUri));
+        assertEquals(requestCount.get(), 2);
+    }
+
+    @Test
+    public void getRSAPublicKey_returnsCachedKey() {
+        jwksCacheService.init();
+
+        RSAPublicKey publicKey = jwksCacheService.getRSAPublicKey(jwksUri, KEY_ID);
+
+        assertNotNull(publicKey);
+        assertSame(jwksCacheService.getRSAPublicKey(jwksUri, KEY_ID), publicKey);
+        assertNull(jwksCacheService.getECDSAPublicKey(jwksUri, KEY_ID));
+        assertEquals(requestCount.get(), 1);
+    }
+
+    @Test
+    public void invalidate_reloadsJwks() {
+        jwksCacheService.init();
+
+        assertNotNull(jwksCacheService.getJwks(jwksUri));
+        jwksCacheService.invalidate(jwksUri);
+        assertNotNull(jwksCacheService.getJwks(jwksUri));
+        assertEquals(requestCount.get(), 2);
+    }
+
+}
@@ -0,0 +1,157 @@
+package org.gluu.oxauth.service.stat;
+
+import net.agkn.hll.HLL;
+import org.gluu.oxauth.model.common.GrantType;
+import org.gluu.oxauth.model.config.BaseDnConfiguration;
+import org.gluu.oxauth.model.config.StaticConfiguration;
+import org.gluu.oxauth.model.stat.StatEntry;
+import org.gluu.persist.PersistenceEntryManager;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.slf4j.Logger;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+@Listeners(MockitoTestNGListener.class)
+public class StatServiceTest {
+
+    private static final int THREADS = 64;
+    private static final int ITERATIONS = 10000;
+
+    @InjectMocks
+    private StatService statService;
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    private PersistenceEntryManager entryManager;
+
+    @Mock
+    private StaticConfiguration staticConfiguration;
+
+    @Test
+    public void reportToken_64Threads_noLostUpdates() throws Exception {
+        initStatService();
+
+        runConcurrently(threadIndex -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                statService.reportAccessToken(GrantType.AUTHORIZATION_CODE);
+                statService.reportIdToken(GrantType.AUTHORIZATION_CODE);
+                statService.reportRefreshToken(GrantType.REFRESH_TOKEN);
+            }
+        });
+        statService.updateStat();
+
+        Map<String, Map<String, Long>> tokenCounters = getMergedEntry().getStat().getTokenCountPerGrantType();
+        assertEquals(tokenCounters.get("authorization_code").get(StatService.ACCESS_TOKEN_KEY).longValue(), (long) THREADS * ITERATIONS);
+        assertEquals(tokenCounters.get("authorization_code").get(StatService.ID_TOKEN_KEY).longValue(), (long) THREADS * ITERATIONS);
+        assertEquals(tokenCounters.get("refresh_token").get(StatService.REFRESH_TOKEN_KEY).longValue(), (long) THREADS * ITERATIONS);
+    }
+
+    @Test
+    public void reportActiveUser_64Threads_countsUniqueUsers() throws Exception {
+        initStatService();
+        final int usersPerThread = 1000;
+
+        runConcurrently(threadIndex -> {
+            for (int i = 0; i < usersPerThread; i++) {
+                // Each user is reported twice
+                statService.reportActiveUser("user-" + threadIndex + "-" + i);
+                statService.reportActiveUser("user-" + threadIndex + "-" + i);
+            }
+        });
+        statService.updateStat();
+
+        HLL hll = HLL.fromBytes(Base64.getDecoder().decode(getMergedEntry().getUserHllData()));
+        long expected = (long) THREADS * usersPerThread;
+        assertTrue(Math.abs(hll.cardinality() - expected) < expected * 0.05, "Cardinality: " + hll.cardinality());
+    }
+
+    @Test
+    public void updateStat_entryInPersistence_addsToLoadedValues() {
+        StatEntry entry = new StatEntry();
+        entry.setDn("jansId=node,ou=202001,ou=stat,o=gluu");
+        entry.setUserHllData(Base64.getEncoder().encodeToString(statService.newHll().toBytes()));
+        entry.getStat().setMonth(new SimpleDateFormat("yyyyMM").format(new Date()));
+        Map<String, Long> tokenMap = new HashMap<>();
+        tokenMap.put(StatService.ACCESS_TOKEN_KEY, 5L);
+        entry.getStat().getTokenCountPerGrantType().put("client_credentials", tokenMap);
+        when(entryManager.find(eq(StatEntry.class), anyString())).thenReturn(entry);
+        when(staticConfiguration.getBaseDn()).thenReturn(createBaseDn());
+
+        assertTrue(statService.init());
+        statService.reportAccessToken(GrantType.CLIENT_CREDENTIALS);
+        statService.reportAccessToken(GrantType.CLIENT_CREDENTIALS);
+        statService.reportAccessToken(GrantType.CLIENT_CREDENTIALS);
+        statService.updateStat();
+        statService.updateStat();
+
+        verify(entryManager, never()).persist(any(StatEntry.class));
+        verify(entryManager, times(2)).merge(entry);
+        assertEquals(entry.getStat().getTokenCountPerGrantType().get("client_credentials").get(StatService.ACCESS_TOKEN_KEY).longValue(), 8L);
+    }
+
+    private void initStatService() {
+        when(staticConfiguration.getBaseDn()).thenReturn(createBaseDn());
+        assertTrue(statService.init());
+    }
+
+    private StatEntry getMergedEntry() {
+        ArgumentCaptor<StatEntry> captor = ArgumentCaptor.forClass(StatEntry.class);
+        verify(entryManager).merge(captor.capture());
+        return captor.getValue();
+    }
+
+    private static BaseDnConfiguration createBaseDn() {
+        BaseDnConfiguration baseDn = new BaseDnConfiguration();
+        baseDn.setStat("ou=stat,o=gluu");
+        return baseDn;
+    }
+
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                final int threadIndex = t;
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    task.run(threadIndex);
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private interface ThreadTask {
+        void run(int threadIndex);
+    }
+
+}
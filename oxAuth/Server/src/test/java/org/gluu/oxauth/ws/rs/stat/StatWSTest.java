@@ -0,0 +1,164 @@
+package org.gluu.oxauth.ws.rs.stat;
+
+import net.agkn.hll.HLL;
+import org.gluu.oxauth.model.stat.StatEntry;
+import org.gluu.oxauth.service.stat.StatService;
+import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.search.filter.Filter;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.testng.MockitoTestNGListener;
+import org.slf4j.Logger;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.testng.Assert.*;
+
+@Listeners(MockitoTestNGListener.class)
+public class StatWSTest {
+
+    private static final String CLOSED_MONTH = "202001";
+
+    @InjectMocks
+    private StatWS statWS;
+
+    // Another node with empty cache
+    @InjectMocks
+    private StatWS otherNodeStatWS;
+
+    @Mock
+    private Logger log;
+
+    @Mock
+    private PersistenceEntryManager entryManager;
+
+    @Mock
+    private StatService statService;
+
+    @Test
+    public void buildItem_closedMonth_summaryEqualsMergedNodeStat() {
+        final String monthlyDn = monthlyDn(CLOSED_MONTH);
+        final String summaryDn = "jansId=summary," + monthlyDn;
+        when(statService.getMonthlyDn(CLOSED_MONTH)).thenReturn(monthlyDn);
+        when(statService.getSummaryDn(CLOSED_MONTH)).thenReturn(summaryDn);
+        when(entryManager.findEntries(eq(monthlyDn), eq(StatEntry.class), any(Filter.class)))
+                .thenReturn(createNodeEntries(CLOSED_MONTH));
+
+        final StatResponseItem merged = statWS.buildItem(CLOSED_MONTH);
+
+        ArgumentCaptor<StatEntry> summaryCaptor = ArgumentCaptor.forClass(StatEntry.class);
+        verify(entryManager).persist(summaryCaptor.capture());
+        final StatEntry summary = summaryCaptor.getValue();
+        assertEquals(summary.getDn(), summaryDn);
+        assertTrue(StatService.isSummary(summary));
+
+        when(entryManager.find(StatEntry.class, summaryDn)).thenReturn(summary);
+        final StatResponseItem materialized = otherNodeStatWS.buildItem(CLOSED_MONTH);
+
+        assertTrue(merged.isMaterialized());
+        assertTrue(materialized.isMaterialized());
+        assertEquals(materialized.getMonthlyActiveUsers(), merged.getMonthlyActiveUsers());
+        assertEquals(materialized.getTokenCountPerGrantType(), merged.getTokenCountPerGrantType());
+        assertEquals(merged.getMonthlyActiveUsers(), 3);
+        assertEquals(merged.getTokenCountPerGrantType().get("authorization_code").get(StatService.ACCESS_TOKEN_KEY).longValue(), 7L);
+        assertEquals(merged.getTokenCountPerGrantType().get("client_credentials").get(StatService.ACCESS_TOKEN_KEY).longValue(), 2L);
+
+        // Summary is written once and other node doesn't merge node entries
+        verify(entryManager, times(1)).persist(any(StatEntry.class));
+        verify(entryManager, times(1)).findEntries(anyString(), eq(StatEntry.class), any(Filter.class));
+    }
+
+    @Test
+    public void buildItem_currentMonth_notMaterialized() {
+        final String month = new SimpleDateFormat("yyyyMM").format(new Date());
+        final String monthlyDn = monthlyDn(month);
+        when(statService.getMonthlyDn(month)).thenReturn(monthlyDn);
+        when(entryManager.findEntries(eq(monthlyDn), eq(StatEntry.class), any(Filter.class)))
+                .thenReturn(createNodeEntries(month));
+
+        final StatResponseItem item = statWS.buildItem(month);
+        assertFalse(item.isMaterialized());
+        assertEquals(item.getMonthlyActiveUsers(), 3);
+
+        // Served from short lived cache
+        assertSame(statWS.buildItem(month), item);
+
+        verify(entryManager, never()).persist(any());
+        verify(entryManager, never()).find(eq(StatEntry.class), any());
+        verify(entryManager, times(1)).findEntries(anyString(), eq(StatEntry.class), any(Filter.class));
+    }
+
+    @Test
+    public void isMaterializable_monthBoundary() {
+        assertFalse(StatWS.isMaterializable("202001", date(2020, Calendar.JANUARY, 15, 12, 0)));
+        assertFalse(StatWS.isMaterializable("202001", date(2020, Calendar.FEBRUARY, 1, 0, 0)));
+        assertFalse(StatWS.isMaterializable("202001", date(2020, Calendar.FEBRUARY, 1, 23, 59)));
+        assertTrue(StatWS.isMaterializable("202001", date(2020, Calendar.FEBRUARY, 2, 0, 0)));
+
+        // Next month is in next year
+        assertFalse(StatWS.isMaterializable("201912", date(2020, Calendar.JANUARY, 1, 12, 0)));
+        assertTrue(StatWS.isMaterializable("201912", date(2020, Calendar.JANUARY, 2, 0, 0)));
+    }
+
+    @Test
+    public void isMaterializable_currentOrInvalidMonth_false() {
+        final Date now = new Date();
+        assertFalse(StatWS.isMaterializable(new SimpleDateFormat("yyyyMM").format(now), now));
+        assertFalse(StatWS.isMaterializable("202013", now));
+        assertFalse(StatWS.isMaterializable("2020ab", now));
+    }
+
+    private static String monthlyDn(String month) {
+        return "ou=" + month + ",ou=stat,o=gluu";
+    }
+
+    private static List<StatEntry> createNodeEntries(String month) {
+        Map<String, Long> node1Tokens = new HashMap<>();
+        node1Tokens.put(StatService.ACCESS_TOKEN_KEY, 3L);
+        StatEntry node1 = createNodeEntry(month, "node1", Arrays.asList("user1", "user2"));
+        node1.getStat().getTokenCountPerGrantType().put("authorization_code", node1Tokens);
+
+        Map<String, Long> node2AuthorizationCodeTokens = new HashMap<>();
+        node2AuthorizationCodeTokens.put(StatService.ACCESS_TOKEN_KEY, 4L);
+        Map<String, Long> node2ClientCredentialsTokens = new HashMap<>();
+        node2ClientCredentialsTokens.put(StatService.ACCESS_TOKEN_KEY, 2L);
+        StatEntry node2 = createNodeEntry(month, "node2", Arrays.asList("user2", "user3"));
+        node2.getStat().getTokenCountPerGrantType().put("authorization_code", node2AuthorizationCodeTokens);
+        node2.getStat().getTokenCountPerGrantType().put("client_credentials", node2ClientCredentialsTokens);
+
+        return Arrays.asList(node1, node2);
+    }
+
+    private static StatEntry createNodeEntry(String month, String nodeId, List<String> users) {
+        HLL hll = new HLL(15, 5);
+        for (String user : users) {
+            hll.addRaw(user.hashCode());
+        }
+
+        StatEntry entry = new StatEntry();
+        entry.setId(nodeId);
+        entry.setDn("jansId=" + nodeId + "," + monthlyDn(month));
+        entry.setUserHllData(Base64.getEncoder().encodeToString(hll.toBytes()));
+        entry.getStat().setMonth(month);
+        return entry;
+    }
+
+    private static Date date(int year, int month, int day, int hour, int minute) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute);
+        return calendar.getTime();
+    }
+
+}
@@ -10,6 +10,8 @@ import org.apache.commons.codec.digest.DigestUtils;
 import javax.net.ssl.*;
 import java.io.File;
 import java.security.cert.CertificateException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -149,6 +151,7 @@ public class StatExporter {
     private static StatExporterResponse prepareResponse(JsonNode node) {
         StatExporterResponse response = new StatExporterResponse();
         response.setData(new HashMap<>());
+        response.setMaterializedMonths(new ArrayList<>());
 
         int totalMau = 42;
         final JsonNode r = node.get("response");
@@ -165,8 +168,15 @@ public class StatExporter {
 
             response.getData().put(entry.getKey(), mau);
             totalMau += mau;
+
+            // Final stat of closed month, server doesn't change it anymore
+            final JsonNode materialized = entry.getValue().get("materialized");
+            if (materialized != null && materialized.asBoolean()) {
+                response.getMaterializedMonths().add(entry.getKey());
+            }
         }
 
+        Collections.sort(response.getMaterializedMonths());
         response.setMauSignature(hash(Integer.toString(totalMau)));
         return response;
     }
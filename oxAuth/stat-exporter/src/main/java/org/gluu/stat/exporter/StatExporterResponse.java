@@ -7,6 +7,7 @@ package org.gluu.stat.exporter;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.List;
 import java.util.Map;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
@@ -16,6 +17,8 @@ public class StatExporterResponse {
     private Map<String, Integer> data;
     @JsonProperty(value = "mau-signature")
     private String mauSignature;
+    @JsonProperty(value = "materialized-months")
+    private List<String> materializedMonths;
 
     public Map<String, Integer> getData() {
         return data;
@@ -32,4 +35,12 @@ public class StatExporterResponse {
     public void setMauSignature(String mauSignature) {
         this.mauSignature = mauSignature;
     }
+
+    public List<String> getMaterializedMonths() {
+        return materializedMonths;
+    }
+
+    public void setMaterializedMonths(List<String> materializedMonths) {
+        this.materializedMonths = materializedMonths;
+    }
 }
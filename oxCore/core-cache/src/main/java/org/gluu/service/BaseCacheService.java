@@ -5,13 +5,28 @@
  */
 package org.gluu.service;
 
+import net.jodah.expiringmap.ExpirationPolicy;
+import net.jodah.expiringmap.ExpiringMap;
+import org.gluu.service.cache.CacheConfiguration;
 import org.gluu.service.cache.CacheInterface;
+import org.gluu.service.cache.CacheLoadListener;
 import org.gluu.service.cache.CacheProvider;
 import org.gluu.service.cache.CacheProviderType;
 import org.slf4j.Logger;
 
 import javax.inject.Inject;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 /**
@@ -24,9 +39,27 @@ public abstract class BaseCacheService implements CacheInterface {
 	
 	public static int DEFAULT_EXPIRATION = 60;
 
+	private static final int MAX_LOAD_STATS_SIZE = 10000;
+
+	private static final int DEFAULT_LOAD_COALESCING_WAIT_TIMEOUT = 10; // in seconds
+
 	@Inject
     private Logger log;
 
+	@Inject
+	private CacheConfiguration cacheConfiguration;
+
+	private final ConcurrentMap<String, CompletableFuture<Object>> inProgressLoads = new ConcurrentHashMap<>();
+
+	private final ExpiringMap<String, LoadStat> loadStats = ExpiringMap.builder().maxSize(MAX_LOAD_STATS_SIZE)
+			.expirationPolicy(ExpirationPolicy.CREATED).variableExpiration().build();
+
+	private final LongAdder loadCount = new LongAdder();
+	private final LongAdder coalescedLoadCount = new LongAdder();
+	private final LongAdder earlyRefreshCount = new LongAdder();
+
+	private volatile CacheLoadListener loadListener;
+
     public Object get(String key) {
     	CacheProvider cacheProvider = getCacheProvider();
         if (cacheProvider == null) {
@@ -41,6 +74,24 @@ public abstract class BaseCacheService implements CacheInterface {
     	return value;
     }
 
+    public Map<String, Object> getAll(Collection<String> keys) {
+    	CacheProvider cacheProvider = getCacheProvider();
+        if (cacheProvider == null) {
+        	log.error("Cache provider is invalid!");
+            return Collections.emptyMap();
+        }
+
+        if ((keys == null) || keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+    	log.trace("Request data, keys '{}'", keys);
+    	Map<String, Object> values = cacheProvider.getAll(keys);
+    	log.trace("Loaded data, keys count: '{}', found: '{}'", keys.size(), values.size());
+
+    	return values;
+    }
+
     public <T> T getWithPut(String key, Supplier<T> loadFunction, int expirationInSeconds) {
         if (loadFunction == null) {
             return (T) get(key);
@@ -50,28 +101,179 @@ public abstract class BaseCacheService implements CacheInterface {
 
     	if (CacheProviderType.NATIVE_PERSISTENCE == cacheProvider.getProviderType()) {
         	log.trace("Loading data from DB without cache, key '{}'", key);
-            return loadFunction.get();
+            return (T) load(key, loadFunction, expirationInSeconds, false);
         }
 
         final Object value = get(key);
         if (value != null) {
             log.trace("Loaded from cache, key: '{}'", key);
+            if (isEarlyRefreshNeeded(key)) {
+                return (T) refresh(key, loadFunction, expirationInSeconds, value);
+            }
+
             return (T) value;
         } else {
             log.trace("Key not in cache. Searching value via load function, key: '{}'", key);
-            final T loaded = loadFunction.get();
-            if (loaded == null) {
-                log.trace("Key not in cache. There is no value, key: '{}'", key);
-                return null;
+            return (T) load(key, loadFunction, expirationInSeconds, true);
+        }
+    }
+
+    private <T> Object load(String key, Supplier<T> loadFunction, int expirationInSeconds, boolean putToCache) {
+        if (!isLoadCoalescingEnabled()) {
+            return loadAndPut(key, loadFunction, expirationInSeconds, putToCache);
+        }
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inProgressLoad = inProgressLoads.putIfAbsent(key, future);
+        if (inProgressLoad != null) {
+            coalescedLoadCount.increment();
+            if (loadListener != null) {
+                loadListener.onCoalescedLoad();
             }
+            log.trace("Waiting for load in progress, key: '{}'", key);
+            return waitForLoad(key, inProgressLoad, loadFunction, expirationInSeconds, putToCache);
+        }
+
+        try {
+            Object loaded = loadAndPut(key, loadFunction, expirationInSeconds, putToCache);
+            future.complete(loaded);
 
+            return loaded;
+        } catch (RuntimeException | Error ex) {
+            // Threads which wait for this load should get the same failure
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inProgressLoads.remove(key, future);
+        }
+    }
+
+    private <T> Object refresh(String key, Supplier<T> loadFunction, int expirationInSeconds, Object cachedValue) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        if (inProgressLoads.putIfAbsent(key, future) != null) {
+            // Another thread already refreshes this entry
+            return cachedValue;
+        }
+
+        earlyRefreshCount.increment();
+        if (loadListener != null) {
+            loadListener.onEarlyRefresh();
+        }
+        log.trace("Early refresh of cache entry, key: '{}'", key);
+        try {
+            Object loaded = loadAndPut(key, loadFunction, expirationInSeconds, true);
+            future.complete(loaded);
+
+            return loaded != null ? loaded : cachedValue;
+        } catch (RuntimeException ex) {
+            future.completeExceptionally(ex);
+            log.error("Failed to refresh cache entry, key: '{}'", key, ex);
+
+            return cachedValue;
+        } catch (Error ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inProgressLoads.remove(key, future);
+        }
+    }
+
+    private <T> Object loadAndPut(String key, Supplier<T> loadFunction, int expirationInSeconds, boolean putToCache) {
+        long startTime = System.nanoTime();
+        final T loaded = loadFunction.get();
+        long loadTime = System.nanoTime() - startTime;
+        loadCount.increment();
+
+        if (loaded == null) {
+            log.trace("Key not in cache. There is no value, key: '{}'", key);
+            return null;
+        }
+
+        if (putToCache) {
             try {
                 put(expirationInSeconds, key, loaded);
+                if ((getEarlyRefreshBeta() > 0) && (expirationInSeconds > 0)) {
+                    long expireAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(expirationInSeconds);
+                    loadStats.put(key, new LoadStat(loadTime / 1000000.0d, expireAt), ExpirationPolicy.CREATED,
+                            expirationInSeconds, TimeUnit.SECONDS);
+                }
             } catch (Exception e) {
                 log.error("Failed to put object into cache, key: '{}'", key, e); // we don't want prevent returning loaded value due to failure with put
             }
-            return loaded;
         }
+
+        return loaded;
+    }
+
+    private <T> Object waitForLoad(String key, CompletableFuture<Object> inProgressLoad, Supplier<T> loadFunction, int expirationInSeconds,
+            boolean putToCache) {
+        try {
+            return inProgressLoad.get(getLoadCoalescingWaitTimeout(), TimeUnit.SECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw new IllegalStateException("Failed to load value, key: " + key, ex.getCause());
+        } catch (TimeoutException ex) {
+            // Hung load shouldn't block all callers of the same key
+            log.warn("Load in progress is not finished in time. Loading value without coalescing, key: '{}'", key);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.debug("Interrupted waiting for load in progress. Loading value without coalescing, key: '{}'", key);
+        }
+
+        return loadAndPut(key, loadFunction, expirationInSeconds, putToCache);
+    }
+
+    /*
+     * Probabilistic early expiration: entry is refreshed before expiration with probability which grows
+     * when expiration time approaches. Expensive to load entries are refreshed earlier
+     */
+    private boolean isEarlyRefreshNeeded(String key) {
+        double beta = getEarlyRefreshBeta();
+        if (beta <= 0) {
+            return false;
+        }
+
+        LoadStat loadStat = loadStats.get(key);
+        if (loadStat == null) {
+            return false;
+        }
+
+        double gap = loadStat.getLoadTime() * beta * -Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+
+        return System.currentTimeMillis() + gap >= loadStat.getExpireAt();
+    }
+
+    private boolean isLoadCoalescingEnabled() {
+        return (cacheConfiguration == null) || cacheConfiguration.isLoadCoalescingEnabled();
+    }
+
+    private int getLoadCoalescingWaitTimeout() {
+        return cacheConfiguration == null ? DEFAULT_LOAD_COALESCING_WAIT_TIMEOUT : cacheConfiguration.getLoadCoalescingWaitTimeout();
+    }
+
+    private double getEarlyRefreshBeta() {
+        return cacheConfiguration == null ? 0 : cacheConfiguration.getEarlyRefreshBeta();
+    }
+
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    public long getCoalescedLoadCount() {
+        return coalescedLoadCount.sum();
+    }
+
+    public long getEarlyRefreshCount() {
+        return earlyRefreshCount.sum();
+    }
+
+    public void setLoadListener(CacheLoadListener loadListener) {
+        this.loadListener = loadListener;
     }
 
 	public void put(int expirationInSeconds, String key, Object object) {
@@ -85,6 +287,21 @@ public abstract class BaseCacheService implements CacheInterface {
 		cacheProvider.put(expirationInSeconds, key, object);
 	}
 
+	public void putAll(int expirationInSeconds, Map<String, Object> objects) {
+    	CacheProvider cacheProvider = getCacheProvider();
+    	if (cacheProvider == null) {
+        	log.error("Cache provider is invalid!");
+			return;
+		}
+
+    	if ((objects == null) || objects.isEmpty()) {
+    		return;
+    	}
+
+    	log.trace("Put data, keys '{}'", objects.keySet());
+		cacheProvider.putAll(expirationInSeconds, objects);
+	}
+
 	public void remove(String key) {
     	CacheProvider cacheProvider = getCacheProvider();
     	if (cacheProvider == null) {
@@ -94,6 +311,25 @@ public abstract class BaseCacheService implements CacheInterface {
 		
     	log.trace("Remove data, key '{}'", key);
 		cacheProvider.remove(key);
+		loadStats.remove(key);
+	}
+
+	public void removeAll(Collection<String> keys) {
+    	CacheProvider cacheProvider = getCacheProvider();
+    	if (cacheProvider == null) {
+        	log.error("Cache provider is invalid!");
+			return;
+		}
+
+    	if ((keys == null) || keys.isEmpty()) {
+    		return;
+    	}
+
+    	log.trace("Remove data, keys '{}'", keys);
+		cacheProvider.removeAll(keys);
+		for (String key : keys) {
+			loadStats.remove(key);
+		}
 	}
 
 	public void clear() {
@@ -105,6 +341,7 @@ public abstract class BaseCacheService implements CacheInterface {
 
     	log.trace("Clear cache");
 		cacheProvider.clear();
+		loadStats.clear();
 	}
 
     @Override
@@ -148,4 +385,23 @@ public abstract class BaseCacheService implements CacheInterface {
 
     protected abstract CacheProvider getCacheProvider();
 
+    private static class LoadStat {
+
+        private final double loadTime; // in milliseconds
+        private final long expireAt;
+
+        LoadStat(double loadTime, long expireAt) {
+            this.loadTime = loadTime;
+            this.expireAt = expireAt;
+        }
+
+        public double getLoadTime() {
+            return loadTime;
+        }
+
+        public long getExpireAt() {
+            return expireAt;
+        }
+    }
+
 }
@@ -1,6 +1,9 @@
 package org.gluu.service.cache;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * @author yuriyz on 02/21/2017.
@@ -18,4 +21,34 @@ public abstract class AbstractCacheProvider<T> extends CacheProvider<T> {
      */
     public void cleanup(final Date now) {}
 
+    /*
+     * Default implementation requests objects one by one. Providers should override it if server supports batch requests
+     */
+    @Override
+    public Map<String, Object> getAll(Collection<String> keys) {
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        for (String key : keys) {
+            Object value = get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void putAll(int expirationInSeconds, Map<String, Object> objects) {
+        for (Map.Entry<String, Object> entry : objects.entrySet()) {
+            put(expirationInSeconds, entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<String> keys) {
+        for (String key : keys) {
+            remove(key);
+        }
+    }
+
 }
@@ -0,0 +1,30 @@
+package org.gluu.service.cache;
+
+import java.io.Serializable;
+
+import org.apache.commons.lang.SerializationUtils;
+
+/**
+ * Base serializer which detects format of stored value. It allows to read entries written by
+ * any other serializer during rolling upgrade or after serializer type change
+ */
+public abstract class AbstractCacheSerializer implements CacheSerializer {
+
+    @Override
+    public Object deserialize(byte[] data) {
+        if ((data == null) || (data.length == 0)) {
+            return null;
+        }
+
+        if (CompactCacheSerializer.isCompactFormat(data)) {
+            return CompactCacheSerializer.readCompact(data);
+        }
+
+        return SerializationUtils.deserialize(data);
+    }
+
+    protected byte[] serializeJava(Object object) {
+        return SerializationUtils.serialize((Serializable) object);
+    }
+
+}
@@ -1,7 +1,13 @@
 package org.gluu.service.cache;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.JedisPubSub;
 
 /**
  * @author yuriyz
@@ -10,6 +16,8 @@ public abstract class AbstractRedisProvider {
 
 	protected RedisConfiguration redisConfiguration;
 
+	protected CacheSerializer serializer = JavaCacheSerializer.INSTANCE;
+
 	public AbstractRedisProvider(RedisConfiguration redisConfiguration) {
 		this.redisConfiguration = redisConfiguration;
         HostAndPort.setLocalhost("127.0.0.1");
@@ -27,6 +35,14 @@ public abstract class AbstractRedisProvider {
 		return redisConfiguration;
 	}
 
+	public CacheSerializer getSerializer() {
+		return serializer;
+	}
+
+	public void setSerializer(CacheSerializer serializer) {
+		this.serializer = serializer;
+	}
+
 	public void testConnection() {
 		put(2, "testKey", "testValue");
 		if (!"testValue".equals(get("testKey"))) {
@@ -60,4 +76,75 @@ public abstract class AbstractRedisProvider {
 
 	public abstract void put(String key, Object object);
 
+	/*
+	 * Default implementation sends request per key. Providers override it to send keys in one request
+	 */
+	public Map<String, Object> getAll(Collection<String> keys) {
+		Map<String, Object> result = new LinkedHashMap<String, Object>();
+		for (String key : keys) {
+			Object value = get(key);
+			if (value != null) {
+				result.put(key, value);
+			}
+		}
+
+		return result;
+	}
+
+	public void putAll(int expirationInSeconds, Map<String, Object> objects) {
+		for (Map.Entry<String, Object> entry : objects.entrySet()) {
+			put(expirationInSeconds, entry.getKey(), entry.getValue());
+		}
+	}
+
+	public void removeAll(Collection<String> keys) {
+		for (String key : keys) {
+			remove(key);
+		}
+	}
+
+	protected byte[][] toBinaryKeys(Collection<String> keys) {
+		byte[][] binaryKeys = new byte[keys.size()][];
+		int i = 0;
+		for (String key : keys) {
+			binaryKeys[i++] = key.getBytes();
+		}
+
+		return binaryKeys;
+	}
+
+	protected Map<String, Object> toResultMap(Collection<String> keys, List<byte[]> values) {
+		Map<String, Object> result = new LinkedHashMap<String, Object>();
+		int i = 0;
+		for (String key : keys) {
+			byte[] value = values.get(i++);
+			if ((value != null) && (value.length > 0)) {
+				Object deserialized = serializer.deserialize(value);
+				if (deserialized != null) {
+					result.put(key, deserialized);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/*
+	 * Method to check if provider supports publish/subscribe
+	 */
+	public boolean isPubSubSupported() {
+		return false;
+	}
+
+	public void publish(String channel, String message) {
+		throw new UnsupportedOperationException("Publish/subscribe is not supported by " + getClass().getSimpleName());
+	}
+
+	/**
+	 * Subscribes listener to channel. Method blocks current thread till listener unsubscribes.
+	 */
+	public void subscribe(JedisPubSub listener, String channel) {
+		throw new UnsupportedOperationException("Publish/subscribe is not supported by " + getClass().getSimpleName());
+	}
+
 }
@@ -26,6 +26,33 @@ public class CacheConfiguration implements Serializable {
 
     private NativePersistenceConfiguration nativePersistenceConfiguration;
 
+    private NearCacheConfiguration nearCacheConfiguration = new NearCacheConfiguration();
+
+    /*
+     * Concurrent getWithPut misses of the same key share one load
+     */
+    private boolean loadCoalescingEnabled = true;
+
+    /*
+     * Max time to wait for load of the same key started by another thread. After timeout value is loaded without coalescing
+     */
+    private int loadCoalescingWaitTimeout = 10; // in seconds
+
+    /*
+     * Probabilistic early refresh factor of getWithPut entries. 0 disables early refresh, 1.0 is recommended value
+     */
+    private double earlyRefreshBeta = 0;
+
+    /*
+     * Format of values in remote cache providers. COMPACT should be enabled after upgrade of all nodes
+     */
+    private CacheSerializerType serializerType = CacheSerializerType.JAVA;
+
+    /*
+     * Serialized values bigger than threshold are compressed. 0 disables compression
+     */
+    private int serializerCompressionThreshold = 4096; // in bytes
+
     public NativePersistenceConfiguration getNativePersistenceConfiguration() {
         return nativePersistenceConfiguration;
     }
@@ -34,6 +61,54 @@ public class CacheConfiguration implements Serializable {
         this.nativePersistenceConfiguration = nativePersistenceConfiguration;
     }
 
+    public NearCacheConfiguration getNearCacheConfiguration() {
+        return nearCacheConfiguration;
+    }
+
+    public void setNearCacheConfiguration(NearCacheConfiguration nearCacheConfiguration) {
+        this.nearCacheConfiguration = nearCacheConfiguration;
+    }
+
+    public boolean isLoadCoalescingEnabled() {
+        return loadCoalescingEnabled;
+    }
+
+    public void setLoadCoalescingEnabled(boolean loadCoalescingEnabled) {
+        this.loadCoalescingEnabled = loadCoalescingEnabled;
+    }
+
+    public int getLoadCoalescingWaitTimeout() {
+        return loadCoalescingWaitTimeout;
+    }
+
+    public void setLoadCoalescingWaitTimeout(int loadCoalescingWaitTimeout) {
+        this.loadCoalescingWaitTimeout = loadCoalescingWaitTimeout;
+    }
+
+    public double getEarlyRefreshBeta() {
+        return earlyRefreshBeta;
+    }
+
+    public void setEarlyRefreshBeta(double earlyRefreshBeta) {
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+
+    public CacheSerializerType getSerializerType() {
+        return serializerType;
+    }
+
+    public void setSerializerType(CacheSerializerType serializerType) {
+        this.serializerType = serializerType;
+    }
+
+    public int getSerializerCompressionThreshold() {
+        return serializerCompressionThreshold;
+    }
+
+    public void setSerializerCompressionThreshold(int serializerCompressionThreshold) {
+        this.serializerCompressionThreshold = serializerCompressionThreshold;
+    }
+
     public RedisConfiguration getRedisConfiguration() {
         return redisConfiguration;
     }
@@ -74,6 +149,12 @@ public class CacheConfiguration implements Serializable {
                 ", redisConfiguration=" + redisConfiguration +
                 ", inMemoryConfiguration=" + inMemoryConfiguration +
                 ", nativePersistenceConfiguration=" + nativePersistenceConfiguration +
+                ", nearCacheConfiguration=" + nearCacheConfiguration +
+                ", loadCoalescingEnabled=" + loadCoalescingEnabled +
+                ", loadCoalescingWaitTimeout=" + loadCoalescingWaitTimeout +
+                ", earlyRefreshBeta=" + earlyRefreshBeta +
+                ", serializerType=" + serializerType +
+                ", serializerCompressionThreshold=" + serializerCompressionThreshold +
                 '}';
     }
 }
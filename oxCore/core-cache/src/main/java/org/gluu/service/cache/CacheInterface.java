@@ -1,6 +1,8 @@
 package org.gluu.service.cache;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.Map;
 
 /**
  * @author Yuriy Zabrovarnyy
@@ -9,10 +11,19 @@ public interface CacheInterface {
 
     Object get(String key);
 
+    /**
+     * Returns found objects only. Map is ordered in keys order
+     */
+    Map<String, Object> getAll(Collection<String> keys);
+
     void put(int expirationInSeconds, String key, Object object);
 
+    void putAll(int expirationInSeconds, Map<String, Object> objects);
+
    void remove(String key);
 
+   void removeAll(Collection<String> keys);
+
    void clear();
 
     void cleanup(final Date now);
@@ -0,0 +1,17 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+package org.gluu.service.cache;
+
+/**
+ * Receives getWithPut load events which application publishes as metrics
+ */
+public interface CacheLoadListener {
+
+    void onCoalescedLoad();
+
+    void onEarlyRefresh();
+
+}
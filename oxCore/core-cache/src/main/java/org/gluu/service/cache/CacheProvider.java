@@ -1,6 +1,8 @@
 package org.gluu.service.cache;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.Map;
 
 public abstract class CacheProvider<T> implements CacheInterface {
 
@@ -23,8 +25,18 @@ public abstract class CacheProvider<T> implements CacheInterface {
      */
     public abstract Object get(String key);
 
+    /**
+     * Fetches objects for the given keys from the cache.
+     *
+     * @param keys - a keys to identify the objects.
+     * @return - map with found objects ordered by keys
+     */
+    public abstract Map<String, Object> getAll(Collection<String> keys);
+
     public abstract void put(int expirationInSeconds, String key, Object object);
 
+    public abstract void putAll(int expirationInSeconds, Map<String, Object> objects);
+
     /**
      * Removes an object from the cache. The object is removed from the specified
      * cache region under the given key.
@@ -33,6 +45,8 @@ public abstract class CacheProvider<T> implements CacheInterface {
      */
     public abstract void remove(String key);
 
+    public abstract void removeAll(Collection<String> keys);
+
     /**
      * Removes all objects from cache
      */
@@ -2,12 +2,15 @@ package org.gluu.service.cache;
 
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.inject.Any;
+import javax.enterprise.inject.Disposes;
 import javax.enterprise.inject.Instance;
 import javax.enterprise.inject.Produces;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author yuriyz on 02/21/2017.
@@ -16,6 +19,8 @@ import org.slf4j.Logger;
 @Named
 public class CacheProviderFactory {
 
+    private static final Logger LOG = LoggerFactory.getLogger(CacheProviderFactory.class);
+
     @Inject
     private Logger log;
 
@@ -66,9 +71,35 @@ public class CacheProviderFactory {
 
         cacheProvider.create();
 
-        return cacheProvider;
+        return wrapWithNearCache(cacheConfiguration, cacheProvider);
 	}
 
+    public static AbstractCacheProvider<?> wrapWithNearCache(CacheConfiguration cacheConfiguration, AbstractCacheProvider<?> cacheProvider) {
+        NearCacheConfiguration nearCacheConfiguration = cacheConfiguration.getNearCacheConfiguration();
+        if ((nearCacheConfiguration == null) || !nearCacheConfiguration.isEnabled()
+                || (CacheProviderType.IN_MEMORY == cacheProvider.getProviderType())) {
+            return cacheProvider;
+        }
+
+        if ((NearCacheProvider.getInvalidationProvider(cacheProvider) == null)
+                || StringUtils.isBlank(nearCacheConfiguration.getInvalidationChannel())) {
+            LOG.warn("Near cache is disabled. Cache provider '{}' doesn't support invalidation messages", cacheProvider.getProviderType());
+            return cacheProvider;
+        }
+
+        NearCacheProvider nearCacheProvider = new NearCacheProvider(nearCacheConfiguration, cacheProvider);
+        nearCacheProvider.create();
+
+        return nearCacheProvider;
+    }
+
+    public void destroyCacheProvider(@Disposes CacheProvider cacheProvider) {
+        // Near cache is not managed bean. It destroys wrapped cache provider too
+        if (cacheProvider instanceof NearCacheProvider) {
+            ((NearCacheProvider) cacheProvider).destroy();
+        }
+    }
+
     @Produces
     @ApplicationScoped
     @LocalCache
@@ -0,0 +1,17 @@
+package org.gluu.service.cache;
+
+/**
+ * Converts cache values to bytes stored by remote cache providers and back
+ */
+public interface CacheSerializer {
+
+    byte[] serialize(Object object);
+
+    /**
+     * Implementations must be able to read values written by other serializers to support rolling upgrades
+     */
+    Object deserialize(byte[] data);
+
+    CacheSerializerType getType();
+
+}
@@ -0,0 +1,20 @@
+package org.gluu.service.cache;
+
+/**
+ * Important : keep it weld free. It's reused by oxd !
+ */
+public final class CacheSerializerFactory {
+
+    private CacheSerializerFactory() {
+    }
+
+    public static CacheSerializer create(CacheConfiguration cacheConfiguration) {
+        CacheSerializerType serializerType = cacheConfiguration.getSerializerType();
+        if (CacheSerializerType.COMPACT == serializerType) {
+            return new CompactCacheSerializer(cacheConfiguration.getSerializerCompressionThreshold());
+        }
+
+        return JavaCacheSerializer.INSTANCE;
+    }
+
+}
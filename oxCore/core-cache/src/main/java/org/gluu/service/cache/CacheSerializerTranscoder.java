@@ -0,0 +1,52 @@
+package org.gluu.service.cache;
+
+import net.spy.memcached.CachedData;
+import net.spy.memcached.transcoders.SerializingTranscoder;
+import net.spy.memcached.transcoders.Transcoder;
+
+/**
+ * Memcached transcoder which stores values with configured cache serializer.
+ * Values stored by default transcoder are still readable.
+ */
+public class CacheSerializerTranscoder implements Transcoder<Object> {
+
+    // Flag which is not used by SerializingTranscoder
+    public static final int CACHE_SERIALIZER_FLAG = 4;
+
+    private final CacheSerializer serializer;
+    private final SerializingTranscoder defaultTranscoder;
+
+    public CacheSerializerTranscoder(CacheSerializer serializer, int maxSize) {
+        this.serializer = serializer;
+        this.defaultTranscoder = new SerializingTranscoder(maxSize);
+    }
+
+    @Override
+    public boolean asyncDecode(CachedData data) {
+        return defaultTranscoder.asyncDecode(data);
+    }
+
+    @Override
+    public CachedData encode(Object object) {
+        if (CacheSerializerType.JAVA == serializer.getType()) {
+            return defaultTranscoder.encode(object);
+        }
+
+        return new CachedData(CACHE_SERIALIZER_FLAG, serializer.serialize(object), getMaxSize());
+    }
+
+    @Override
+    public Object decode(CachedData data) {
+        if ((data.getFlags() & CACHE_SERIALIZER_FLAG) != 0) {
+            return serializer.deserialize(data.getData());
+        }
+
+        return defaultTranscoder.decode(data);
+    }
+
+    @Override
+    public int getMaxSize() {
+        return defaultTranscoder.getMaxSize();
+    }
+
+}
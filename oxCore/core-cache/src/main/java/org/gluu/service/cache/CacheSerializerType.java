@@ -0,0 +1,12 @@
+package org.gluu.service.cache;
+
+import javax.xml.bind.annotation.XmlEnum;
+
+/**
+ * JAVA - Java serialization, format supported by all versions
+ * COMPACT - versioned compact binary format, should be enabled after upgrade of all nodes
+ */
+@XmlEnum(String.class)
+public enum CacheSerializerType {
+    JAVA, COMPACT
+}
@@ -0,0 +1,931 @@
+package org.gluu.service.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.commons.lang.SerializationException;
+
+/**
+ * Compact binary serializer. Plain serializable beans are written field by field with class and field
+ * names written once per value. Such beans should declare no-arg constructor which is used to create instance
+ * before fields are restored. Unlike Java serialization constructor and field initializers run on deserialization,
+ * so transient fields and fields missing in stored value keep their initial values instead of null/0. Common JDK types have dedicated encodings. Classes without no-arg constructor and
+ * classes which customize Java serialization (writeObject, writeReplace, Externalizable, etc.) are embedded in
+ * Java serialization format.
+ *
+ * Format: magic byte, format version, flags, payload. Payload is compressed with deflate if it's bigger
+ * than configured threshold.
+ */
+public class CompactCacheSerializer extends AbstractCacheSerializer {
+
+    private static final byte MAGIC = (byte) 0xC5;
+    private static final byte FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 3;
+
+    private static final byte FLAG_COMPRESSED = 0x01;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_TRUE = 1;
+    private static final byte TAG_FALSE = 2;
+    private static final byte TAG_INT = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_SHORT = 5;
+    private static final byte TAG_BYTE = 6;
+    private static final byte TAG_CHAR = 7;
+    private static final byte TAG_FLOAT = 8;
+    private static final byte TAG_DOUBLE = 9;
+    private static final byte TAG_STRING = 10;
+    private static final byte TAG_BYTES = 11;
+    private static final byte TAG_DATE = 12;
+    private static final byte TAG_ENUM = 13;
+    private static final byte TAG_ARRAY = 14;
+    private static final byte TAG_COLLECTION = 15;
+    private static final byte TAG_MAP = 16;
+    private static final byte TAG_OBJECT = 17;
+    private static final byte TAG_REFERENCE = 18;
+    private static final byte TAG_JAVA = 19;
+
+    private static final Set<Class<?>> COLLECTION_CLASSES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(ArrayList.class,
+            LinkedList.class, HashSet.class, LinkedHashSet.class, TreeSet.class));
+
+    private static final Set<Class<?>> MAP_CLASSES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(HashMap.class,
+            LinkedHashMap.class, TreeMap.class, ConcurrentHashMap.class));
+
+    private static final Map<String, Class<?>> PRIMITIVE_CLASSES = new HashMap<String, Class<?>>();
+
+    static {
+        for (Class<?> clazz : Arrays.<Class<?>>asList(boolean.class, byte.class, char.class, short.class, int.class, long.class,
+                float.class, double.class)) {
+            PRIMITIVE_CLASSES.put(clazz.getName(), clazz);
+        }
+    }
+
+    private static final ConcurrentHashMap<Class<?>, ClassInfo> CLASS_INFOS = new ConcurrentHashMap<Class<?>, ClassInfo>();
+
+    private final int compressionThreshold;
+
+    public CompactCacheSerializer(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object object) {
+        Output payload = new Output(256);
+        new Writer(payload).writeValue(object);
+
+        int payloadLength = payload.size();
+        if ((compressionThreshold > 0) && (payloadLength > compressionThreshold)) {
+            byte[] compressed = compress(payload.buffer(), payloadLength);
+            if (compressed != null) {
+                Output result = new Output(compressed.length + HEADER_SIZE + 5);
+                writeHeader(result, FLAG_COMPRESSED);
+                result.writeVarInt(payloadLength);
+                result.writeBytes(compressed, 0, compressed.length);
+
+                return result.toByteArray();
+            }
+        }
+
+        Output result = new Output(payloadLength + HEADER_SIZE);
+        writeHeader(result, (byte) 0);
+        result.writeBytes(payload.buffer(), 0, payloadLength);
+
+        return result.toByteArray();
+    }
+
+    @Override
+    public CacheSerializerType getType() {
+        return CacheSerializerType.COMPACT;
+    }
+
+    public static boolean isCompactFormat(byte[] data) {
+        return (data.length >= HEADER_SIZE) && (data[0] == MAGIC);
+    }
+
+    public static Object readCompact(byte[] data) {
+        byte version = data[1];
+        if (version != FORMAT_VERSION) {
+            throw new SerializationException("Unsupported compact format version: " + version);
+        }
+
+        byte flags = data[2];
+        Input input = new Input(data, HEADER_SIZE);
+        if ((flags & FLAG_COMPRESSED) != 0) {
+            int payloadLength = input.readVarInt();
+            input = new Input(decompress(data, input.position(), payloadLength), 0);
+        }
+
+        return new Reader(input).readValue();
+    }
+
+    private static void writeHeader(Output output, byte flags) {
+        output.writeByte(MAGIC);
+        output.writeByte(FORMAT_VERSION);
+        output.writeByte(flags);
+    }
+
+    private static byte[] compress(byte[] data, int length) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+
+            byte[] buffer = new byte[length];
+            int compressedLength = 0;
+            while (!deflater.finished() && (compressedLength < buffer.length)) {
+                compressedLength += deflater.deflate(buffer, compressedLength, buffer.length - compressedLength);
+            }
+
+            if (!deflater.finished()) {
+                // Compression doesn't reduce size
+                return null;
+            }
+
+            return Arrays.copyOf(buffer, compressedLength);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(byte[] data, int offset, int payloadLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, data.length - offset);
+
+            byte[] result = new byte[payloadLength];
+            int length = 0;
+            while (length < payloadLength) {
+                int count = inflater.inflate(result, length, payloadLength - length);
+                if ((count == 0) && (inflater.finished() || inflater.needsInput())) {
+                    break;
+                }
+                length += count;
+            }
+
+            if (length != payloadLength) {
+                throw new SerializationException("Failed to decompress data. Unexpected payload length: " + length);
+            }
+
+            return result;
+        } catch (DataFormatException ex) {
+            throw new SerializationException("Failed to decompress data", ex);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static ClassInfo getClassInfo(Class<?> clazz) {
+        ClassInfo classInfo = CLASS_INFOS.get(clazz);
+        if (classInfo == null) {
+            classInfo = ClassInfo.create(clazz);
+            CLASS_INFOS.putIfAbsent(clazz, classInfo);
+        }
+
+        return classInfo;
+    }
+
+    private static Class<?> loadClass(String className) {
+        Class<?> clazz = PRIMITIVE_CLASSES.get(className);
+        if (clazz != null) {
+            return clazz;
+        }
+
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader != null) {
+            try {
+                return Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException ex) {
+                // Try to load with current class loader
+            }
+        }
+
+        try {
+            return Class.forName(className, false, CompactCacheSerializer.class.getClassLoader());
+        } catch (ClassNotFoundException ex) {
+            throw new SerializationException("Failed to load class: " + className, ex);
+        }
+    }
+
+    private static boolean isJdkClass(Class<?> clazz) {
+        String className = clazz.getName();
+        return className.startsWith("java.") || className.startsWith("javax.") || className.startsWith("sun.")
+                || className.startsWith("jdk.");
+    }
+
+    private static final class Writer {
+
+        private final Output output;
+        private final Map<Class<?>, Integer> classIds = new IdentityHashMap<Class<?>, Integer>();
+        private final Map<Object, Integer> objectIds = new IdentityHashMap<Object, Integer>();
+        private final Set<Class<?>> describedClasses = new HashSet<Class<?>>();
+
+        Writer(Output output) {
+            this.output = output;
+        }
+
+        void writeValue(Object value) {
+            if (value == null) {
+                output.writeByte(TAG_NULL);
+                return;
+            }
+
+            Class<?> clazz = value.getClass();
+            if (clazz == String.class) {
+                output.writeByte(TAG_STRING);
+                output.writeString((String) value);
+            } else if (clazz == Integer.class) {
+                output.writeByte(TAG_INT);
+                output.writeVarLong(zigZag((Integer) value));
+            } else if (clazz == Long.class) {
+                output.writeByte(TAG_LONG);
+                output.writeVarLong(zigZag((Long) value));
+            } else if (clazz == Boolean.class) {
+                output.writeByte(((Boolean) value) ? TAG_TRUE : TAG_FALSE);
+            } else if (clazz == Date.class) {
+                output.writeByte(TAG_DATE);
+                output.writeVarLong(zigZag(((Date) value).getTime()));
+            } else if (clazz == byte[].class) {
+                byte[] bytes = (byte[]) value;
+                output.writeByte(TAG_BYTES);
+                output.writeVarInt(bytes.length);
+                output.writeBytes(bytes, 0, bytes.length);
+            } else if (clazz == Short.class) {
+                output.writeByte(TAG_SHORT);
+                output.writeVarLong(zigZag((Short) value));
+            } else if (clazz == Byte.class) {
+                output.writeByte(TAG_BYTE);
+                output.writeByte((Byte) value);
+            } else if (clazz == Character.class) {
+                output.writeByte(TAG_CHAR);
+                output.writeVarInt((Character) value);
+            } else if (clazz == Float.class) {
+                output.writeByte(TAG_FLOAT);
+                output.writeFixedInt(Float.floatToIntBits((Float) value));
+            } else if (clazz == Double.class) {
+                output.writeByte(TAG_DOUBLE);
+                output.writeFixedLong(Double.doubleToLongBits((Double) value));
+            } else if (value instanceof Enum) {
+                output.writeByte(TAG_ENUM);
+                writeClass(((Enum<?>) value).getDeclaringClass());
+                output.writeString(((Enum<?>) value).name());
+            } else {
+                writeReferenceValue(value, clazz);
+            }
+        }
+
+        private void writeReferenceValue(Object value, Class<?> clazz) {
+            Integer objectId = objectIds.get(value);
+            if (objectId != null) {
+                output.writeByte(TAG_REFERENCE);
+                output.writeVarInt(objectId);
+                return;
+            }
+
+            if (clazz.isArray()) {
+                registerObject(value);
+                int length = Array.getLength(value);
+                output.writeByte(TAG_ARRAY);
+                writeClass(clazz.getComponentType());
+                output.writeVarInt(length);
+                for (int i = 0; i < length; i++) {
+                    writeValue(Array.get(value, i));
+                }
+            } else if (COLLECTION_CLASSES.contains(clazz) && !hasComparator(value)) {
+                registerObject(value);
+                Collection<?> collection = (Collection<?>) value;
+                output.writeByte(TAG_COLLECTION);
+                writeClass(clazz);
+                output.writeVarInt(collection.size());
+                for (Object item : collection) {
+                    writeValue(item);
+                }
+            } else if (MAP_CLASSES.contains(clazz) && !hasComparator(value)) {
+                registerObject(value);
+                Map<?, ?> map = (Map<?, ?>) value;
+                output.writeByte(TAG_MAP);
+                writeClass(clazz);
+                output.writeVarInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeValue(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            } else {
+                ClassInfo classInfo = getClassInfo(clazz);
+                if (classInfo.isCompact()) {
+                    registerObject(value);
+                    output.writeByte(TAG_OBJECT);
+                    writeClass(clazz);
+                    Field[] fields = classInfo.getFields();
+                    if (describedClasses.add(clazz)) {
+                        output.writeVarInt(fields.length);
+                        for (Field field : fields) {
+                            output.writeString(field.getName());
+                        }
+                    }
+                    for (Field field : fields) {
+                        writeValue(getFieldValue(field, value));
+                    }
+                } else {
+                    output.writeByte(TAG_JAVA);
+                    byte[] bytes = serializeJavaValue(value);
+                    output.writeVarInt(bytes.length);
+                    output.writeBytes(bytes, 0, bytes.length);
+                }
+            }
+        }
+
+        private void writeClass(Class<?> clazz) {
+            Integer classId = classIds.get(clazz);
+            if (classId != null) {
+                output.writeVarInt(classId + 1);
+                return;
+            }
+
+            classIds.put(clazz, classIds.size());
+            output.writeVarInt(0);
+            output.writeString(clazz.getName());
+        }
+
+        private void registerObject(Object value) {
+            objectIds.put(value, objectIds.size());
+        }
+
+        private boolean hasComparator(Object value) {
+            if (value instanceof SortedSet) {
+                return ((SortedSet<?>) value).comparator() != null;
+            }
+            if (value instanceof SortedMap) {
+                return ((SortedMap<?, ?>) value).comparator() != null;
+            }
+
+            return false;
+        }
+
+        private Object getFieldValue(Field field, Object value) {
+            try {
+                return field.get(value);
+            } catch (IllegalAccessException ex) {
+                throw new SerializationException("Failed to get field value: " + field, ex);
+            }
+        }
+
+        private byte[] serializeJavaValue(Object value) {
+            try {
+                ByteArrayOutputStream baos = new ByteArrayOutputStream(512);
+                ObjectOutputStream oos = new ObjectOutputStream(baos);
+                oos.writeObject(value);
+                oos.close();
+
+                return baos.toByteArray();
+            } catch (IOException ex) {
+                throw new SerializationException(ex);
+            }
+        }
+
+        private static long zigZag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+
+    }
+
+    private static final class Reader {
+
+        private final Input input;
+        private final List<ClassDescriptor> classes = new ArrayList<ClassDescriptor>();
+        private final List<Object> objects = new ArrayList<Object>();
+
+        Reader(Input input) {
+            this.input = input;
+        }
+
+        Object readValue() {
+            byte tag = input.readByte();
+            switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_INT:
+                return (int) unZigZag(input.readVarLong());
+            case TAG_LONG:
+                return unZigZag(input.readVarLong());
+            case TAG_SHORT:
+                return (short) unZigZag(input.readVarLong());
+            case TAG_BYTE:
+                return input.readByte();
+            case TAG_CHAR:
+                return (char) input.readVarInt();
+            case TAG_FLOAT:
+                return Float.intBitsToFloat(input.readFixedInt());
+            case TAG_DOUBLE:
+                return Double.longBitsToDouble(input.readFixedLong());
+            case TAG_STRING:
+                return input.readString();
+            case TAG_BYTES:
+                return input.readBytes(input.readVarInt());
+            case TAG_DATE:
+                return new Date(unZigZag(input.readVarLong()));
+            case TAG_ENUM:
+                return readEnum();
+            case TAG_ARRAY:
+                return readArray();
+            case TAG_COLLECTION:
+                return readCollection();
+            case TAG_MAP:
+                return readMap();
+            case TAG_OBJECT:
+                return readObject();
+            case TAG_REFERENCE:
+                return objects.get(input.readVarInt());
+            case TAG_JAVA:
+                return deserializeJavaValue(input.readBytes(input.readVarInt()));
+            default:
+                throw new SerializationException("Unknown value tag: " + tag);
+            }
+        }
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        private Object readEnum() {
+            Class enumClass = readClass().getDescribedClass();
+            return Enum.valueOf(enumClass, input.readString());
+        }
+
+        private Object readArray() {
+            Class<?> componentType = readClass().getDescribedClass();
+            int length = input.readVarInt();
+            Object array = Array.newInstance(componentType, length);
+            objects.add(array);
+            for (int i = 0; i < length; i++) {
+                Array.set(array, i, readValue());
+            }
+
+            return array;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object readCollection() {
+            Class<?> clazz = readClass().getDescribedClass();
+            Collection<Object> collection = (Collection<Object>) newContainer(clazz, COLLECTION_CLASSES);
+            objects.add(collection);
+            int size = input.readVarInt();
+            for (int i = 0; i < size; i++) {
+                collection.add(readValue());
+            }
+
+            return collection;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Object readMap() {
+            Class<?> clazz = readClass().getDescribedClass();
+            Map<Object, Object> map = (Map<Object, Object>) newContainer(clazz, MAP_CLASSES);
+            objects.add(map);
+            int size = input.readVarInt();
+            for (int i = 0; i < size; i++) {
+                Object key = readValue();
+                map.put(key, readValue());
+            }
+
+            return map;
+        }
+
+        private Object readObject() {
+            ClassDescriptor classDescriptor = readClass();
+            if (classDescriptor.getFields() == null) {
+                int fieldsCount = input.readVarInt();
+                String[] fieldNames = new String[fieldsCount];
+                for (int i = 0; i < fieldsCount; i++) {
+                    fieldNames[i] = input.readString();
+                }
+                classDescriptor.resolveFields(fieldNames);
+            }
+
+            ClassInfo classInfo = classDescriptor.getClassInfo();
+            Object object = classInfo.newInstance();
+            objects.add(object);
+
+            for (Field field : classDescriptor.getFields()) {
+                Object value = readValue();
+                if (field != null) {
+                    setFieldValue(field, object, value);
+                }
+            }
+
+            return object;
+        }
+
+        private ClassDescriptor readClass() {
+            int classId = input.readVarInt();
+            if (classId > 0) {
+                return classes.get(classId - 1);
+            }
+
+            ClassDescriptor classDescriptor = new ClassDescriptor(loadClass(input.readString()));
+            classes.add(classDescriptor);
+
+            return classDescriptor;
+        }
+
+        private Object newContainer(Class<?> clazz, Set<Class<?>> allowedClasses) {
+            if (!allowedClasses.contains(clazz)) {
+                throw new SerializationException("Unsupported container class: " + clazz);
+            }
+
+            try {
+                return clazz.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException ex) {
+                throw new SerializationException("Failed to create container: " + clazz, ex);
+            }
+        }
+
+        private void setFieldValue(Field field, Object object, Object value) {
+            Class<?> fieldType = field.getType();
+            if ((value == null) && fieldType.isPrimitive()) {
+                return;
+            }
+
+            try {
+                if ((value instanceof Number) && !fieldType.isInstance(value)) {
+                    value = convertNumber((Number) value, fieldType);
+                }
+                field.set(object, value);
+            } catch (IllegalAccessException | IllegalArgumentException ex) {
+                throw new SerializationException("Failed to set field value: " + field, ex);
+            }
+        }
+
+        private Object convertNumber(Number value, Class<?> fieldType) {
+            if ((fieldType == long.class) || (fieldType == Long.class)) {
+                return value.longValue();
+            } else if ((fieldType == int.class) || (fieldType == Integer.class)) {
+                return value.intValue();
+            } else if ((fieldType == short.class) || (fieldType == Short.class)) {
+                return value.shortValue();
+            } else if ((fieldType == byte.class) || (fieldType == Byte.class)) {
+                return value.byteValue();
+            } else if ((fieldType == double.class) || (fieldType == Double.class)) {
+                return value.doubleValue();
+            } else if ((fieldType == float.class) || (fieldType == Float.class)) {
+                return value.floatValue();
+            }
+
+            return value;
+        }
+
+        private Object deserializeJavaValue(byte[] bytes) {
+            try {
+                ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes)) {
+                    @Override
+                    protected Class<?> resolveClass(java.io.ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+                        try {
+                            return super.resolveClass(desc);
+                        } catch (ClassNotFoundException ex) {
+                            return loadClass(desc.getName());
+                        }
+                    }
+                };
+                try {
+                    return ois.readObject();
+                } finally {
+                    ois.close();
+                }
+            } catch (IOException | ClassNotFoundException ex) {
+                throw new SerializationException(ex);
+            }
+        }
+
+        private static long unZigZag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+    }
+
+    /*
+     * Class written in stream with mapping of stream fields to local class fields
+     */
+    private static final class ClassDescriptor {
+
+        private final Class<?> describedClass;
+        private Field[] fields;
+
+        ClassDescriptor(Class<?> describedClass) {
+            this.describedClass = describedClass;
+        }
+
+        public Class<?> getDescribedClass() {
+            return describedClass;
+        }
+
+        public ClassInfo getClassInfo() {
+            ClassInfo classInfo = getClassInfo(describedClass);
+            if (!classInfo.isCompact()) {
+                throw new SerializationException("Class doesn't support compact serialization: " + describedClass);
+            }
+
+            return classInfo;
+        }
+
+        public Field[] getFields() {
+            return fields;
+        }
+
+        public void resolveFields(String[] fieldNames) {
+            Field[] localFields = getClassInfo().getFields();
+            boolean[] used = new boolean[localFields.length];
+
+            this.fields = new Field[fieldNames.length];
+            for (int i = 0; i < fieldNames.length; i++) {
+                // Field which is not in local class is skipped
+                for (int j = 0; j < localFields.length; j++) {
+                    if (!used[j] && localFields[j].getName().equals(fieldNames[i])) {
+                        this.fields[i] = localFields[j];
+                        used[j] = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        private static ClassInfo getClassInfo(Class<?> clazz) {
+            return CompactCacheSerializer.getClassInfo(clazz);
+        }
+
+    }
+
+    private static final class ClassInfo {
+
+        private static final ClassInfo NOT_COMPACT = new ClassInfo(null, null);
+
+        private final Field[] fields;
+        private final Constructor<?> constructor;
+
+        private ClassInfo(Field[] fields, Constructor<?> constructor) {
+            this.fields = fields;
+            this.constructor = constructor;
+        }
+
+        public boolean isCompact() {
+            return constructor != null;
+        }
+
+        public Field[] getFields() {
+            return fields;
+        }
+
+        public Object newInstance() {
+            try {
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException ex) {
+                throw new SerializationException("Failed to create instance of class: " + constructor.getDeclaringClass(), ex);
+            }
+        }
+
+        static ClassInfo create(Class<?> clazz) {
+            if (!Serializable.class.isAssignableFrom(clazz) || Externalizable.class.isAssignableFrom(clazz) || clazz.isArray()
+                    || clazz.isEnum() || Proxy.isProxyClass(clazz) || clazz.isSynthetic()) {
+                return NOT_COMPACT;
+            }
+
+            List<Class<?>> hierarchy = new ArrayList<Class<?>>();
+            Class<?> nonSerializableParent = clazz;
+            while ((nonSerializableParent != null) && Serializable.class.isAssignableFrom(nonSerializableParent)) {
+                if (isJdkClass(nonSerializableParent) || hasCustomSerialization(nonSerializableParent)) {
+                    return NOT_COMPACT;
+                }
+                hierarchy.add(0, nonSerializableParent);
+                nonSerializableParent = nonSerializableParent.getSuperclass();
+            }
+
+            try {
+                // Bean without no-arg constructor is written in Java serialization format
+                Constructor<?> constructor = clazz.getDeclaredConstructor();
+                constructor.setAccessible(true);
+
+                List<Field> fields = new ArrayList<Field>();
+                for (Class<?> hierarchyClass : hierarchy) {
+                    for (Field field : hierarchyClass.getDeclaredFields()) {
+                        int modifiers = field.getModifiers();
+                        if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
+                            continue;
+                        }
+                        field.setAccessible(true);
+                        fields.add(field);
+                    }
+                }
+
+                return new ClassInfo(fields.toArray(new Field[fields.size()]), constructor);
+            } catch (NoSuchMethodException | RuntimeException ex) {
+                return NOT_COMPACT;
+            }
+        }
+
+        private static boolean hasCustomSerialization(Class<?> clazz) {
+            for (String methodName : new String[] { "writeObject", "readObject", "readObjectNoData", "writeReplace", "readResolve" }) {
+                for (java.lang.reflect.Method method : clazz.getDeclaredMethods()) {
+                    if (method.getName().equals(methodName)) {
+                        return true;
+                    }
+                }
+            }
+            try {
+                if (clazz.getDeclaredField("serialPersistentFields") != null) {
+                    return true;
+                }
+            } catch (NoSuchFieldException ex) {
+                // Default set of fields
+            }
+
+            return false;
+        }
+
+    }
+
+    private static final class Output {
+
+        private byte[] buffer;
+        private int position;
+
+        Output(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        byte[] buffer() {
+            return buffer;
+        }
+
+        int size() {
+            return position;
+        }
+
+        byte[] toByteArray() {
+            return position == buffer.length ? buffer : Arrays.copyOf(buffer, position);
+        }
+
+        void writeByte(byte value) {
+            ensureCapacity(1);
+            buffer[position++] = value;
+        }
+
+        void writeBytes(byte[] bytes, int offset, int length) {
+            ensureCapacity(length);
+            System.arraycopy(bytes, offset, buffer, position, length);
+            position += length;
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeFixedInt(int value) {
+            ensureCapacity(4);
+            for (int i = 24; i >= 0; i -= 8) {
+                buffer[position++] = (byte) (value >>> i);
+            }
+        }
+
+        void writeFixedLong(long value) {
+            ensureCapacity(8);
+            for (int i = 56; i >= 0; i -= 8) {
+                buffer[position++] = (byte) (value >>> i);
+            }
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        private void ensureCapacity(int count) {
+            if (position + count > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + count));
+            }
+        }
+
+    }
+
+    private static final class Input {
+
+        private final byte[] buffer;
+        private int position;
+
+        Input(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int position() {
+            return position;
+        }
+
+        byte readByte() {
+            checkAvailable(1);
+            return buffer[position++];
+        }
+
+        byte[] readBytes(int length) {
+            checkAvailable(length);
+            byte[] result = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+
+            return result;
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+
+            throw new SerializationException("Malformed variable length number");
+        }
+
+        int readFixedInt() {
+            checkAvailable(4);
+            int result = 0;
+            for (int i = 0; i < 4; i++) {
+                result = (result << 8) | (buffer[position++] & 0xFF);
+            }
+
+            return result;
+        }
+
+        long readFixedLong() {
+            checkAvailable(8);
+            long result = 0;
+            for (int i = 0; i < 8; i++) {
+                result = (result << 8) | (buffer[position++] & 0xFF);
+            }
+
+            return result;
+        }
+
+        String readString() {
+            int length = readVarInt();
+            checkAvailable(length);
+            String result = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+
+            return result;
+        }
+
+        private void checkAvailable(int count) {
+            if ((count < 0) || (position + count > buffer.length)) {
+                throw new SerializationException("Unexpected end of data");
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,20 @@
+package org.gluu.service.cache;
+
+/**
+ * Java serialization based serializer. Format is readable by all application versions
+ */
+public class JavaCacheSerializer extends AbstractCacheSerializer {
+
+    public static final JavaCacheSerializer INSTANCE = new JavaCacheSerializer();
+
+    @Override
+    public byte[] serialize(Object object) {
+        return serializeJava(object);
+    }
+
+    @Override
+    public CacheSerializerType getType() {
+        return CacheSerializerType.JAVA;
+    }
+
+}
@@ -11,6 +11,12 @@ import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * @author yuriyz on 02/02/2017.
  */
@@ -39,6 +45,8 @@ public class MemcachedProvider extends AbstractCacheProvider<MemcachedClient> {
 
     private MemcachedClient client;
 
+    private CacheSerializerTranscoder transcoder;
+
     public void create() {
         log.debug("Starting MemcachedProvider ...");
         try {
@@ -52,6 +60,7 @@ public class MemcachedProvider extends AbstractCacheProvider<MemcachedClient> {
             }
 
             client = new MemcachedClient(connectionFactory, AddrUtil.getAddresses(memcachedConfiguration.getServers()));
+            transcoder = new CacheSerializerTranscoder(CacheSerializerFactory.create(cacheConfiguration), CachedData.MAX_SIZE);
             testConnection();
             log.debug("MemcachedProvider started.");
         } catch (Exception e) {
@@ -109,7 +118,7 @@ public class MemcachedProvider extends AbstractCacheProvider<MemcachedClient> {
             if (key == null) {
                 return null;
             }
-            Object o = client.get(key);
+            Object o = client.get(key, transcoder);
             log.trace("get - key: " + key + ", value:" + o);
             return o;
         } catch (Exception e) {
@@ -118,11 +127,79 @@ public class MemcachedProvider extends AbstractCacheProvider<MemcachedClient> {
         }
     }
 
+    @Override
+    public Map<String, Object> getAll(Collection<String> keys) {
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        if (keys.isEmpty()) {
+            return result;
+        }
+
+        try {
+            Map<String, Object> values = client.getBulk(keys, transcoder);
+            for (String key : keys) {
+                Object value = values.get(key);
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+            log.trace("getBulk - keys count: " + keys.size() + ", found: " + result.size());
+        } catch (Exception e) {
+            log.error("Failed to fetch objects by keys: " + keys, e);
+        }
+
+        return result;
+    }
+
+    @Override
+    public void putAll(int expirationInSeconds, Map<String, Object> objects) {
+        int expiration = expirationInSeconds > 0 ? expirationInSeconds : memcachedConfiguration.getDefaultPutExpiration();
+
+        // Send all requests first and then wait for results
+        List<OperationFuture<Boolean>> futures = new ArrayList<OperationFuture<Boolean>>(objects.size());
+        for (Map.Entry<String, Object> entry : objects.entrySet()) {
+            try {
+                futures.add(client.set(entry.getKey(), expiration, entry.getValue(), transcoder));
+            } catch (Exception e) {
+                log.error("Failed to put object in cache, key: " + entry.getKey(), e);
+            }
+        }
+
+        for (OperationFuture<Boolean> future : futures) {
+            try {
+                OperationStatus status = future.getStatus(); // block
+                log.trace("set - key:" + future.getKey() + ", expiration: " + expiration + ", status:" + status);
+            } catch (Exception e) {
+                log.error("Failed to put object in cache, key: " + future.getKey(), e);
+            }
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<String> keys) {
+        List<OperationFuture<Boolean>> futures = new ArrayList<OperationFuture<Boolean>>(keys.size());
+        for (String key : keys) {
+            try {
+                futures.add(client.delete(key));
+            } catch (Exception e) {
+                log.error("Failed to remove object from cache, key: " + key, e);
+            }
+        }
+
+        for (OperationFuture<Boolean> future : futures) {
+            try {
+                future.getStatus(); // block
+                log.trace("delete - key:" + future.getKey());
+            } catch (Exception e) {
+                log.error("Failed to remove object from cache, key: " + future.getKey(), e);
+            }
+        }
+    }
+
     @Override
     public void put(int expirationInSeconds, String key, Object object) {
         try {
             int expiration = expirationInSeconds > 0 ? expirationInSeconds : memcachedConfiguration.getDefaultPutExpiration();
-            OperationFuture<Boolean> set = client.set(key, expiration, object);
+            OperationFuture<Boolean> set = client.set(key, expiration, object, transcoder);
             OperationStatus status = set.getStatus(); // block
             log.trace("set - key:" + key + ", expiration: " + expiration + ", status:" + status + ", get:" + get(key));
         } catch (Exception e) {
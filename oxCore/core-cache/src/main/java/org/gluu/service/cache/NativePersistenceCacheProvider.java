@@ -2,7 +2,6 @@ package org.gluu.service.cache;
 
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.codec.digest.DigestUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.gluu.persist.PersistenceEntryManager;
 import org.gluu.persist.exception.EntryPersistenceException;
@@ -15,12 +14,14 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.PostConstruct;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @ApplicationScoped
 public class NativePersistenceCacheProvider extends AbstractCacheProvider<PersistenceEntryManager> {
@@ -42,6 +43,8 @@ public class NativePersistenceCacheProvider extends AbstractCacheProvider<Persis
 
 	private boolean attemptUpdateBeforeInsert;
 
+	private CacheSerializer serializer = JavaCacheSerializer.INSTANCE;
+
     @PostConstruct
     public void init() {
     }
@@ -51,6 +54,7 @@ public class NativePersistenceCacheProvider extends AbstractCacheProvider<Persis
         try {
             baseDn = cacheConfiguration.getNativePersistenceConfiguration().getBaseDn();
             deleteExpiredOnGetRequest = cacheConfiguration.getNativePersistenceConfiguration().isDeleteExpiredOnGetRequest();
+            serializer = CacheSerializerFactory.create(cacheConfiguration);
 
             if (StringUtils.isBlank(baseDn)) {
                 log.error("Failed to create NATIVE_PERSISTENCE cache provider. 'baseDn' in CacheConfiguration is not initialized. It has to be set by client application (e.g. oxAuth has to set it in ApplicationFactory.)");
@@ -138,6 +142,94 @@ public class NativePersistenceCacheProvider extends AbstractCacheProvider<Persis
         return null;
     }
 
+    @Override
+    public Map<String, Object> getAll(Collection<String> keys) {
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        if (keys.isEmpty()) {
+            return result;
+        }
+
+        Map<String, String> hashedKeys = new HashMap<String, String>();
+        for (String key : keys) {
+            hashedKeys.put(hashKey(key), key);
+        }
+
+        Map<String, Object> foundObjects = new HashMap<String, Object>();
+        try {
+            List<NativePersistenceCacheEntity> entities = entryManager.findEntries(baseDn, NativePersistenceCacheEntity.class,
+                    createKeysFilter(hashedKeys.keySet()));
+            for (NativePersistenceCacheEntity entity : entities) {
+                String key = hashedKeys.get(entity.getId());
+                if ((key == null) || (entity.getData() == null)) {
+                    continue;
+                }
+
+                if (isExpired(entity.getExpirationDate()) && entity.isDeletable()) {
+                    log.trace("Cache entity exists but expired, skip it, expirationDate:" + entity.getExpirationDate() + ", key: " + key);
+                    continue;
+                }
+
+                Object o = fromString(entity.getData());
+                if (o != null) {
+                    foundObjects.put(key, o);
+                }
+            }
+        } catch (Exception e) {
+            // ignore, we call cache first which is empty and then fill it in
+            log.trace("Failed to find entries by keys, message: " + e.getMessage());
+        }
+
+        for (String key : keys) {
+            Object o = foundObjects.get(key);
+            if (o != null) {
+                result.put(key, o);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void putAll(int expirationInSeconds, Map<String, Object> objects) {
+        Date creationDate = new Date();
+
+        expirationInSeconds = expirationInSeconds > 0 ? expirationInSeconds : cacheConfiguration.getNativePersistenceConfiguration().getDefaultPutExpiration();
+
+        for (Map.Entry<String, Object> entry : objects.entrySet()) {
+            putImpl(entry.getKey(), entry.getValue(), creationDate, expirationInSeconds);
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<String> hashedKeys = new ArrayList<String>(keys.size());
+        for (String key : keys) {
+            hashedKeys.add(hashKey(key));
+        }
+
+        try {
+            int removedCount = entryManager.remove(baseDn, NativePersistenceCacheEntity.class, createKeysFilter(hashedKeys), hashedKeys.size());
+            log.trace("Removed entities, keys count: " + keys.size() + ", removed: " + removedCount);
+        } catch (Exception e) {
+            log.trace("Failed to remove entries by filter, fall back to remove one by one, message: " + e.getMessage());
+            super.removeAll(keys);
+        }
+    }
+
+    private Filter createKeysFilter(Collection<String> hashedKeys) {
+        Filter[] filters = new Filter[hashedKeys.size()];
+        int i = 0;
+        for (String hashedKey : hashedKeys) {
+            filters[i++] = Filter.createEqualityFilter("uuid", hashedKey);
+        }
+
+        return Filter.createORFilter(filters);
+    }
+
     private String createDn(String key) {
         return String.format("uuid=%s,%s", key, baseDn);
     }
@@ -240,14 +332,7 @@ public class NativePersistenceCacheProvider extends AbstractCacheProvider<Persis
     private Object fromString(String s) {
         try {
             byte[] data = Base64.decodeBase64(s);
-            ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(data));
-            try {
-                Object o = ois.readObject();
-                ois.close();
-                return o;
-            } finally {
-                IOUtils.closeQuietly(ois);
-            }
+            return serializer.deserialize(data);
         } catch (Exception e) {
             log.error("Failed to deserizalize cache entity, data: " + s, e);
             return null;
@@ -255,18 +340,11 @@ public class NativePersistenceCacheProvider extends AbstractCacheProvider<Persis
     }
 
     private String asString(Object o) {
-        ObjectOutputStream oos = null;
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            oos = new ObjectOutputStream(baos);
-            oos.writeObject(o);
-            oos.close();
-            return Base64.encodeBase64String(baos.toByteArray());
+            return Base64.encodeBase64String(serializer.serialize(o));
         } catch (Exception e) {
             log.error("Failed to serizalize cache entity to string, object: " + 0, e);
             return null;
-        } finally {
-            IOUtils.closeQuietly(oos);
         }
     }
 
@@ -0,0 +1,81 @@
+package org.gluu.service.cache;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Configuration of optional in-process (L1) cache in front of remote cache provider.
+ *
+ * Objects returned from L1 cache are shared between callers. Because of this only entries
+ * with keys which start with one of keyPrefixes are kept in L1. These prefixes should cover
+ * only immutable objects (configuration, keys, etc.) and never sessions or tokens.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class NearCacheConfiguration implements Serializable {
+
+    private static final long serialVersionUID = -2906384812094752651L;
+
+    private boolean enabled = false;
+
+    private int maxSize = 10000; // max entries count per node
+
+    private int maxExpiration = 60; // in seconds, upper bound for L1 entry lifetime
+
+    private String invalidationChannel = "gluu_cache_invalidation";
+
+    private List<String> keyPrefixes = new ArrayList<String>(); // keys allowed in L1
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxExpiration() {
+        return maxExpiration;
+    }
+
+    public void setMaxExpiration(int maxExpiration) {
+        this.maxExpiration = maxExpiration;
+    }
+
+    public String getInvalidationChannel() {
+        return invalidationChannel;
+    }
+
+    public void setInvalidationChannel(String invalidationChannel) {
+        this.invalidationChannel = invalidationChannel;
+    }
+
+    public List<String> getKeyPrefixes() {
+        return keyPrefixes;
+    }
+
+    public void setKeyPrefixes(List<String> keyPrefixes) {
+        this.keyPrefixes = keyPrefixes;
+    }
+
+    @Override
+    public String toString() {
+        return "NearCacheConfiguration{" +
+                "enabled=" + enabled +
+                ", maxSize=" + maxSize +
+                ", maxExpiration=" + maxExpiration +
+                ", invalidationChannel='" + invalidationChannel + '\'' +
+                ", keyPrefixes=" + keyPrefixes +
+                '}';
+    }
+}
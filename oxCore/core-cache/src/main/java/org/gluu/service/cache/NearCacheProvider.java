@@ -0,0 +1,428 @@
+package org.gluu.service.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.commons.lang.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.jodah.expiringmap.ExpirationPolicy;
+import net.jodah.expiringmap.ExpiringMap;
+import redis.clients.jedis.JedisPubSub;
+
+/**
+ * Two-tier cache provider. Keeps bounded in-process (L1) copy of entries in front of remote cache provider.
+ * Only keys which start with one of configured prefixes are kept in L1, all other requests go to remote cache provider.
+ * Put and remove operations are published to other nodes over Redis publish/subscribe to invalidate their L1 copies.
+ * Each invalidation increases generation of key, so value loaded from remote cache provider is not put into L1 if key
+ * was invalidated during remote request. Generations are kept in fixed count of stripes by key hash.
+ *
+ * Important : keep it weld free. It's created by cache provider factories !
+ */
+public class NearCacheProvider extends AbstractCacheProvider<AbstractCacheProvider<?>> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NearCacheProvider.class);
+
+    private static final String MESSAGE_SEPARATOR = "|";
+    private static final String CLEAR_ALL_KEY = "*";
+    private static final long LISTENER_STOP_TIMEOUT_MILLIS = 5 * 1000;
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final NearCacheConfiguration nearCacheConfiguration;
+    private final AbstractCacheProvider<?> cacheProvider;
+    private final AbstractRedisProvider invalidationProvider;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong clearGeneration = new AtomicLong();
+
+    private ExpiringMap<String, Object> map;
+    private String[] keyPrefixes;
+
+    private Thread listenerThread;
+    private volatile InvalidationListener invalidationListener;
+    private volatile boolean active;
+
+    public NearCacheProvider(NearCacheConfiguration nearCacheConfiguration, AbstractCacheProvider<?> cacheProvider) {
+        this(nearCacheConfiguration, cacheProvider, getInvalidationProvider(cacheProvider));
+    }
+
+    NearCacheProvider(NearCacheConfiguration nearCacheConfiguration, AbstractCacheProvider<?> cacheProvider,
+            AbstractRedisProvider invalidationProvider) {
+        this.nearCacheConfiguration = nearCacheConfiguration;
+        this.cacheProvider = cacheProvider;
+        this.invalidationProvider = invalidationProvider;
+    }
+
+    /*
+     * Returns provider which can deliver invalidation messages or null if cache provider doesn't support them.
+     * Cache provider should be created already
+     */
+    public static AbstractRedisProvider getInvalidationProvider(AbstractCacheProvider<?> cacheProvider) {
+        if (!(cacheProvider instanceof RedisProvider)) {
+            return null;
+        }
+
+        AbstractRedisProvider redisProvider = ((RedisProvider) cacheProvider).getDelegate();
+        if ((redisProvider == null) || !redisProvider.isPubSubSupported()) {
+            return null;
+        }
+
+        return redisProvider;
+    }
+
+    @Override
+    public void create() {
+        LOG.debug("Starting NearCacheProvider ... configuration: " + nearCacheConfiguration);
+
+        // Without invalidation messages other nodes might return stale L1 copies
+        if ((invalidationProvider == null) || StringUtils.isBlank(nearCacheConfiguration.getInvalidationChannel())) {
+            throw new IllegalStateException("Cache provider '" + cacheProvider.getProviderType() + "' doesn't support invalidation messages");
+        }
+
+        map = ExpiringMap.builder().maxSize(nearCacheConfiguration.getMaxSize()).expirationPolicy(ExpirationPolicy.CREATED)
+                .variableExpiration().build();
+        keyPrefixes = nearCacheConfiguration.getKeyPrefixes() == null ? new String[0]
+                : nearCacheConfiguration.getKeyPrefixes().toArray(new String[0]);
+        if (keyPrefixes.length == 0) {
+            LOG.warn("Near cache key prefixes are not specified. All requests will be sent to cache provider '{}'",
+                    cacheProvider.getProviderType());
+        }
+        active = true;
+
+        listenerThread = new Thread(this::listenInvalidations, "NearCacheInvalidationListener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+
+        LOG.debug("NearCacheProvider started.");
+    }
+
+    @Override
+    public void destroy() {
+        LOG.debug("Destroying NearCacheProvider");
+
+        active = false;
+        InvalidationListener listener = invalidationListener;
+        if ((listener != null) && listener.isSubscribed()) {
+            try {
+                listener.unsubscribe();
+            } catch (Exception ex) {
+                LOG.warn("Failed to unsubscribe from invalidation channel", ex);
+            }
+        }
+
+        // Subscription holds connection till listener thread returns it to the pool
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+            try {
+                listenerThread.join(LISTENER_STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (map != null) {
+            clearLocal();
+        }
+
+        cacheProvider.destroy();
+
+        LOG.debug("Destroyed NearCacheProvider");
+    }
+
+    @Override
+    public AbstractCacheProvider<?> getDelegate() {
+        return cacheProvider;
+    }
+
+    @Override
+    public boolean hasKey(String key) {
+        if (key == null) {
+            return false;
+        }
+
+        return (isLocal(key) && map.containsKey(key)) || cacheProvider.hasKey(key);
+    }
+
+    @Override
+    public Object get(String key) {
+        if (key == null) {
+            return null;
+        }
+
+        if (!isLocal(key)) {
+            return cacheProvider.get(key);
+        }
+
+        Object value = map.get(key);
+        if (value != null) {
+            LOG.trace("get - L1 hit, key: " + key);
+            return value;
+        }
+
+        // Remaining TTL of remote entry is unknown. L1 copy lives no longer than maxExpiration
+        long generation = getGeneration(key);
+        value = cacheProvider.get(key);
+        if (value != null) {
+            putLocal(nearCacheConfiguration.getMaxExpiration(), key, value, generation);
+        }
+
+        return value;
+    }
+
+    @Override
+    public Map<String, Object> getAll(Collection<String> keys) {
+        Map<String, Object> localValues = new LinkedHashMap<String, Object>();
+        List<String> missedKeys = new ArrayList<String>();
+        Map<String, Long> missedGenerations = new LinkedHashMap<String, Long>();
+        for (String key : keys) {
+            boolean local = isLocal(key);
+            Object value = local ? map.get(key) : null;
+            if (value != null) {
+                localValues.put(key, value);
+            } else {
+                missedKeys.add(key);
+                if (local) {
+                    missedGenerations.put(key, getGeneration(key));
+                }
+            }
+        }
+
+        if (missedKeys.isEmpty()) {
+            return localValues;
+        }
+
+        Map<String, Object> remoteValues = cacheProvider.getAll(missedKeys);
+        for (Map.Entry<String, Object> entry : remoteValues.entrySet()) {
+            Long generation = missedGenerations.get(entry.getKey());
+            if (generation != null) {
+                putLocal(nearCacheConfiguration.getMaxExpiration(), entry.getKey(), entry.getValue(), generation);
+            }
+        }
+
+        // Keep keys order
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        for (String key : keys) {
+            Object value = localValues.get(key);
+            if (value == null) {
+                value = remoteValues.get(key);
+            }
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void putAll(int expirationInSeconds, Map<String, Object> objects) {
+        cacheProvider.putAll(expirationInSeconds, objects);
+
+        for (Map.Entry<String, Object> entry : objects.entrySet()) {
+            if (!isLocal(entry.getKey())) {
+                continue;
+            }
+
+            long generation = invalidateLocal(entry.getKey());
+            publishInvalidation(entry.getKey());
+
+            if (expirationInSeconds > 0) {
+                putLocal(Math.min(expirationInSeconds, nearCacheConfiguration.getMaxExpiration()), entry.getKey(), entry.getValue(), generation);
+            }
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<String> keys) {
+        cacheProvider.removeAll(keys);
+
+        for (String key : keys) {
+            if (!isLocal(key)) {
+                continue;
+            }
+
+            invalidateLocal(key);
+            publishInvalidation(key);
+        }
+    }
+
+    @Override
+    public void put(int expirationInSeconds, String key, Object object) {
+        cacheProvider.put(expirationInSeconds, key, object);
+        if (!isLocal(key)) {
+            return;
+        }
+
+        long generation = invalidateLocal(key);
+        publishInvalidation(key);
+
+        if (expirationInSeconds > 0) {
+            putLocal(Math.min(expirationInSeconds, nearCacheConfiguration.getMaxExpiration()), key, object, generation);
+        }
+    }
+
+    @Override
+    public void remove(String key) {
+        cacheProvider.remove(key);
+        if (!isLocal(key)) {
+            return;
+        }
+
+        invalidateLocal(key);
+        publishInvalidation(key);
+    }
+
+    @Override
+    public void clear() {
+        cacheProvider.clear();
+
+        clearLocal();
+        publishInvalidation(CLEAR_ALL_KEY);
+    }
+
+    @Override
+    public void cleanup(Date now) {
+        cacheProvider.cleanup(now);
+    }
+
+    @Override
+    public CacheProviderType getProviderType() {
+        return cacheProvider.getProviderType();
+    }
+
+    private boolean isLocal(String key) {
+        if (key == null) {
+            return false;
+        }
+
+        for (String keyPrefix : keyPrefixes) {
+            if (key.startsWith(keyPrefix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /*
+     * Put value into L1 if key wasn't invalidated after generation was taken. Generation is checked
+     * again after put, because invalidation can remove L1 copy before it was put
+     */
+    private void putLocal(int expirationInSeconds, String key, Object object, long generation) {
+        if ((expirationInSeconds <= 0) || (object == null) || (getGeneration(key) != generation)) {
+            return;
+        }
+
+        map.put(key, object, ExpirationPolicy.CREATED, expirationInSeconds, TimeUnit.SECONDS);
+        if (getGeneration(key) != generation) {
+            map.remove(key);
+        }
+    }
+
+    /*
+     * Generation changes after each invalidation of key or whole L1. Keys in one stripe share generation
+     */
+    private long getGeneration(String key) {
+        return clearGeneration.get() + generations.get(getGenerationStripe(key));
+    }
+
+    private long invalidateLocal(String key) {
+        long generation = clearGeneration.get() + generations.incrementAndGet(getGenerationStripe(key));
+        map.remove(key);
+
+        return generation;
+    }
+
+    private void clearLocal() {
+        clearGeneration.incrementAndGet();
+        map.clear();
+    }
+
+    private static int getGenerationStripe(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    private void publishInvalidation(String key) {
+        try {
+            invalidationProvider.publish(nearCacheConfiguration.getInvalidationChannel(), nodeId + MESSAGE_SEPARATOR + key);
+        } catch (Exception ex) {
+            LOG.error("Failed to publish invalidation message, key: " + key, ex);
+        }
+    }
+
+    private void onInvalidation(String message) {
+        int idx = message.indexOf(MESSAGE_SEPARATOR);
+        if (idx == -1) {
+            LOG.warn("Skipping invalid invalidation message: " + message);
+            return;
+        }
+
+        if (nodeId.equals(message.substring(0, idx))) {
+            // Message from this node
+            return;
+        }
+
+        String key = message.substring(idx + 1);
+        if (CLEAR_ALL_KEY.equals(key)) {
+            clearLocal();
+        } else {
+            invalidateLocal(key);
+        }
+        LOG.trace("invalidate - key: " + key);
+    }
+
+    private void listenInvalidations() {
+        while (active) {
+            try {
+                invalidationListener = new InvalidationListener();
+                invalidationProvider.subscribe(invalidationListener, nearCacheConfiguration.getInvalidationChannel());
+            } catch (Exception ex) {
+                if (active) {
+                    LOG.error("Invalidation channel subscription failed", ex);
+                }
+            }
+
+            // Messages might be lost while there was no subscription
+            clearLocal();
+
+            if (active) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private class InvalidationListener extends JedisPubSub {
+
+        @Override
+        public void onSubscribe(String channel, int subscribedChannels) {
+            LOG.debug("Subscribed to invalidation channel: " + channel);
+            clearLocal();
+
+            // Provider was destroyed before subscription was established
+            if (!active) {
+                unsubscribe();
+            }
+        }
+
+        @Override
+        public void onMessage(String channel, String message) {
+            onInvalidation(message);
+        }
+
+    }
+
+}
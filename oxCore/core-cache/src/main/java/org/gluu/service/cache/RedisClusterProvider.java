@@ -1,14 +1,13 @@
 package org.gluu.service.cache;
 
-import org.apache.commons.lang.SerializationUtils;
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.JedisCluster;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.JedisPubSub;
 
-import java.io.Serializable;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -92,20 +91,20 @@ public class RedisClusterProvider extends AbstractRedisProvider {
         byte[] value = pool.get(key.getBytes());
         Object deserialized = null;
         if (value != null && value.length > 0) {
-            deserialized = SerializationUtils.deserialize(value);
+            deserialized = serializer.deserialize(value);
         }
         return deserialized;
     }
 
     @Override
     public void put(int expirationInSeconds, String key, Object object) {
-        String status = pool.setex(key.getBytes(), expirationInSeconds, SerializationUtils.serialize((Serializable) object));
+        String status = pool.setex(key.getBytes(), expirationInSeconds, serializer.serialize(object));
         LOG.trace("put - key: " + key + ", status: " + status);
     }
 
     @Override
     public void put(String key, Object object) {
-        String status = pool.set(key.getBytes(), SerializationUtils.serialize((Serializable) object));
+        String status = pool.set(key.getBytes(), serializer.serialize(object));
         LOG.trace("put - key: " + key + ", status: " + status);
     }
 
@@ -115,6 +114,21 @@ public class RedisClusterProvider extends AbstractRedisProvider {
         LOG.trace("remove - key: " + key + ", entriesRemoved: " + entriesRemoved);
     }
 
+    @Override
+    public boolean isPubSubSupported() {
+        return true;
+    }
+
+    @Override
+    public void publish(String channel, String message) {
+        pool.publish(channel, message);
+    }
+
+    @Override
+    public void subscribe(JedisPubSub listener, String channel) {
+        pool.subscribe(listener, channel);
+    }
+
     @Override
     public void clear() {
         LOG.trace("clear not allowed for cluster deployments");
@@ -10,6 +10,9 @@ import javax.annotation.PreDestroy;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * @author yuriyz on 02/23/2017.
  */
@@ -45,6 +48,7 @@ public class RedisProvider extends AbstractCacheProvider<AbstractRedisProvider>
             defaultPutExpiration = redisConfiguration.getDefaultPutExpiration() > 0 ? redisConfiguration.getDefaultPutExpiration()
                     : DEFAULT_PUT_EXPIRATION_IN_SECONDS;
             redisProvider = RedisProviderFactory.create(cacheConfiguration.getRedisConfiguration());
+            redisProvider.setSerializer(CacheSerializerFactory.create(cacheConfiguration));
             redisProvider.create();
             log.debug("RedisProvider started.");
         } catch (Exception e) {
@@ -114,11 +118,26 @@ public class RedisProvider extends AbstractCacheProvider<AbstractRedisProvider>
         redisProvider.put(expirationInSeconds > 0 ? expirationInSeconds : defaultPutExpiration, key, object);
     }
 
+    @Override
+    public Map<String, Object> getAll(Collection<String> keys) {
+        return redisProvider.getAll(keys);
+    }
+
+    @Override
+    public void putAll(int expirationInSeconds, Map<String, Object> objects) {
+        redisProvider.putAll(expirationInSeconds > 0 ? expirationInSeconds : defaultPutExpiration, objects);
+    }
+
     @Override
     public void remove(String key) {
         redisProvider.remove(key);
     }
 
+    @Override
+    public void removeAll(Collection<String> keys) {
+        redisProvider.removeAll(keys);
+    }
+
     @Override
     public void clear() {
         redisProvider.clear();
@@ -1,11 +1,12 @@
 package org.gluu.service.cache;
 
-import org.apache.commons.lang.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import redis.clients.jedis.*;
 
-import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 import static org.gluu.service.cache.RedisClusterProvider.hosts;
 
@@ -83,16 +84,56 @@ public class RedisSentinelProvider extends AbstractRedisProvider {
             byte[] value = resource.get(key.getBytes());
             Object deserialized = null;
             if (value != null && value.length > 0) {
-                deserialized = SerializationUtils.deserialize(value);
+                deserialized = serializer.deserialize(value);
             }
             return deserialized;
         }
     }
 
+    @Override
+    public Map<String, Object> getAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return super.getAll(keys);
+        }
+
+        try (final Jedis resource = pool.getResource()) {
+            List<byte[]> values = resource.mget(toBinaryKeys(keys));
+            return toResultMap(keys, values);
+        }
+    }
+
+    @Override
+    public void putAll(int expirationInSeconds, Map<String, Object> objects) {
+        if (objects.isEmpty()) {
+            return;
+        }
+
+        try (final Jedis resource = pool.getResource()) {
+            Pipeline pipeline = resource.pipelined();
+            for (Map.Entry<String, Object> entry : objects.entrySet()) {
+                pipeline.setex(entry.getKey().getBytes(), expirationInSeconds, serializer.serialize(entry.getValue()));
+            }
+            pipeline.sync();
+            LOG.trace("putAll - keys count: " + objects.size());
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        try (final Jedis resource = pool.getResource()) {
+            Long entriesRemoved = resource.del(toBinaryKeys(keys));
+            LOG.trace("removeAll - keys count: " + keys.size() + ", entriesRemoved: " + entriesRemoved);
+        }
+    }
+
     @Override
     public void put(int expirationInSeconds, String key, Object object) {
         try (final Jedis resource = pool.getResource()) {
-            String status = resource.setex(key.getBytes(), expirationInSeconds, SerializationUtils.serialize((Serializable) object));
+            String status = resource.setex(key.getBytes(), expirationInSeconds, serializer.serialize(object));
             LOG.trace("put - key: " + key + ", status: " + status);
         }
     }
@@ -100,7 +141,7 @@ public class RedisSentinelProvider extends AbstractRedisProvider {
     @Override
     public void put(String key, Object object) {
         try (final Jedis resource = pool.getResource()) {
-            String status = resource.set(key.getBytes(), SerializationUtils.serialize((Serializable) object));
+            String status = resource.set(key.getBytes(), serializer.serialize(object));
             LOG.trace("put - key: " + key + ", status: " + status);
         }
     }
@@ -113,6 +154,25 @@ public class RedisSentinelProvider extends AbstractRedisProvider {
         }
     }
 
+    @Override
+    public boolean isPubSubSupported() {
+        return true;
+    }
+
+    @Override
+    public void publish(String channel, String message) {
+        try (final Jedis resource = pool.getResource()) {
+            resource.publish(channel, message);
+        }
+    }
+
+    @Override
+    public void subscribe(JedisPubSub listener, String channel) {
+        try (final Jedis resource = pool.getResource()) {
+            resource.subscribe(listener, channel);
+        }
+    }
+
     @Override
     public void clear() {
         try (final Jedis resource = pool.getResource()) {
@@ -1,6 +1,5 @@
 package org.gluu.service.cache;
 
-import org.apache.commons.lang.SerializationUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.apache.http.conn.ssl.DefaultHostnameVerifier;
@@ -11,7 +10,6 @@ import redis.clients.jedis.ShardedJedis;
 import redis.clients.jedis.ShardedJedisPool;
 
 import javax.net.ssl.SSLParameters;
-import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -114,7 +112,7 @@ public class RedisShardedProvider extends AbstractRedisProvider {
             byte[] value = jedis.get(key.getBytes());
             Object deserialized = null;
             if (value != null && value.length > 0) {
-                deserialized = SerializationUtils.deserialize(value);
+                deserialized = serializer.deserialize(value);
             }
             return deserialized;
         } finally {
@@ -126,7 +124,7 @@ public class RedisShardedProvider extends AbstractRedisProvider {
     public void put(int expirationInSeconds, String key, Object object) {
         ShardedJedis jedis = pool.getResource();
         try {
-            String status = jedis.setex(key.getBytes(), expirationInSeconds, SerializationUtils.serialize((Serializable) object));
+            String status = jedis.setex(key.getBytes(), expirationInSeconds, serializer.serialize(object));
             LOG.trace("put - key: " + key + ", status: " + status);
         } finally {
             jedis.close();
@@ -137,7 +135,7 @@ public class RedisShardedProvider extends AbstractRedisProvider {
     public void put(String key, Object object) {
         ShardedJedis jedis = pool.getResource();
         try {
-            String status = jedis.set(key.getBytes(), SerializationUtils.serialize((Serializable) object));
+            String status = jedis.set(key.getBytes(), serializer.serialize(object));
             LOG.trace("put - key: " + key + ", status: " + status);
         } finally {
             jedis.close();
@@ -1,6 +1,5 @@
 package org.gluu.service.cache;
 
-import org.apache.commons.lang.SerializationUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.conn.ssl.DefaultHostnameVerifier;
 import org.slf4j.Logger;
@@ -9,11 +8,16 @@ import redis.clients.jedis.HostAndPort;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.Pipeline;
 
 import javax.annotation.PreDestroy;
 import javax.net.ssl.SSLParameters;
 import javax.net.ssl.SSLSocketFactory;
-import java.io.Serializable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Important : keep it weld free. It's reused by oxd !
@@ -89,7 +93,7 @@ public class RedisStandaloneProvider extends AbstractRedisProvider {
             byte[] value = jedis.get(key.getBytes());
             Object deserialized = null;
             if (value != null && value.length > 0) {
-                deserialized = SerializationUtils.deserialize(value);
+                deserialized = serializer.deserialize(value);
             }
             return deserialized;
         } finally {
@@ -97,12 +101,64 @@ public class RedisStandaloneProvider extends AbstractRedisProvider {
         }
     }
 
+    @Override
+    public Map<String, Object> getAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return super.getAll(keys);
+        }
+
+        Jedis jedis = pool.getResource();
+
+        try {
+            List<byte[]> values = jedis.mget(toBinaryKeys(keys));
+            return toResultMap(keys, values);
+        } finally {
+            jedis.close();
+        }
+    }
+
+    @Override
+    public void putAll(int expirationInSeconds, Map<String, Object> objects) {
+        if (objects.isEmpty()) {
+            return;
+        }
+
+        Jedis jedis = pool.getResource();
+
+        try {
+            Pipeline pipeline = jedis.pipelined();
+            for (Map.Entry<String, Object> entry : objects.entrySet()) {
+                pipeline.setex(entry.getKey().getBytes(), expirationInSeconds, serializer.serialize(entry.getValue()));
+            }
+            pipeline.sync();
+            LOG.trace("putAll - keys count: " + objects.size());
+        } finally {
+            jedis.close();
+        }
+    }
+
+    @Override
+    public void removeAll(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        Jedis jedis = pool.getResource();
+
+        try {
+            Long entriesRemoved = jedis.del(toBinaryKeys(keys));
+            LOG.trace("removeAll - keys count: " + keys.size() + ", entriesRemoved: " + entriesRemoved);
+        } finally {
+            jedis.close();
+        }
+    }
+
     @Override
     public void put(int expirationInSeconds, String key, Object object) {
         Jedis jedis = pool.getResource();
 
         try {
-            String status = jedis.setex(key.getBytes(), expirationInSeconds, SerializationUtils.serialize((Serializable) object));
+            String status = jedis.setex(key.getBytes(), expirationInSeconds, serializer.serialize(object));
             LOG.trace("put - key: " + key + ", status: " + status);
         } finally {
             jedis.close();
@@ -114,7 +170,7 @@ public class RedisStandaloneProvider extends AbstractRedisProvider {
         Jedis jedis = pool.getResource();
 
         try {
-            String status = jedis.set(key.getBytes(), SerializationUtils.serialize((Serializable) object));
+            String status = jedis.set(key.getBytes(), serializer.serialize(object));
             LOG.trace("put - key: " + key + ", status: " + status);
         } finally {
             jedis.close();
@@ -133,6 +189,33 @@ public class RedisStandaloneProvider extends AbstractRedisProvider {
         }
     }
 
+    @Override
+    public boolean isPubSubSupported() {
+        return true;
+    }
+
+    @Override
+    public void publish(String channel, String message) {
+        Jedis jedis = pool.getResource();
+
+        try {
+            jedis.publish(channel, message);
+        } finally {
+            jedis.close();
+        }
+    }
+
+    @Override
+    public void subscribe(JedisPubSub listener, String channel) {
+        Jedis jedis = pool.getResource();
+
+        try {
+            jedis.subscribe(listener, channel);
+        } finally {
+            jedis.close();
+        }
+    }
+
     @Override
     public void clear() {
         Jedis jedis = pool.getResource();
@@ -82,7 +82,7 @@ public class StandaloneCacheProviderFactory {
 
 		cacheProvider.create();
 
-		return cacheProvider;
+		return CacheProviderFactory.wrapWithNearCache(cacheConfiguration, cacheProvider);
 	}
 
 }
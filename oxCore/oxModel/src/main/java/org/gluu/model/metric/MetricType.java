@@ -41,7 +41,29 @@ public enum MetricType implements AttributeEnum {
 	OXAUTH_TOKEN_REFRESH_TOKEN_COUNT("tkn_refresh_token_count",
             "Count successfull issued oxAuth refresh tokens", CounterMetricData.class, CounterMetricEntry.class),
 	OXAUTH_TOKEN_LONG_LIVED_ACCESS_TOKEN_COUNT("tkn_long_lived_access_token_count",
-            "Count successfull issued oxAuth long lived access tokens", CounterMetricData.class, CounterMetricEntry.class);
+            "Count successfull issued oxAuth long lived access tokens", CounterMetricData.class, CounterMetricEntry.class),
+
+	OXAUTH_CLIENT_SECRET_CACHE_HIT("client_secret_cache_hit",
+            "Count oxAuth client authentications verified with cached client secret verifier", CounterMetricData.class, CounterMetricEntry.class),
+	OXAUTH_CLIENT_SECRET_CACHE_MISS("client_secret_cache_miss",
+            "Count oxAuth client authentications which required client secret decryption", CounterMetricData.class, CounterMetricEntry.class),
+
+	OXAUTH_GRANT_CACHE_HIT("grant_cache_hit",
+            "Count oxAuth grants reconstructed from token with cached user and request", CounterMetricData.class, CounterMetricEntry.class),
+	OXAUTH_GRANT_CACHE_MISS("grant_cache_miss",
+            "Count oxAuth grants reconstructed from token which required user and request loading", CounterMetricData.class, CounterMetricEntry.class),
+
+	OXAUTH_SIGNATURE_COUNT("signature_count",
+            "Count oxAuth signatures created with keystore keys and shared secrets", CounterMetricData.class, CounterMetricEntry.class),
+	OXAUTH_KEY_CACHE_HIT("key_cache_hit",
+            "Count oxAuth signatures created with cached decrypted private key", CounterMetricData.class, CounterMetricEntry.class),
+	OXAUTH_KEY_CACHE_MISS("key_cache_miss",
+            "Count oxAuth private key loads which required key decryption", CounterMetricData.class, CounterMetricEntry.class),
+
+	CACHE_COALESCED_LOAD_COUNT("cache_coalesced_load_count",
+            "Count cache misses which waited for load of the same key started by another thread", CounterMetricData.class, CounterMetricEntry.class),
+	CACHE_EARLY_REFRESH_COUNT("cache_early_refresh_count",
+            "Count cache entries refreshed before expiration", CounterMetricData.class, CounterMetricEntry.class);
 
     private String value;
     private String displayName;
@@ -6,6 +6,7 @@ package org.gluu.service.metric;
  */
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
 
@@ -13,12 +14,18 @@ import org.gluu.model.ApplicationType;
 import org.gluu.model.metric.MetricType;
 import org.gluu.model.metric.ldap.MetricEntry;
 import org.gluu.model.metric.ldap.MetricReport;
+import org.gluu.orm.hybrid.impl.HybridPersistenceOperationService;
 import org.gluu.persist.PersistenceEntryManager;
 import org.gluu.persist.exception.EntryPersistenceException;
 import org.gluu.persist.model.DefaultBatchOperation;
 import org.gluu.persist.model.SearchScope;
 import org.gluu.persist.model.base.SimpleBranch;
+import org.gluu.persist.operation.PersistenceOperationService;
+import org.gluu.persist.watch.OperationMetrics;
+import org.gluu.persist.watch.OperationMetricsListener;
 import org.gluu.search.filter.Filter;
+import org.gluu.service.BaseCacheService;
+import org.gluu.service.cache.CacheLoadListener;
 import org.gluu.service.cdi.async.Asynchronous;
 import org.gluu.service.metric.inject.ReportMetric;
 import org.gluu.util.StringHelper;
@@ -29,6 +36,7 @@ import javax.inject.Inject;
 import java.io.Serializable;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -57,6 +65,9 @@ public abstract class MetricService implements Serializable {
 
 	private LdapEntryReporter ldapEntryReporter;
 
+	private transient OperationMetricsListener persistenceMetricsListener;
+	private transient List<OperationMetrics> persistenceOperationMetrics = new CopyOnWriteArrayList<OperationMetrics>();
+
     @Inject
     private Logger log;
 
@@ -78,6 +89,79 @@ public abstract class MetricService implements Serializable {
     	if (this.ldapEntryReporter != null) {
     		this.ldapEntryReporter.close();
     	}
+
+    	unregisterPersistenceMetrics();
+    }
+
+    /*
+     * Publish durations of persistence operations as timers named
+     * persistence.<backend>.<operation>.<target>.<result>
+     */
+    public void registerPersistenceMetrics(PersistenceEntryManager persistenceEntryManager) {
+        if (persistenceMetricsListener == null) {
+            persistenceMetricsListener = new OperationMetricsListener() {
+                @Override
+                public void onOperation(String backend, String operation, String target, String result, long durationNanos) {
+                    metricRegistry.timer(MetricRegistry.name("persistence", backend, operation, target, result)).update(durationNanos,
+                            TimeUnit.NANOSECONDS);
+                }
+            };
+        }
+
+        List<PersistenceOperationService> operationServices = new ArrayList<PersistenceOperationService>();
+        PersistenceOperationService operationService = persistenceEntryManager.getOperationService();
+        if (operationService instanceof HybridPersistenceOperationService) {
+            operationServices.addAll(((HybridPersistenceOperationService) operationService).getPersistenceOperationServices());
+        } else if (operationService != null) {
+            operationServices.add(operationService);
+        }
+
+        // Transient list is null after deserialization
+        if (persistenceOperationMetrics == null) {
+            persistenceOperationMetrics = new CopyOnWriteArrayList<OperationMetrics>();
+        }
+
+        for (PersistenceOperationService service : operationServices) {
+            OperationMetrics operationMetrics = service.getOperationMetrics();
+            if ((operationMetrics == null) || persistenceOperationMetrics.contains(operationMetrics)) {
+                continue;
+            }
+
+            operationMetrics.addListener(persistenceMetricsListener);
+            persistenceOperationMetrics.add(operationMetrics);
+        }
+    }
+
+    /*
+     * Publish getWithPut coalesced loads and early refreshes of cache service as counters
+     */
+    public void registerCacheMetrics(BaseCacheService cacheService) {
+        cacheService.setLoadListener(new CacheLoadListener() {
+            @Override
+            public void onCoalescedLoad() {
+                incCounter(MetricType.CACHE_COALESCED_LOAD_COUNT);
+            }
+
+            @Override
+            public void onEarlyRefresh() {
+                incCounter(MetricType.CACHE_EARLY_REFRESH_COUNT);
+            }
+        });
+    }
+
+    /*
+     * Stop publishing metrics of operation services. Entry manager recreated after configuration reload
+     * has new operation services which should be registered again
+     */
+    public void unregisterPersistenceMetrics() {
+        if (persistenceOperationMetrics == null) {
+            return;
+        }
+
+        for (OperationMetrics operationMetrics : persistenceOperationMetrics) {
+            operationMetrics.removeListener(persistenceMetricsListener);
+        }
+        persistenceOperationMetrics.clear();
     }
 
     public int getEntryLifetimeInDays() {
@@ -359,7 +443,25 @@ public abstract class MetricService implements Serializable {
         return metricRegistry.timer(metricType.getMetricName());
     }
 
+    /*
+     * Register gauge in metric registry. Gauge registered before with same name is replaced
+     */
+    public synchronized void registerGauge(String name, Gauge<?> gauge) {
+        if (metricRegistry == null) {
+            log.debug("Metric registry isn't initialized. Skipping gauge: {}", name);
+            return;
+        }
+
+        metricRegistry.remove(name);
+        metricRegistry.register(name, gauge);
+    }
+
     public void incCounter(MetricType metricType) {
+        if (metricRegistry == null) {
+            // Events may happen before metric timer is initialized
+            return;
+        }
+
         Counter counter = getCounter(metricType);
         counter.inc();
     }
@@ -13,10 +13,16 @@ import org.slf4j.Logger;
 /**
  * Base Brute Force authentication protection service implementation
  *
+ * Failed attempts are counted per key in sliding window of attemptExpiration seconds. Successful attempt
+ * resets counter of key. When count reaches maximumAllowedAttemptsWithoutDelay key is blocked for delayTime seconds. Attempts of blocked key should
+ * be rejected without credentials check (e.g. with 429 and Retry-After), so request threads are never blocked.
+ *
  * @author Yuriy Movchan Date: 08/21/2018
  */
 public abstract class AuthenticationProtectionService {
 
+    private static final int MAX_KEYS = 100000;
+
     @Inject
     private CacheService cacheService;
 
@@ -28,6 +34,8 @@ public abstract class AuthenticationProtectionService {
 
     protected int delayTime;
 
+    private volatile SlidingWindowRateLimiter rateLimiter;
+
     @PostConstruct
     public void create() {
         init();
@@ -36,19 +44,47 @@ public abstract class AuthenticationProtectionService {
     protected abstract void init();
 
     public void storeAttempt(String key, boolean success) {
-        AuthenticationAttemptList authenticationAttemptList = getNonExpiredAttempts(key);
-        if (authenticationAttemptList == null) {
-            authenticationAttemptList = new AuthenticationAttemptList();
+        if (key == null) {
+            return;
         }
 
-        long currentTime = System.currentTimeMillis();
+        SlidingWindowRateLimiter limiter = getRateLimiter();
+        String limiterKey = buildKey(key);
+        if (success) {
+            limiter.reset(limiterKey);
+            return;
+        }
 
-        AuthenticationAttempt authenticationAttempt = new AuthenticationAttempt(currentTime, currentTime + attemptExpiration * 1000, success);
-        authenticationAttemptList.getAuthenticationAttempts().add(authenticationAttempt);
+        int count = limiter.record(limiterKey);
+        if (count >= maximumAllowedAttemptsWithoutDelay) {
+            log.debug("Authentication attempts limit is reached, next attempts are delayed for: '{}' seconds", getDelayTime());
+            limiter.block(limiterKey, System.currentTimeMillis() + getDelayTime() * 1000L);
+        }
+    }
 
-        cacheService.put(Integer.toString(attemptExpiration), buildKey(key), authenticationAttemptList);
+    /**
+     * @return <code>true</code> if attempt with specified key should be rejected without credentials check
+     */
+    public boolean isAttemptDelayed(String key) {
+        return getRetryAfter(key) > 0;
     }
 
+    /**
+     * @return seconds client should wait before next attempt, 0 if attempt is allowed
+     */
+    public int getRetryAfter(String key) {
+        if (key == null) {
+            return 0;
+        }
+
+        long blockedTime = getRateLimiter().getBlockedTime(buildKey(key));
+        return (int) ((blockedTime + 999) / 1000);
+    }
+
+    /**
+     * @deprecated attempts aren't stored in cache, use {@link #isReachAttemptRateLimit(String)} or {@link #getRetryAfter(String)}
+     */
+    @Deprecated
     public AuthenticationAttemptList getAttempts(String key) {
         Object o = cacheService.get(null, buildKey(key));
         if (o instanceof AuthenticationAttemptList) {
@@ -58,6 +94,10 @@ public abstract class AuthenticationProtectionService {
         return null;
     }
 
+    /**
+     * @deprecated attempts aren't stored in cache, use {@link #isReachAttemptRateLimit(String)} or {@link #getRetryAfter(String)}
+     */
+    @Deprecated
     public AuthenticationAttemptList getNonExpiredAttempts(String key) {
         AuthenticationAttemptList authenticationAttemptList = getAttempts(key);
         if (authenticationAttemptList == null) {
@@ -79,32 +119,42 @@ public abstract class AuthenticationProtectionService {
     }
 
     public boolean isReachAttemptRateLimit(String key) {
-        AuthenticationAttemptList authenticationAttemptList = getNonExpiredAttempts(key);
-        if (authenticationAttemptList == null) {
+        if (key == null) {
             return false;
         }
 
-        return authenticationAttemptList.getAuthenticationAttempts().size() >= maximumAllowedAttemptsWithoutDelay;
+        return getRateLimiter().getCount(buildKey(key)) >= maximumAllowedAttemptsWithoutDelay;
     }
 
     public int getDelayTime() {
         return delayTime;
     }
-    
+
+    /**
+     * @deprecated delay doesn't block current thread anymore. Key is blocked by {@link #storeAttempt(String, boolean)}
+     * and next attempts should be rejected while {@link #isAttemptDelayed(String)} returns <code>true</code>
+     */
+    @Deprecated
     public void doDelayIfNeeded(String key) {
-        boolean processDelay = isReachAttemptRateLimit(key);
-        if (!processDelay) {
-            log.debug("Allowing current login attempt without delay");
-            return;
+        if (isAttemptDelayed(key)) {
+            log.debug("Next login attempt requires delay: '{}' seconds", getRetryAfter(key));
+        } else {
+            log.debug("Allowing next login attempt without delay");
         }
-        
-        int delayTime = getDelayTime();
-        
-        try {
-            log.debug("Current login attempt requires delay: '{}' seconds", delayTime);
-            Thread.sleep(delayTime * 1000);
-        } catch (InterruptedException ex) {
-            log.error("Failed to process authentication delay");
+    }
+
+    private SlidingWindowRateLimiter getRateLimiter() {
+        SlidingWindowRateLimiter limiter = this.rateLimiter;
+        if ((limiter != null) && (limiter.getWindowInSeconds() == attemptExpiration)) {
+            return limiter;
+        }
+
+        synchronized (this) {
+            if ((this.rateLimiter == null) || (this.rateLimiter.getWindowInSeconds() != attemptExpiration)) {
+                this.rateLimiter = new SlidingWindowRateLimiter(attemptExpiration, MAX_KEYS);
+            }
+
+            return this.rateLimiter;
         }
     }
 
@@ -0,0 +1,225 @@
+package org.gluu.service.security.protect;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory rate limiter with fixed-size sliding window counter per key. Window is split into slots,
+ * so memory per key doesn't depend on count of attempts. Key can be blocked for some time after
+ * reaching limit.
+ *
+ * Count of keys is bounded by maxKeys. When it's exceeded keys without attempts in window are removed
+ * first, then not blocked keys with oldest attempts.
+ *
+ * Each key has own lock, so concurrent attempts of different keys don't contend.
+ */
+public class SlidingWindowRateLimiter {
+
+    private static final int SLOT_COUNT = 10;
+
+    // Evict more keys than needed to not purge on each new key
+    private static final int EVICT_PERCENT = 10;
+
+    private final int windowInSeconds;
+    private final long windowInMillis;
+    private final long slotInMillis;
+    private final int maxKeys;
+
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    public SlidingWindowRateLimiter(int windowInSeconds, int maxKeys) {
+        this.windowInSeconds = windowInSeconds;
+        this.windowInMillis = Math.max(1, windowInSeconds) * 1000L;
+        this.slotInMillis = Math.max(1, windowInMillis / SLOT_COUNT);
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Record attempt
+     *
+     * @return count of attempts in window including current one
+     */
+    public int record(String key) {
+        return record(key, System.currentTimeMillis());
+    }
+
+    int record(String key, long now) {
+        Window window = windows.get(key);
+        if (window != null) {
+            return window.increment(slot(now), now);
+        }
+
+        window = windows.computeIfAbsent(key, k -> new Window(now));
+        // Count attempt before purge to not remove new key as idle one
+        int count = window.increment(slot(now), now);
+        purgeIfNeeded(now);
+
+        return count;
+    }
+
+    public int getCount(String key) {
+        return getCount(key, System.currentTimeMillis());
+    }
+
+    int getCount(String key, long now) {
+        Window window = windows.get(key);
+        return window == null ? 0 : window.count(slot(now));
+    }
+
+    /**
+     * Block key until specified time
+     */
+    public void block(String key, long blockedUntil) {
+        long now = System.currentTimeMillis();
+        Window window = windows.computeIfAbsent(key, k -> new Window(now));
+        window.block(blockedUntil);
+        purgeIfNeeded(now);
+    }
+
+    /**
+     * @return time in milliseconds key stays blocked, 0 if key isn't blocked
+     */
+    public long getBlockedTime(String key) {
+        return getBlockedTime(key, System.currentTimeMillis());
+    }
+
+    long getBlockedTime(String key, long now) {
+        Window window = windows.get(key);
+        return window == null ? 0 : Math.max(0, window.blockedUntil - now);
+    }
+
+    /**
+     * Remove attempts and block of key
+     */
+    public void reset(String key) {
+        windows.remove(key);
+    }
+
+    public int getWindowInSeconds() {
+        return windowInSeconds;
+    }
+
+    public int size() {
+        return windows.size();
+    }
+
+    /**
+     * Remove keys without attempts in window. If there are still more than maxKeys keys,
+     * evict not blocked keys with oldest attempts first
+     */
+    public synchronized void purge(long now) {
+        long currentSlot = slot(now);
+        for (Iterator<Window> it = windows.values().iterator(); it.hasNext();) {
+            Window window = it.next();
+            if (window.isIdle(currentSlot, now)) {
+                it.remove();
+            }
+        }
+
+        int size = windows.size();
+        if (size <= maxKeys) {
+            return;
+        }
+
+        // Take snapshot of values because they can be changed by concurrent attempts during sort
+        List<EvictionCandidate> candidates = new ArrayList<>(size);
+        for (Map.Entry<String, Window> entry : windows.entrySet()) {
+            candidates.add(new EvictionCandidate(entry.getKey(), entry.getValue(), now));
+        }
+        candidates.sort(Comparator.comparing((EvictionCandidate candidate) -> candidate.blocked)
+                .thenComparingLong(candidate -> candidate.lastAttemptTime));
+
+        int toEvict = size - maxKeys + maxKeys * EVICT_PERCENT / 100;
+        for (int i = 0; (i < toEvict) && (i < candidates.size()); i++) {
+            EvictionCandidate candidate = candidates.get(i);
+            windows.remove(candidate.key, candidate.window);
+        }
+    }
+
+    private void purgeIfNeeded(long now) {
+        if (windows.size() <= maxKeys) {
+            return;
+        }
+
+        synchronized (this) {
+            // Other thread could purge already
+            if (windows.size() > maxKeys) {
+                purge(now);
+            }
+        }
+    }
+
+    private long slot(long time) {
+        return time / slotInMillis;
+    }
+
+    private static class Window {
+
+        private final int[] counts = new int[SLOT_COUNT];
+        private final long[] slots = new long[SLOT_COUNT];
+
+        private volatile long blockedUntil;
+        private volatile long lastAttemptTime;
+
+        Window(long now) {
+            this.lastAttemptTime = now;
+        }
+
+        synchronized int increment(long currentSlot, long now) {
+            lastAttemptTime = now;
+
+            int index = (int) (currentSlot % SLOT_COUNT);
+            if (slots[index] != currentSlot) {
+                slots[index] = currentSlot;
+                counts[index] = 0;
+            }
+            counts[index]++;
+
+            return count(currentSlot);
+        }
+
+        synchronized int count(long currentSlot) {
+            int count = 0;
+            for (int i = 0; i < SLOT_COUNT; i++) {
+                if (currentSlot - slots[i] < SLOT_COUNT) {
+                    count += counts[i];
+                }
+            }
+
+            return count;
+        }
+
+        synchronized void block(long blockedUntil) {
+            if (blockedUntil > this.blockedUntil) {
+                this.blockedUntil = blockedUntil;
+            }
+        }
+
+        boolean isIdle(long currentSlot, long now) {
+            return (blockedUntil <= now) && (count(currentSlot) == 0);
+        }
+
+    }
+
+    private static class EvictionCandidate {
+
+        private final String key;
+        private final Window window;
+        private final boolean blocked;
+        private final long lastAttemptTime;
+
+        EvictionCandidate(String key, Window window, long now) {
+            this.key = key;
+            this.window = window;
+            this.blocked = window.blockedUntil > now;
+            this.lastAttemptTime = window.lastAttemptTime;
+        }
+
+    }
+
+}
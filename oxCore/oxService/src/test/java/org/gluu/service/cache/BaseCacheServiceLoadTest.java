@@ -0,0 +1,194 @@
+package org.gluu.service.cache;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.gluu.service.BaseCacheService;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Concurrent loads of same key should be coalesced. Failure of load should be passed to all waiting callers
+ */
+public class BaseCacheServiceLoadTest {
+
+	private static final String KEY = "loadKey";
+
+	private TestCacheService cacheService;
+	private ExecutorService executorService;
+
+	@BeforeMethod
+	public void init() throws Exception {
+		InMemoryCacheProvider cacheProvider = new InMemoryCacheProvider();
+		cacheProvider.configure(new CacheConfiguration());
+		cacheProvider.create();
+
+		this.cacheService = new TestCacheService(cacheProvider);
+		this.executorService = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void destroy() {
+		executorService.shutdownNow();
+	}
+
+	@Test
+	public void coalesceConcurrentLoads() throws Exception {
+		final CountDownLatch loadStarted = new CountDownLatch(1);
+		final CountDownLatch completeLoad = new CountDownLatch(1);
+
+		Future<Object> first = executorService.submit(() -> cacheService.getWithPut(KEY, blockingLoader(loadStarted, completeLoad, "value"), 60));
+		assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+		Future<Object> second = executorService.submit(() -> cacheService.getWithPut(KEY, () -> "other", 60));
+		waitForCoalescedLoads(1);
+
+		completeLoad.countDown();
+
+		assertEquals(first.get(10, TimeUnit.SECONDS), "value");
+		assertEquals(second.get(10, TimeUnit.SECONDS), "value");
+		assertEquals(cacheService.getLoadCount(), 1);
+	}
+
+	@Test
+	public void passRuntimeExceptionToWaitingCallers() throws Exception {
+		IllegalStateException failure = new IllegalStateException("Load failed");
+		assertLoadFailurePassed(failure);
+	}
+
+	@Test
+	public void passErrorToWaitingCallers() throws Exception {
+		Error failure = new AssertionError("Load failed");
+		assertLoadFailurePassed(failure);
+	}
+
+	@Test
+	public void loadWithoutCoalescingAfterWaitTimeout() throws Exception {
+		CacheConfiguration cacheConfiguration = new CacheConfiguration();
+		cacheConfiguration.setLoadCoalescingWaitTimeout(1);
+		cacheService.setCacheConfiguration(cacheConfiguration);
+
+		final AtomicInteger coalescedLoads = new AtomicInteger();
+		cacheService.setLoadListener(new CacheLoadListener() {
+
+			@Override
+			public void onCoalescedLoad() {
+				coalescedLoads.incrementAndGet();
+			}
+
+			@Override
+			public void onEarlyRefresh() {
+			}
+		});
+
+		final CountDownLatch loadStarted = new CountDownLatch(1);
+		final CountDownLatch completeLoad = new CountDownLatch(1);
+
+		Future<Object> first = executorService.submit(() -> cacheService.getWithPut(KEY, blockingLoader(loadStarted, completeLoad, "value"), 60));
+		assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+
+		// Hung load shouldn't block caller after timeout
+		assertEquals(cacheService.getWithPut(KEY, () -> "other", 60), "other");
+		assertEquals(coalescedLoads.get(), 1);
+		assertEquals(cacheService.getLoadCount(), 1);
+
+		completeLoad.countDown();
+		assertEquals(first.get(10, TimeUnit.SECONDS), "value");
+		assertEquals(cacheService.getLoadCount(), 2);
+	}
+
+	private void assertLoadFailurePassed(final Throwable failure) throws Exception {
+		final CountDownLatch loadStarted = new CountDownLatch(1);
+		final CountDownLatch completeLoad = new CountDownLatch(1);
+
+		Future<Object> first = executorService.submit(() -> cacheService.getWithPut(KEY, blockingLoader(loadStarted, completeLoad, failure), 60));
+		assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+		Future<Object> second = executorService.submit(() -> cacheService.getWithPut(KEY, () -> "other", 60));
+		Future<Object> third = executorService.submit(() -> cacheService.getWithPut(KEY, () -> "other", 60));
+		waitForCoalescedLoads(2);
+
+		completeLoad.countDown();
+
+		// Callers shouldn't wait forever for failed load
+		for (Future<Object> future : new Future[] { first, second, third }) {
+			try {
+				future.get(10, TimeUnit.SECONDS);
+				fail("Load should fail");
+			} catch (ExecutionException ex) {
+				assertSame(ex.getCause(), failure);
+			}
+		}
+
+		// Failed load is not in progress anymore
+		assertEquals(cacheService.getWithPut(KEY, () -> "value", 60), "value");
+	}
+
+	private void waitForCoalescedLoads(long count) throws InterruptedException {
+		long waitUntil = System.currentTimeMillis() + 10000;
+		while (cacheService.getCoalescedLoadCount() < count) {
+			if (System.currentTimeMillis() > waitUntil) {
+				fail("Concurrent load was not coalesced");
+			}
+			Thread.sleep(10);
+		}
+	}
+
+	private static Supplier<Object> blockingLoader(final CountDownLatch loadStarted, final CountDownLatch completeLoad, final Object result) {
+		return () -> {
+			loadStarted.countDown();
+			try {
+				completeLoad.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+
+			if (result instanceof RuntimeException) {
+				throw (RuntimeException) result;
+			}
+			if (result instanceof Error) {
+				throw (Error) result;
+			}
+
+			return result;
+		};
+	}
+
+	private static class TestCacheService extends BaseCacheService {
+
+		private final CacheProvider cacheProvider;
+
+		TestCacheService(CacheProvider cacheProvider) throws Exception {
+			this.cacheProvider = cacheProvider;
+
+			Field logField = BaseCacheService.class.getDeclaredField("log");
+			logField.setAccessible(true);
+			logField.set(this, LoggerFactory.getLogger(BaseCacheService.class));
+		}
+
+		void setCacheConfiguration(CacheConfiguration cacheConfiguration) throws Exception {
+			Field cacheConfigurationField = BaseCacheService.class.getDeclaredField("cacheConfiguration");
+			cacheConfigurationField.setAccessible(true);
+			cacheConfigurationField.set(this, cacheConfiguration);
+		}
+
+		@Override
+		protected CacheProvider getCacheProvider() {
+			return cacheProvider;
+		}
+
+	}
+
+}
@@ -0,0 +1,169 @@
+package org.gluu.service.cache;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.testng.annotations.Test;
+
+public class CompactCacheSerializerTest {
+
+    @Test
+    public void compactRoundTrip() {
+        SampleSessionId sessionId = sampleSessionId();
+
+        CompactCacheSerializer serializer = new CompactCacheSerializer(0);
+        byte[] data = serializer.serialize(sessionId);
+
+        assertTrue(data.length < JavaCacheSerializer.INSTANCE.serialize(sessionId).length);
+        assertSessionId((SampleSessionId) serializer.deserialize(data), sessionId);
+    }
+
+    @Test
+    public void compressedRoundTrip() {
+        SampleSessionId sessionId = sampleSessionId();
+        StringBuilder jwt = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            jwt.append(sessionId.getId());
+        }
+        sessionId.setJwt(jwt.toString());
+
+        CompactCacheSerializer serializer = new CompactCacheSerializer(256);
+        byte[] data = serializer.serialize(sessionId);
+
+        assertTrue(data.length < jwt.length());
+        assertSessionId((SampleSessionId) serializer.deserialize(data), sessionId);
+    }
+
+    @Test
+    public void readFormatOfOtherSerializer() {
+        SampleSessionId sessionId = sampleSessionId();
+
+        assertSessionId((SampleSessionId) new CompactCacheSerializer(0).deserialize(JavaCacheSerializer.INSTANCE.serialize(sessionId)),
+                sessionId);
+        assertSessionId((SampleSessionId) JavaCacheSerializer.INSTANCE.deserialize(new CompactCacheSerializer(0).serialize(sessionId)),
+                sessionId);
+    }
+
+    @Test
+    public void simpleValues() {
+        CompactCacheSerializer serializer = new CompactCacheSerializer(0);
+
+        assertNull(serializer.deserialize(serializer.serialize(null)));
+        assertEquals(serializer.deserialize(serializer.serialize("testValue")), "testValue");
+        assertEquals(serializer.deserialize(serializer.serialize(Long.MIN_VALUE)), Long.MIN_VALUE);
+        assertEquals(serializer.deserialize(serializer.serialize(-1)), -1);
+    }
+
+    @Test
+    public void beanWithoutNoArgConstructor() {
+        CompactCacheSerializer serializer = new CompactCacheSerializer(0);
+        Map<String, Object> values = new HashMap<>();
+        values.put("value", new ImmutableValue("testValue", 5));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> result = (Map<String, Object>) serializer.deserialize(serializer.serialize(values));
+        ImmutableValue value = (ImmutableValue) result.get("value");
+        assertEquals(value.getName(), "testValue");
+        assertEquals(value.getCount(), 5);
+    }
+
+    @Test
+    public void transientFieldInitializerRunsOnDeserialization() {
+        ValueWithTransientField value = new ValueWithTransientField();
+        value.setName("testValue");
+        value.getCachedValues().add("cachedValue");
+
+        ValueWithTransientField result = (ValueWithTransientField) new CompactCacheSerializer(0)
+                .deserialize(new CompactCacheSerializer(0).serialize(value));
+        assertEquals(result.getName(), "testValue");
+        // Constructor is called, so transient field is initialized but not restored
+        assertNotNull(result.getCachedValues());
+        assertTrue(result.getCachedValues().isEmpty());
+
+        // Java serialization doesn't run field initializers of serializable class
+        ValueWithTransientField javaResult = (ValueWithTransientField) JavaCacheSerializer.INSTANCE
+                .deserialize(JavaCacheSerializer.INSTANCE.serialize(value));
+        assertEquals(javaResult.getName(), "testValue");
+        assertNull(javaResult.getCachedValues());
+    }
+
+    private void assertSessionId(SampleSessionId actual, SampleSessionId expected) {
+        assertEquals(actual.getId(), expected.getId());
+        assertEquals(actual.getDn(), expected.getDn());
+        assertEquals(actual.getJwt(), expected.getJwt());
+        assertEquals(actual.getState(), expected.getState());
+        assertEquals(actual.getAuthenticationTime(), expected.getAuthenticationTime());
+        assertEquals(actual.getSessionAttributes(), expected.getSessionAttributes());
+        assertEquals(actual.getPermissionGrantedMap().getPermissionGranted(), expected.getPermissionGrantedMap().getPermissionGranted());
+    }
+
+    private SampleSessionId sampleSessionId() {
+        Map<String, String> sessionAttributes = new HashMap<>();
+        sessionAttributes.put("attr1", "value1");
+        sessionAttributes.put("attr2", "value2");
+
+        SampleSessionId sessionId = new SampleSessionId();
+        sessionId.setId(UUID.randomUUID().toString());
+        sessionId.setDn(sessionId.getId());
+        sessionId.setAuthenticationTime(new Date());
+        sessionId.setState(SessionIdState.AUTHENTICATED);
+        sessionId.setSessionAttributes(sessionAttributes);
+        sessionId.addPermission("client1", true);
+
+        return sessionId;
+    }
+
+    private static class ValueWithTransientField implements Serializable {
+
+        private static final long serialVersionUID = -6398521645032281946L;
+
+        private String name;
+        private transient List<String> cachedValues = new ArrayList<>();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<String> getCachedValues() {
+            return cachedValues;
+        }
+
+    }
+
+    private static class ImmutableValue implements Serializable {
+
+        private static final long serialVersionUID = 3452717183926147123L;
+
+        private final String name;
+        private final int count;
+
+        ImmutableValue(String name, int count) {
+            this.name = name;
+            this.count = count;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+    }
+
+}
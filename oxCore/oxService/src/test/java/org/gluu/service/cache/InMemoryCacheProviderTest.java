@@ -5,6 +5,11 @@ import org.testng.annotations.Test;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.gluu.service.cache.CacheConfiguration;
 import org.gluu.service.cache.InMemoryCacheProvider;
@@ -40,4 +45,23 @@ public class InMemoryCacheProviderTest {
         Thread.sleep(2000);
         assertNull(cache.get("myKey")); // value must be expired;
     }
+
+    @Test
+    public void batchTest() {
+        Map<String, Object> objects = new LinkedHashMap<>();
+        objects.put("batchKey1", "value1");
+        objects.put("batchKey2", "value2");
+        objects.put("batchKey3", "value3");
+        cache.putAll(10, objects);
+
+        Map<String, Object> values = cache.getAll(Arrays.asList("batchKey3", "missingKey", "batchKey1"));
+        assertEquals(values.size(), 2);
+        assertEquals(values.keySet().iterator().next(), "batchKey3"); // keys order is preserved
+        assertEquals(values.get("batchKey1"), "value1");
+
+        cache.removeAll(Arrays.asList("batchKey1", "batchKey2"));
+        assertNull(cache.get("batchKey1"));
+        assertNull(cache.get("batchKey2"));
+        assertTrue(cache.hasKey("batchKey3"));
+    }
 }
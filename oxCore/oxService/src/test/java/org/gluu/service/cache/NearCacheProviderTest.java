@@ -0,0 +1,305 @@
+package org.gluu.service.cache;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import redis.clients.jedis.JedisPubSub;
+
+/**
+ * Two near cache nodes in front of one shared cache provider
+ */
+public class NearCacheProviderTest {
+
+    private static final String CHANNEL = "test_invalidation";
+
+    private TestCacheProvider remoteCache;
+    private TestPubSubProvider pubSubProvider;
+
+    private NearCacheProvider node1;
+    private NearCacheProvider node2;
+
+    @BeforeMethod
+    public void init() throws InterruptedException {
+        remoteCache = new TestCacheProvider();
+        remoteCache.configure(new CacheConfiguration());
+        remoteCache.create();
+
+        pubSubProvider = new TestPubSubProvider();
+
+        node1 = createNode();
+        node2 = createNode();
+        pubSubProvider.awaitSubscriptions(2);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void destroy() {
+        node1.destroy();
+        node2.destroy();
+    }
+
+    @Test
+    public void keepOnlyAllowedKeysInLocalCache() {
+        ConfigValue config = new ConfigValue("value1");
+        node1.put(60, "config_1", config);
+        node1.put(60, "session_1", new ConfigValue("value1"));
+
+        // Changes made directly in remote cache are visible only for keys which are not kept in L1
+        remoteCache.put(60, "config_1", new ConfigValue("value2"));
+        remoteCache.put(60, "session_1", new ConfigValue("value2"));
+
+        assertSame(node1.get("config_1"), config);
+        assertEquals(((ConfigValue) node1.get("session_1")).getValue(), "value2");
+
+        Map<String, Object> values = node1.getAll(Arrays.asList("session_1", "config_1", "missing_1"));
+        assertEquals(values.size(), 2);
+        assertEquals(values.keySet().iterator().next(), "session_1");
+        assertSame(values.get("config_1"), config);
+        assertEquals(((ConfigValue) values.get("session_1")).getValue(), "value2");
+
+        // Only allowed keys are published to other nodes
+        assertEquals(pubSubProvider.getPublishedKeys(), Arrays.asList("config_1"));
+    }
+
+    @Test
+    public void invalidateOtherNodesOnPut() {
+        node1.put(60, "config_1", new ConfigValue("value1"));
+        assertEquals(((ConfigValue) node2.get("config_1")).getValue(), "value1");
+
+        node1.put(60, "config_1", new ConfigValue("value2"));
+        assertEquals(((ConfigValue) node2.get("config_1")).getValue(), "value2");
+    }
+
+    @Test
+    public void invalidateOtherNodesOnRemove() {
+        node1.put(60, "config_1", new ConfigValue("value1"));
+        node1.put(60, "config_2", new ConfigValue("value2"));
+        assertTrue(node2.hasKey("config_1"));
+        assertEquals(node2.getAll(Arrays.asList("config_1", "config_2")).size(), 2);
+
+        node1.remove("config_1");
+        assertNull(node2.get("config_1"));
+        assertFalse(node2.hasKey("config_1"));
+
+        node1.removeAll(Arrays.asList("config_2"));
+        assertNull(node2.get("config_2"));
+    }
+
+    @Test
+    public void invalidateOtherNodesOnClear() {
+        node1.put(60, "config_1", new ConfigValue("value1"));
+        assertEquals(((ConfigValue) node2.get("config_1")).getValue(), "value1");
+
+        node1.clear();
+        assertNull(node2.get("config_1"));
+    }
+
+    @Test
+    public void skipLocalCopyInvalidatedDuringRemoteRead() {
+        remoteCache.put(60, "config_1", new ConfigValue("value1"));
+        remoteCache.put(60, "config_2", new ConfigValue("value1"));
+
+        // Other node updates entries after this node read them from remote cache
+        remoteCache.setAfterRead(() -> node1.put(60, "config_1", new ConfigValue("value2")));
+        assertEquals(((ConfigValue) node2.get("config_1")).getValue(), "value1");
+        assertEquals(((ConfigValue) node2.get("config_1")).getValue(), "value2");
+
+        remoteCache.setAfterRead(() -> node1.put(60, "config_2", new ConfigValue("value2")));
+        assertEquals(((ConfigValue) node2.getAll(Arrays.asList("config_2")).get("config_2")).getValue(), "value1");
+        assertEquals(((ConfigValue) node2.get("config_2")).getValue(), "value2");
+    }
+
+    @Test
+    public void destroyReleasesSubscriptionAndCacheProvider() throws InterruptedException {
+        node2.destroy();
+
+        assertTrue(pubSubProvider.awaitSubscriptions(1));
+        assertEquals(remoteCache.getDestroyCount(), 1);
+    }
+
+    private NearCacheProvider createNode() {
+        NearCacheConfiguration nearCacheConfiguration = new NearCacheConfiguration();
+        nearCacheConfiguration.setEnabled(true);
+        nearCacheConfiguration.setInvalidationChannel(CHANNEL);
+        nearCacheConfiguration.setKeyPrefixes(Arrays.asList("config_"));
+
+        NearCacheProvider nearCacheProvider = new NearCacheProvider(nearCacheConfiguration, remoteCache, pubSubProvider);
+        nearCacheProvider.create();
+
+        return nearCacheProvider;
+    }
+
+    private static class ConfigValue {
+
+        private final String value;
+
+        ConfigValue(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+    }
+
+    private static class TestCacheProvider extends InMemoryCacheProvider {
+
+        private final AtomicInteger destroyCount = new AtomicInteger();
+        private volatile Runnable afterRead;
+
+        @Override
+        public Object get(String key) {
+            Object value = super.get(key);
+            runAfterRead();
+
+            return value;
+        }
+
+        @Override
+        public Map<String, Object> getAll(Collection<String> keys) {
+            Map<String, Object> values = super.getAll(keys);
+            runAfterRead();
+
+            return values;
+        }
+
+        /*
+         * Action is executed once after next read
+         */
+        public void setAfterRead(Runnable afterRead) {
+            this.afterRead = afterRead;
+        }
+
+        private void runAfterRead() {
+            Runnable action = afterRead;
+            if (action != null) {
+                afterRead = null;
+                action.run();
+            }
+        }
+
+        @Override
+        public void destroy() {
+            destroyCount.incrementAndGet();
+        }
+
+        public int getDestroyCount() {
+            return destroyCount.get();
+        }
+
+    }
+
+    /*
+     * Delivers published messages synchronously to subscribers in this JVM
+     */
+    private static class TestPubSubProvider extends AbstractRedisProvider {
+
+        private final List<JedisPubSub> listeners = new CopyOnWriteArrayList<JedisPubSub>();
+        private final List<String> publishedKeys = new CopyOnWriteArrayList<String>();
+
+        TestPubSubProvider() {
+            super(new RedisConfiguration());
+        }
+
+        @Override
+        public boolean isPubSubSupported() {
+            return true;
+        }
+
+        @Override
+        public void publish(String channel, String message) {
+            publishedKeys.add(message.substring(message.indexOf('|') + 1));
+            for (JedisPubSub listener : listeners) {
+                listener.onMessage(channel, message);
+            }
+        }
+
+        @Override
+        public void subscribe(JedisPubSub listener, String channel) {
+            listeners.add(listener);
+            try {
+                listener.onSubscribe(channel, 1);
+
+                // Keep subscription till listener thread is stopped
+                new CountDownLatch(1).await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                listeners.remove(listener);
+            }
+        }
+
+        public boolean awaitSubscriptions(int count) throws InterruptedException {
+            long timeout = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+            while (listeners.size() != count) {
+                if (System.currentTimeMillis() > timeout) {
+                    return false;
+                }
+                Thread.sleep(10);
+            }
+
+            return true;
+        }
+
+        public List<String> getPublishedKeys() {
+            return publishedKeys;
+        }
+
+        @Override
+        public void create() {
+        }
+
+        @Override
+        public void destroy() {
+        }
+
+        @Override
+        public Object getDelegate() {
+            return null;
+        }
+
+        @Override
+        public boolean hasKey(String key) {
+            return false;
+        }
+
+        @Override
+        public Object get(String key) {
+            return null;
+        }
+
+        @Override
+        public void remove(String key) {
+        }
+
+        @Override
+        public void clear() {
+        }
+
+        @Override
+        public void put(int expirationInSeconds, String key, Object object) {
+        }
+
+        @Override
+        public void put(String key, Object object) {
+        }
+
+    }
+
+}
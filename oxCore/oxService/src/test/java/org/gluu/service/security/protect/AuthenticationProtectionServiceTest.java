@@ -0,0 +1,77 @@
+package org.gluu.service.security.protect;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class AuthenticationProtectionServiceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private AuthenticationProtectionService protectionService;
+
+    @BeforeMethod
+    public void init() throws Exception {
+        protectionService = new AuthenticationProtectionService() {
+
+            @Override
+            protected void init() {
+                this.attemptExpiration = 60;
+                this.maximumAllowedAttemptsWithoutDelay = MAX_ATTEMPTS;
+                this.delayTime = 10;
+            }
+
+            @Override
+            protected String getKeyPrefix() {
+                return "test";
+            }
+        };
+
+        Field log = AuthenticationProtectionService.class.getDeclaredField("log");
+        log.setAccessible(true);
+        log.set(protectionService, LoggerFactory.getLogger(AuthenticationProtectionServiceTest.class));
+
+        protectionService.create();
+    }
+
+    @Test
+    public void storeAttempt_failuresReachLimit_blocksKey() {
+        for (int i = 0; i < MAX_ATTEMPTS - 1; i++) {
+            protectionService.storeAttempt("user", false);
+        }
+        assertFalse(protectionService.isAttemptDelayed("user"));
+
+        protectionService.storeAttempt("user", false);
+        assertTrue(protectionService.isAttemptDelayed("user"));
+        assertFalse(protectionService.isAttemptDelayed("other"));
+    }
+
+    @Test
+    public void storeAttempt_successfulAttempts_notCounted() {
+        for (int i = 0; i < 2 * MAX_ATTEMPTS; i++) {
+            protectionService.storeAttempt("user", true);
+        }
+
+        assertFalse(protectionService.isReachAttemptRateLimit("user"));
+        assertFalse(protectionService.isAttemptDelayed("user"));
+    }
+
+    @Test
+    public void storeAttempt_success_resetsFailures() {
+        for (int i = 0; i < MAX_ATTEMPTS - 1; i++) {
+            protectionService.storeAttempt("user", false);
+        }
+        protectionService.storeAttempt("user", true);
+
+        for (int i = 0; i < MAX_ATTEMPTS - 1; i++) {
+            protectionService.storeAttempt("user", false);
+        }
+        assertFalse(protectionService.isAttemptDelayed("user"));
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.gluu.service.security.protect;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+public class SlidingWindowRateLimiterTest {
+
+    private static final long NOW = 1_600_000_000_000L;
+
+    @Test
+    public void record_attemptsInWindow_areCounted() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(10, 100);
+
+        assertEquals(limiter.record("user", NOW), 1);
+        assertEquals(limiter.record("user", NOW + 1500), 2);
+        assertEquals(limiter.record("user", NOW + 9000), 3);
+        assertEquals(limiter.getCount("other", NOW + 9000), 0);
+    }
+
+    @Test
+    public void getCount_windowSlides_dropsOldAttempts() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(10, 100);
+
+        limiter.record("user", NOW);
+        limiter.record("user", NOW + 5000);
+
+        assertEquals(limiter.getCount("user", NOW + 9999), 2);
+        assertEquals(limiter.getCount("user", NOW + 12000), 1);
+        assertEquals(limiter.getCount("user", NOW + 30000), 0);
+        assertEquals(limiter.record("user", NOW + 30000), 1);
+    }
+
+    @Test
+    public void block_returnsRemainingTime() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(10, 100);
+
+        limiter.block("user", NOW + 2000);
+
+        assertEquals(limiter.getBlockedTime("user", NOW + 500), 1500);
+        assertEquals(limiter.getBlockedTime("user", NOW + 2500), 0);
+        assertEquals(limiter.getBlockedTime("other", NOW), 0);
+    }
+
+    @Test
+    public void reset_removesAttemptsAndBlock() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(10, 100);
+
+        limiter.record("user", NOW);
+        limiter.block("user", NOW + 2000);
+        limiter.record("other", NOW);
+
+        limiter.reset("user");
+
+        assertEquals(limiter.getCount("user", NOW), 0);
+        assertEquals(limiter.getBlockedTime("user", NOW), 0);
+        assertEquals(limiter.getCount("other", NOW), 1);
+    }
+
+    @Test
+    public void purge_removesIdleKeysOnly() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(10, 100);
+
+        limiter.record("old", NOW);
+        limiter.record("recent", NOW + 25000);
+        limiter.block("blocked", NOW + 60000);
+
+        limiter.purge(NOW + 30000);
+
+        assertEquals(limiter.size(), 2);
+        assertEquals(limiter.getCount("recent", NOW + 30000), 1);
+    }
+
+    @Test
+    public void record_boundsKeysByMaxKeys() {
+        SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(10, 100);
+
+        limiter.block("blocked", Long.MAX_VALUE);
+        for (int i = 0; i < 1000; i++) {
+            limiter.record("user" + i, NOW + i);
+            assertTrue(limiter.size() <= 100);
+        }
+
+        // Blocked and most recent keys are kept
+        assertTrue(limiter.getBlockedTime("blocked", NOW) > 0);
+        assertEquals(limiter.getCount("user999", NOW + 999), 1);
+    }
+
+}
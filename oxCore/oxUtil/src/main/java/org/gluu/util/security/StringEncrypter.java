@@ -7,10 +7,12 @@
 package org.gluu.util.security;
 
 import java.io.UnsupportedEncodingException;
+import java.security.GeneralSecurityException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.KeySpec;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.crypto.Cipher;
 import javax.crypto.NoSuchPaddingException;
@@ -27,14 +29,15 @@ import org.slf4j.LoggerFactory;
 /**
  * Encryption algorithms
  *
+ * Instance is thread safe. Secret keys are derived once and each thread uses own
+ * initialized ciphers, so concurrent encrypt/decrypt calls don't block each other
+ *
  * @author ssudala
  */
 public class StringEncrypter {
 
     private static final Logger LOG = LoggerFactory.getLogger(StringEncrypter.class);
 
-    private final ReentrantLock lock = new ReentrantLock();
-
     // lazy init via static holder
     private static class Holder {
         static final StringEncrypter INSTANCE = createInstance();
@@ -49,7 +52,10 @@ public class StringEncrypter {
         }
     }
 
-    public StringEncrypter() { }
+    public StringEncrypter() {
+        this.encryptionScheme = DESEDE_ENCRYPTION_SCHEME;
+        this.secretKey = null;
+    }
 
     public static StringEncrypter defaultInstance() throws EncryptionException {
         return Holder.INSTANCE;
@@ -113,35 +119,58 @@ public class StringEncrypter {
     }
 
     /**
-     * Cipher being used
+     * Maximum number of secret keys derived from keys specified in method calls
+     */
+    private static final int MAX_CACHED_KEYS = 64;
+
+    /**
+     * Encryption scheme being used
+     */
+    private final String encryptionScheme;
+
+    /**
+     * Secret key derived from key specified at construction
      */
-    private Cipher cipher;
+    private final SecretKey secretKey;
 
     /**
-     * Key factory being used
+     * Secret keys derived from keys specified in method calls
      */
-    private SecretKeyFactory keyFactory;
+    private final ConcurrentMap<String, SecretKey> secretKeys = new ConcurrentHashMap<String, SecretKey>();
 
     /**
-     * Key spec being used
+     * Per thread ciphers. Cipher is not thread safe
      */
-    private KeySpec keySpec;
+    private final ThreadLocal<CipherState> encryptCipher = new ThreadLocal<CipherState>() {
+        @Override
+        protected CipherState initialValue() {
+            return new CipherState(Cipher.ENCRYPT_MODE);
+        }
+    };
+
+    private final ThreadLocal<CipherState> decryptCipher = new ThreadLocal<CipherState>() {
+        @Override
+        protected CipherState initialValue() {
+            return new CipherState(Cipher.DECRYPT_MODE);
+        }
+    };
 
     private Base64 base64 = new Base64();
 
     /**
-     * Constructor specifying scheme and key
+     * Constructor specifying scheme
      *
      * @param encryptionScheme
      *            Encryption scheme to use
-     * @param encryptionKey
-     *            Encryption key to use
      * @throws EncryptionException
      */
     public StringEncrypter(final String encryptionScheme) throws EncryptionException {
+        this.encryptionScheme = encryptionScheme;
+        this.secretKey = null;
         try {
-            keyFactory = SecretKeyFactory.getInstance(encryptionScheme);
-            cipher = Cipher.getInstance(encryptionScheme);
+            // Check if scheme is supported
+            SecretKeyFactory.getInstance(encryptionScheme);
+            Cipher.getInstance(encryptionScheme);
         } catch (final NoSuchAlgorithmException e) {
             throw new EncryptionException(e);
         } catch (final NoSuchPaddingException e) {
@@ -166,9 +195,11 @@ public class StringEncrypter {
             throw new IllegalArgumentException("encryption key was less than 24 characters");
         }
 
+        this.encryptionScheme = encryptionScheme;
         try {
             final byte[] keyAsBytes = encryptionKey.getBytes(StringEncrypter.UNICODE_FORMAT);
 
+            final KeySpec keySpec;
             if (encryptionScheme.equalsIgnoreCase(StringEncrypter.DESEDE_ENCRYPTION_SCHEME)) {
                 keySpec = new DESedeKeySpec(keyAsBytes);
             } else if (encryptionScheme.equalsIgnoreCase(StringEncrypter.DES_ENCRYPTION_SCHEME)) {
@@ -177,8 +208,8 @@ public class StringEncrypter {
                 throw new IllegalArgumentException("Encryption scheme not supported: " + encryptionScheme);
             }
 
-            keyFactory = SecretKeyFactory.getInstance(encryptionScheme);
-            cipher = Cipher.getInstance(encryptionScheme);
+            Cipher.getInstance(encryptionScheme);
+            this.secretKey = SecretKeyFactory.getInstance(encryptionScheme).generateSecret(keySpec);
         } catch (final InvalidKeyException e) {
             throw new EncryptionException(e);
         } catch (final UnsupportedEncodingException e) {
@@ -187,11 +218,13 @@ public class StringEncrypter {
             throw new EncryptionException(e);
         } catch (final NoSuchPaddingException e) {
             throw new EncryptionException(e);
+        } catch (final GeneralSecurityException e) {
+            throw new EncryptionException(e);
         }
     }
 
-    private String decrypt(final String encryptedString, KeySpec keySpec, boolean silent) throws EncryptionException {
-        if (keySpec == null) {
+    private String decrypt(final String encryptedString, SecretKey key, boolean silent) throws EncryptionException {
+        if (key == null) {
             throw new IllegalArgumentException("keySpec was null or empty");
         }
 
@@ -200,11 +233,8 @@ public class StringEncrypter {
         }
 
         try {
-            final SecretKey key = keyFactory.generateSecret(keySpec);
-            cipher.init(Cipher.DECRYPT_MODE, key);
-
             final byte[] cleartext = base64.decode(encryptedString.getBytes(Util.UTF8));
-            final byte[] ciphertext = cipher.doFinal(cleartext);
+            final byte[] ciphertext = decryptCipher.get().doFinal(encryptionScheme, key, cleartext);
 
             return bytes2String(ciphertext);
         } catch (final Exception e) {
@@ -229,12 +259,7 @@ public class StringEncrypter {
     }
 
     public String decrypt(final String encryptedString, boolean silent) throws EncryptionException {
-        lock.lock();
-        try {
-            return decrypt(encryptedString, keySpec, silent);
-        } finally {
-            lock.unlock();
-        }
+        return decrypt(encryptedString, secretKey, silent);
     }
 
     /**
@@ -250,28 +275,11 @@ public class StringEncrypter {
     }
 
     public String decrypt(final String encryptedString, String encryptionKey, boolean silent) throws EncryptionException {
-        lock.lock();
-        try {
-            final byte[] keyAsBytes = encryptionKey.getBytes(StringEncrypter.UNICODE_FORMAT);
-            String encryptionScheme = StringEncrypter.DESEDE_ENCRYPTION_SCHEME;
-            KeySpec keySpec;
-            if (encryptionScheme.equalsIgnoreCase(StringEncrypter.DESEDE_ENCRYPTION_SCHEME)) {
-                keySpec = new DESedeKeySpec(keyAsBytes);
-            } else if (encryptionScheme.equalsIgnoreCase(StringEncrypter.DES_ENCRYPTION_SCHEME)) {
-                keySpec = new DESKeySpec(keyAsBytes);
-            } else {
-                throw new IllegalArgumentException("Encryption scheme not supported: " + encryptionScheme);
-            }
-            return decrypt(encryptedString, keySpec, silent);
-        } catch (final Exception e) {
-            throw new EncryptionException(e);
-        } finally {
-            lock.unlock();
-        }
+        return decrypt(encryptedString, getSecretKey(encryptionKey), silent);
     }
 
-    private String encrypt(final String unencryptedString, KeySpec keySpec) throws EncryptionException {
-        if (keySpec == null) {
+    private String encrypt(final String unencryptedString, SecretKey key) throws EncryptionException {
+        if (key == null) {
             throw new IllegalArgumentException("keySpec was null or empty");
         }
 
@@ -280,10 +288,8 @@ public class StringEncrypter {
         }
 
         try {
-            final SecretKey key = keyFactory.generateSecret(keySpec);
-            cipher.init(Cipher.ENCRYPT_MODE, key);
             final byte[] cleartext = unencryptedString.getBytes(StringEncrypter.UNICODE_FORMAT);
-            final byte[] ciphertext = cipher.doFinal(cleartext);
+            final byte[] ciphertext = encryptCipher.get().doFinal(encryptionScheme, key, cleartext);
 
             return new String(base64.encode(ciphertext), Util.UTF8);
         } catch (final Exception e) {
@@ -300,12 +306,7 @@ public class StringEncrypter {
      * @throws EncryptionException
      */
     public String encrypt(final String unencryptedString) throws EncryptionException {
-        lock.lock();
-        try {
-            return encrypt(unencryptedString, keySpec);
-        } finally {
-            lock.unlock();
-        }
+        return encrypt(unencryptedString, secretKey);
     }
 
     /**
@@ -317,25 +318,74 @@ public class StringEncrypter {
      * @throws EncryptionException
      */
     public String encrypt(final String unencryptedString, String encryptionKey) throws EncryptionException {
-        lock.lock();
+        return encrypt(unencryptedString, getSecretKey(encryptionKey));
+    }
+
+    /**
+     * Returns secret key derived from encryption key. Keys are always DESede keys
+     */
+    private SecretKey getSecretKey(String encryptionKey) throws EncryptionException {
+        if (encryptionKey == null) {
+            throw new EncryptionException(new IllegalArgumentException("encryption key was null"));
+        }
+
+        SecretKey key = secretKeys.get(encryptionKey);
+        if (key != null) {
+            return key;
+        }
+
         try {
             final byte[] keyAsBytes = encryptionKey.getBytes(StringEncrypter.UNICODE_FORMAT);
-            String encryptionScheme = StringEncrypter.DESEDE_ENCRYPTION_SCHEME;
-            KeySpec keySpec;
-            if (encryptionScheme.equalsIgnoreCase(StringEncrypter.DESEDE_ENCRYPTION_SCHEME)) {
-                keySpec = new DESedeKeySpec(keyAsBytes);
-            } else if (encryptionScheme.equalsIgnoreCase(StringEncrypter.DES_ENCRYPTION_SCHEME)) {
-                keySpec = new DESKeySpec(keyAsBytes);
-            } else {
-                throw new IllegalArgumentException("Encryption scheme not supported: " + encryptionScheme);
-            }
-
-            return encrypt(unencryptedString, keySpec);
+            key = SecretKeyFactory.getInstance(encryptionScheme).generateSecret(new DESedeKeySpec(keyAsBytes));
         } catch (final Exception e) {
             throw new EncryptionException(e);
-        } finally {
-            lock.unlock();
         }
+
+        if (secretKeys.size() >= MAX_CACHED_KEYS) {
+            secretKeys.clear();
+        }
+        SecretKey existingKey = secretKeys.putIfAbsent(encryptionKey, key);
+        if (existingKey != null) {
+            return existingKey;
+        }
+
+        return key;
+    }
+
+    /**
+     * Cipher owned by one thread. It's initialized again only if key was changed
+     */
+    private static class CipherState {
+
+        private final int mode;
+
+        private Cipher cipher;
+        private SecretKey key;
+
+        CipherState(int mode) {
+            this.mode = mode;
+        }
+
+        byte[] doFinal(String encryptionScheme, SecretKey key, byte[] input) throws GeneralSecurityException {
+            if (cipher == null) {
+                cipher = Cipher.getInstance(encryptionScheme);
+            }
+
+            if (this.key != key) {
+                this.key = null;
+                cipher.init(mode, key);
+                this.key = key;
+            }
+
+            try {
+                return cipher.doFinal(input);
+            } catch (GeneralSecurityException ex) {
+                // Force re-init to reset cipher state after failure
+                this.key = null;
+                throw ex;
+            }
+        }
+
     }
 
     /*
@@ -0,0 +1,135 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.util.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.DESedeKeySpec;
+
+import org.apache.commons.codec.binary.Base64;
+import org.gluu.util.security.StringEncrypter.EncryptionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Decrypt throughput of StringEncrypter with 1, 8 and 64 threads. Compares it with previous implementation
+ * which derived secret key and initialized shared cipher under global lock on each call
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=org.gluu.util.security.StringEncrypterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StringEncrypterBenchmark {
+
+    private static final String ENCRYPTION_KEY = "123456789012345678901234";
+
+    private static final String CLIENT_SECRET = "5d4ad0d2-b8d4-4f08-8f6a-3bbc6d3eb4d0";
+
+    @Param({ "locked", "lockFree" })
+    private String implementation;
+
+    private StringEncrypter stringEncrypter;
+    private LockedStringEncrypter lockedStringEncrypter;
+
+    private String encryptedSecret;
+
+    @Setup
+    public void setup() throws Exception {
+        this.stringEncrypter = new StringEncrypter(StringEncrypter.DESEDE_ENCRYPTION_SCHEME);
+        this.lockedStringEncrypter = new LockedStringEncrypter();
+
+        this.encryptedSecret = stringEncrypter.encrypt(CLIENT_SECRET, ENCRYPTION_KEY);
+        if (!CLIENT_SECRET.equals(lockedStringEncrypter.decrypt(encryptedSecret, ENCRYPTION_KEY))) {
+            throw new IllegalStateException("Encrypters produced different results");
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String decrypt1Thread() throws Exception {
+        return decrypt();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String decrypt8Threads() throws Exception {
+        return decrypt();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String decrypt64Threads() throws Exception {
+        return decrypt();
+    }
+
+    private String decrypt() throws Exception {
+        if ("locked".equals(implementation)) {
+            return lockedStringEncrypter.decrypt(encryptedSecret, ENCRYPTION_KEY);
+        }
+
+        return stringEncrypter.decrypt(encryptedSecret, ENCRYPTION_KEY);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(StringEncrypterBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    /**
+     * Baseline which follows previous StringEncrypter implementation
+     */
+    private static class LockedStringEncrypter {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final SecretKeyFactory keyFactory;
+        private final Cipher cipher;
+
+        LockedStringEncrypter() throws Exception {
+            this.keyFactory = SecretKeyFactory.getInstance(StringEncrypter.DESEDE_ENCRYPTION_SCHEME);
+            this.cipher = Cipher.getInstance(StringEncrypter.DESEDE_ENCRYPTION_SCHEME);
+        }
+
+        String decrypt(String encryptedString, String encryptionKey) throws EncryptionException {
+            lock.lock();
+            try {
+                DESedeKeySpec keySpec = new DESedeKeySpec(encryptionKey.getBytes(StandardCharsets.UTF_8));
+                cipher.init(Cipher.DECRYPT_MODE, keyFactory.generateSecret(keySpec));
+
+                byte[] cleartext = Base64.decodeBase64(encryptedString.getBytes(StandardCharsets.UTF_8));
+
+                return new String(cipher.doFinal(cleartext), StandardCharsets.UTF_8);
+            } catch (Exception ex) {
+                throw new EncryptionException(ex);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.benchmark;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs JMH benchmarks. It accepts all JMH command line options. By default results are written
+ * in JSON format to jmh-result-{version}.json to allow compare results of different releases
+ */
+public final class BenchmarkRunner {
+
+	private BenchmarkRunner() { }
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+		CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+		if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList() || commandLineOptions.shouldListProfilers()
+				|| commandLineOptions.shouldListResultFormats() || commandLineOptions.shouldListWithParams()) {
+			Main.main(args);
+			return;
+		}
+
+		ChainedOptionsBuilder optionsBuilder = new OptionsBuilder().parent(commandLineOptions);
+		if (!commandLineOptions.getResultFormat().hasValue()) {
+			optionsBuilder.resultFormat(ResultFormatType.JSON);
+		}
+		if (!commandLineOptions.getResult().hasValue()) {
+			optionsBuilder.result(String.format("jmh-result-%s.json", getVersion()));
+		}
+
+		new Runner(optionsBuilder.build()).run();
+	}
+
+	private static String getVersion() {
+		String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+		if (version == null) {
+			return "dev";
+		}
+
+		return version;
+	}
+
+}
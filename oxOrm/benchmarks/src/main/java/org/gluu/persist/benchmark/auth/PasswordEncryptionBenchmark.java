@@ -0,0 +1,67 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.benchmark.auth;
+
+import java.util.concurrent.TimeUnit;
+
+import org.gluu.persist.operation.auth.PasswordEncryptionHelper;
+import org.gluu.persist.operation.auth.PasswordEncryptionMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Password hashing and verification with supported storage schemes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordEncryptionBenchmark {
+
+	private static final String PASSWORD = "Secret-Passw0rd";
+
+	@Param({ "SSHA", "SSHA-256", "SSHA-512", "PKCS5S2", "CRYPT-SHA-512", "CRYPT-BCRYPT" })
+	private String method;
+
+	private PasswordEncryptionMethod passwordEncryptionMethod;
+	private String storedPassword;
+
+	@Setup
+	public void setup() {
+		this.passwordEncryptionMethod = PasswordEncryptionMethod.getMethod(method);
+		if (passwordEncryptionMethod == null) {
+			throw new IllegalArgumentException(String.format("Unsupported password encryption method '%s'", method));
+		}
+
+		this.storedPassword = PasswordEncryptionHelper.createStoragePassword(PASSWORD, passwordEncryptionMethod);
+		if (!PasswordEncryptionHelper.compareCredentials(PASSWORD, storedPassword)) {
+			throw new IllegalStateException("Failed to verify stored password");
+		}
+	}
+
+	@Benchmark
+	public String hash() {
+		return PasswordEncryptionHelper.createStoragePassword(PASSWORD, passwordEncryptionMethod);
+	}
+
+	@Benchmark
+	public boolean verify() {
+		return PasswordEncryptionHelper.compareCredentials(PASSWORD, storedPassword);
+	}
+
+}
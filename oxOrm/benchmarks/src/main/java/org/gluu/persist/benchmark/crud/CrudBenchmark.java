@@ -0,0 +1,133 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.benchmark.crud;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.persist.benchmark.model.BenchmarkUser;
+import org.gluu.search.filter.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end find/persist/merge through entry manager. Subclasses provide entry manager connected to embedded DB
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class CrudBenchmark {
+
+	protected static final String PEOPLE_DN = "ou=people,o=gluu";
+
+	@Param({ "1000" })
+	private int usersCount;
+
+	private PersistenceEntryManager entryManager;
+
+	private final AtomicLong persistCounter = new AtomicLong();
+	private final AtomicLong mergeCounter = new AtomicLong();
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		this.entryManager = createEntryManager();
+
+		for (int i = 0; i < usersCount; i++) {
+			entryManager.persist(createUser(String.valueOf(i)));
+		}
+
+		// Check that storage returns persisted data
+		BenchmarkUser user = entryManager.find(BenchmarkUser.class, getUserDn("0"));
+		if ((user == null) || !"user-0".equals(user.getUid()) || !Integer.valueOf(0).equals(user.getLoginCount())) {
+			throw new IllegalStateException("Failed to load persisted user");
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		if (entryManager != null) {
+			entryManager.destroy();
+		}
+		destroyStorage();
+	}
+
+	/**
+	 * Starts embedded DB and creates entry manager connected to it. DB should contains entry with PEOPLE_DN
+	 */
+	protected abstract PersistenceEntryManager createEntryManager() throws Exception;
+
+	protected abstract void destroyStorage() throws Exception;
+
+	@Benchmark
+	public BenchmarkUser findByDn() {
+		return entryManager.find(BenchmarkUser.class, getUserDn(randomInum()));
+	}
+
+	@Benchmark
+	public List<BenchmarkUser> findByUid() {
+		Filter filter = Filter.createEqualityFilter("uid", "user-" + randomInum());
+
+		return entryManager.findEntries(PEOPLE_DN, BenchmarkUser.class, filter);
+	}
+
+	@Benchmark
+	public BenchmarkUser persist() {
+		BenchmarkUser user = createUser("new-" + persistCounter.incrementAndGet());
+		entryManager.persist(user);
+
+		return user;
+	}
+
+	@Benchmark
+	public BenchmarkUser merge() {
+		BenchmarkUser user = createUser(randomInum());
+		user.setDisplayName("User " + mergeCounter.incrementAndGet());
+		user.setLoginCount((int) (mergeCounter.get() % 1000));
+		entryManager.merge(user);
+
+		return user;
+	}
+
+	private String randomInum() {
+		return String.valueOf(ThreadLocalRandom.current().nextInt(usersCount));
+	}
+
+	private static String getUserDn(String inum) {
+		return String.format("inum=%s,%s", inum, PEOPLE_DN);
+	}
+
+	private static BenchmarkUser createUser(String inum) {
+		BenchmarkUser user = new BenchmarkUser();
+		user.setDn(getUserDn(inum));
+		user.setInum(inum);
+		user.setUid("user-" + inum);
+		user.setDisplayName("User " + inum);
+		user.setMail(String.format("user-%s@gluu.org", inum));
+		user.setStatus("active");
+		user.setLoginCount(0);
+
+		return user;
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.benchmark.crud;
+
+import java.util.Properties;
+
+import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.persist.ldap.impl.LdapEntryManagerFactory;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.InMemoryListenerConfig;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPException;
+
+/**
+ * CRUD operations against embedded UnboundID in-memory LDAP server
+ */
+public class LdapCrudBenchmark extends CrudBenchmark {
+
+	private static final String BIND_DN = "cn=directory manager";
+	private static final String BIND_PASSWORD = "secret";
+
+	private InMemoryDirectoryServer directoryServer;
+
+	@Override
+	protected PersistenceEntryManager createEntryManager() throws LDAPException {
+		InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig("o=gluu");
+		config.addAdditionalBindCredentials(BIND_DN, BIND_PASSWORD);
+		config.setListenerConfigs(InMemoryListenerConfig.createLDAPConfig("default", 0));
+		// Gluu object classes are not part of default schema
+		config.setSchema(null);
+
+		this.directoryServer = new InMemoryDirectoryServer(config);
+		directoryServer.startListening();
+
+		directoryServer.add(new Entry("o=gluu", new Attribute("objectClass", "top", "organization"), new Attribute("o", "gluu")));
+		directoryServer.add(new Entry(PEOPLE_DN, new Attribute("objectClass", "top", "organizationalUnit"), new Attribute("ou", "people")));
+
+		Properties connectionProperties = new Properties();
+		connectionProperties.setProperty("servers", "localhost:" + directoryServer.getListenPort());
+		connectionProperties.setProperty("bindDN", BIND_DN);
+		connectionProperties.setProperty("bindPassword", BIND_PASSWORD);
+		connectionProperties.setProperty("useSSL", "false");
+		connectionProperties.setProperty("maxconnections", "10");
+
+		return new LdapEntryManagerFactory().createEntryManager(connectionProperties);
+	}
+
+	@Override
+	protected void destroyStorage() {
+		if (directoryServer != null) {
+			directoryServer.shutDown(true);
+		}
+	}
+
+}
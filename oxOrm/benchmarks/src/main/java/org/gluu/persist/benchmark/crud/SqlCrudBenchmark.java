@@ -0,0 +1,134 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.benchmark.crud;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.persist.model.AttributeType;
+import org.gluu.persist.sql.impl.SqlEntryManager;
+import org.gluu.persist.sql.model.TableMapping;
+import org.gluu.persist.sql.operation.SqlOperationService;
+import org.gluu.persist.sql.operation.SupportedDbType;
+import org.gluu.persist.sql.operation.impl.SqlConnectionProvider;
+import org.gluu.persist.sql.operation.impl.SqlOperationServiceImpl;
+import org.h2.jdbcx.JdbcDataSource;
+
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLQueryFactory;
+
+/**
+ * CRUD operations against embedded in-memory H2 database
+ */
+public class SqlCrudBenchmark extends CrudBenchmark {
+
+	private static final String TABLE_NAME = "gluuPerson";
+
+	private static final String[][] TABLE_COLUMNS = { { "doc_id", "varchar(64)" }, { "objectClass", "varchar(48)" },
+			{ "dn", "varchar(128)" }, { "inum", "varchar(64)" }, { "uid", "varchar(64)" }, { "displayName", "varchar(128)" },
+			{ "mail", "varchar(96)" }, { "gluuStatus", "varchar(16)" }, { "loginCount", "integer" } };
+
+	private Connection keepAliveConnection;
+
+	@Override
+	protected PersistenceEntryManager createEntryManager() throws SQLException {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+
+		// In memory DB lives while there is open connection
+		this.keepAliveConnection = dataSource.getConnection();
+
+		StringBuilder createTableStatement = new StringBuilder("CREATE TABLE ").append(TABLE_NAME).append(" (");
+		Map<String, AttributeType> columnTypes = new HashMap<String, AttributeType>();
+		for (String[] column : TABLE_COLUMNS) {
+			createTableStatement.append(column[0]).append(' ').append(column[1]).append(", ");
+			columnTypes.put(column[0].toLowerCase(), new AttributeType(column[0], column[1].replaceAll("\\(.*\\)", "")));
+		}
+		createTableStatement.append("PRIMARY KEY (doc_id))");
+
+		try (Statement statement = keepAliveConnection.createStatement()) {
+			statement.execute(createTableStatement.toString());
+			statement.execute(String.format("CREATE INDEX %s_uid ON %s (uid)", TABLE_NAME, TABLE_NAME));
+		}
+
+		SQLQueryFactory sqlQueryFactory = new SQLQueryFactory(new Configuration(new H2Templates()), dataSource);
+		EmbeddedSqlConnectionProvider connectionProvider = new EmbeddedSqlConnectionProvider(sqlQueryFactory, columnTypes);
+
+		return new EmbeddedSqlEntryManager(new SqlOperationServiceImpl(new Properties(), connectionProvider));
+	}
+
+	@Override
+	protected void destroyStorage() throws SQLException {
+		if (keepAliveConnection != null) {
+			keepAliveConnection.close();
+		}
+	}
+
+	private static class EmbeddedSqlEntryManager extends SqlEntryManager {
+
+		private static final long serialVersionUID = 2177421395604672140L;
+
+		EmbeddedSqlEntryManager(SqlOperationService operationService) {
+			super(operationService);
+		}
+
+	}
+
+	/**
+	 * Connection provider which uses predefined table structure instead of loading it from MySQL/PostgreSQL metadata
+	 */
+	private static class EmbeddedSqlConnectionProvider extends SqlConnectionProvider {
+
+		private final SQLQueryFactory sqlQueryFactory;
+		private final Map<String, AttributeType> columnTypes;
+
+		EmbeddedSqlConnectionProvider(SQLQueryFactory sqlQueryFactory, Map<String, AttributeType> columnTypes) {
+			this.sqlQueryFactory = sqlQueryFactory;
+			this.columnTypes = columnTypes;
+		}
+
+		@Override
+		public SQLQueryFactory getSqlQueryFactory() {
+			return sqlQueryFactory;
+		}
+
+		@Override
+		public String getSchemaName() {
+			return "PUBLIC";
+		}
+
+		@Override
+		public SupportedDbType getDbType() {
+			return SupportedDbType.MYSQL;
+		}
+
+		@Override
+		public TableMapping getTableMappingByKey(String key, String objectClass) {
+			String baseKeyName = "_".equals(key) ? "" : key.split("_")[0];
+
+			return new TableMapping(baseKeyName, objectClass, objectClass, columnTypes);
+		}
+
+		@Override
+		public boolean isBinaryAttribute(String attributeName) {
+			return false;
+		}
+
+		@Override
+		public boolean isCertificateAttribute(String attributeName) {
+			return false;
+		}
+
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.benchmark.filter;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.gluu.orm.couchbase.impl.CouchbaseFilterConverter;
+import org.gluu.orm.couchbase.operation.impl.CouchbaseOperationServiceImpl;
+import org.gluu.persist.exception.operation.SearchException;
+import org.gluu.persist.ldap.impl.LdapFilterConverter;
+import org.gluu.persist.sql.impl.SqlFilterConverter;
+import org.gluu.persist.sql.operation.impl.SqlConnectionProvider;
+import org.gluu.persist.sql.operation.impl.SqlOperationServiceImpl;
+import org.gluu.search.filter.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversion of generic filters to LDAP, SQL and Couchbase N1QL expressions
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterConversionBenchmark {
+
+	@Param({ "equality", "token", "complex" })
+	private String filterType;
+
+	private Filter filter;
+
+	private LdapFilterConverter ldapFilterConverter;
+	private SqlFilterConverter sqlFilterConverter;
+	private CouchbaseFilterConverter couchbaseFilterConverter;
+
+	@Setup
+	public void setup() {
+		this.ldapFilterConverter = new LdapFilterConverter();
+		this.sqlFilterConverter = new SqlFilterConverter(new SqlOperationServiceImpl(null, new SqlConnectionProvider(null)));
+		this.couchbaseFilterConverter = new CouchbaseFilterConverter(new CouchbaseOperationServiceImpl());
+
+		this.filter = createFilter(filterType);
+	}
+
+	@Benchmark
+	public Object ldap() throws SearchException {
+		return ldapFilterConverter.convertToLdapFilter(filter);
+	}
+
+	@Benchmark
+	public Object sql() throws SearchException {
+		return sqlFilterConverter.convertToSqlFilter(null, filter, null);
+	}
+
+	@Benchmark
+	public Object couchbase() throws SearchException {
+		return couchbaseFilterConverter.convertToCouchbaseFilter(filter, null, null);
+	}
+
+	private static Filter createFilter(String filterType) {
+		if ("equality".equals(filterType)) {
+			return Filter.createEqualityFilter("uid", "admin");
+		}
+
+		if ("token".equals(filterType)) {
+			// Typical token lookup
+			return Filter.createANDFilter(Filter.createEqualityFilter("tknCde", "4ba5c5d1-4dc6-4bb8-a9b2-f4b3c4d5e6f7"),
+					Filter.createEqualityFilter("clnId", "1001.3a1b2c3d"),
+					Filter.createGreaterOrEqualFilter("exp", new Date(1608130698398L)));
+		}
+
+		if ("complex".equals(filterType)) {
+			return Filter.createANDFilter(
+					Filter.createORFilter(Filter.createSubstringFilter("displayName", null, new String[] { "adm" }, null),
+							Filter.createSubstringFilter("mail", "admin", null, "gluu.org"),
+							Filter.createEqualityFilter(Filter.createLowercaseFilter("uid"), "admin")),
+					Filter.createPresenceFilter("mail"),
+					Filter.createLessOrEqualFilter("loginCount", 100),
+					Filter.createEqualityFilter("memberOf", "inum=60B7,ou=groups,o=gluu").multiValued(),
+					Filter.createNOTFilter(Filter.createEqualityFilter("gluuStatus", "inactive")));
+		}
+
+		throw new IllegalArgumentException(String.format("Unsupported filter type '%s'", filterType));
+	}
+
+}
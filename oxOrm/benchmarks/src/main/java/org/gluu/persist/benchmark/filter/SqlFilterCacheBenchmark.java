@@ -0,0 +1,104 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.benchmark.filter;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.gluu.persist.exception.operation.SearchException;
+import org.gluu.persist.sql.impl.SqlFilterConverter;
+import org.gluu.persist.sql.operation.impl.SqlConnectionProvider;
+import org.gluu.persist.sql.operation.impl.SqlOperationServiceImpl;
+import org.gluu.search.filter.Filter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Conversion of SQL filters with and without filter shape cache. Each invocation uses new values
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlFilterCacheBenchmark {
+
+	private static final int FILTERS_COUNT = 1024;
+
+	@Param({ "equality", "token", "complex" })
+	private String filterType;
+
+	private Filter[] filters;
+	private int index;
+
+	private SqlFilterConverter cachingFilterConverter;
+	private SqlFilterConverter filterConverter;
+
+	@Setup
+	public void setup() {
+		this.cachingFilterConverter = new SqlFilterConverter(new SqlOperationServiceImpl(null, new SqlConnectionProvider(null)));
+		this.filterConverter = new SqlFilterConverter(new SqlOperationServiceImpl(null, new SqlConnectionProvider(null)), 0);
+
+		this.filters = new Filter[FILTERS_COUNT];
+		for (int i = 0; i < FILTERS_COUNT; i++) {
+			filters[i] = createFilter(filterType, i);
+		}
+	}
+
+	@Benchmark
+	public Object cached() throws SearchException {
+		return cachingFilterConverter.convertToSqlFilter(null, nextFilter(), null);
+	}
+
+	@Benchmark
+	public Object notCached() throws SearchException {
+		return filterConverter.convertToSqlFilter(null, nextFilter(), null);
+	}
+
+	private Filter nextFilter() {
+		index = (index + 1) & (FILTERS_COUNT - 1);
+
+		return filters[index];
+	}
+
+	private static Filter createFilter(String filterType, int i) {
+		if ("equality".equals(filterType)) {
+			return Filter.createEqualityFilter("uid", "admin" + i);
+		}
+
+		if ("token".equals(filterType)) {
+			// Typical token lookup
+			return Filter.createANDFilter(Filter.createEqualityFilter("tknCde", "4ba5c5d1-4dc6-4bb8-a9b2-" + i),
+					Filter.createEqualityFilter("clnId", "1001.3a1b2c3d"),
+					Filter.createGreaterOrEqualFilter("exp", new Date(1608130698398L + i)));
+		}
+
+		if ("complex".equals(filterType)) {
+			return Filter.createANDFilter(
+					Filter.createORFilter(Filter.createSubstringFilter("displayName", null, new String[] { "adm" + i }, null),
+							Filter.createSubstringFilter("mail", "admin" + i, null, "gluu.org"),
+							Filter.createEqualityFilter(Filter.createLowercaseFilter("uid"), "admin" + i)),
+					Filter.createPresenceFilter("mail"),
+					Filter.createLessOrEqualFilter("loginCount", i),
+					Filter.createEqualityFilter("memberOf", "inum=" + i + ",ou=groups,o=gluu").multiValued(),
+					Filter.createNOTFilter(Filter.createEqualityFilter("gluuStatus", "inactive")));
+		}
+
+		throw new IllegalArgumentException(String.format("Unsupported filter type '%s'", filterType));
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.benchmark.mapping;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.gluu.persist.benchmark.model.BenchmarkToken;
+import org.gluu.persist.model.AttributeData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares reflection based entity mapping (previous implementation) with compiled accessors used by BaseEntryManager
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityMappingBenchmark {
+
+	@Param({ "1", "100" })
+	private int entriesCount;
+
+	private MappingEntryManager entryManager;
+	private ReflectionEntryMapper reflectionEntryMapper;
+
+	private Map<String, List<AttributeData>> entriesAttributes;
+	private List<BenchmarkToken> entries;
+
+	@Setup
+	public void setup() {
+		this.entryManager = new MappingEntryManager();
+		this.reflectionEntryMapper = new ReflectionEntryMapper();
+
+		this.entriesAttributes = new LinkedHashMap<String, List<AttributeData>>();
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < entriesCount; i++) {
+			String tokenCode = "tkn-" + i;
+			String dn = String.format("tknCde=%s,ou=tokens,o=gluu", tokenCode);
+
+			List<AttributeData> attributes = new ArrayList<AttributeData>();
+			attributes.add(new AttributeData("objectClass", new Object[] { "top", "oxAuthToken" }));
+			attributes.add(new AttributeData("tknCde", tokenCode));
+			attributes.add(new AttributeData("clnId", "client-" + (i % 10)));
+			attributes.add(new AttributeData("usrId", "user-" + i));
+			attributes.add(new AttributeData("tknTyp", "access_token"));
+			attributes.add(new AttributeData("scp", "openid profile email"));
+			attributes.add(new AttributeData("iat", new Date(now)));
+			attributes.add(new AttributeData("exp", new Date(now + 3600000L)));
+			attributes.add(new AttributeData("ttl", "3600"));
+			attributes.add(new AttributeData("del", "true"));
+			attributes.add(new AttributeData("claims", new Object[] { "sub", "name", "email" }));
+			attributes.add(new AttributeData("memberOf", new Object[] { "inum=1,ou=groups,o=gluu", "inum=2,ou=groups,o=gluu" }));
+
+			entriesAttributes.put(dn, attributes);
+		}
+
+		this.entries = entryManager.createEntities(BenchmarkToken.class, entriesAttributes);
+
+		// Both mappers should produce same entries
+		List<BenchmarkToken> reflectionEntries = reflectionEntryMapper.createEntities(BenchmarkToken.class, entriesAttributes);
+		BenchmarkToken entry = entries.get(0), reflectionEntry = reflectionEntries.get(0);
+		if (!entry.getDn().equals(reflectionEntry.getDn()) || !entry.getTtl().equals(reflectionEntry.getTtl())
+				|| !Arrays.equals(entry.getClaims(), reflectionEntry.getClaims())
+				|| !entry.getMemberOf().equals(reflectionEntry.getMemberOf())) {
+			throw new IllegalStateException("Mappers created different entries");
+		}
+	}
+
+	@Benchmark
+	public List<BenchmarkToken> createEntitiesReflection() {
+		return reflectionEntryMapper.createEntities(BenchmarkToken.class, entriesAttributes);
+	}
+
+	@Benchmark
+	public List<BenchmarkToken> createEntitiesCompiled() {
+		return entryManager.createEntities(BenchmarkToken.class, entriesAttributes);
+	}
+
+	@Benchmark
+	public void entryToAttributesReflection(Blackhole blackhole) {
+		for (BenchmarkToken entry : entries) {
+			blackhole.consume(reflectionEntryMapper.getAttributesListForPersist(entry));
+		}
+	}
+
+	@Benchmark
+	public void entryToAttributesCompiled(Blackhole blackhole) {
+		for (BenchmarkToken entry : entries) {
+			blackhole.consume(entryManager.getAttributesListForPersist(entry));
+		}
+	}
+
+}
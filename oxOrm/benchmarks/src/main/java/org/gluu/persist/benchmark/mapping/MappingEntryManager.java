@@ -0,0 +1,25 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.benchmark.mapping;
+
+import java.util.List;
+
+import org.gluu.persist.ldap.impl.LdapEntryManager;
+import org.gluu.persist.model.AttributeData;
+
+/**
+ * Entry manager without connection which exposes entry to attributes mapping
+ */
+public class MappingEntryManager extends LdapEntryManager {
+
+	private static final long serialVersionUID = -3561972394717201851L;
+
+	public List<AttributeData> getAttributesListForPersist(Object entry) {
+		return getAttributesListForPersist(entry, getEntryPropertyAnnotations(entry.getClass()));
+	}
+
+}
@@ -0,0 +1,222 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.benchmark.mapping;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.gluu.orm.util.StringHelper;
+import org.gluu.persist.annotation.AttributeName;
+import org.gluu.persist.annotation.DN;
+import org.gluu.persist.exception.MappingException;
+import org.gluu.persist.model.AttributeData;
+import org.gluu.persist.reflect.property.Getter;
+import org.gluu.persist.reflect.property.PropertyAnnotation;
+import org.gluu.persist.reflect.property.Setter;
+import org.gluu.persist.reflect.util.ReflectHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Baseline mapper which follows previous BaseEntryManager implementation: reflection based getters/setters
+ * are looked up in maps by class and property name string key, annotations are scanned and entries are
+ * created via reflection for each entry. Supports properties with AttributeName annotation only
+ */
+public class ReflectionEntryMapper {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ReflectionEntryMapper.class);
+
+	private static final Class<?>[] PROPERTY_ANNOTATIONS = { AttributeName.class };
+	private static final Class<?>[] DN_PROPERTY_ANNOTATION = { DN.class };
+
+	private final Map<String, List<PropertyAnnotation>> classAnnotations = new HashMap<String, List<PropertyAnnotation>>();
+	private final Map<String, Getter> classGetters = new HashMap<String, Getter>();
+	private final Map<String, Setter> classSetters = new HashMap<String, Setter>();
+
+	private static Object CLASS_ANNOTATIONS_LOCK = new Object();
+	private static Object CLASS_SETTERS_LOCK = new Object();
+	private static Object CLASS_GETTERS_LOCK = new Object();
+
+	public <T> List<T> createEntities(Class<T> entryClass, Map<String, List<AttributeData>> entriesAttributes) {
+		List<PropertyAnnotation> propertiesAnnotations = getEntryClassAnnotations(entryClass, "property_", PROPERTY_ANNOTATIONS);
+		String dnProperty = getEntryClassAnnotations(entryClass, "dn_", DN_PROPERTY_ANNOTATION).get(0).getPropertyName();
+		Setter dnSetter = getSetter(entryClass, dnProperty);
+
+		List<T> results = new ArrayList<T>(entriesAttributes.size());
+		for (Entry<String, List<AttributeData>> entryAttributes : entriesAttributes.entrySet()) {
+			Map<String, AttributeData> attributesMap = new HashMap<String, AttributeData>();
+			for (AttributeData attributeData : entryAttributes.getValue()) {
+				attributesMap.put(attributeData.getName().toLowerCase(), attributeData);
+			}
+
+			T entry;
+			try {
+				entry = ReflectHelper.createObjectByDefaultConstructor(entryClass);
+			} catch (Exception ex) {
+				throw new MappingException(String.format("Entry %s should has default constructor", entryClass));
+			}
+			results.add(entry);
+
+			dnSetter.set(entry, entryAttributes.getKey());
+
+			for (PropertyAnnotation propertiesAnnotation : propertiesAnnotations) {
+				String propertyName = propertiesAnnotation.getPropertyName();
+				Annotation ldapAttribute = ReflectHelper.getAnnotationByType(propertiesAnnotation.getAnnotations(),
+						AttributeName.class);
+				if (ldapAttribute == null) {
+					continue;
+				}
+
+				String ldapAttributeName = ((AttributeName) ldapAttribute).name();
+				if (StringHelper.isEmpty(ldapAttributeName)) {
+					ldapAttributeName = propertyName;
+				}
+				ldapAttributeName = ldapAttributeName.toLowerCase();
+
+				AttributeData attributeData = attributesMap.get(ldapAttributeName);
+				attributesMap.remove(ldapAttributeName);
+
+				Setter setter = getSetter(entryClass, propertyName);
+				setPropertyValue(propertyName, setter, entry, attributeData);
+			}
+		}
+
+		return results;
+	}
+
+	public List<AttributeData> getAttributesListForPersist(Object entry) {
+		Class<?> entryClass = entry.getClass();
+		List<PropertyAnnotation> propertiesAnnotations = getEntryClassAnnotations(entryClass, "property_", PROPERTY_ANNOTATIONS);
+
+		List<AttributeData> attributes = new ArrayList<AttributeData>();
+		for (PropertyAnnotation propertiesAnnotation : propertiesAnnotations) {
+			String propertyName = propertiesAnnotation.getPropertyName();
+			Annotation ldapAttribute = ReflectHelper.getAnnotationByType(propertiesAnnotation.getAnnotations(),
+					AttributeName.class);
+			if (ldapAttribute == null) {
+				continue;
+			}
+
+			String ldapAttributeName = ((AttributeName) ldapAttribute).name();
+			if (StringHelper.isEmpty(ldapAttributeName)) {
+				ldapAttributeName = propertyName;
+			}
+
+			Getter getter = getGetter(entryClass, propertyName);
+			Class<?> parameterType = ReflectHelper.getSetterType(getSetter(entryClass, propertyName));
+
+			Object propertyValue = getter.get(entry);
+			if (propertyValue == null) {
+				continue;
+			}
+
+			Object[] attributeValues;
+			if (parameterType.equals(String[].class)) {
+				attributeValues = (String[]) propertyValue;
+			} else if (ReflectHelper.assignableFrom(parameterType, List.class)) {
+				attributeValues = ((List<?>) propertyValue).toArray();
+			} else {
+				attributeValues = new Object[] { propertyValue };
+			}
+
+			attributes.add(new AttributeData(ldapAttributeName, attributeValues));
+		}
+
+		return attributes;
+	}
+
+	private void setPropertyValue(String propertyName, Setter propertyValueSetter, Object entry, AttributeData attribute) {
+		if (attribute == null) {
+			return;
+		}
+
+		LOG.debug(String.format("LdapProperty: %s, AttributeName: %s, AttributeValue: %s", propertyName,
+				attribute.getName(), Arrays.toString(attribute.getValues())));
+
+		Class<?> parameterType = ReflectHelper.getSetterType(propertyValueSetter);
+		if (parameterType.equals(String.class)) {
+			propertyValueSetter.set(entry, String.valueOf(attribute.getValue()));
+		} else if (parameterType.equals(Boolean.class) || parameterType.equals(Boolean.TYPE)) {
+			propertyValueSetter.set(entry, attribute.getValue() == null ? null : Boolean.valueOf(String.valueOf(attribute.getValue())));
+		} else if (parameterType.equals(Integer.class) || parameterType.equals(Integer.TYPE)) {
+			propertyValueSetter.set(entry, attribute.getValue() == null ? null : Integer.valueOf(String.valueOf(attribute.getValue())));
+		} else if (parameterType.equals(Date.class)) {
+			propertyValueSetter.set(entry, (Date) attribute.getValue());
+		} else if (parameterType.equals(String[].class)) {
+			propertyValueSetter.set(entry, attribute.getStringValues());
+		} else if (ReflectHelper.assignableFrom(parameterType, List.class)) {
+			propertyValueSetter.set(entry, new ArrayList<Object>(Arrays.asList(attribute.getStringValues())));
+		} else {
+			throw new MappingException("Entry property '" + propertyName + "' should has setter with String, Boolean, Integer, Date, String[] or List parameter type");
+		}
+	}
+
+	private List<PropertyAnnotation> getEntryClassAnnotations(Class<?> entryClass, String keyCategory, Class<?>[] annotationTypes) {
+		String key = keyCategory + entryClass.getName();
+
+		List<PropertyAnnotation> annotations = classAnnotations.get(key);
+		if (annotations == null) {
+			synchronized (CLASS_ANNOTATIONS_LOCK) {
+				annotations = classAnnotations.get(key);
+				if (annotations == null) {
+					Map<String, List<Annotation>> annotationsMap = ReflectHelper.getPropertiesAnnotations(entryClass, annotationTypes);
+					annotations = new ArrayList<PropertyAnnotation>(annotationsMap.size());
+					for (Entry<String, List<Annotation>> entry : annotationsMap.entrySet()) {
+						annotations.add(new PropertyAnnotation(entry.getKey(), entry.getValue()));
+					}
+					Collections.sort(annotations);
+
+					classAnnotations.put(key, annotations);
+				}
+			}
+		}
+
+		return annotations;
+	}
+
+	private Getter getGetter(Class<?> entryClass, String propertyName) {
+		String key = entryClass.getName() + "." + propertyName;
+
+		Getter getter = classGetters.get(key);
+		if (getter == null) {
+			synchronized (CLASS_GETTERS_LOCK) {
+				getter = classGetters.get(key);
+				if (getter == null) {
+					getter = ReflectHelper.getGetter(entryClass, propertyName);
+					classGetters.put(key, getter);
+				}
+			}
+		}
+
+		return getter;
+	}
+
+	private Setter getSetter(Class<?> entryClass, String propertyName) {
+		String key = entryClass.getName() + "." + propertyName;
+
+		Setter setter = classSetters.get(key);
+		if (setter == null) {
+			synchronized (CLASS_SETTERS_LOCK) {
+				setter = classSetters.get(key);
+				if (setter == null) {
+					setter = ReflectHelper.getSetter(entryClass, propertyName);
+					classSetters.put(key, setter);
+				}
+			}
+		}
+
+		return setter;
+	}
+
+}
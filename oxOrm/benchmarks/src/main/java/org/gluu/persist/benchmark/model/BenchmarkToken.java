@@ -0,0 +1,159 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.benchmark.model;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+import org.gluu.persist.annotation.AttributeName;
+import org.gluu.persist.annotation.DN;
+import org.gluu.persist.annotation.DataEntry;
+import org.gluu.persist.annotation.ObjectClass;
+
+/**
+ * Token like entry with attributes of all basic types
+ */
+@DataEntry
+@ObjectClass(value = "oxAuthToken")
+public class BenchmarkToken implements Serializable {
+
+    private static final long serialVersionUID = 6726419630327625172L;
+
+    @DN
+    private String dn;
+
+    @AttributeName(name = "tknCde")
+    private String tokenCode;
+
+    @AttributeName(name = "clnId")
+    private String clientId;
+
+    @AttributeName(name = "usrId")
+    private String userId;
+
+    @AttributeName(name = "tknTyp")
+    private String tokenType;
+
+    @AttributeName(name = "scp")
+    private String scope;
+
+    @AttributeName(name = "iat")
+    private Date creationDate;
+
+    @AttributeName(name = "exp")
+    private Date expirationDate;
+
+    @AttributeName(name = "ttl")
+    private Integer ttl;
+
+    @AttributeName(name = "del")
+    private Boolean deletable;
+
+    @AttributeName(name = "claims")
+    private String[] claims;
+
+    @AttributeName(name = "memberOf")
+    private List<String> memberOf;
+
+    public String getDn() {
+        return dn;
+    }
+
+    public void setDn(String dn) {
+        this.dn = dn;
+    }
+
+    public String getTokenCode() {
+        return tokenCode;
+    }
+
+    public void setTokenCode(String tokenCode) {
+        this.tokenCode = tokenCode;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getTokenType() {
+        return tokenType;
+    }
+
+    public void setTokenType(String tokenType) {
+        this.tokenType = tokenType;
+    }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+
+    public Date getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(Date creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    public Date getExpirationDate() {
+        return expirationDate;
+    }
+
+    public void setExpirationDate(Date expirationDate) {
+        this.expirationDate = expirationDate;
+    }
+
+    public Integer getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Integer ttl) {
+        this.ttl = ttl;
+    }
+
+    public Boolean getDeletable() {
+        return deletable;
+    }
+
+    public void setDeletable(Boolean deletable) {
+        this.deletable = deletable;
+    }
+
+    public String[] getClaims() {
+        return claims;
+    }
+
+    public void setClaims(String[] claims) {
+        this.claims = claims;
+    }
+
+    public List<String> getMemberOf() {
+        return memberOf;
+    }
+
+    public void setMemberOf(List<String> memberOf) {
+        this.memberOf = memberOf;
+    }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.benchmark.model;
+
+import java.io.Serializable;
+
+import org.gluu.persist.annotation.AttributeName;
+import org.gluu.persist.annotation.DN;
+import org.gluu.persist.annotation.DataEntry;
+import org.gluu.persist.annotation.ObjectClass;
+
+/**
+ * User entry with attributes which have same representation in all backends
+ */
+@DataEntry
+@ObjectClass(value = "gluuPerson")
+public class BenchmarkUser implements Serializable {
+
+    private static final long serialVersionUID = -4316279541582398743L;
+
+    @DN
+    private String dn;
+
+    @AttributeName(name = "inum")
+    private String inum;
+
+    @AttributeName(name = "uid")
+    private String uid;
+
+    @AttributeName(name = "displayName")
+    private String displayName;
+
+    @AttributeName(name = "mail")
+    private String mail;
+
+    @AttributeName(name = "gluuStatus")
+    private String status;
+
+    @AttributeName(name = "loginCount")
+    private Integer loginCount;
+
+    public String getDn() {
+        return dn;
+    }
+
+    public void setDn(String dn) {
+        this.dn = dn;
+    }
+
+    public String getInum() {
+        return inum;
+    }
+
+    public void setInum(String inum) {
+        this.inum = inum;
+    }
+
+    public String getUid() {
+        return uid;
+    }
+
+    public void setUid(String uid) {
+        this.uid = uid;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getMail() {
+        return mail;
+    }
+
+    public void setMail(String mail) {
+        this.mail = mail;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getLoginCount() {
+        return loginCount;
+    }
+
+    public void setLoginCount(Integer loginCount) {
+        this.loginCount = loginCount;
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.benchmark.search;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.gluu.persist.exception.operation.SearchException;
+import org.gluu.persist.model.BatchOperation;
+import org.gluu.persist.model.SearchScope;
+import org.gluu.persist.sql.impl.SqlBatchOperationWraper;
+import org.gluu.persist.sql.model.SearchReturnDataType;
+import org.gluu.persist.sql.model.TableMapping;
+import org.gluu.persist.sql.operation.SupportedDbType;
+import org.gluu.persist.sql.operation.impl.SqlConnectionProvider;
+import org.gluu.persist.sql.operation.impl.SqlOperationServiceImpl;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLQueryFactory;
+
+/**
+ * Full paged scan of table in embedded H2 DB. Scan time should grow linearly with table size
+ * if page latency doesn't depend on scan depth
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SqlPagedSearchBenchmark {
+
+	private static final String TABLE_NAME = "oxAuthToken";
+	private static final int PAGE_SIZE = 500;
+
+	@Param({ "10000", "100000" })
+	private int entriesCount;
+
+	private Connection keepAliveConnection;
+	private SqlOperationServiceImpl operationService;
+
+	@Setup(Level.Trial)
+	public void setup() throws SQLException {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:paged" + entriesCount + ";DB_CLOSE_DELAY=-1");
+
+		// In memory DB lives while there is open connection
+		this.keepAliveConnection = dataSource.getConnection();
+		try (Statement statement = keepAliveConnection.createStatement()) {
+			statement.execute("CREATE TABLE " + TABLE_NAME + " (doc_id VARCHAR(64) PRIMARY KEY, dn VARCHAR(128) NOT NULL, exp TIMESTAMP NULL)");
+			statement.execute("CREATE INDEX " + TABLE_NAME + "_exp ON " + TABLE_NAME + " (exp, doc_id)");
+		}
+
+		long now = System.currentTimeMillis();
+		try (PreparedStatement statement = keepAliveConnection.prepareStatement("INSERT INTO " + TABLE_NAME + " (doc_id, dn, exp) VALUES (?, ?, ?)")) {
+			for (int i = 0; i < entriesCount; i++) {
+				String docId = UUID.randomUUID().toString();
+				statement.setString(1, docId);
+				statement.setString(2, String.format("tknCde=%s,ou=tokens,o=gluu", docId));
+				statement.setTimestamp(3, i % 10 == 0 ? null : new Timestamp(now + (i % 1000) * 60000L));
+				statement.addBatch();
+
+				if (i % 1000 == 999) {
+					statement.executeBatch();
+				}
+			}
+			statement.executeBatch();
+		}
+
+		SQLQueryFactory sqlQueryFactory = new SQLQueryFactory(new Configuration(new H2Templates()), dataSource);
+		this.operationService = new SqlOperationServiceImpl(new Properties(), new EmbeddedSqlConnectionProvider(sqlQueryFactory));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		if (keepAliveConnection != null) {
+			keepAliveConnection.close();
+		}
+	}
+
+	@Benchmark
+	public void scanByKey(Blackhole blackhole) throws SearchException {
+		scan(null, blackhole);
+	}
+
+	@Benchmark
+	public void scanByNullableColumn(Blackhole blackhole) throws SearchException {
+		OrderSpecifier<?>[] orderBy = new OrderSpecifier[] { new OrderSpecifier<String>(Order.ASC, Expressions.stringPath("exp")) };
+		scan(orderBy, blackhole);
+	}
+
+	private void scan(OrderSpecifier<?>[] orderBy, final Blackhole blackhole) throws SearchException {
+		BatchOperation<Object> batchOperation = new BatchOperation<Object>() {
+
+			@Override
+			public boolean collectSearchResult(int size) {
+				return false;
+			}
+
+			@Override
+			public void performAction(List<Object> entries) {
+				blackhole.consume(entries);
+			}
+		};
+
+		operationService.search("_", TABLE_NAME, null, SearchScope.SUB, null, orderBy, new SqlBatchOperationWraper<Object>(batchOperation),
+				SearchReturnDataType.SEARCH, 0, 0, PAGE_SIZE);
+	}
+
+	/**
+	 * Connection provider which uses predefined table structure instead of loading it from MySQL/PostgreSQL metadata
+	 */
+	private static class EmbeddedSqlConnectionProvider extends SqlConnectionProvider {
+
+		private final SQLQueryFactory sqlQueryFactory;
+
+		EmbeddedSqlConnectionProvider(SQLQueryFactory sqlQueryFactory) {
+			this.sqlQueryFactory = sqlQueryFactory;
+		}
+
+		@Override
+		public SQLQueryFactory getSqlQueryFactory() {
+			return sqlQueryFactory;
+		}
+
+		@Override
+		public String getSchemaName() {
+			return "PUBLIC";
+		}
+
+		@Override
+		public SupportedDbType getDbType() {
+			return SupportedDbType.MYSQL;
+		}
+
+		@Override
+		public TableMapping getTableMappingByKey(String key, String objectClass) {
+			return new TableMapping("", objectClass, objectClass, new HashMap<>());
+		}
+
+	}
+
+}
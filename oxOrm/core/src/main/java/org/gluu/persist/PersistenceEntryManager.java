@@ -10,6 +10,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityTransaction;
@@ -23,10 +24,12 @@ import org.gluu.persist.extension.PersistenceExtension;
 import org.gluu.persist.model.AttributeData;
 import org.gluu.persist.model.AttributeType;
 import org.gluu.persist.model.BatchOperation;
+import org.gluu.persist.model.EntryOperationResult;
 import org.gluu.persist.model.PagedResult;
 import org.gluu.persist.model.SearchScope;
 import org.gluu.persist.model.SortOrder;
 import org.gluu.persist.operation.PersistenceOperationService;
+import org.gluu.persist.watch.OperationMetrics;
 import org.gluu.search.filter.Filter;
 
 /**
@@ -46,8 +49,19 @@ public interface PersistenceEntryManager extends EntityManager {
 
 	void persist(Object entry);
 
+	/**
+	 * Persist entries with minimal number of requests to DB. Entries are sent in chunks of default size
+	 *
+	 * @return Result per entry in entries order
+	 */
+	<T> List<EntryOperationResult<T>> persistAll(List<T> entries);
+	<T> List<EntryOperationResult<T>> persistAll(List<T> entries, int batchSize);
+
 	Void merge(Object entry);
 
+	<T> List<EntryOperationResult<T>> mergeAll(List<T> entries);
+	<T> List<EntryOperationResult<T>> mergeAll(List<T> entries, int batchSize);
+
 	@Deprecated
 	boolean contains(Object entity);
 
@@ -63,6 +77,14 @@ public interface PersistenceEntryManager extends EntityManager {
 
     <T> T find(Object primaryKey, Class<T> entryClass, String[] ldapReturnAttributes);
 
+    /**
+     * Load entries by keys with minimal number of requests to DB
+     *
+     * @param keys Entries DNs
+     * @return Found entries in keys order. Keys without entries are skipped
+     */
+    <T> List<T> findEntriesByKeys(Class<T> entryClass, Collection<String> keys, String[] ldapReturnAttributes);
+
     /**
      * Search by sample
      *
@@ -81,12 +103,25 @@ public interface PersistenceEntryManager extends EntityManager {
     <T> List<T> findEntries(String primaryKey, Class<T> entryClass, Filter filter, SearchScope scope, String[] ldapReturnAttributes,
                             BatchOperation<T> batchOperation, int start, int count, int chunkSize);
 
+    /**
+     * Search with lazy loaded result. Entries are loaded page by page with chunkSize page size when stream is consumed.
+     * Stream should be closed to stop search and release resources
+     *
+     * @return Stream of result entries
+     */
+    <T> Stream<T> streamEntries(String primaryKey, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes, int chunkSize);
+    <T> Stream<T> streamEntries(String primaryKey, Class<T> entryClass, Filter filter, SearchScope scope, String[] ldapReturnAttributes,
+                                int count, int chunkSize);
+
     // TODO: Combine sortBy and SortOrder into Sort
     <T> PagedResult<T> findPagedEntries(String primaryKey, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes, String sortBy,
                                         SortOrder sortOrder, int start, int count, int chunkSize);
 
 	void remove(Object entry);
 
+	<T> List<EntryOperationResult<T>> removeAll(List<T> entries);
+	<T> List<EntryOperationResult<T>> removeAll(List<T> entries, int batchSize);
+
 	@Deprecated
 	void remove(String dn);
 	<T> void removeByDn(String dn, String[] objectClasses);
@@ -128,6 +163,9 @@ public interface PersistenceEntryManager extends EntityManager {
     <T> void importEntry(String dn, Class<T> entryClass, List<AttributeData> data);
 
     PersistenceOperationService getOperationService();
+
+    OperationMetrics getOperationMetrics();
+
     PersistenceEntryManager getPersistenceEntryManager(String persistenceType);
 
     void setPersistenceExtension(PersistenceExtension persistenceExtension);
@@ -19,10 +19,13 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.apache.commons.codec.binary.Base64;
 import org.gluu.persist.PersistenceEntryManager;
@@ -45,11 +48,14 @@ import org.gluu.persist.model.AttributeDataModification;
 import org.gluu.persist.model.SearchScope;
 import org.gluu.persist.model.AttributeDataModification.AttributeModificationType;
 import org.gluu.persist.model.AttributeType;
+import org.gluu.persist.model.EntryOperationResult;
+import org.gluu.persist.model.WriteOperation;
 import org.gluu.persist.operation.PersistenceOperationService;
 import org.gluu.persist.reflect.property.Getter;
 import org.gluu.persist.reflect.property.PropertyAnnotation;
 import org.gluu.persist.reflect.property.Setter;
 import org.gluu.persist.reflect.util.ReflectHelper;
+import org.gluu.persist.watch.OperationMetrics;
 import org.gluu.search.filter.Filter;
 import org.gluu.search.filter.FilterProcessor;
 import org.gluu.orm.util.ArrayHelper;
@@ -87,13 +93,7 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 	private static final Class<?>[] SUM_BY_ALLOWED_DATA_TYPES = { int.class, Integer.class, float.class, Float.class,
 			double.class, Double.class };
 
-	private final Map<String, List<PropertyAnnotation>> classAnnotations = new HashMap<String, List<PropertyAnnotation>>();
-	private final Map<String, Getter> classGetters = new HashMap<String, Getter>();
-	private final Map<String, Setter> classSetters = new HashMap<String, Setter>();
-
-	private static Object CLASS_ANNOTATIONS_LOCK = new Object();
-	private static Object CLASS_SETTERS_LOCK = new Object();
-	private static Object CLASS_GETTERS_LOCK = new Object();
+	private static final String READ_MAPPINGS_METADATA_KEY = "read_mappings";
 
 	private static final ObjectMapper JSON_OBJECT_MAPPER = new ObjectMapper();
 
@@ -103,6 +103,7 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 	protected static final Comparator<String> LINE_LENGHT_COMPARATOR = new LineLenghtComparator<String>(false);
 
 	protected static final int DEFAULT_PAGINATION_SIZE = 100;
+	protected static final int DEFAULT_BATCH_SIZE = 100;
 	
 	protected O operationService = null;
 	protected PersistenceExtension persistenceExtension = null;
@@ -111,6 +112,14 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 
 	@Override
 	public void persist(Object entry) {
+		WriteOperation operation = new WriteOperation(entry);
+		preparePersist(operation);
+
+		persist(operation.getDn(), operation.getObjectClasses(), operation.getAttributes(), operation.getExpiration());
+	}
+
+	protected void preparePersist(WriteOperation operation) {
+		Object entry = operation.getEntry();
 		if (entry == null) {
 			throw new MappingException("Entry to persist is null");
 		}
@@ -133,7 +142,59 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 		if (LOG.isDebugEnabled()) {
 			LOG.debug(String.format("LDAP attributes for persist: %s", maskSensetiveData(attributes)));
 		}
-		persist(dnValue.toString(), objectClasses, attributes, expirationValue);
+
+		operation.setDn(dnValue.toString());
+		operation.setObjectClasses(objectClasses);
+		operation.setAttributes(attributes);
+		operation.setExpiration(expirationValue);
+	}
+
+	@Override
+	public <T> List<EntryOperationResult<T>> persistAll(List<T> entries) {
+		return persistAll(entries, DEFAULT_BATCH_SIZE);
+	}
+
+	@Override
+	public <T> List<EntryOperationResult<T>> persistAll(List<T> entries, int batchSize) {
+		if (entries == null) {
+			throw new MappingException("Entries to persist is null");
+		}
+
+		List<WriteOperation> operations = new ArrayList<WriteOperation>(entries.size());
+		for (List<T> chunk : splitToChunks(entries, batchSize)) {
+			List<WriteOperation> chunkOperations = new ArrayList<WriteOperation>(chunk.size());
+			for (T entry : chunk) {
+				WriteOperation operation = new WriteOperation(entry);
+				try {
+					preparePersist(operation);
+				} catch (RuntimeException ex) {
+					operation.setException(ex);
+				}
+				chunkOperations.add(operation);
+			}
+
+			List<WriteOperation> pendingOperations = getPendingOperations(chunkOperations);
+			if (!pendingOperations.isEmpty()) {
+				persistBatch(pendingOperations);
+			}
+			operations.addAll(chunkOperations);
+		}
+
+		return toOperationResults(operations);
+	}
+
+	/**
+	 * Persist prepared entries. Backends should override it to send all entries with one request.
+	 * Default implementation persists entries one by one. Failure of entry should be stored in operation
+	 */
+	protected void persistBatch(List<WriteOperation> operations) {
+		for (WriteOperation operation : operations) {
+			try {
+				persist(operation.getDn(), operation.getObjectClasses(), operation.getAttributes(), operation.getExpiration());
+			} catch (RuntimeException ex) {
+				operation.setException(ex);
+			}
+		}
 	}
 
 	protected abstract void persist(String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration);
@@ -191,6 +252,57 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 		return findEntries(baseDN, entryClass, filter, scope, ldapReturnAttributes, null, start, count, chunkSize);
 	}
 
+	@Override
+	public <T> Stream<T> streamEntries(String baseDN, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes, int chunkSize) {
+		return streamEntries(baseDN, entryClass, filter, SearchScope.SUB, ldapReturnAttributes, 0, chunkSize);
+	}
+
+	@Override
+	public <T> Stream<T> streamEntries(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope,
+			String[] ldapReturnAttributes, int count, int chunkSize) {
+		int pageSize = chunkSize > 0 ? chunkSize : DEFAULT_PAGINATION_SIZE;
+
+		PagedEntryIterator<T> iterator = new PagedEntryIterator<T>("EntryStream-" + entryClass.getSimpleName(),
+				createPageLoader(baseDN, entryClass, filter, scope, ldapReturnAttributes, count, pageSize), count);
+
+		return iterator.stream();
+	}
+
+	/*
+	 * Backends without paging cookie or keyset continue search with offset
+	 */
+	protected <T> PagedEntryIterator.PageLoader<T> createPageLoader(final String baseDN, final Class<T> entryClass, final Filter filter,
+			final SearchScope scope, final String[] ldapReturnAttributes, final int count, final int pageSize) {
+		return new PagedEntryIterator.PageLoader<T>() {
+
+			private int start;
+			private boolean finished;
+
+			@Override
+			public List<T> loadNextPage() {
+				if (finished) {
+					return null;
+				}
+
+				int limit = pageSize;
+				if (count > 0) {
+					limit = Math.min(pageSize, count - start);
+				}
+
+				List<T> page = findEntries(baseDN, entryClass, filter, scope, ldapReturnAttributes, null, start, limit, 0);
+				start += page.size();
+				finished = page.size() < limit;
+
+				return page.isEmpty() ? null : page;
+			}
+
+			@Override
+			public void close() {
+				finished = true;
+			}
+		};
+	}
+
 	@SuppressWarnings("unchecked")
 	public <T> int countEntries(Object entry) {
 		if (entry == null) {
@@ -210,8 +322,33 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 		return countEntries(dnValue.toString(), entryClass, searchFilter);
 	}
 
-	@SuppressWarnings("unchecked")
 	protected Void merge(Object entry, boolean isSchemaUpdate, boolean isConfigurationUpdate, AttributeModificationType schemaModificationType) {
+		MergeContext context = prepareMerge(new WriteOperation(entry), isSchemaUpdate, isConfigurationUpdate, schemaModificationType);
+
+		// Load entry
+		List<AttributeData> attributesFromLdap = null;
+		if (context.attributesToLoad == null) {
+			// If it's schema modification request we don't need to load
+			// attributes from LDAP
+			attributesFromLdap = new ArrayList<AttributeData>();
+		} else {
+			beginWritePreparation();
+			try {
+				attributesFromLdap = find(context.operation.getDn(), context.objectClasses, context.propertiesAnnotationsMap, context.attributesToLoad);
+			} finally {
+				endWritePreparation();
+			}
+		}
+
+		WriteOperation operation = completeMerge(context, attributesFromLdap);
+
+		merge(operation.getDn(), operation.getObjectClasses(), operation.getModifications(), operation.getExpiration());
+
+		return null;
+	}
+
+	private MergeContext prepareMerge(WriteOperation operation, boolean isSchemaUpdate, boolean isConfigurationUpdate, AttributeModificationType schemaModificationType) {
+		Object entry = operation.getEntry();
 		if (entry == null) {
 			throw new MappingException("Entry to persist is null");
 		}
@@ -219,39 +356,43 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 		Class<?> entryClass = entry.getClass();
 		checkEntryClass(entryClass, isSchemaUpdate);
 
+		MergeContext context = new MergeContext(operation, entryClass, isSchemaUpdate, isConfigurationUpdate, schemaModificationType);
+
 		// Determine entry update method
-		boolean forceUpdate = isUseEntryForceUpdate(entryClass);
+		context.forceUpdate = isUseEntryForceUpdate(entryClass);
 
-		String[] objectClasses = getObjectClasses(entry, entryClass);
+		context.objectClasses = getObjectClasses(entry, entryClass);
 
-		List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
-        Map<String, PropertyAnnotation> propertiesAnnotationsMap = prepareEntryPropertiesTypes(entryClass, propertiesAnnotations);
+		context.propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
+		context.propertiesAnnotationsMap = prepareEntryPropertiesTypes(entryClass, context.propertiesAnnotations);
 
 		Object dnValue = getDNValue(entry, entryClass);
 
 		Integer expirationValue = getExpirationValue(entry, entryClass, true);
 
-		List<AttributeData> attributesToPersist = getAttributesListForPersist(entry, propertiesAnnotations);
-		Map<String, AttributeData> attributesToPersistMap = getAttributesMap(attributesToPersist);
+		context.attributesToPersist = getAttributesListForPersist(entry, context.propertiesAnnotations);
+		context.attributesToPersistMap = getAttributesMap(context.attributesToPersist);
 
-		// Load entry
-		List<AttributeData> attributesFromLdap = null;
-		if (isSchemaUpdate || forceUpdate) {
-			// If it's schema modification request we don't need to load
-			// attributes from LDAP
-			attributesFromLdap = new ArrayList<AttributeData>();
-		} else {
-			List<String> currentLdapReturnAttributesList = buildAttributesListForUpdate(entry, objectClasses, propertiesAnnotations);
+		if (!(isSchemaUpdate || context.forceUpdate)) {
+			List<String> currentLdapReturnAttributesList = buildAttributesListForUpdate(entry, context.objectClasses, context.propertiesAnnotations);
 			if (!isConfigurationUpdate) {
 				currentLdapReturnAttributesList.add("objectClass");
 			}
-
-			attributesFromLdap = find(dnValue.toString(), objectClasses, propertiesAnnotationsMap, currentLdapReturnAttributesList.toArray(EMPTY_STRING_ARRAY));
+			context.attributesToLoad = currentLdapReturnAttributesList.toArray(EMPTY_STRING_ARRAY);
 		}
 
+		operation.setDn(dnValue.toString());
+		operation.setObjectClasses(context.objectClasses);
+		operation.setExpiration(expirationValue);
+
+		return context;
+	}
+
+	private WriteOperation completeMerge(MergeContext context, List<AttributeData> attributesFromLdap) {
+		WriteOperation operation = context.operation;
 		if (LOG.isTraceEnabled()) {
 			dumpAttributes("attributesFromLdap", attributesFromLdap);
-			dumpAttributes("attributesToPersist", attributesToPersist);
+			dumpAttributes("attributesToPersist", context.attributesToPersist);
 		}
 
 		Map<String, AttributeData> attributesFromLdapMap = getAttributesMap(attributesFromLdap);
@@ -260,14 +401,15 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 
 		// Process properties with Attribute annotation
 		List<AttributeDataModification> attributeDataModifications = collectAttributeModifications(
-				propertiesAnnotations, attributesToPersistMap, attributesFromLdapMap, isSchemaUpdate,
-				schemaModificationType, forceUpdate);
+				context.propertiesAnnotations, context.attributesToPersistMap, attributesFromLdapMap, context.isSchemaUpdate,
+				context.schemaModificationType, context.forceUpdate);
 
 		if (LOG.isTraceEnabled()) {
 			dumpAttributeDataModifications("attributeDataModifications before updateMergeChanges", attributeDataModifications);
 		}
 
-		updateMergeChanges(dnValue.toString(), entry, isSchemaUpdate | isConfigurationUpdate, entryClass, attributesFromLdapMap, attributeDataModifications, forceUpdate);
+		updateMergeChanges(operation.getDn(), operation.getEntry(), context.isSchemaUpdate | context.isConfigurationUpdate, context.entryClass,
+				attributesFromLdapMap, attributeDataModifications, context.forceUpdate);
 
 		if (LOG.isTraceEnabled()) {
 			dumpAttributeDataModifications("attributeDataModifications after updateMergeChanges", attributeDataModifications);
@@ -275,9 +417,144 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 
 		LOG.debug(String.format("LDAP attributes for merge: %s", attributeDataModifications));
 
-		merge(dnValue.toString(), objectClasses, attributeDataModifications, expirationValue);
+		operation.setModifications(attributeDataModifications);
 
-		return null;
+		return operation;
+	}
+
+	@Override
+	public <T> List<EntryOperationResult<T>> mergeAll(List<T> entries) {
+		return mergeAll(entries, DEFAULT_BATCH_SIZE);
+	}
+
+	@Override
+	public <T> List<EntryOperationResult<T>> mergeAll(List<T> entries, int batchSize) {
+		if (entries == null) {
+			throw new MappingException("Entries to merge is null");
+		}
+
+		List<WriteOperation> operations = new ArrayList<WriteOperation>(entries.size());
+		for (List<T> chunk : splitToChunks(entries, batchSize)) {
+			List<WriteOperation> chunkOperations = new ArrayList<WriteOperation>(chunk.size());
+
+			// Group entries which need current attributes to load them with one request
+			List<MergeContext> contextsWithoutLoad = new ArrayList<MergeContext>();
+			Map<List<Object>, List<MergeContext>> contextsToLoad = new LinkedHashMap<List<Object>, List<MergeContext>>();
+			for (T entry : chunk) {
+				WriteOperation operation = new WriteOperation(entry);
+				chunkOperations.add(operation);
+				try {
+					if ((entry != null) && isSchemaEntry(entry.getClass())) {
+						// Schema modifications are not sent in batches
+						throw new UnsupportedOperationException("Schema entry should be updated with merge method");
+					}
+
+					MergeContext context = prepareMerge(operation, false, isConfigurationUpdate(entry.getClass()), null);
+					if (context.attributesToLoad == null) {
+						contextsWithoutLoad.add(context);
+						continue;
+					}
+
+					List<Object> loadKey = Arrays.<Object>asList(context.entryClass, Arrays.asList(context.objectClasses), Arrays.asList(context.attributesToLoad));
+					List<MergeContext> contexts = contextsToLoad.get(loadKey);
+					if (contexts == null) {
+						contexts = new ArrayList<MergeContext>();
+						contextsToLoad.put(loadKey, contexts);
+					}
+					contexts.add(context);
+				} catch (RuntimeException ex) {
+					operation.setException(ex);
+				}
+			}
+
+			for (MergeContext context : contextsWithoutLoad) {
+				tryCompleteMerge(context, new ArrayList<AttributeData>());
+			}
+
+			for (List<MergeContext> contexts : contextsToLoad.values()) {
+				loadAndCompleteMerge(contexts);
+			}
+
+			List<WriteOperation> pendingOperations = getPendingOperations(chunkOperations);
+			if (!pendingOperations.isEmpty()) {
+				mergeBatch(pendingOperations);
+			}
+			operations.addAll(chunkOperations);
+		}
+
+		return toOperationResults(operations);
+	}
+
+	private void loadAndCompleteMerge(List<MergeContext> contexts) {
+		MergeContext firstContext = contexts.get(0);
+
+		Set<String> dns = new LinkedHashSet<String>(contexts.size());
+		for (MergeContext context : contexts) {
+			dns.add(context.operation.getDn());
+		}
+
+		Map<String, List<AttributeData>> attributesFromLdap;
+		beginWritePreparation();
+		try {
+			attributesFromLdap = find(new ArrayList<String>(dns), firstContext.objectClasses, firstContext.propertiesAnnotationsMap, firstContext.attributesToLoad);
+		} catch (RuntimeException ex) {
+			for (MergeContext context : contexts) {
+				context.operation.setException(ex);
+			}
+			return;
+		} finally {
+			endWritePreparation();
+		}
+
+		for (MergeContext context : contexts) {
+			WriteOperation operation = context.operation;
+			List<AttributeData> entryAttributesFromLdap = attributesFromLdap.get(operation.getDn());
+			if (entryAttributesFromLdap == null) {
+				operation.setException(new EntryPersistenceException(String.format("Failed to find entry: '%s'", operation.getDn())));
+			} else {
+				tryCompleteMerge(context, entryAttributesFromLdap);
+			}
+		}
+	}
+
+	private void tryCompleteMerge(MergeContext context, List<AttributeData> attributesFromLdap) {
+		try {
+			completeMerge(context, attributesFromLdap);
+		} catch (RuntimeException ex) {
+			context.operation.setException(ex);
+		}
+	}
+
+	/**
+	 * Called before loading current entry attributes to build modifications. Backends which route reads
+	 * to read only servers should send reads to primary servers till {@link #endWritePreparation()}
+	 */
+	protected void beginWritePreparation() {
+	}
+
+	protected void endWritePreparation() {
+	}
+
+	/**
+	 * Determine if merge of entry without loading objectClass attribute. Backends which update objectClasses
+	 * on merge should override it
+	 */
+	protected boolean isConfigurationUpdate(Class<?> entryClass) {
+		return false;
+	}
+
+	/**
+	 * Update prepared entries. Backends should override it to send all modifications with one request.
+	 * Default implementation updates entries one by one. Failure of entry should be stored in operation
+	 */
+	protected void mergeBatch(List<WriteOperation> operations) {
+		for (WriteOperation operation : operations) {
+			try {
+				merge(operation.getDn(), operation.getObjectClasses(), operation.getModifications(), operation.getExpiration());
+			} catch (RuntimeException ex) {
+				operation.setException(ex);
+			}
+		}
 	}
 
 	protected List<String> buildAttributesListForUpdate(Object entry, String[] objectClasses, List<PropertyAnnotation> propertiesAnnotations) {
@@ -494,6 +771,102 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 		removeByDn(primaryKey, objectClasses);
 	}
 
+	@Override
+	public <T> List<EntryOperationResult<T>> removeAll(List<T> entries) {
+		return removeAll(entries, DEFAULT_BATCH_SIZE);
+	}
+
+	@Override
+	public <T> List<EntryOperationResult<T>> removeAll(List<T> entries, int batchSize) {
+		if (entries == null) {
+			throw new MappingException("Entries to remove is null");
+		}
+
+		List<WriteOperation> operations = new ArrayList<WriteOperation>(entries.size());
+		for (List<T> chunk : splitToChunks(entries, batchSize)) {
+			List<WriteOperation> chunkOperations = new ArrayList<WriteOperation>(chunk.size());
+			for (T entry : chunk) {
+				WriteOperation operation = new WriteOperation(entry);
+				try {
+					prepareRemove(operation);
+				} catch (RuntimeException ex) {
+					operation.setException(ex);
+				}
+				chunkOperations.add(operation);
+			}
+
+			List<WriteOperation> pendingOperations = getPendingOperations(chunkOperations);
+			if (!pendingOperations.isEmpty()) {
+				removeBatch(pendingOperations);
+			}
+			operations.addAll(chunkOperations);
+		}
+
+		return toOperationResults(operations);
+	}
+
+	protected void prepareRemove(WriteOperation operation) {
+		Object entry = operation.getEntry();
+		if (entry == null) {
+			throw new MappingException("Entry to remove is null");
+		}
+
+		// Check entry class
+		Class<?> entryClass = entry.getClass();
+		checkEntryClass(entryClass, false);
+
+		Object dnValue = getDNValue(entry, entryClass);
+
+		operation.setDn(dnValue.toString());
+		operation.setObjectClasses(getTypeObjectClasses(entryClass));
+	}
+
+	/**
+	 * Remove prepared entries. Backends should override it to send all deletes with one request.
+	 * Default implementation removes entries one by one. Failure of entry should be stored in operation
+	 */
+	protected void removeBatch(List<WriteOperation> operations) {
+		for (WriteOperation operation : operations) {
+			try {
+				removeByDn(operation.getDn(), operation.getObjectClasses());
+			} catch (RuntimeException ex) {
+				operation.setException(ex);
+			}
+		}
+	}
+
+	private <T> List<List<T>> splitToChunks(List<T> entries, int batchSize) {
+		int chunkSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+
+		List<List<T>> chunks = new ArrayList<List<T>>((entries.size() + chunkSize - 1) / chunkSize);
+		for (int from = 0; from < entries.size(); from += chunkSize) {
+			chunks.add(entries.subList(from, Math.min(from + chunkSize, entries.size())));
+		}
+
+		return chunks;
+	}
+
+	private List<WriteOperation> getPendingOperations(List<WriteOperation> operations) {
+		List<WriteOperation> pendingOperations = new ArrayList<WriteOperation>(operations.size());
+		for (WriteOperation operation : operations) {
+			if (!operation.isFailed()) {
+				pendingOperations.add(operation);
+			}
+		}
+
+		return pendingOperations;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> List<EntryOperationResult<T>> toOperationResults(List<WriteOperation> operations) {
+		List<EntryOperationResult<T>> results = new ArrayList<EntryOperationResult<T>>(operations.size());
+		for (WriteOperation operation : operations) {
+			results.add(new EntryOperationResult<T>((T) operation.getEntry(), operation.getDn(), operation.getException()));
+		}
+
+		return results;
+	}
+
 	public abstract <T> void removeRecursivelyFromDn(String primaryKey, String[] objectClasses);
 
 	@Deprecated
@@ -729,6 +1102,64 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 
 	protected abstract List<AttributeData> find(String dn, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap, String... attributes);
 
+	@Override
+	public <T> List<T> findEntriesByKeys(Class<T> entryClass, Collection<String> keys, String[] ldapReturnAttributes) {
+		if (keys == null) {
+			throw new MappingException("DNs to find entries is null");
+		}
+
+		checkEntryClass(entryClass, true);
+		if (keys.isEmpty()) {
+			return new ArrayList<T>(0);
+		}
+
+		List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
+        Map<String, PropertyAnnotation> propertiesAnnotationsMap = prepareEntryPropertiesTypes(entryClass, propertiesAnnotations);
+
+		String[] currentLdapReturnAttributes = ldapReturnAttributes;
+		if (ArrayHelper.isEmpty(currentLdapReturnAttributes)) {
+			currentLdapReturnAttributes = getAttributes(null, propertiesAnnotations, false);
+		}
+
+		// Remove duplicates and keep keys order
+		List<String> dns = new ArrayList<String>(new LinkedHashSet<String>(keys));
+		if (dns.contains(null)) {
+			throw new MappingException("DN to find entry is null");
+		}
+
+		String[] objectClasses = getTypeObjectClasses(entryClass);
+		Map<String, List<AttributeData>> foundEntriesAttributes = find(dns, objectClasses, propertiesAnnotationsMap, currentLdapReturnAttributes);
+
+		Map<String, List<AttributeData>> entriesAttributes = new LinkedHashMap<String, List<AttributeData>>(foundEntriesAttributes.size());
+		for (String dn : dns) {
+			List<AttributeData> attributes = foundEntriesAttributes.get(dn);
+			if (attributes != null) {
+				entriesAttributes.put(dn, attributes);
+			}
+		}
+
+		return createEntities(entryClass, propertiesAnnotations, entriesAttributes);
+	}
+
+	/**
+	 * Load entries by DNs. Backends should override it to load all entries with one request.
+	 * Default implementation loads entries one by one.
+	 *
+	 * @return Map DN -> entry attributes. Not found entries are not included
+	 */
+	protected Map<String, List<AttributeData>> find(List<String> dns, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap, String... attributes) {
+		Map<String, List<AttributeData>> result = new HashMap<String, List<AttributeData>>();
+		for (String dn : dns) {
+			try {
+				result.put(dn, find(dn, objectClasses, propertiesAnnotationsMap, attributes));
+			} catch (EntryPersistenceException ex) {
+				LOG.debug("Failed to find entry: '{}'", dn, ex);
+			}
+		}
+
+		return result;
+	}
+
 	protected boolean checkEntryClass(Class<?> entryClass, boolean isAllowSchemaEntry) {
 		if (entryClass == null) {
 			throw new MappingException("Entry class is null");
@@ -960,24 +1391,17 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 		String[] typeObjectClasses = getTypeObjectClasses(entryClass);
 		Arrays.sort(typeObjectClasses);
 
+		EntryClassDescriptor entryClassDescriptor = EntryClassDescriptor.getDescriptor(entryClass);
+		List<PropertyReadMapping> readMappings = getPropertyReadMappings(entryClass, propertiesAnnotations);
+
 		List<T> results = new ArrayList<T>(entriesAttributes.size());
 		for (Entry<String, List<AttributeData>> entryAttributes : entriesAttributes.entrySet()) {
 			String dn = entryAttributes.getKey();
 			List<AttributeData> attributes = entryAttributes.getValue();
 			Map<String, AttributeData> attributesMap = getAttributesMap(attributes);
 
-			T entry;
 			List<String> customObjectClasses = null;
-			try {
-				Class<?> declaringClass = entryClass.getDeclaringClass();
-				if (declaringClass == null) {
-					entry = ReflectHelper.createObjectByDefaultConstructor(entryClass);
-				} else {
-					entry = (T) ReflectHelper.getConstructor(entryClass, declaringClass).newInstance((Object) null);
-				}
-			} catch (Exception ex) {
-				throw new MappingException(String.format("Entry %s should has default constructor", entryClass));
-			}
+			T entry = (T) entryClassDescriptor.newInstance();
 			results.add(entry);
 
 			dnSetter.set(entry, dn);
@@ -988,39 +1412,15 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 			// Set loaded properties to entry
 
 			// Process properties with AttributeName annotation
-			for (PropertyAnnotation propertiesAnnotation : propertiesAnnotations) {
-				String propertyName = propertiesAnnotation.getPropertyName();
-				Annotation ldapAttribute;
-
-				ldapAttribute = ReflectHelper.getAnnotationByType(propertiesAnnotation.getAnnotations(),
-						AttributeName.class);
-				if (ldapAttribute != null) {
-					String ldapAttributeName = ((AttributeName) ldapAttribute).name();
-					if (StringHelper.isEmpty(ldapAttributeName)) {
-						ldapAttributeName = propertyName;
-					}
-					ldapAttributeName = ldapAttributeName.toLowerCase();
-
-					AttributeData attributeData = attributesMap.get(ldapAttributeName);
-
-					// Remove processed attributes
-					attributesMap.remove(ldapAttributeName);
-
-					if (((AttributeName) ldapAttribute).ignoreDuringRead()) {
-						continue;
-					}
-
-					Setter setter = getSetter(entryClass, propertyName);
-					if (setter == null) {
-						throw new MappingException("Entry should has setter for property " + propertyName);
-					}
-
-					Annotation ldapJsonObject = ReflectHelper.getAnnotationByType(propertiesAnnotation.getAnnotations(),
-							JsonObject.class);
-					boolean jsonObject = ldapJsonObject != null;
+			for (PropertyReadMapping readMapping : readMappings) {
+				// Remove processed attributes
+				AttributeData attributeData = attributesMap.remove(readMapping.attributeName);
 
-					setPropertyValue(propertyName, setter, entry, attributeData, jsonObject);
+				if (readMapping.ignoreDuringRead) {
+					continue;
 				}
+
+				setPropertyValue(readMapping.propertyName, readMapping.setter, entry, attributeData, readMapping.jsonObject);
 			}
 
 			// Process properties with @AttributesList annotation
@@ -1692,19 +2092,13 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 
 	protected <T> List<PropertyAnnotation> getEntryClassAnnotations(Class<T> entryClass, String keyCategory,
 			Class<?>[] annotationTypes) {
-		String key = keyCategory + entryClass.getName();
+		EntryClassDescriptor descriptor = EntryClassDescriptor.getDescriptor(entryClass);
 
-		List<PropertyAnnotation> annotations = classAnnotations.get(key);
+		List<PropertyAnnotation> annotations = descriptor.getMetadata(keyCategory);
 		if (annotations == null) {
-			synchronized (CLASS_ANNOTATIONS_LOCK) {
-				annotations = classAnnotations.get(key);
-				if (annotations == null) {
-					Map<String, List<Annotation>> annotationsMap = ReflectHelper.getPropertiesAnnotations(entryClass,
-							annotationTypes);
-					annotations = convertToPropertyAnnotationList(annotationsMap);
-					classAnnotations.put(key, annotations);
-				}
-			}
+			Map<String, List<Annotation>> annotationsMap = ReflectHelper.getPropertiesAnnotations(entryClass,
+					annotationTypes);
+			annotations = descriptor.putMetadata(keyCategory, convertToPropertyAnnotationList(annotationsMap));
 		}
 
 		return annotations;
@@ -1722,37 +2116,63 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 	}
 
 	protected <T> Getter getGetter(Class<T> entryClass, String propertyName) {
-		String key = entryClass.getName() + "." + propertyName;
+		return EntryClassDescriptor.getDescriptor(entryClass).getGetter(propertyName);
+	}
 
-		Getter getter = classGetters.get(key);
-		if (getter == null) {
-			synchronized (CLASS_GETTERS_LOCK) {
-				getter = classGetters.get(key);
-				if (getter == null) {
-					getter = ReflectHelper.getGetter(entryClass, propertyName);
-					classGetters.put(key, getter);
-				}
-			}
+	protected <T> Setter getSetter(Class<T> entryClass, String propertyName) {
+		return EntryClassDescriptor.getDescriptor(entryClass).getSetter(propertyName);
+	}
+
+	/**
+	 * Resolves setters and attribute names of properties with AttributeName annotation once per class
+	 */
+	private <T> List<PropertyReadMapping> getPropertyReadMappings(Class<T> entryClass, List<PropertyAnnotation> propertiesAnnotations) {
+		EntryClassDescriptor descriptor = EntryClassDescriptor.getDescriptor(entryClass);
+
+		PropertyReadMappings readMappings = descriptor.getMetadata(READ_MAPPINGS_METADATA_KEY);
+		if ((readMappings != null) && (readMappings.propertiesAnnotations == propertiesAnnotations)) {
+			return readMappings.mappings;
 		}
 
-		return getter;
-	}
+		List<PropertyReadMapping> mappings = new ArrayList<PropertyReadMapping>();
+		for (PropertyAnnotation propertiesAnnotation : propertiesAnnotations) {
+			String propertyName = propertiesAnnotation.getPropertyName();
 
-	protected <T> Setter getSetter(Class<T> entryClass, String propertyName) {
-		String key = entryClass.getName() + "." + propertyName;
+			Annotation ldapAttribute = ReflectHelper.getAnnotationByType(propertiesAnnotation.getAnnotations(),
+					AttributeName.class);
+			if (ldapAttribute == null) {
+				continue;
+			}
 
-		Setter setter = classSetters.get(key);
-		if (setter == null) {
-			synchronized (CLASS_SETTERS_LOCK) {
-				setter = classSetters.get(key);
+			String ldapAttributeName = ((AttributeName) ldapAttribute).name();
+			if (StringHelper.isEmpty(ldapAttributeName)) {
+				ldapAttributeName = propertyName;
+			}
+			ldapAttributeName = ldapAttributeName.toLowerCase();
+
+			boolean ignoreDuringRead = ((AttributeName) ldapAttribute).ignoreDuringRead();
+
+			Setter setter = null;
+			if (!ignoreDuringRead) {
+				setter = getSetter(entryClass, propertyName);
 				if (setter == null) {
-					setter = ReflectHelper.getSetter(entryClass, propertyName);
-					classSetters.put(key, setter);
+					throw new MappingException("Entry should has setter for property " + propertyName);
 				}
 			}
+
+			Annotation ldapJsonObject = ReflectHelper.getAnnotationByType(propertiesAnnotation.getAnnotations(),
+					JsonObject.class);
+			boolean jsonObject = ldapJsonObject != null;
+
+			mappings.add(new PropertyReadMapping(propertyName, ldapAttributeName, ignoreDuringRead, jsonObject, setter));
 		}
 
-		return setter;
+		// Cache only mappings of default class annotations list
+		if (propertiesAnnotations == getEntryPropertyAnnotations(entryClass)) {
+			descriptor.putMetadata(READ_MAPPINGS_METADATA_KEY, new PropertyReadMappings(propertiesAnnotations, mappings));
+		}
+
+		return mappings;
 	}
 
 	private AttributeData getAttributeData(String propertyName, Getter propertyNameGetter, Getter propertyValueGetter,
@@ -1771,8 +2191,10 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 			return;
 		}
 
-		LOG.debug(String.format("LdapProperty: %s, AttributeName: %s, AttributeValue: %s", propertyName,
-				attribute.getName(), Arrays.toString(attribute.getValues())));
+		if (LOG.isDebugEnabled()) {
+			LOG.debug(String.format("LdapProperty: %s, AttributeName: %s, AttributeValue: %s", propertyName,
+					attribute.getName(), Arrays.toString(attribute.getValues())));
+		}
 
 		Class<?> parameterType = ReflectHelper.getSetterType(propertyValueSetter);
 		if (parameterType.equals(String.class)) {
@@ -2219,6 +2641,15 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 		}
 	}
 
+	@Override
+	public OperationMetrics getOperationMetrics() {
+		if (this.operationService == null) {
+			return null;
+		}
+
+		return this.operationService.getOperationMetrics();
+	}
+
 	@Override
 	public <T> AttributeType getAttributeType(String primaryKey, Class<T> entryClass, String propertyName) {
         throw new UnsupportedOperationException("Method not implemented.");
@@ -2375,4 +2806,65 @@ public abstract class BaseEntryManager<O extends PersistenceOperationService> im
 
 		return sb.toString();
 	}
+
+	private static final class PropertyReadMapping {
+
+		private final String propertyName;
+		private final String attributeName;
+		private final boolean ignoreDuringRead;
+		private final boolean jsonObject;
+		private final Setter setter;
+
+		private PropertyReadMapping(String propertyName, String attributeName, boolean ignoreDuringRead, boolean jsonObject,
+				Setter setter) {
+			this.propertyName = propertyName;
+			this.attributeName = attributeName;
+			this.ignoreDuringRead = ignoreDuringRead;
+			this.jsonObject = jsonObject;
+			this.setter = setter;
+		}
+
+	}
+
+	private static final class PropertyReadMappings {
+
+		private final List<PropertyAnnotation> propertiesAnnotations;
+		private final List<PropertyReadMapping> mappings;
+
+		private PropertyReadMappings(List<PropertyAnnotation> propertiesAnnotations, List<PropertyReadMapping> mappings) {
+			this.propertiesAnnotations = propertiesAnnotations;
+			this.mappings = mappings;
+		}
+
+	}
+
+	private static final class MergeContext {
+
+		private final WriteOperation operation;
+		private final Class<?> entryClass;
+		private final boolean isSchemaUpdate;
+		private final boolean isConfigurationUpdate;
+		private final AttributeModificationType schemaModificationType;
+
+		private boolean forceUpdate;
+		private String[] objectClasses;
+		private List<PropertyAnnotation> propertiesAnnotations;
+		private Map<String, PropertyAnnotation> propertiesAnnotationsMap;
+		private List<AttributeData> attributesToPersist;
+		private Map<String, AttributeData> attributesToPersistMap;
+
+		// Null if there is no need to load current entry attributes
+		private String[] attributesToLoad;
+
+		private MergeContext(WriteOperation operation, Class<?> entryClass, boolean isSchemaUpdate, boolean isConfigurationUpdate,
+				AttributeModificationType schemaModificationType) {
+			this.operation = operation;
+			this.entryClass = entryClass;
+			this.isSchemaUpdate = isSchemaUpdate;
+			this.isConfigurationUpdate = isConfigurationUpdate;
+			this.schemaModificationType = schemaModificationType;
+		}
+
+	}
+
 }
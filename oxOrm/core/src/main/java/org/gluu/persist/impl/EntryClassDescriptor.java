@@ -0,0 +1,143 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.gluu.persist.exception.MappingException;
+import org.gluu.persist.reflect.property.CompiledPropertyAccessor;
+import org.gluu.persist.reflect.property.Getter;
+import org.gluu.persist.reflect.property.Setter;
+import org.gluu.persist.reflect.util.ReflectHelper;
+
+/**
+ * Per class cache of compiled property accessors, entry constructor and mapping metadata.
+ * Descriptors are bound to class via {@link ClassValue}. Descriptor holds strong references to entry class, its
+ * accessors and constructor, so it lives as long as ClassValue holds it. It's not a weak cache of entry classes
+ */
+public final class EntryClassDescriptor {
+
+	private static final ClassValue<EntryClassDescriptor> DESCRIPTORS = new ClassValue<EntryClassDescriptor>() {
+		@Override
+		protected EntryClassDescriptor computeValue(Class<?> entryClass) {
+			return new EntryClassDescriptor(entryClass);
+		}
+	};
+
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+	private final Class<?> entryClass;
+
+	private final ConcurrentMap<String, Getter> getters = new ConcurrentHashMap<String, Getter>();
+	private final ConcurrentMap<String, Setter> setters = new ConcurrentHashMap<String, Setter>();
+	private final ConcurrentMap<String, Object> metadata = new ConcurrentHashMap<String, Object>();
+
+	private volatile MethodHandle constructor;
+
+	private EntryClassDescriptor(Class<?> entryClass) {
+		this.entryClass = entryClass;
+	}
+
+	public static EntryClassDescriptor getDescriptor(Class<?> entryClass) {
+		return DESCRIPTORS.get(entryClass);
+	}
+
+	public Class<?> getEntryClass() {
+		return entryClass;
+	}
+
+	public Getter getGetter(String propertyName) {
+		Getter getter = getters.get(propertyName);
+		if (getter == null) {
+			getter = CompiledPropertyAccessor.createGetter(entryClass, propertyName);
+			Getter existingGetter = getters.putIfAbsent(propertyName, getter);
+			if (existingGetter != null) {
+				getter = existingGetter;
+			}
+		}
+
+		return getter;
+	}
+
+	public Setter getSetter(String propertyName) {
+		Setter setter = setters.get(propertyName);
+		if (setter == null) {
+			setter = CompiledPropertyAccessor.createSetter(entryClass, propertyName);
+			Setter existingSetter = setters.putIfAbsent(propertyName, setter);
+			if (existingSetter != null) {
+				setter = existingSetter;
+			}
+		}
+
+		return setter;
+	}
+
+	/**
+	 * Returns cached metadata. Null means that it's not calculated yet
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V getMetadata(String key) {
+		return (V) metadata.get(key);
+	}
+
+	/**
+	 * Stores metadata if there is no value yet. Returns value which was stored first
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V putMetadata(String key, V value) {
+		Object existingValue = metadata.putIfAbsent(key, value);
+		if (existingValue != null) {
+			return (V) existingValue;
+		}
+
+		return value;
+	}
+
+	/**
+	 * Creates new entry instance. Non static inner class entry is created without outer instance
+	 */
+	public Object newInstance() {
+		MethodHandle entryConstructor = this.constructor;
+		if (entryConstructor == null) {
+			entryConstructor = createConstructor();
+			this.constructor = entryConstructor;
+		}
+
+		try {
+			return (Object) entryConstructor.invokeExact();
+		} catch (Error err) {
+			throw err;
+		} catch (Throwable ex) {
+			throw new MappingException(String.format("Failed to create entry %s", entryClass), ex);
+		}
+	}
+
+	private MethodHandle createConstructor() {
+		try {
+			Class<?> declaringClass = entryClass.getDeclaringClass();
+			if ((declaringClass == null) || Modifier.isStatic(entryClass.getModifiers())) {
+				Constructor<?> defaultConstructor = ReflectHelper.getDefaultConstructor(entryClass);
+
+				return MethodHandles.lookup().unreflectConstructor(defaultConstructor).asType(CONSTRUCTOR_TYPE);
+			}
+
+			Constructor<?> innerClassConstructor = ReflectHelper.getConstructor(entryClass, declaringClass);
+			MethodHandle methodHandle = MethodHandles.lookup().unreflectConstructor(innerClassConstructor);
+
+			return MethodHandles.insertArguments(methodHandle, 0, (Object) null).asType(CONSTRUCTOR_TYPE);
+		} catch (Exception ex) {
+			throw new MappingException(String.format("Entry %s should has default constructor", entryClass), ex);
+		}
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.impl;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.gluu.persist.exception.EntryPersistenceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Iterator over paged search result. Next page is loaded in consumer thread only after consumer took previous one,
+ * so memory usage doesn't depend on result size. Page loader continues search with backend paging cookie or keyset
+ * of last returned entry. Iterator should be closed to release DB resources of not finished search
+ */
+public class PagedEntryIterator<T> implements Iterator<T>, Closeable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PagedEntryIterator.class);
+
+	private final String name;
+	private final PageLoader<T> pageLoader;
+	private final int count;
+
+	private Iterator<T> currentPage = Collections.emptyIterator();
+	private int returnedCount;
+	private boolean closed;
+
+	public PagedEntryIterator(String name, PageLoader<T> pageLoader, int count) {
+		this.name = name;
+		this.pageLoader = pageLoader;
+		this.count = count;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (closed) {
+			return false;
+		}
+
+		if ((count > 0) && (returnedCount >= count)) {
+			close();
+			return false;
+		}
+
+		while (!currentPage.hasNext()) {
+			List<T> page;
+			try {
+				page = pageLoader.loadNextPage();
+			} catch (RuntimeException ex) {
+				close();
+				throw new EntryPersistenceException("Failed to load next page of entries", ex);
+			}
+
+			if (page == null) {
+				close();
+				return false;
+			}
+
+			currentPage = page.iterator();
+		}
+
+		return true;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		returnedCount++;
+		return currentPage.next();
+	}
+
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+
+		closed = true;
+		currentPage = Collections.emptyIterator();
+		try {
+			pageLoader.close();
+		} catch (RuntimeException ex) {
+			LOG.warn("Failed to close search of entries iterator '{}'", name, ex);
+		}
+		LOG.debug("Closed entries iterator '{}', returned entries: {}", name, returnedCount);
+	}
+
+	public Stream<T> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(this::close);
+	}
+
+	/**
+	 * Loads pages of search result one by one
+	 */
+	public interface PageLoader<T> extends Closeable {
+
+		/**
+		 * @return next page of entries or null if there are no more entries
+		 */
+		List<T> loadNextPage();
+
+		/**
+		 * Release resources of not finished search
+		 */
+		@Override
+		void close();
+
+	}
+
+}
@@ -0,0 +1,47 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.model;
+
+/**
+ * Result of bulk operation for one entry
+ */
+public class EntryOperationResult<T> {
+
+    private final T entry;
+
+    private final String dn;
+
+    private final Exception exception;
+
+    public EntryOperationResult(T entry, String dn, Exception exception) {
+        this.entry = entry;
+        this.dn = dn;
+        this.exception = exception;
+    }
+
+    public T getEntry() {
+        return entry;
+    }
+
+    public String getDn() {
+        return dn;
+    }
+
+    public Exception getException() {
+        return exception;
+    }
+
+    public boolean isSuccess() {
+        return exception == null;
+    }
+
+    @Override
+    public String toString() {
+        return "EntryOperationResult [dn=" + dn + ", success=" + isSuccess() + ", exception=" + exception + "]";
+    }
+
+}
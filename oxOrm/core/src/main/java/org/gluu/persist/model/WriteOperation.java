@@ -0,0 +1,107 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.model;
+
+import java.util.List;
+
+/**
+ * Write request of one entry in bulk operation. Entry manager prepares entry data,
+ * persistence layer sets backend key, converted data and failure of operation
+ */
+public class WriteOperation {
+
+    private final Object entry;
+
+    private String dn;
+    private String[] objectClasses;
+    private List<AttributeData> attributes;
+    private List<AttributeDataModification> modifications;
+    private Integer expiration;
+
+    private String key;
+    private Object data;
+
+    private Exception exception;
+
+    public WriteOperation(Object entry) {
+        this.entry = entry;
+    }
+
+    public Object getEntry() {
+        return entry;
+    }
+
+    public String getDn() {
+        return dn;
+    }
+
+    public void setDn(String dn) {
+        this.dn = dn;
+    }
+
+    public String[] getObjectClasses() {
+        return objectClasses;
+    }
+
+    public void setObjectClasses(String[] objectClasses) {
+        this.objectClasses = objectClasses;
+    }
+
+    public List<AttributeData> getAttributes() {
+        return attributes;
+    }
+
+    public void setAttributes(List<AttributeData> attributes) {
+        this.attributes = attributes;
+    }
+
+    public List<AttributeDataModification> getModifications() {
+        return modifications;
+    }
+
+    public void setModifications(List<AttributeDataModification> modifications) {
+        this.modifications = modifications;
+    }
+
+    public Integer getExpiration() {
+        return expiration;
+    }
+
+    public void setExpiration(Integer expiration) {
+        this.expiration = expiration;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <D> D getData() {
+        return (D) data;
+    }
+
+    public void setData(Object data) {
+        this.data = data;
+    }
+
+    public Exception getException() {
+        return exception;
+    }
+
+    public void setException(Exception exception) {
+        this.exception = exception;
+    }
+
+    public boolean isFailed() {
+        return exception != null;
+    }
+
+}
@@ -11,6 +11,7 @@ import org.gluu.persist.exception.operation.ConnectionException;
 import org.gluu.persist.exception.operation.EntryConvertationException;
 import org.gluu.persist.exception.operation.SearchException;
 import org.gluu.persist.extension.PersistenceExtension;
+import org.gluu.persist.watch.OperationMetrics;
 
 /**
  * Base interface for Operation Service
@@ -27,4 +28,6 @@ public interface PersistenceOperationService {
 
 	public boolean isSupportObjectClass(String objectClass);
 
+	public OperationMetrics getOperationMetrics();
+
 }
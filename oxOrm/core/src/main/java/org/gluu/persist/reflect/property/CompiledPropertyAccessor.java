@@ -0,0 +1,344 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.reflect.property;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.gluu.persist.exception.BasePersistenceException;
+import org.gluu.persist.exception.PropertyAccessException;
+import org.gluu.persist.exception.PropertyNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Accesses property values via a get/set pair like {@link BasicPropertyAccessor}, but calls them
+ * without reflection. Public methods of classes visible to ORM class loader are bound with
+ * {@link LambdaMetafactory}. Other methods are called via {@link MethodHandle}.
+ */
+public class CompiledPropertyAccessor implements PropertyAccessor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CompiledPropertyAccessor.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final BasicPropertyAccessor BASIC_PROPERTY_ACCESSOR = new BasicPropertyAccessor();
+
+    public static final class CompiledGetter implements Getter {
+
+        private static final long serialVersionUID = -2917826410375049612L;
+
+        private final Class<?> clazz;
+        private final String propertyName;
+        private final transient Method method;
+        private final transient Function<Object, Object> function;
+        private final transient MethodHandle methodHandle;
+
+        private CompiledGetter(Class<?> clazz, String propertyName, Method method, Function<Object, Object> function,
+                MethodHandle methodHandle) {
+            this.clazz = clazz;
+            this.propertyName = propertyName;
+            this.method = method;
+            this.function = function;
+            this.methodHandle = methodHandle;
+        }
+
+        public Object get(Object target) throws BasePersistenceException {
+            // Check target before call to not mix up exceptions thrown by getter itself with wrong arguments
+            if (target == null) {
+                throw new PropertyAccessException(new NullPointerException("Target object is null"),
+                        "NullPointerException occurred while calling", false, clazz, propertyName);
+            }
+            if (!method.getDeclaringClass().isInstance(target)) {
+                LOG.error("IllegalArgumentException in class: " + clazz.getName() + ", getter method of property: " + propertyName);
+                throw new PropertyAccessException(new IllegalArgumentException("object is not an instance of declaring class"),
+                        "IllegalArgumentException occurred calling", false, clazz, propertyName);
+            }
+
+            try {
+                if (function != null) {
+                    return function.apply(target);
+                }
+
+                return (Object) methodHandle.invokeExact(target);
+            } catch (Error err) {
+                throw err;
+            } catch (Throwable ex) {
+                throw new PropertyAccessException(ex, "Exception occurred inside", false, clazz, propertyName);
+            }
+        }
+
+        public Class<?> getReturnType() {
+            return method.getReturnType();
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public String getMethodName() {
+            return method.getName();
+        }
+
+        @Override
+        public String toString() {
+            return "CompiledGetter(" + clazz.getName() + '.' + propertyName + ')';
+        }
+
+        Object readResolve() {
+            return createGetter(clazz, propertyName);
+        }
+    }
+
+    public static final class CompiledSetter implements Setter {
+
+        private static final long serialVersionUID = 5192064337580714519L;
+
+        private final Class<?> clazz;
+        private final String propertyName;
+        private final transient Method method;
+        private final transient Class<?> parameterType;
+        private final transient BiConsumer<Object, Object> consumer;
+        private final transient MethodHandle methodHandle;
+
+        private CompiledSetter(Class<?> clazz, String propertyName, Method method, BiConsumer<Object, Object> consumer,
+                MethodHandle methodHandle) {
+            this.clazz = clazz;
+            this.propertyName = propertyName;
+            this.method = method;
+            this.parameterType = method.getParameterTypes()[0];
+            this.consumer = consumer;
+            this.methodHandle = methodHandle;
+        }
+
+        public void set(Object target, Object value) throws BasePersistenceException {
+            // Check arguments before call to not mix up exceptions thrown by setter itself with wrong arguments
+            if (target == null) {
+                throw new PropertyAccessException(new NullPointerException("Target object is null"),
+                        "NullPointerException occurred while calling", true, clazz, propertyName);
+            }
+            if (!method.getDeclaringClass().isInstance(target)) {
+                LOG.error("IllegalArgumentException in class: " + clazz.getName() + ", setter method of property: " + propertyName);
+                throw new PropertyAccessException(new IllegalArgumentException("object is not an instance of declaring class"),
+                        "IllegalArgumentException occurred while calling", true, clazz, propertyName);
+            }
+
+            Object argument = value;
+            if (parameterType.isPrimitive()) {
+                if (value == null) {
+                    throw new PropertyAccessException(new IllegalArgumentException("Null value for primitive parameter"),
+                            "Null value was assigned to a property of primitive type", true, clazz, propertyName);
+                }
+                argument = widenPrimitive(parameterType, value);
+            } else if ((value != null) && !parameterType.isInstance(value)) {
+                argument = null;
+            }
+
+            if ((value != null) && (argument == null)) {
+                LOG.error("IllegalArgumentException in class: " + clazz.getName() + ", setter method of property: " + propertyName);
+                LOG.error("expected type: " + parameterType.getName() + ", actual value: " + value.getClass().getName());
+                throw new PropertyAccessException(new IllegalArgumentException("argument type mismatch"),
+                        "IllegalArgumentException occurred while calling", true, clazz, propertyName);
+            }
+
+            try {
+                if (consumer != null) {
+                    consumer.accept(target, argument);
+                } else {
+                    methodHandle.invokeExact(target, argument);
+                }
+            } catch (Error err) {
+                throw err;
+            } catch (Throwable ex) {
+                throw new PropertyAccessException(ex, "Exception occurred inside", true, clazz, propertyName);
+            }
+        }
+
+        public Class<?> getParameterType() {
+            return parameterType;
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public String getMethodName() {
+            return method.getName();
+        }
+
+        @Override
+        public String toString() {
+            return "CompiledSetter(" + clazz.getName() + '.' + propertyName + ')';
+        }
+
+        Object readResolve() {
+            return createSetter(clazz, propertyName);
+        }
+    }
+
+    public Getter getGetter(Class<?> theClass, String propertyName) throws PropertyNotFoundException {
+        return createGetter(theClass, propertyName);
+    }
+
+    public Setter getSetter(Class<?> theClass, String propertyName) throws PropertyNotFoundException {
+        return createSetter(theClass, propertyName);
+    }
+
+    /**
+     * Returns reflection based getter if method can't be bound
+     */
+    public static Getter createGetter(Class<?> theClass, String propertyName) throws PropertyNotFoundException {
+        Getter getter = BASIC_PROPERTY_ACCESSOR.getGetter(theClass, propertyName);
+        Method method = getter.getMethod();
+        try {
+            MethodHandle methodHandle = LOOKUP.unreflect(method);
+            if (isBindable(method)) {
+                MethodType instantiatedType = methodHandle.type().wrap();
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "apply", MethodType.methodType(Function.class),
+                        GETTER_TYPE, methodHandle, instantiatedType);
+                @SuppressWarnings("unchecked")
+                Function<Object, Object> function = (Function<Object, Object>) callSite.getTarget().invoke();
+
+                return new CompiledGetter(theClass, propertyName, method, function, null);
+            }
+
+            return new CompiledGetter(theClass, propertyName, method, null, methodHandle.asType(GETTER_TYPE));
+        } catch (Throwable ex) {
+            LOG.debug("Failed to compile getter for property '{}' in class '{}'", propertyName, theClass.getName(), ex);
+        }
+
+        return getter;
+    }
+
+    /**
+     * Returns reflection based setter if method can't be bound
+     */
+    public static Setter createSetter(Class<?> theClass, String propertyName) throws PropertyNotFoundException {
+        Setter setter = BASIC_PROPERTY_ACCESSOR.getSetter(theClass, propertyName);
+        Method method = setter.getMethod();
+        try {
+            MethodHandle methodHandle = LOOKUP.unreflect(method);
+            if (isBindable(method) && (method.getReturnType() == void.class)) {
+                MethodType instantiatedType = methodHandle.type().wrap().changeReturnType(void.class);
+                CallSite callSite = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(BiConsumer.class),
+                        SETTER_TYPE, methodHandle, instantiatedType);
+                @SuppressWarnings("unchecked")
+                BiConsumer<Object, Object> consumer = (BiConsumer<Object, Object>) callSite.getTarget().invoke();
+
+                return new CompiledSetter(theClass, propertyName, method, consumer, null);
+            }
+
+            return new CompiledSetter(theClass, propertyName, method, null, methodHandle.asType(SETTER_TYPE));
+        } catch (Throwable ex) {
+            LOG.debug("Failed to compile setter for property '{}' in class '{}'", propertyName, theClass.getName(), ex);
+        }
+
+        return setter;
+    }
+
+    /**
+     * Generated lambda class calls method directly. Hence method should be public and all types
+     * from method signature should be resolvable from ORM class loader
+     */
+    private static boolean isBindable(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(declaringClass.getModifiers())) {
+            return false;
+        }
+
+        if (!isVisible(declaringClass) || !isVisible(method.getReturnType())) {
+            return false;
+        }
+
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isVisible(parameterType)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Converts wrapper value with the same widening rules as reflection call does
+     *
+     * @return value of primitive type wrapper or null if value can't be assigned to primitive type
+     */
+    private static Object widenPrimitive(Class<?> primitiveType, Object value) {
+        if (primitiveType == boolean.class) {
+            return value instanceof Boolean ? value : null;
+        }
+        if (primitiveType == char.class) {
+            return value instanceof Character ? value : null;
+        }
+
+        int valueRank = getPrimitiveRank(value.getClass());
+        if ((valueRank == 0) || (valueRank > getPrimitiveRank(primitiveType))) {
+            return null;
+        }
+
+        Number number = value instanceof Character ? Integer.valueOf((Character) value) : (Number) value;
+        if (primitiveType == byte.class) {
+            return number.byteValue();
+        } else if (primitiveType == short.class) {
+            return number.shortValue();
+        } else if (primitiveType == int.class) {
+            return number.intValue();
+        } else if (primitiveType == long.class) {
+            return number.longValue();
+        } else if (primitiveType == float.class) {
+            return number.floatValue();
+        }
+
+        return number.doubleValue();
+    }
+
+    private static int getPrimitiveRank(Class<?> type) {
+        if ((type == byte.class) || (type == Byte.class)) {
+            return 1;
+        } else if ((type == short.class) || (type == Short.class)) {
+            return 2;
+        } else if ((type == int.class) || (type == Integer.class) || (type == Character.class)) {
+            return 3;
+        } else if ((type == long.class) || (type == Long.class)) {
+            return 4;
+        } else if ((type == float.class) || (type == Float.class)) {
+            return 5;
+        } else if ((type == double.class) || (type == Double.class)) {
+            return 6;
+        }
+
+        return 0;
+    }
+
+    private static boolean isVisible(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+
+        if (type.isPrimitive()) {
+            return true;
+        }
+
+        try {
+            return Class.forName(type.getName(), false, CompiledPropertyAccessor.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+}
@@ -24,6 +24,7 @@ import org.gluu.persist.exception.MappingException;
 import org.gluu.persist.exception.PropertyNotFoundException;
 import org.gluu.persist.reflect.property.BasicPropertyAccessor;
 import org.gluu.persist.reflect.property.BasicPropertyAnnotationResolver;
+import org.gluu.persist.reflect.property.CompiledPropertyAccessor.CompiledSetter;
 import org.gluu.persist.reflect.property.DirectPropertyAccessor;
 import org.gluu.persist.reflect.property.Getter;
 import org.gluu.persist.reflect.property.PropertyAccessor;
@@ -473,6 +474,10 @@ public final class ReflectHelper {
             return null;
         }
 
+        if (setter instanceof CompiledSetter) {
+            return ((CompiledSetter) setter).getParameterType();
+        }
+
         return setter.getMethod().getParameterTypes()[0];
     }
 
@@ -0,0 +1,190 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.watch;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free operation duration histogram. Durations are stored in microseconds in
+ * log-linear buckets with ~6% precision. Percentiles are calculated from current and
+ * previous time window, so old values decay after two windows
+ */
+public class OperationHistogram {
+
+	public static final long DEFAULT_WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_EXPONENT = 40;
+	private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+	private final long windowMillis;
+
+	private final LongAdder totalCount = new LongAdder();
+
+	private volatile Window current;
+	private volatile Window previous;
+
+	public OperationHistogram() {
+		this(DEFAULT_WINDOW_MILLIS);
+	}
+
+	public OperationHistogram(long windowMillis) {
+		this.windowMillis = windowMillis;
+		this.current = new Window(System.currentTimeMillis());
+		this.previous = new Window(current.startTime);
+	}
+
+	public void record(long durationNanos) {
+		long durationMicros = TimeUnit.NANOSECONDS.toMicros(Math.max(durationNanos, 0));
+
+		rotateIfNeeded().record(durationMicros);
+		totalCount.increment();
+	}
+
+	public long getTotalCount() {
+		return totalCount.sum();
+	}
+
+	// Count of operations in current and previous window
+	public long getCount() {
+		Window currentWindow = rotateIfNeeded();
+
+		return currentWindow.count.sum() + previous.count.sum();
+	}
+
+	public double getMeanMillis() {
+		Window currentWindow = rotateIfNeeded();
+		Window previousWindow = previous;
+
+		long count = currentWindow.count.sum() + previousWindow.count.sum();
+		if (count == 0) {
+			return 0;
+		}
+
+		return toMillis(currentWindow.sum.sum() + previousWindow.sum.sum()) / count;
+	}
+
+	public double getMaxMillis() {
+		Window currentWindow = rotateIfNeeded();
+
+		return toMillis(Math.max(currentWindow.max.get(), previous.max.get()));
+	}
+
+	public double getPercentileMillis(double percentile) {
+		Window currentWindow = rotateIfNeeded();
+		Window previousWindow = previous;
+
+		long count = 0;
+		long[] counts = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] = currentWindow.buckets.get(i) + previousWindow.buckets.get(i);
+			count += counts[i];
+		}
+
+		if (count == 0) {
+			return 0;
+		}
+
+		long rank = (long) Math.ceil(percentile / 100.0 * count);
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts[i];
+			if ((seen >= rank) && (counts[i] > 0)) {
+				return toMillis(Math.min(bucketUpperValue(i), Math.max(currentWindow.max.get(), previousWindow.max.get())));
+			}
+		}
+
+		return getMaxMillis();
+	}
+
+	public void reset() {
+		synchronized (this) {
+			this.current = new Window(System.currentTimeMillis());
+			this.previous = new Window(current.startTime);
+		}
+		totalCount.reset();
+	}
+
+	private Window rotateIfNeeded() {
+		Window currentWindow = this.current;
+		long now = System.currentTimeMillis();
+		if (now - currentWindow.startTime < windowMillis) {
+			return currentWindow;
+		}
+
+		synchronized (this) {
+			currentWindow = this.current;
+			if (now - currentWindow.startTime >= windowMillis) {
+				// Drop both windows if there were no operations for long time
+				this.previous = now - currentWindow.startTime >= 2 * windowMillis ? new Window(now) : currentWindow;
+				this.current = new Window(now);
+			}
+
+			return this.current;
+		}
+	}
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		if (exponent > MAX_EXPONENT) {
+			return BUCKET_COUNT - 1;
+		}
+
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	static long bucketUpperValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long lowerValue = ((long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT)) << shift;
+
+		return lowerValue + (1L << shift) - 1;
+	}
+
+	private static double toMillis(long micros) {
+		return micros / 1000.0;
+	}
+
+	private static final class Window {
+
+		private final long startTime;
+		private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+		private final LongAdder count = new LongAdder();
+		private final LongAdder sum = new LongAdder();
+		private final AtomicLong max = new AtomicLong();
+
+		private Window(long startTime) {
+			this.startTime = startTime;
+		}
+
+		private void record(long durationMicros) {
+			buckets.incrementAndGet(bucketIndex(durationMicros));
+			count.increment();
+			sum.add(durationMicros);
+
+			long currentMax;
+			do {
+				currentMax = max.get();
+			} while ((durationMicros > currentMax) && !max.compareAndSet(currentMax, durationMicros));
+		}
+
+	}
+
+}
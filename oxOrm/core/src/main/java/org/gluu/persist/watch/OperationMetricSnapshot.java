@@ -0,0 +1,97 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.watch;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Durations of one kind of persistence operation in current time window
+ */
+public class OperationMetricSnapshot {
+
+	private final String backend;
+	private final String operation;
+	private final String target;
+	private final String result;
+
+	private final long totalCount;
+	private final long count;
+	private final double meanMillis;
+	private final double p50Millis;
+	private final double p95Millis;
+	private final double p99Millis;
+	private final double maxMillis;
+
+	@ConstructorProperties({ "backend", "operation", "target", "result", "totalCount", "count", "meanMillis", "p50Millis", "p95Millis",
+			"p99Millis", "maxMillis" })
+	public OperationMetricSnapshot(String backend, String operation, String target, String result, long totalCount, long count,
+			double meanMillis, double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+		this.backend = backend;
+		this.operation = operation;
+		this.target = target;
+		this.result = result;
+		this.totalCount = totalCount;
+		this.count = count;
+		this.meanMillis = meanMillis;
+		this.p50Millis = p50Millis;
+		this.p95Millis = p95Millis;
+		this.p99Millis = p99Millis;
+		this.maxMillis = maxMillis;
+	}
+
+	public String getBackend() {
+		return backend;
+	}
+
+	public String getOperation() {
+		return operation;
+	}
+
+	public String getTarget() {
+		return target;
+	}
+
+	public String getResult() {
+		return result;
+	}
+
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public double getMeanMillis() {
+		return meanMillis;
+	}
+
+	public double getP50Millis() {
+		return p50Millis;
+	}
+
+	public double getP95Millis() {
+		return p95Millis;
+	}
+
+	public double getP99Millis() {
+		return p99Millis;
+	}
+
+	public double getMaxMillis() {
+		return maxMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "OperationMetricSnapshot [backend=" + backend + ", operation=" + operation + ", target=" + target + ", result=" + result
+				+ ", totalCount=" + totalCount + ", count=" + count + ", meanMillis=" + meanMillis + ", p50Millis=" + p50Millis
+				+ ", p95Millis=" + p95Millis + ", p99Millis=" + p99Millis + ", maxMillis=" + maxMillis + "]";
+	}
+
+}
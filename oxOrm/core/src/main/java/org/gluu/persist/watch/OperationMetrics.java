@@ -0,0 +1,249 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.watch;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.gluu.orm.util.StringHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Duration histograms of persistence operations tagged by backend, operation, target
+ * (table, base DN or bucket) and result. Operations which take more than threshold
+ * are logged together with filter
+ */
+public class OperationMetrics implements OperationMetricsMXBean {
+
+	private static final Logger LOG = LoggerFactory.getLogger(OperationMetrics.class);
+
+	public static final String RESULT_SUCCESS = "success";
+	public static final String RESULT_FAILURE = "failure";
+
+	public static final long DEFAULT_SLOW_OPERATION_THRESHOLD_MILLIS = 1000;
+
+	private static final String OTHER_TARGET = "other";
+	private static final int MAX_METRIC_KEYS = 500;
+
+	private static final AtomicInteger INSTANCE_COUNTER = new AtomicInteger();
+
+	private final String backend;
+	private final ConcurrentMap<MetricKey, OperationHistogram> histograms;
+	private final List<OperationMetricsListener> listeners;
+
+	private volatile long slowOperationThresholdMillis;
+	private final LongAdder slowOperationCount;
+
+	private ObjectName objectName;
+
+	public OperationMetrics(String backend) {
+		this.backend = backend;
+		this.histograms = new ConcurrentHashMap<>();
+		this.listeners = new CopyOnWriteArrayList<>();
+		this.slowOperationThresholdMillis = DEFAULT_SLOW_OPERATION_THRESHOLD_MILLIS;
+		this.slowOperationCount = new LongAdder();
+	}
+
+	public void init(Properties props) {
+		if (props == null) {
+			return;
+		}
+
+		this.slowOperationThresholdMillis = StringHelper.toLong(props.getProperty("metrics.slow-operation-threshold-millis"),
+				DEFAULT_SLOW_OPERATION_THRESHOLD_MILLIS);
+
+		boolean jmxEnabled = StringHelper.toBoolean(props.getProperty("metrics.jmx-enabled"), true);
+		if (jmxEnabled) {
+			registerMBean();
+		}
+	}
+
+	public void record(String operation, String target, Duration duration, Object filter) {
+		record(operation, target, RESULT_SUCCESS, duration.toNanos(), filter);
+	}
+
+	public void recordFailure(String operation, String target, Instant startTime, Object filter) {
+		record(operation, target, RESULT_FAILURE, Duration.between(startTime, Instant.now()).toNanos(), filter);
+	}
+
+	private void record(String operation, String target, String result, long durationNanos, Object filter) {
+		MetricKey metricKey = getMetricKey(operation, target, result);
+		histograms.computeIfAbsent(metricKey, key -> new OperationHistogram()).record(durationNanos);
+
+		long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+		long threshold = this.slowOperationThresholdMillis;
+		if ((threshold > 0) && (durationMillis >= threshold)) {
+			slowOperationCount.increment();
+			// Filter is rendered only for slow operations
+			LOG.warn("Slow {} operation: {}, duration: {} ms, target: {}, result: {}, filter: {}", backend, operation, durationMillis, target,
+					result, filter);
+		}
+
+		// Listeners get the same bounded set of targets as histograms
+		for (OperationMetricsListener listener : listeners) {
+			try {
+				listener.onOperation(backend, operation, metricKey.target, result, durationNanos);
+			} catch (RuntimeException ex) {
+				LOG.debug("Failed to notify operation metrics listener", ex);
+			}
+		}
+	}
+
+	public OperationHistogram getHistogram(String operation, String target, String result) {
+		return histograms.computeIfAbsent(getMetricKey(operation, target, result), key -> new OperationHistogram());
+	}
+
+	private MetricKey getMetricKey(String operation, String target, String result) {
+		MetricKey metricKey = new MetricKey(operation, target == null ? OTHER_TARGET : target, result);
+		if (histograms.containsKey(metricKey)) {
+			return metricKey;
+		}
+
+		// Keep number of histograms bounded if targets are not limited
+		if (histograms.size() >= MAX_METRIC_KEYS) {
+			return new MetricKey(operation, OTHER_TARGET, result);
+		}
+
+		return metricKey;
+	}
+
+	public void addListener(OperationMetricsListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(OperationMetricsListener listener) {
+		listeners.remove(listener);
+	}
+
+	@Override
+	public String getBackend() {
+		return backend;
+	}
+
+	@Override
+	public List<OperationMetricSnapshot> getSnapshots() {
+		List<OperationMetricSnapshot> snapshots = new ArrayList<>(histograms.size());
+		for (Map.Entry<MetricKey, OperationHistogram> entry : histograms.entrySet()) {
+			MetricKey metricKey = entry.getKey();
+			OperationHistogram histogram = entry.getValue();
+
+			snapshots.add(new OperationMetricSnapshot(backend, metricKey.operation, metricKey.target, metricKey.result,
+					histogram.getTotalCount(), histogram.getCount(), histogram.getMeanMillis(), histogram.getPercentileMillis(50),
+					histogram.getPercentileMillis(95), histogram.getPercentileMillis(99), histogram.getMaxMillis()));
+		}
+
+		return snapshots;
+	}
+
+	@Override
+	public long getSlowOperationThresholdMillis() {
+		return slowOperationThresholdMillis;
+	}
+
+	@Override
+	public void setSlowOperationThresholdMillis(long slowOperationThresholdMillis) {
+		this.slowOperationThresholdMillis = slowOperationThresholdMillis;
+	}
+
+	@Override
+	public long getSlowOperationCount() {
+		return slowOperationCount.sum();
+	}
+
+	@Override
+	public void reset() {
+		histograms.clear();
+		slowOperationCount.reset();
+	}
+
+	public synchronized void registerMBean() {
+		if (objectName != null) {
+			return;
+		}
+
+		try {
+			ObjectName newObjectName = new ObjectName(String.format("org.gluu.persist:type=OperationMetrics,backend=%s,id=%d",
+					backend, INSTANCE_COUNTER.incrementAndGet()));
+			MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+			mBeanServer.registerMBean(this, newObjectName);
+
+			this.objectName = newObjectName;
+		} catch (Exception ex) {
+			LOG.warn("Failed to register operation metrics MBean", ex);
+		}
+	}
+
+	public synchronized void unregisterMBean() {
+		if (objectName == null) {
+			return;
+		}
+
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (Exception ex) {
+			LOG.warn("Failed to unregister operation metrics MBean", ex);
+		} finally {
+			this.objectName = null;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "OperationMetrics [backend=" + backend + ", histograms=" + histograms.size() + ", slowOperationThresholdMillis="
+				+ slowOperationThresholdMillis + ", slowOperationCount=" + slowOperationCount + "]";
+	}
+
+	private static final class MetricKey {
+
+		private final String operation;
+		private final String target;
+		private final String result;
+
+		private MetricKey(String operation, String target, String result) {
+			this.operation = operation;
+			this.target = target;
+			this.result = result;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(operation, target, result);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof MetricKey)) {
+				return false;
+			}
+
+			MetricKey other = (MetricKey) obj;
+
+			return Objects.equals(operation, other.operation) && Objects.equals(target, other.target) && Objects.equals(result, other.result);
+		}
+
+	}
+
+}
@@ -0,0 +1,16 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.watch;
+
+/**
+ * Receives duration of each recorded persistence operation
+ */
+public interface OperationMetricsListener {
+
+	void onOperation(String backend, String operation, String target, String result, long durationNanos);
+
+}
@@ -0,0 +1,28 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.watch;
+
+import java.util.List;
+
+/**
+ * JMX view of persistence operation metrics
+ */
+public interface OperationMetricsMXBean {
+
+	String getBackend();
+
+	List<OperationMetricSnapshot> getSnapshots();
+
+	long getSlowOperationThresholdMillis();
+
+	void setSlowOperationThresholdMillis(long slowOperationThresholdMillis);
+
+	long getSlowOperationCount();
+
+	void reset();
+
+}
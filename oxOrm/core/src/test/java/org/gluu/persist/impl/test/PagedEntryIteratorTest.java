@@ -0,0 +1,180 @@
+package org.gluu.persist.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.gluu.persist.exception.EntryPersistenceException;
+import org.gluu.persist.impl.PagedEntryIterator;
+import org.testng.annotations.Test;
+
+/**
+ * Paged search iterator which loads pages in consumer thread
+ */
+public class PagedEntryIteratorTest {
+
+	private static final int PAGE_SIZE = 5;
+
+	@Test
+	public void iterateAllPages() {
+		TestPageLoader pageLoader = new TestPageLoader(10);
+		PagedEntryIterator<Integer> iterator = new PagedEntryIterator<Integer>("all", pageLoader, 0);
+
+		List<Integer> entries = new ArrayList<Integer>();
+		while (iterator.hasNext()) {
+			entries.add(iterator.next());
+
+			// Next page is loaded only after consumer took previous one
+			assertEquals(pageLoader.getLoadedPages(), (entries.size() - 1) / PAGE_SIZE + 1);
+		}
+
+		assertEquals(entries.size(), 50);
+		for (int i = 0; i < entries.size(); i++) {
+			assertEquals(entries.get(i).intValue(), i);
+		}
+		assertTrue(pageLoader.isClosed());
+	}
+
+	@Test
+	public void loadPagesInConsumerThread() {
+		TestPageLoader pageLoader = new TestPageLoader(3);
+		PagedEntryIterator<Integer> iterator = new PagedEntryIterator<Integer>("consumer-thread", pageLoader, 0);
+
+		assertEquals(iterator.stream().count(), 15);
+		assertEquals(pageLoader.getLoadThreads().size(), 3);
+		for (Thread thread : pageLoader.getLoadThreads()) {
+			assertSame(thread, Thread.currentThread());
+		}
+	}
+
+	@Test
+	public void limitEntriesCount() {
+		TestPageLoader pageLoader = new TestPageLoader(10);
+		PagedEntryIterator<Integer> iterator = new PagedEntryIterator<Integer>("limit", pageLoader, 7);
+
+		List<Integer> entries = iterator.stream().collect(Collectors.toList());
+
+		assertEquals(entries.size(), 7);
+		assertEquals(pageLoader.getLoadedPages(), 2);
+		assertTrue(pageLoader.isClosed());
+	}
+
+	@Test
+	public void closeStreamEarly() {
+		TestPageLoader pageLoader = new TestPageLoader(1000);
+		PagedEntryIterator<Integer> iterator = new PagedEntryIterator<Integer>("early-close", pageLoader, 0);
+
+		try (Stream<Integer> stream = iterator.stream()) {
+			assertEquals(stream.limit(3).count(), 3);
+		}
+
+		assertEquals(pageLoader.getLoadedPages(), 1);
+		assertTrue(pageLoader.isClosed());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void closeBeforeSearchStarted() {
+		TestPageLoader pageLoader = new TestPageLoader(10);
+		PagedEntryIterator<Integer> iterator = new PagedEntryIterator<Integer>("not-started", pageLoader, 0);
+		iterator.close();
+
+		assertFalse(iterator.hasNext());
+		assertEquals(pageLoader.getLoadedPages(), 0);
+		assertTrue(pageLoader.isClosed());
+	}
+
+	@Test
+	public void passSearchFailureToConsumer() {
+		final RuntimeException failure = new IllegalStateException("Connection lost");
+		TestPageLoader pageLoader = new TestPageLoader(10) {
+
+			@Override
+			protected void beforePage(int page) {
+				if (page == 1) {
+					throw failure;
+				}
+			}
+		};
+		PagedEntryIterator<Integer> iterator = new PagedEntryIterator<Integer>("failure", pageLoader, 0);
+
+		int count = 0;
+		try {
+			while (iterator.hasNext()) {
+				iterator.next();
+				count++;
+			}
+			fail("Search failure should be passed to consumer");
+		} catch (EntryPersistenceException ex) {
+			assertEquals(ex.getCause(), failure);
+		}
+
+		assertEquals(count, PAGE_SIZE);
+		assertTrue(pageLoader.isClosed());
+		assertFalse(iterator.hasNext());
+	}
+
+	/**
+	 * Returns pages of sequential numbers like backend paged search does
+	 */
+	private static class TestPageLoader implements PagedEntryIterator.PageLoader<Integer> {
+
+		private final int pagesCount;
+		private final List<Thread> loadThreads = new ArrayList<Thread>();
+		private int loadedPages;
+		private boolean closed;
+
+		TestPageLoader(int pagesCount) {
+			this.pagesCount = pagesCount;
+		}
+
+		@Override
+		public List<Integer> loadNextPage() {
+			assertFalse(closed, "Page is requested after close");
+			if (loadedPages >= pagesCount) {
+				return null;
+			}
+
+			int page = loadedPages;
+			beforePage(page);
+
+			List<Integer> entries = new ArrayList<Integer>(PAGE_SIZE);
+			for (int i = 0; i < PAGE_SIZE; i++) {
+				entries.add(page * PAGE_SIZE + i);
+			}
+			loadedPages++;
+			loadThreads.add(Thread.currentThread());
+
+			return entries;
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+
+		protected void beforePage(int page) {
+		}
+
+		public int getLoadedPages() {
+			return loadedPages;
+		}
+
+		public List<Thread> getLoadThreads() {
+			return loadThreads;
+		}
+
+		public boolean isClosed() {
+			return closed;
+		}
+
+	}
+
+}
@@ -0,0 +1,228 @@
+package org.gluu.persist.reflect.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import org.gluu.persist.exception.PropertyAccessException;
+import org.gluu.persist.reflect.property.CompiledPropertyAccessor;
+import org.gluu.persist.reflect.property.CompiledPropertyAccessor.CompiledGetter;
+import org.gluu.persist.reflect.property.CompiledPropertyAccessor.CompiledSetter;
+import org.gluu.persist.reflect.property.Getter;
+import org.gluu.persist.reflect.property.Setter;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Arguments check and exceptions of compiled getters and setters
+ */
+public class CompiledPropertyAccessorTest {
+
+	@DataProvider(name = "beanClasses")
+	public Object[][] beanClasses() {
+		// Public class is bound with lambda, package private one is called via method handle
+		return new Object[][] { { PublicBean.class }, { PackageBean.class } };
+	}
+
+	@Test(dataProvider = "beanClasses")
+	public void setAndGetValues(Class<?> beanClass) throws Exception {
+		Object bean = beanClass.newInstance();
+
+		setter(beanClass, "name").set(bean, "test");
+		setter(beanClass, "count").set(bean, 5L);
+
+		assertEquals(getter(beanClass, "name").get(bean), "test");
+		assertEquals(getter(beanClass, "count").get(bean), 5L);
+	}
+
+	@Test(dataProvider = "beanClasses")
+	public void widenPrimitiveValue(Class<?> beanClass) throws Exception {
+		Object bean = beanClass.newInstance();
+
+		setter(beanClass, "count").set(bean, 7);
+		assertEquals(getter(beanClass, "count").get(bean), 7L);
+
+		setter(beanClass, "count").set(bean, 'a');
+		assertEquals(getter(beanClass, "count").get(bean), 97L);
+	}
+
+	@Test(dataProvider = "beanClasses")
+	public void nullToPrimitive(Class<?> beanClass) throws Exception {
+		try {
+			setter(beanClass, "count").set(beanClass.newInstance(), null);
+			fail("Null value can't be assigned to primitive");
+		} catch (PropertyAccessException ex) {
+			assertTrue(ex.getMessage().startsWith("Null value was assigned to a property of primitive type"), ex.getMessage());
+		}
+	}
+
+	@Test(dataProvider = "beanClasses")
+	public void wrongValueType(Class<?> beanClass) throws Exception {
+		assertArgumentMismatch(setter(beanClass, "name"), beanClass.newInstance(), 5);
+		assertArgumentMismatch(setter(beanClass, "count"), beanClass.newInstance(), "5");
+		assertArgumentMismatch(setter(beanClass, "count"), beanClass.newInstance(), 5.0d);
+	}
+
+	@Test(dataProvider = "beanClasses")
+	public void wrongTarget(Class<?> beanClass) throws Exception {
+		try {
+			getter(beanClass, "name").get(new Object());
+			fail("Target of other class should be rejected");
+		} catch (PropertyAccessException ex) {
+			assertTrue(ex.getCause() instanceof IllegalArgumentException);
+		}
+
+		try {
+			setter(beanClass, "name").set(null, "test");
+			fail("Null target should be rejected");
+		} catch (PropertyAccessException ex) {
+			assertTrue(ex.getMessage().startsWith("NullPointerException occurred while calling"), ex.getMessage());
+		}
+	}
+
+	@Test(dataProvider = "beanClasses")
+	public void propagateSetterException(Class<?> beanClass) throws Exception {
+		Object bean = beanClass.newInstance();
+
+		// Exceptions thrown by setter itself are not reported as wrong arguments
+		for (Object value : new Object[] { "npe", "cce", "illegal" }) {
+			try {
+				setter(beanClass, "name").set(bean, value);
+				fail("Setter exception should be propagated");
+			} catch (PropertyAccessException ex) {
+				assertTrue(ex.getMessage().startsWith("Exception occurred inside"), ex.getMessage());
+				assertSame(ex.getCause(), ((ThrowingBean) bean).getLastException());
+			}
+		}
+	}
+
+	@Test(dataProvider = "beanClasses")
+	public void propagateGetterException(Class<?> beanClass) throws Exception {
+		Object bean = beanClass.newInstance();
+		setter(beanClass, "name").set(bean, "test");
+		setter(beanClass, "count").set(bean, -1L);
+
+		try {
+			getter(beanClass, "count").get(bean);
+			fail("Getter exception should be propagated");
+		} catch (PropertyAccessException ex) {
+			assertTrue(ex.getMessage().startsWith("Exception occurred inside"), ex.getMessage());
+			assertTrue(ex.getCause() instanceof ClassCastException);
+			assertSame(ex.getCause(), ((ThrowingBean) bean).getLastException());
+		}
+	}
+
+	private static Getter getter(Class<?> beanClass, String propertyName) {
+		Getter getter = CompiledPropertyAccessor.createGetter(beanClass, propertyName);
+		assertTrue(getter instanceof CompiledGetter);
+
+		return getter;
+	}
+
+	private static Setter setter(Class<?> beanClass, String propertyName) {
+		Setter setter = CompiledPropertyAccessor.createSetter(beanClass, propertyName);
+		assertTrue(setter instanceof CompiledSetter);
+
+		return setter;
+	}
+
+	private static void assertArgumentMismatch(Setter setter, Object bean, Object value) {
+		try {
+			setter.set(bean, value);
+			fail("Value of wrong type should be rejected");
+		} catch (PropertyAccessException ex) {
+			assertTrue(ex.getMessage().startsWith("IllegalArgumentException occurred while calling"), ex.getMessage());
+			assertTrue(ex.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	private interface ThrowingBean {
+
+		RuntimeException getLastException();
+
+	}
+
+	public static class PublicBean implements ThrowingBean {
+
+		private String name;
+		private long count;
+		private RuntimeException lastException;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			if ("npe".equals(name)) {
+				throw lastException = new NullPointerException("Setter failure");
+			} else if ("cce".equals(name)) {
+				throw lastException = new ClassCastException("Setter failure");
+			} else if ("illegal".equals(name)) {
+				throw lastException = new IllegalStateException("Setter failure");
+			}
+
+			this.name = name;
+		}
+
+		public long getCount() {
+			if (count < 0) {
+				throw lastException = new ClassCastException("Getter failure");
+			}
+
+			return count;
+		}
+
+		public void setCount(long count) {
+			this.count = count;
+		}
+
+		@Override
+		public RuntimeException getLastException() {
+			return lastException;
+		}
+
+	}
+
+	static class PackageBean implements ThrowingBean {
+
+		private String name;
+		private long count;
+		private RuntimeException lastException;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			if ("npe".equals(name)) {
+				throw lastException = new NullPointerException("Setter failure");
+			} else if ("cce".equals(name)) {
+				throw lastException = new ClassCastException("Setter failure");
+			} else if ("illegal".equals(name)) {
+				throw lastException = new IllegalStateException("Setter failure");
+			}
+
+			this.name = name;
+		}
+
+		public long getCount() {
+			if (count < 0) {
+				throw lastException = new ClassCastException("Getter failure");
+			}
+
+			return count;
+		}
+
+		public void setCount(long count) {
+			this.count = count;
+		}
+
+		@Override
+		public RuntimeException getLastException() {
+			return lastException;
+		}
+
+	}
+
+}
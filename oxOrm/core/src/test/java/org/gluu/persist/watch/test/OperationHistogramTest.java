@@ -0,0 +1,116 @@
+package org.gluu.persist.watch.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.gluu.persist.watch.OperationHistogram;
+import org.testng.annotations.Test;
+
+/**
+ * Percentiles and time window decay of operation histogram
+ */
+public class OperationHistogramTest {
+
+	// Relative error of log-linear buckets
+	private static final double PRECISION = 1.0 / 16;
+
+	@Test
+	public void percentilesOfUniformDistribution() {
+		OperationHistogram histogram = new OperationHistogram();
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(TimeUnit.MILLISECONDS.toNanos(i));
+		}
+
+		assertEquals(histogram.getCount(), 1000);
+		assertEquals(histogram.getTotalCount(), 1000);
+		assertEquals(histogram.getMeanMillis(), 500.5, 0.001);
+		assertEquals(histogram.getMaxMillis(), 1000.0, 0.001);
+
+		assertPercentile(histogram, 50, 500);
+		assertPercentile(histogram, 95, 950);
+		assertPercentile(histogram, 99, 990);
+		assertEquals(histogram.getPercentileMillis(100), 1000.0, 0.001);
+	}
+
+	@Test
+	public void percentilesOfSkewedDistribution() {
+		OperationHistogram histogram = new OperationHistogram();
+		for (int i = 0; i < 990; i++) {
+			histogram.record(TimeUnit.MILLISECONDS.toNanos(2));
+		}
+		for (int i = 0; i < 10; i++) {
+			histogram.record(TimeUnit.SECONDS.toNanos(3));
+		}
+
+		assertPercentile(histogram, 50, 2);
+		assertPercentile(histogram, 99, 2);
+		assertPercentile(histogram, 99.9, 3000);
+		assertEquals(histogram.getMaxMillis(), 3000.0, 0.001);
+	}
+
+	@Test
+	public void smallDurationsAreExact() {
+		OperationHistogram histogram = new OperationHistogram();
+		histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+		histogram.record(TimeUnit.MICROSECONDS.toNanos(7));
+		histogram.record(-1);
+
+		assertEquals(histogram.getPercentileMillis(50), 0.003, 0.0000001);
+		assertEquals(histogram.getPercentileMillis(100), 0.007, 0.0000001);
+		assertEquals(histogram.getMeanMillis(), 0.01 / 3, 0.0000001);
+	}
+
+	@Test
+	public void emptyHistogram() {
+		OperationHistogram histogram = new OperationHistogram();
+
+		assertEquals(histogram.getCount(), 0);
+		assertEquals(histogram.getMeanMillis(), 0.0);
+		assertEquals(histogram.getMaxMillis(), 0.0);
+		assertEquals(histogram.getPercentileMillis(99), 0.0);
+	}
+
+	@Test
+	public void valuesDecayAfterTwoWindows() throws InterruptedException {
+		long windowMillis = 500;
+		OperationHistogram histogram = new OperationHistogram(windowMillis);
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(100));
+
+		// Value is moved to previous window
+		Thread.sleep(windowMillis + 100);
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+		assertEquals(histogram.getCount(), 2);
+		assertEquals(histogram.getMaxMillis(), 100.0, 0.001);
+
+		// Value from first window is dropped
+		Thread.sleep(windowMillis + 100);
+		assertEquals(histogram.getCount(), 1);
+		assertEquals(histogram.getMaxMillis(), 10.0, 0.001);
+
+		// Both windows are dropped after two windows without operations
+		Thread.sleep(2 * windowMillis + 100);
+		assertEquals(histogram.getCount(), 0);
+		assertEquals(histogram.getPercentileMillis(50), 0.0);
+		assertEquals(histogram.getTotalCount(), 2);
+	}
+
+	@Test
+	public void reset() {
+		OperationHistogram histogram = new OperationHistogram();
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+		histogram.reset();
+
+		assertEquals(histogram.getCount(), 0);
+		assertEquals(histogram.getTotalCount(), 0);
+		assertEquals(histogram.getMaxMillis(), 0.0);
+	}
+
+	private void assertPercentile(OperationHistogram histogram, double percentile, double expectedMillis) {
+		double value = histogram.getPercentileMillis(percentile);
+		assertTrue(Math.abs(value - expectedMillis) <= expectedMillis * PRECISION,
+				"Percentile " + percentile + " is " + value + ", expected " + expectedMillis);
+	}
+
+}
@@ -0,0 +1,79 @@
+package org.gluu.persist.watch.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.gluu.persist.watch.OperationMetricSnapshot;
+import org.gluu.persist.watch.OperationMetrics;
+import org.gluu.persist.watch.OperationMetricsListener;
+import org.testng.annotations.Test;
+
+/**
+ * Tagging of operation durations and bounded number of targets
+ */
+public class OperationMetricsTest {
+
+	@Test
+	public void recordSuccessAndFailure() {
+		OperationMetrics operationMetrics = new OperationMetrics("test");
+		operationMetrics.record("search", "people", Duration.ofMillis(5), null);
+		operationMetrics.record("search", "people", Duration.ofMillis(7), null);
+		operationMetrics.recordFailure("search", "people", Instant.now(), null);
+
+		assertEquals(operationMetrics.getHistogram("search", "people", OperationMetrics.RESULT_SUCCESS).getTotalCount(), 2);
+		assertEquals(operationMetrics.getHistogram("search", "people", OperationMetrics.RESULT_FAILURE).getTotalCount(), 1);
+		assertEquals(operationMetrics.getSnapshots().size(), 2);
+	}
+
+	@Test
+	public void recordSlowOperation() {
+		OperationMetrics operationMetrics = new OperationMetrics("test");
+		operationMetrics.setSlowOperationThresholdMillis(10);
+		operationMetrics.record("search", "people", Duration.ofMillis(5), null);
+		operationMetrics.record("search", "people", Duration.ofMillis(15), "(uid=test)");
+
+		assertEquals(operationMetrics.getSlowOperationCount(), 1);
+	}
+
+	@Test
+	public void listenersGetBoundedTargets() {
+		OperationMetrics operationMetrics = new OperationMetrics("test");
+
+		final Set<String> listenerTargets = new HashSet<>();
+		operationMetrics.addListener(new OperationMetricsListener() {
+			@Override
+			public void onOperation(String backend, String operation, String target, String result, long durationNanos) {
+				listenerTargets.add(target);
+			}
+		});
+
+		int targetsCount = 2000;
+		for (int i = 0; i < targetsCount; i++) {
+			operationMetrics.record("search", "inum=" + i + ",ou=people,o=gluu", Duration.ofMillis(1), null);
+		}
+		operationMetrics.record("search", null, Duration.ofMillis(1), null);
+
+		List<OperationMetricSnapshot> snapshots = operationMetrics.getSnapshots();
+		Set<String> histogramTargets = new HashSet<>();
+		for (OperationMetricSnapshot snapshot : snapshots) {
+			histogramTargets.add(snapshot.getTarget());
+		}
+
+		assertTrue(histogramTargets.size() < targetsCount);
+		assertTrue(histogramTargets.contains("other"));
+		assertEquals(listenerTargets, histogramTargets);
+
+		long count = 0;
+		for (OperationMetricSnapshot snapshot : snapshots) {
+			count += snapshot.getTotalCount();
+		}
+		assertEquals(count, targetsCount + 1);
+	}
+
+}
@@ -166,6 +166,7 @@ public class CouchbaseEntryManagerFactory extends Initializable implements Persi
         LOG.debug("Created connectionProvider '{}' with code '{}'", connectionProvider, connectionProvider.getCreationResultCode());
 
         CouchbaseEntryManager couchbaseEntryManager = new CouchbaseEntryManager(new CouchbaseOperationServiceImpl(entryManagerConf, connectionProvider));
+        couchbaseEntryManager.getOperationService().getOperationMetrics().init(entryManagerConf);
         LOG.info("Created CouchbaseEntryManager: {}", couchbaseEntryManager.getOperationService());
 
         return couchbaseEntryManager;
@@ -44,6 +44,7 @@ import org.gluu.persist.model.SearchScope;
 import org.gluu.persist.model.Sort;
 import org.gluu.persist.model.SortOrder;
 import org.gluu.persist.operation.auth.PasswordEncryptionHelper;
+import org.gluu.persist.watch.OperationMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -84,6 +85,8 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 
 	private PersistenceExtension persistenceExtension;
 
+	private OperationMetrics operationMetrics = new OperationMetrics("couchbase");
+
 	public CouchbaseOperationServiceImpl() {
     }
 
@@ -159,6 +162,7 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 
         BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
         OperationDurationUtil.instance().logDebug("Couchbase operation: bind, duration: {}, bucket: {}, key: {}", duration, bucketMapping.getBucketName(), key);
+        operationMetrics.record("bind", bucketMapping.getBucketName(), duration, null);
         
         return result;
     }
@@ -173,10 +177,17 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
         Instant startTime = OperationDurationUtil.instance().now();
 
         BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
-        boolean result = addEntryImpl(bucketMapping, key, jsonObject, expiration);
+        boolean result;
+        try {
+        	result = addEntryImpl(bucketMapping, key, jsonObject, expiration);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("add", bucketMapping.getBucketName(), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("Couchbase operation: add, duration: {}, bucket: {}, key: {}, json: {}", duration, bucketMapping.getBucketName(), key, jsonObject);
+        operationMetrics.record("add", bucketMapping.getBucketName(), duration, null);
         
         return result;
     }
@@ -225,10 +236,17 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
         Instant startTime = OperationDurationUtil.instance().now();
         
         BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
-        boolean result = updateEntryImpl(bucketMapping, key, mods, expiration);
+        boolean result;
+        try {
+        	result = updateEntryImpl(bucketMapping, key, mods, expiration);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("modify", bucketMapping.getBucketName(), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("Couchbase operation: modify, duration: {}, bucket: {}, key: {}, mods: {}", duration, bucketMapping.getBucketName(), key, mods);
+        operationMetrics.record("modify", bucketMapping.getBucketName(), duration, null);
 
         return result;
     }
@@ -253,10 +271,17 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
         Instant startTime = OperationDurationUtil.instance().now();
 
         BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
-        boolean result = deleteImpl(bucketMapping, key);
+        boolean result;
+        try {
+        	result = deleteImpl(bucketMapping, key);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("delete", bucketMapping.getBucketName(), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("Couchbase operation: delete, duration: {}, bucket: {}, key: {}", duration, bucketMapping.getBucketName(), key);
+        operationMetrics.record("delete", bucketMapping.getBucketName(), duration, null);
 
         return result;
     }
@@ -278,12 +303,19 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
         BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
     	QueryScanConsistency useQueryScanConsistency = getQueryScanConsistency(queryScanConsistency, false);
 
-    	int result = deleteImpl(bucketMapping, key, useQueryScanConsistency, expression, count);
+    	int result;
+    	try {
+    		result = deleteImpl(bucketMapping, key, useQueryScanConsistency, expression, count);
+    	} catch (Exception ex) {
+    		operationMetrics.recordFailure("delete_search", bucketMapping.getBucketName(), startTime, expression);
+    		throw ex;
+    	}
 
         String attemptInfo = getScanAttemptLogInfo(queryScanConsistency, useQueryScanConsistency, false);
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("Couchbase operation: delete_search, duration: {}, bucket: {}, key: {}, expression: {}, count: {}, consistency: {}{}", duration, bucketMapping.getBucketName(), key, expression, count, useQueryScanConsistency, attemptInfo);
+        operationMetrics.record("delete_search", bucketMapping.getBucketName(), duration, expression);
 
         return result;
     }
@@ -311,10 +343,17 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
         Instant startTime = OperationDurationUtil.instance().now();
 
         BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
-        boolean result = deleteRecursivelyImpl(bucketMapping, key);
+        boolean result;
+        try {
+        	result = deleteRecursivelyImpl(bucketMapping, key);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("delete_tree", bucketMapping.getBucketName(), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("Couchbase operation: delete_tree, duration: {}, bucket: {}, key: {}", duration, bucketMapping.getBucketName(), key);
+        operationMetrics.record("delete_tree", bucketMapping.getBucketName(), duration, null);
 
         return result;
     }
@@ -350,10 +389,17 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
         Instant startTime = OperationDurationUtil.instance().now();
         
     	BucketMapping bucketMapping = connectionProvider.getBucketMappingByKey(key);
-        JsonObject result = lookupImpl(bucketMapping, key, attributes);
+        JsonObject result;
+        try {
+        	result = lookupImpl(bucketMapping, key, attributes);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("lookup", bucketMapping.getBucketName(), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("Couchbase operation: lookup, duration: {}, bucket: {}, key: {}, attributes: {}", duration, bucketMapping.getBucketName(), key, attributes);
+        operationMetrics.record("lookup", bucketMapping.getBucketName(), duration, null);
 
         return result;
     }
@@ -443,6 +489,7 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("Couchbase operation: search, duration: {}, bucket: {}, key: {}, expression: {}, scope: {}, attributes: {}, orderBy: {}, batchOperationWraper: {}, returnDataType: {}, start: {}, count: {}, pageSize: {}, consistency: {}{}", duration, bucketMapping.getBucketName(), key, expression, scope, attributes, orderBy, batchOperationWraper, returnDataType, start, count, pageSize, useQueryScanConsistency, attemptInfo);
+        operationMetrics.record("search", bucketMapping.getBucketName(), duration, expression);
 
         return result;
 	}
@@ -688,6 +735,8 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
     public boolean destroy() {
         boolean result = true;
 
+        operationMetrics.unregisterMBean();
+
         if (connectionProvider != null) {
             try {
                 connectionProvider.destroy();
@@ -724,6 +773,11 @@ public class CouchbaseOperationServiceImpl implements CouchbaseOperationService
 		this.persistenceExtension = persistenceExtension;
 	}
 
+	@Override
+	public OperationMetrics getOperationMetrics() {
+		return operationMetrics;
+	}
+
 	@Override
 	public boolean isSupportObjectClass(String objectClass) {
 		return true;
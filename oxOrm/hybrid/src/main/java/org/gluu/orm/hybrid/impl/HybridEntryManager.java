@@ -7,12 +7,18 @@
 package org.gluu.orm.hybrid.impl;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
+import java.util.stream.Stream;
 
 import org.gluu.persist.PersistenceEntryManager;
 import org.gluu.persist.event.DeleteNotifier;
@@ -25,6 +31,7 @@ import org.gluu.persist.impl.model.ParsedKey;
 import org.gluu.persist.model.AttributeData;
 import org.gluu.persist.model.AttributeDataModification;
 import org.gluu.persist.model.BatchOperation;
+import org.gluu.persist.model.EntryOperationResult;
 import org.gluu.persist.model.PagedResult;
 import org.gluu.persist.model.SearchScope;
 import org.gluu.persist.model.SortOrder;
@@ -212,6 +219,51 @@ public class HybridEntryManager extends BaseEntryManager<HybridPersistenceOperat
     	return persistenceEntryManager.find(primaryKey, entryClass, ldapReturnAttributes);
 	}
 
+	@Override
+	public <T> List<T> findEntriesByKeys(Class<T> entryClass, Collection<String> keys, String[] ldapReturnAttributes) {
+		if (keys == null) {
+			throw new MappingException("DNs to find entries is null");
+		}
+
+		// Split keys by persistence
+		Map<PersistenceEntryManager, List<String>> keysByEntryManager = new LinkedHashMap<PersistenceEntryManager, List<String>>();
+		for (String key : new LinkedHashSet<String>(keys)) {
+			PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(key);
+			List<String> entryManagerKeys = keysByEntryManager.get(persistenceEntryManager);
+			if (entryManagerKeys == null) {
+				entryManagerKeys = new ArrayList<String>();
+				keysByEntryManager.put(persistenceEntryManager, entryManagerKeys);
+			}
+			entryManagerKeys.add(key);
+		}
+
+		if (keysByEntryManager.size() == 0) {
+			return new ArrayList<T>(0);
+		} else if (keysByEntryManager.size() == 1) {
+			Entry<PersistenceEntryManager, List<String>> entryManagerKeys = keysByEntryManager.entrySet().iterator().next();
+			return entryManagerKeys.getKey().findEntriesByKeys(entryClass, entryManagerKeys.getValue(), ldapReturnAttributes);
+		}
+
+		Map<Object, T> entriesByDn = new HashMap<Object, T>();
+		for (Entry<PersistenceEntryManager, List<String>> entryManagerKeys : keysByEntryManager.entrySet()) {
+			List<T> entries = entryManagerKeys.getKey().findEntriesByKeys(entryClass, entryManagerKeys.getValue(), ldapReturnAttributes);
+			for (T entry : entries) {
+				entriesByDn.put(getDNValue(entry, entryClass), entry);
+			}
+		}
+
+		// Restore keys order
+		List<T> result = new ArrayList<T>(entriesByDn.size());
+		for (String key : new LinkedHashSet<String>(keys)) {
+			T entry = entriesByDn.get(key);
+			if (entry != null) {
+				result.add(entry);
+			}
+		}
+
+		return result;
+	}
+
     @Override
 	public <T> List<T> findEntries(Object entry) {
         Class<?> entryClass = entry.getClass();
@@ -257,6 +309,13 @@ public class HybridEntryManager extends BaseEntryManager<HybridPersistenceOperat
 		return persistenceEntryManager.findEntries(baseDN, entryClass, filter, scope, ldapReturnAttributes, start, count, chunkSize);
 	}
 
+	@Override
+	public <T> Stream<T> streamEntries(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope, String[] ldapReturnAttributes,
+			int count, int chunkSize) {
+    	PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(baseDN);
+		return persistenceEntryManager.streamEntries(baseDN, entryClass, filter, scope, ldapReturnAttributes, count, chunkSize);
+	}
+
 	@Override
 	public <T> List<T> findEntries(String baseDN, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes) {
     	PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(baseDN);
@@ -380,6 +439,76 @@ public class HybridEntryManager extends BaseEntryManager<HybridPersistenceOperat
     	persistenceEntryManager.remove(entry);
     }
 
+	@Override
+	public <T> List<EntryOperationResult<T>> persistAll(List<T> entries, int batchSize) {
+		return processAll(entries, batchSize, BulkOperationType.PERSIST);
+	}
+
+	@Override
+	public <T> List<EntryOperationResult<T>> mergeAll(List<T> entries, int batchSize) {
+		return processAll(entries, batchSize, BulkOperationType.MERGE);
+	}
+
+	@Override
+	public <T> List<EntryOperationResult<T>> removeAll(List<T> entries, int batchSize) {
+		return processAll(entries, batchSize, BulkOperationType.REMOVE);
+	}
+
+	private <T> List<EntryOperationResult<T>> processAll(List<T> entries, int batchSize, BulkOperationType operationType) {
+		if (entries == null) {
+			throw new MappingException("Entries to process is null");
+		}
+
+		List<EntryOperationResult<T>> results = new ArrayList<EntryOperationResult<T>>(Collections.<EntryOperationResult<T>>nCopies(entries.size(), null));
+
+		// Split entries by persistence
+		Map<PersistenceEntryManager, List<Integer>> indexesByEntryManager = new LinkedHashMap<PersistenceEntryManager, List<Integer>>();
+		for (int i = 0; i < entries.size(); i++) {
+			T entry = entries.get(i);
+			try {
+				if (entry == null) {
+					throw new MappingException("Entry to process is null");
+				}
+
+				Object dnValue = getDNValue(entry, entry.getClass());
+				PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(dnValue);
+				List<Integer> entryManagerIndexes = indexesByEntryManager.get(persistenceEntryManager);
+				if (entryManagerIndexes == null) {
+					entryManagerIndexes = new ArrayList<Integer>();
+					indexesByEntryManager.put(persistenceEntryManager, entryManagerIndexes);
+				}
+				entryManagerIndexes.add(i);
+			} catch (RuntimeException ex) {
+				results.set(i, new EntryOperationResult<T>(entry, null, ex));
+			}
+		}
+
+		for (Entry<PersistenceEntryManager, List<Integer>> entryManagerIndexes : indexesByEntryManager.entrySet()) {
+			List<Integer> indexes = entryManagerIndexes.getValue();
+			List<T> entryManagerEntries = new ArrayList<T>(indexes.size());
+			for (Integer index : indexes) {
+				entryManagerEntries.add(entries.get(index));
+			}
+
+			PersistenceEntryManager persistenceEntryManager = entryManagerIndexes.getKey();
+			List<EntryOperationResult<T>> entryManagerResults;
+			if (BulkOperationType.PERSIST == operationType) {
+				entryManagerResults = persistenceEntryManager.persistAll(entryManagerEntries, batchSize);
+			} else if (BulkOperationType.MERGE == operationType) {
+				entryManagerResults = persistenceEntryManager.mergeAll(entryManagerEntries, batchSize);
+			} else {
+				entryManagerResults = persistenceEntryManager.removeAll(entryManagerEntries, batchSize);
+			}
+
+			// Restore entries order
+			for (int i = 0; i < indexes.size(); i++) {
+				results.set(indexes.get(i), entryManagerResults.get(i));
+			}
+		}
+
+		return results;
+	}
+
 	@Override
 	public <T> void removeByDn(String primaryKey, String[] objectClasses) {
 		PersistenceEntryManager persistenceEntryManager = getEntryManagerForDn(primaryKey);
@@ -454,5 +583,8 @@ public class HybridEntryManager extends BaseEntryManager<HybridPersistenceOperat
         throw new UnsupportedOperationException("Method not implemented.");
 	}
 
+	private enum BulkOperationType {
+		PERSIST, MERGE, REMOVE
+	}
 
 }
@@ -13,6 +13,7 @@ import org.gluu.persist.exception.operation.ConnectionException;
 import org.gluu.persist.exception.operation.SearchException;
 import org.gluu.persist.extension.PersistenceExtension;
 import org.gluu.persist.operation.PersistenceOperationService;
+import org.gluu.persist.watch.OperationMetrics;
 
 /**
  * Hybrid Operation Service
@@ -59,4 +60,10 @@ public class HybridPersistenceOperationService implements PersistenceOperationSe
         throw new UnsupportedOperationException("Method not implemented.");
 	}
 
+	@Override
+	public OperationMetrics getOperationMetrics() {
+		// Each persistence operation service collects own metrics
+		return null;
+	}
+
 }
@@ -0,0 +1,159 @@
+package org.gluu.orm.hybrid.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.gluu.orm.hybrid.impl.HybridEntryManager;
+import org.gluu.orm.hybrid.impl.HybridPersistenceOperationService;
+import org.gluu.persist.PersistenceEntryManager;
+import org.gluu.persist.operation.PersistenceOperationService;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Routing of entries loading by DNs between persistence entry managers
+ */
+public class HybridFindEntriesByKeysTest {
+
+	private TestEntryManager ldapEntryManager;
+	private TestEntryManager sqlEntryManager;
+
+	private HybridEntryManager entryManager;
+
+	@BeforeMethod
+	public void init() {
+		this.ldapEntryManager = new TestEntryManager(getClientDn(1), getClientDn(2), getClientDn(3));
+		this.sqlEntryManager = new TestEntryManager(getUserDn(1), getUserDn(2), getUserDn(3));
+
+		HashMap<String, PersistenceEntryManager> persistenceEntryManagers = new HashMap<String, PersistenceEntryManager>();
+		persistenceEntryManagers.put("ldap", ldapEntryManager.createProxy());
+		persistenceEntryManagers.put("sql", sqlEntryManager.createProxy());
+
+		Properties mappingProperties = new Properties();
+		mappingProperties.setProperty("storage.default", "ldap");
+		mappingProperties.setProperty("storage.sql.mapping", "people");
+
+		this.entryManager = new HybridEntryManager(mappingProperties, persistenceEntryManagers,
+				new HybridPersistenceOperationService(Collections.<PersistenceOperationService>emptyList()));
+	}
+
+	@Test
+	public void findEntriesInKeysOrder() {
+		List<String> dns = Arrays.asList(getUserDn(2), getClientDn(3), getUserDn(1), getClientDn(1));
+
+		List<SimpleUser> entries = entryManager.findEntriesByKeys(SimpleUser.class, dns, null);
+
+		assertEquals(getDns(entries), dns);
+
+		// Each entry manager is called once with own keys only
+		assertEquals(sqlEntryManager.requests, Collections.singletonList(Arrays.asList(getUserDn(2), getUserDn(1))));
+		assertEquals(ldapEntryManager.requests, Collections.singletonList(Arrays.asList(getClientDn(3), getClientDn(1))));
+	}
+
+	@Test
+	public void skipMissingAndDuplicateKeys() {
+		List<String> dns = Arrays.asList(getClientDn(2), getUserDn(9), getUserDn(3), getClientDn(2), getClientDn(9), getUserDn(3));
+
+		List<SimpleUser> entries = entryManager.findEntriesByKeys(SimpleUser.class, dns, null);
+
+		assertEquals(getDns(entries), Arrays.asList(getClientDn(2), getUserDn(3)));
+		assertEquals(sqlEntryManager.requests, Collections.singletonList(Arrays.asList(getUserDn(9), getUserDn(3))));
+		assertEquals(ldapEntryManager.requests, Collections.singletonList(Arrays.asList(getClientDn(2), getClientDn(9))));
+	}
+
+	@Test
+	public void findEntriesInOneEntryManager() {
+		List<String> dns = Arrays.asList(getUserDn(3), getUserDn(1));
+
+		List<SimpleUser> entries = entryManager.findEntriesByKeys(SimpleUser.class, dns, null);
+
+		assertEquals(getDns(entries), dns);
+		assertEquals(sqlEntryManager.requests, Collections.singletonList(dns));
+		assertTrue(ldapEntryManager.requests.isEmpty());
+	}
+
+	@Test
+	public void findEntriesWithoutKeys() {
+		assertTrue(entryManager.findEntriesByKeys(SimpleUser.class, Collections.<String>emptyList(), null).isEmpty());
+		assertTrue(sqlEntryManager.requests.isEmpty());
+		assertTrue(ldapEntryManager.requests.isEmpty());
+	}
+
+	private static String getUserDn(int i) {
+		return String.format("inum=%d,ou=people,o=gluu", i);
+	}
+
+	private static String getClientDn(int i) {
+		return String.format("inum=%d,ou=clients,o=gluu", i);
+	}
+
+	private static List<String> getDns(List<SimpleUser> entries) {
+		List<String> dns = new ArrayList<String>(entries.size());
+		for (SimpleUser entry : entries) {
+			dns.add(entry.getDn());
+		}
+
+		return dns;
+	}
+
+	/**
+	 * Entry manager with predefined entries
+	 */
+	private static class TestEntryManager implements InvocationHandler {
+
+		private final Set<String> dns;
+		private final List<List<String>> requests = new ArrayList<List<String>>();
+
+		TestEntryManager(String... dns) {
+			this.dns = new HashSet<String>(Arrays.asList(dns));
+		}
+
+		PersistenceEntryManager createProxy() {
+			return (PersistenceEntryManager) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { PersistenceEntryManager.class }, this);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if ("findEntriesByKeys".equals(method.getName())) {
+				return findEntriesByKeys((Collection<String>) args[1]);
+			} else if ("hashCode".equals(method.getName())) {
+				return System.identityHashCode(proxy);
+			} else if ("equals".equals(method.getName())) {
+				return proxy == args[0];
+			}
+
+			throw new UnsupportedOperationException(method.getName());
+		}
+
+		private List<SimpleUser> findEntriesByKeys(Collection<String> keys) {
+			requests.add(new ArrayList<String>(keys));
+
+			List<SimpleUser> result = new ArrayList<SimpleUser>();
+			for (String key : keys) {
+				if (dns.contains(key)) {
+					SimpleUser entry = new SimpleUser();
+					entry.setDn(key);
+					result.add(entry);
+				}
+			}
+
+			return result;
+		}
+
+	}
+
+}
@@ -33,8 +33,10 @@ import org.gluu.persist.exception.operation.ConnectionException;
 import org.gluu.persist.exception.operation.SearchException;
 import org.gluu.persist.exception.operation.SearchScopeException;
 import org.gluu.persist.impl.BaseEntryManager;
+import org.gluu.persist.impl.PagedEntryIterator;
 import org.gluu.persist.ldap.operation.LdapOperationService;
 import org.gluu.persist.ldap.operation.impl.LdapOperationServiceImpl;
+import org.gluu.persist.ldap.operation.impl.LdapSearchPosition;
 import org.gluu.persist.model.AttributeData;
 import org.gluu.persist.model.AttributeDataModification;
 import org.gluu.persist.model.AttributeDataModification.AttributeModificationType;
@@ -44,17 +46,24 @@ import org.gluu.persist.model.EntryData;
 import org.gluu.persist.model.PagedResult;
 import org.gluu.persist.model.SearchScope;
 import org.gluu.persist.model.SortOrder;
+import org.gluu.persist.model.WriteOperation;
 import org.gluu.persist.reflect.property.PropertyAnnotation;
 import org.gluu.search.filter.Filter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.unboundid.ldap.sdk.AddRequest;
 import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.DeleteRequest;
 import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.LDAPResult;
 import com.unboundid.ldap.sdk.Modification;
 import com.unboundid.ldap.sdk.ModificationType;
+import com.unboundid.ldap.sdk.ModifyRequest;
 import com.unboundid.ldap.sdk.ResultCode;
 import com.unboundid.ldap.sdk.SearchResultEntry;
+import com.unboundid.ldap.sdk.UpdatableLDAPRequest;
 import com.unboundid.util.StaticUtils;
 
 /**
@@ -159,6 +168,22 @@ public class LdapEntryManager extends BaseEntryManager<LdapOperationService> imp
 
     @Override
     protected void persist(String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
+        List<Attribute> ldapAttributes = toLdapAttributes(attributes);
+
+        // Persist entry
+        try {
+            boolean result = getOperationService().addEntry(dn, ldapAttributes);
+            if (!result) {
+                throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn));
+            }
+        } catch (ConnectionException ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn), ex.getCause());
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn), ex);
+        }
+    }
+
+    private List<Attribute> toLdapAttributes(List<AttributeData> attributes) {
         List<Attribute> ldapAttributes = new ArrayList<Attribute>(attributes.size());
         for (AttributeData attribute : attributes) {
             String attributeName = attribute.getName();
@@ -175,120 +200,155 @@ public class LdapEntryManager extends BaseEntryManager<LdapOperationService> imp
             }
         }
 
-        // Persist entry
-        try {
-            boolean result = getOperationService().addEntry(dn, ldapAttributes);
-            if (!result) {
-                throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn));
+        return ldapAttributes;
+    }
+
+    @Override
+    protected void persistBatch(List<WriteOperation> operations) {
+        List<WriteOperation> batchOperations = new ArrayList<WriteOperation>(operations.size());
+        List<AddRequest> requests = new ArrayList<AddRequest>(operations.size());
+        for (WriteOperation operation : operations) {
+            try {
+                requests.add(new AddRequest(operation.getDn(), toLdapAttributes(operation.getAttributes())));
+                batchOperations.add(operation);
+            } catch (Exception ex) {
+                operation.setException(new EntryPersistenceException(String.format("Failed to persist entry: %s", operation.getDn()), ex));
             }
-        } catch (ConnectionException ex) {
-            throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn), ex.getCause());
-        } catch (Exception ex) {
-            throw new EntryPersistenceException(String.format("Failed to persist entry: %s", dn), ex);
         }
+
+        processBatch(batchOperations, requests, "Failed to persist entry: %s", false);
     }
 
     @Override
     public void merge(String dn, String[] objectClasses, List<AttributeDataModification> attributeDataModifications, Integer expiration) {
         // Update entry
         try {
-            List<Modification> modifications = new ArrayList<Modification>(attributeDataModifications.size());
-            for (AttributeDataModification attributeDataModification : attributeDataModifications) {
-                AttributeData attribute = attributeDataModification.getAttribute();
-                AttributeData oldAttribute = attributeDataModification.getOldAttribute();
-
-                String attributeName = null;
-                String[] attributeValues = null;
-                if (attribute != null) {
-                    attributeName = attribute.getName();
-                    attributeValues = convertValuesToStringValues(attribute.getValues());
+            List<Modification> modifications = toLdapModifications(attributeDataModifications);
+            if (modifications.size() > 0) {
+                boolean result = getOperationService().updateEntry(dn, modifications);
+                if (!result) {
+                    throw new EntryPersistenceException(String.format("Failed to update entry: %s", dn));
                 }
+            }
+        } catch (ConnectionException ex) {
+            throw new EntryPersistenceException(String.format("Failed to update entry: %s", dn), ex.getCause());
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to update entry: %s", dn), ex);
+        }
+    }
 
-                String oldAttributeName = null;
-                String[] oldAttributeValues = null;
-                if (oldAttribute != null) {
-                    oldAttributeName = oldAttribute.getName();
-                    oldAttributeValues = convertValuesToStringValues(oldAttribute.getValues());
-                }
+    private List<Modification> toLdapModifications(List<AttributeDataModification> attributeDataModifications) {
+        List<Modification> modifications = new ArrayList<Modification>(attributeDataModifications.size());
+        for (AttributeDataModification attributeDataModification : attributeDataModifications) {
+            AttributeData attribute = attributeDataModification.getAttribute();
+            AttributeData oldAttribute = attributeDataModification.getOldAttribute();
+
+            String attributeName = null;
+            String[] attributeValues = null;
+            if (attribute != null) {
+                attributeName = attribute.getName();
+                attributeValues = convertValuesToStringValues(attribute.getValues());
+            }
 
-                Modification modification = null;
-                if (AttributeModificationType.ADD.equals(attributeDataModification.getModificationType())) {
-                    modification = createModification(ModificationType.ADD, attributeName, attributeValues);
-                } else {
-                    if (AttributeModificationType.REMOVE.equals(attributeDataModification.getModificationType())) {
-                        modification = createModification(ModificationType.DELETE, oldAttributeName, oldAttributeValues);
-                    } else if (AttributeModificationType.REPLACE.equals(attributeDataModification.getModificationType())) {
-                        if (attributeValues.length == 1) {
-                            modification = createModification(ModificationType.REPLACE, attributeName, attributeValues);
-                        } else {
-                        	String[] oldValues = ArrayHelper.arrayClone(oldAttributeValues);
-                        	String[] newValues = ArrayHelper.arrayClone(attributeValues);
-
-                            Arrays.sort(oldValues);
-                            Arrays.sort(newValues);
-
-                            boolean[] retainOldValues = new boolean[oldValues.length];
-                            Arrays.fill(retainOldValues, false);
-
-                            List<String> addValues = new ArrayList<String>();
-                            List<String> removeValues = new ArrayList<String>();
-
-                            // Add new values
-                            for (String value : newValues) {
-                                int idx = Arrays.binarySearch(oldValues, value, new Comparator<String>() {
-                                    @Override
-                                    public int compare(String o1, String o2) {
-                                    	return o1.toLowerCase().compareTo(o2.toLowerCase());
-                                    }
-                                });
-                                if (idx >= 0) {
-                                    // Old values array contains new value. Retain
-                                    // old value
-                                    retainOldValues[idx] = true;
-                                } else {
-                                    // This is new value
-                                    addValues.add(value);
-                                }
-                            }
+            String oldAttributeName = null;
+            String[] oldAttributeValues = null;
+            if (oldAttribute != null) {
+                oldAttributeName = oldAttribute.getName();
+                oldAttributeValues = convertValuesToStringValues(oldAttribute.getValues());
+            }
 
-                            // Remove values which we don't have in new values
-                            for (int i = 0; i < oldValues.length; i++) {
-                                if (!retainOldValues[i]) {
-                                    removeValues.add(oldValues[i]);
+            Modification modification = null;
+            if (AttributeModificationType.ADD.equals(attributeDataModification.getModificationType())) {
+                modification = createModification(ModificationType.ADD, attributeName, attributeValues);
+            } else {
+                if (AttributeModificationType.REMOVE.equals(attributeDataModification.getModificationType())) {
+                    modification = createModification(ModificationType.DELETE, oldAttributeName, oldAttributeValues);
+                } else if (AttributeModificationType.REPLACE.equals(attributeDataModification.getModificationType())) {
+                    if (attributeValues.length == 1) {
+                        modification = createModification(ModificationType.REPLACE, attributeName, attributeValues);
+                    } else {
+                    	String[] oldValues = ArrayHelper.arrayClone(oldAttributeValues);
+                    	String[] newValues = ArrayHelper.arrayClone(attributeValues);
+
+                        Arrays.sort(oldValues);
+                        Arrays.sort(newValues);
+
+                        boolean[] retainOldValues = new boolean[oldValues.length];
+                        Arrays.fill(retainOldValues, false);
+
+                        List<String> addValues = new ArrayList<String>();
+                        List<String> removeValues = new ArrayList<String>();
+
+                        // Add new values
+                        for (String value : newValues) {
+                            int idx = Arrays.binarySearch(oldValues, value, new Comparator<String>() {
+                                @Override
+                                public int compare(String o1, String o2) {
+                                	return o1.toLowerCase().compareTo(o2.toLowerCase());
                                 }
+                            });
+                            if (idx >= 0) {
+                                // Old values array contains new value. Retain
+                                // old value
+                                retainOldValues[idx] = true;
+                            } else {
+                                // This is new value
+                                addValues.add(value);
                             }
+                        }
 
-                            if (removeValues.size() > 0) {
-                                Modification removeModification = createModification(ModificationType.DELETE, attributeName,
-                                        removeValues.toArray(new String[removeValues.size()]));
-                                modifications.add(removeModification);
+                        // Remove values which we don't have in new values
+                        for (int i = 0; i < oldValues.length; i++) {
+                            if (!retainOldValues[i]) {
+                                removeValues.add(oldValues[i]);
                             }
+                        }
 
-                            if (addValues.size() > 0) {
-                                Modification addModification = createModification(ModificationType.ADD, attributeName,
-                                        addValues.toArray(new String[addValues.size()]));
-                                modifications.add(addModification);
-                            }
+                        if (removeValues.size() > 0) {
+                            Modification removeModification = createModification(ModificationType.DELETE, attributeName,
+                                    removeValues.toArray(new String[removeValues.size()]));
+                            modifications.add(removeModification);
+                        }
+
+                        if (addValues.size() > 0) {
+                            Modification addModification = createModification(ModificationType.ADD, attributeName,
+                                    addValues.toArray(new String[addValues.size()]));
+                            modifications.add(addModification);
                         }
                     }
                 }
+            }
 
-                if (modification != null) {
-                    modifications.add(modification);
-                }
+            if (modification != null) {
+                modifications.add(modification);
             }
+        }
 
-            if (modifications.size() > 0) {
-                boolean result = getOperationService().updateEntry(dn, modifications);
-                if (!result) {
-                    throw new EntryPersistenceException(String.format("Failed to update entry: %s", dn));
+        return modifications;
+    }
+
+    @Override
+    protected void mergeBatch(List<WriteOperation> operations) {
+        List<WriteOperation> batchOperations = new ArrayList<WriteOperation>(operations.size());
+        List<ModifyRequest> requests = new ArrayList<ModifyRequest>(operations.size());
+        for (WriteOperation operation : operations) {
+            try {
+                List<Modification> modifications = toLdapModifications(operation.getModifications());
+                if (modifications.size() > 0) {
+                    requests.add(new ModifyRequest(operation.getDn(), modifications));
+                    batchOperations.add(operation);
                 }
+            } catch (Exception ex) {
+                operation.setException(new EntryPersistenceException(String.format("Failed to update entry: %s", operation.getDn()), ex));
             }
-        } catch (ConnectionException ex) {
-            throw new EntryPersistenceException(String.format("Failed to update entry: %s", dn), ex.getCause());
-        } catch (Exception ex) {
-            throw new EntryPersistenceException(String.format("Failed to update entry: %s", dn), ex);
         }
+
+        processBatch(batchOperations, requests, "Failed to update entry: %s", false);
+    }
+
+    @Override
+    protected boolean isConfigurationUpdate(Class<?> entryClass) {
+        return isConfigurationEntry(entryClass);
     }
 
     @Override
@@ -307,6 +367,60 @@ public class LdapEntryManager extends BaseEntryManager<LdapOperationService> imp
         }
     }
 
+    @Override
+    protected void removeBatch(List<WriteOperation> operations) {
+        List<DeleteRequest> requests = new ArrayList<DeleteRequest>(operations.size());
+        for (WriteOperation operation : operations) {
+            for (DeleteNotifier subscriber : subscribers) {
+                subscriber.onBeforeRemove(operation.getDn(), operation.getObjectClasses());
+            }
+            requests.add(new DeleteRequest(operation.getDn()));
+        }
+
+        processBatch(operations, requests, "Failed to remove entry: %s", true);
+
+        for (WriteOperation operation : operations) {
+            if (!operation.isFailed()) {
+                for (DeleteNotifier subscriber : subscribers) {
+                    subscriber.onAfterRemove(operation.getDn(), operation.getObjectClasses());
+                }
+            }
+        }
+    }
+
+    private void processBatch(List<WriteOperation> operations, List<? extends UpdatableLDAPRequest> requests, String errorMessage, boolean isDelete) {
+        if (operations.isEmpty()) {
+            return;
+        }
+
+        List<LDAPResult> results;
+        try {
+            results = getOperationService().processBatch(requests);
+        } catch (Exception ex) {
+            Throwable cause = (ex instanceof ConnectionException) ? ex.getCause() : ex;
+            for (WriteOperation operation : operations) {
+                operation.setException(createBatchException(errorMessage, operation.getDn(), cause, isDelete));
+            }
+            return;
+        }
+
+        for (int i = 0; i < operations.size(); i++) {
+            LDAPResult result = results.get(i);
+            if (!ResultCode.SUCCESS.equals(result.getResultCode())) {
+                WriteOperation operation = operations.get(i);
+                operation.setException(createBatchException(errorMessage, operation.getDn(), new LDAPException(result), isDelete));
+            }
+        }
+    }
+
+    private RuntimeException createBatchException(String errorMessage, String dn, Throwable cause, boolean isDelete) {
+        if (isDelete) {
+            return new EntryDeleteException(String.format(errorMessage, dn), cause);
+        }
+
+        return new EntryPersistenceException(String.format(errorMessage, dn), cause);
+    }
+
     @Override
 	public <T> int remove(String baseDN, Class<T> entryClass, Filter filter, int count) {
         if (StringHelper.isEmptyString(baseDN)) {
@@ -383,6 +497,17 @@ public class LdapEntryManager extends BaseEntryManager<LdapOperationService> imp
         }
     }
 
+    @Override
+    protected void beginWritePreparation() {
+        // Modifications should be built from current entry on primary servers
+        getOperationService().getConnectionProvider().beginPrimaryReads();
+    }
+
+    @Override
+    protected void endWritePreparation() {
+        getOperationService().getConnectionProvider().endPrimaryReads();
+    }
+
 	@Override
     protected List<AttributeData> find(String dn, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap, String... ldapReturnAttributes) {
         try {
@@ -398,6 +523,23 @@ public class LdapEntryManager extends BaseEntryManager<LdapOperationService> imp
         throw new EntryPersistenceException(String.format("Failed to find entry: %s", dn));
     }
 
+    @Override
+    protected Map<String, List<AttributeData>> find(List<String> dns, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap, String... ldapReturnAttributes) {
+        try {
+            // Load entries with pipelined requests
+            Map<String, EntryData> entries = getOperationService().lookup(dns, ldapReturnAttributes);
+
+            Map<String, List<AttributeData>> result = new HashMap<String, List<AttributeData>>(entries.size());
+            for (Map.Entry<String, EntryData> entry : entries.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().getAttributeData());
+            }
+
+            return result;
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to find entries: %s", dns), ex);
+        }
+    }
+
     @Override
     public <T> List<T> findEntries(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope, String[] ldapReturnAttributes,
             BatchOperation<T> batchOperation, int start, int count, int chunkSize) {
@@ -443,6 +585,80 @@ public class LdapEntryManager extends BaseEntryManager<LdapOperationService> imp
         return entries;
     }
 
+    @Override
+    protected <T> PagedEntryIterator.PageLoader<T> createPageLoader(final String baseDN, final Class<T> entryClass, Filter filter,
+            SearchScope scope, String[] ldapReturnAttributes, final int count, final int pageSize) {
+        if (StringHelper.isEmptyString(baseDN)) {
+            throw new MappingException("Base DN to find entries is null");
+        }
+
+        // Check entry class
+        checkEntryClass(entryClass, false);
+        String[] objectClasses = getTypeObjectClasses(entryClass);
+        final List<PropertyAnnotation> propertiesAnnotations = getEntryPropertyAnnotations(entryClass);
+        String[] currentLdapReturnAttributes = ldapReturnAttributes;
+        if (ArrayHelper.isEmpty(currentLdapReturnAttributes)) {
+            currentLdapReturnAttributes = getAttributes(null, propertiesAnnotations, false);
+        }
+        final String[] searchReturnAttributes = currentLdapReturnAttributes;
+
+        final Filter searchFilter;
+        if (objectClasses.length > 0) {
+            searchFilter = addObjectClassFilter(filter, objectClasses);
+        } else {
+            searchFilter = filter;
+        }
+        final com.unboundid.ldap.sdk.Filter ldapFilter;
+        final com.unboundid.ldap.sdk.SearchScope ldapSearchScope;
+        try {
+            ldapFilter = toLdapFilter(searchFilter);
+            ldapSearchScope = toLdapSearchScope(scope);
+        } catch (SearchException | SearchScopeException ex) {
+            throw new EntryPersistenceException(String.format("Failed to convert filter '%s'", searchFilter), ex);
+        }
+
+        // Next page request continues search with paging cookie of previous response
+        final LdapSearchPosition searchPosition = new LdapSearchPosition();
+
+        return new PagedEntryIterator.PageLoader<T>() {
+
+            private int returnedCount;
+
+            @Override
+            public List<T> loadNextPage() {
+                if (searchPosition.isFinished()) {
+                    return null;
+                }
+
+                int limit = pageSize;
+                if (count > 0) {
+                    limit = Math.min(pageSize, count - returnedCount);
+                }
+
+                PagedResult<EntryData> searchResult;
+                try {
+                    searchResult = getOperationService().searchPage(baseDN, ldapFilter, ldapSearchScope, searchPosition, limit,
+                            searchReturnAttributes);
+                } catch (Exception ex) {
+                    throw new EntryPersistenceException(String.format("Failed to find entries with baseDN: %s, filter: %s", baseDN, searchFilter), ex);
+                }
+
+                returnedCount += searchResult.getEntriesCount();
+                if (searchResult.getEntriesCount() == 0) {
+                    searchPosition.close();
+                    return null;
+                }
+
+                return createEntities(entryClass, propertiesAnnotations, searchResult.getEntries());
+            }
+
+            @Override
+            public void close() {
+                searchPosition.close();
+            }
+        };
+    }
+
     @Override
     public <T> PagedResult<T> findPagedEntries(String baseDN, Class<T> entryClass, Filter filter, String[] ldapReturnAttributes, String sortBy,
             SortOrder sortOrder, int start, int count, int chunkSize) {
@@ -74,6 +74,7 @@ public class LdapEntryManagerFactory implements PersistenceEntryManagerFactory {
         LOG.debug("Created bindConnectionProvider '{}' with code '{}'", bindConnectionProvider, bindConnectionProvider.getCreationResultCode());
 
         LdapEntryManager ldapEntryManager = new LdapEntryManager(new LdapOperationServiceImpl(connectionProvider, bindConnectionProvider));
+        ldapEntryManager.getOperationService().getOperationMetrics().init(entryManagerConf);
         LOG.info("Created LdapEntryManager: {}", ldapEntryManager.getOperationService());
 
         return ldapEntryManager;
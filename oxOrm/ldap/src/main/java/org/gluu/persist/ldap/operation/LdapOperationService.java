@@ -8,12 +8,14 @@ package org.gluu.persist.ldap.operation;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import org.gluu.persist.exception.operation.ConnectionException;
 import org.gluu.persist.exception.operation.DuplicateEntryException;
 import org.gluu.persist.exception.operation.SearchException;
 import org.gluu.persist.ldap.impl.LdapBatchOperationWraper;
 import org.gluu.persist.ldap.operation.impl.LdapConnectionProvider;
+import org.gluu.persist.ldap.operation.impl.LdapSearchPosition;
 import org.gluu.persist.model.EntryData;
 import org.gluu.persist.model.PagedResult;
 import org.gluu.persist.model.SortOrder;
@@ -25,8 +27,10 @@ import com.unboundid.ldap.sdk.Filter;
 import com.unboundid.ldap.sdk.LDAPConnection;
 import com.unboundid.ldap.sdk.LDAPConnectionPool;
 import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.LDAPResult;
 import com.unboundid.ldap.sdk.Modification;
 import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.UpdatableLDAPRequest;
 import com.unboundid.ldif.LDIFChangeRecord;
 
 public interface LdapOperationService extends PersistenceOperationService {
@@ -56,6 +60,12 @@ public interface LdapOperationService extends PersistenceOperationService {
     <T> PagedResult<EntryData> search(String dn, Filter filter, SearchScope scope, LdapBatchOperationWraper<T> batchOperationWraper, int start,
                             int count, int pageSize, Control[] controls, String... attributes) throws SearchException;
 
+    /**
+     * Load next page of simple paged results search. Search position keeps connection and paging cookie between pages
+     */
+    PagedResult<EntryData> searchPage(String dn, Filter filter, SearchScope scope, LdapSearchPosition searchPosition, int pageSize,
+                            String... attributes) throws SearchException;
+
     <T> PagedResult<EntryData> searchPagedEntries(String dn, Filter filter, SearchScope scope, int startIndex,
                                                         int count, int pageSize, String sortBy, SortOrder sortOrder,
                                                         String... attributes) throws Exception;
@@ -70,6 +80,16 @@ public interface LdapOperationService extends PersistenceOperationService {
      */
     EntryData lookup(String dn, String... attributes) throws ConnectionException, SearchException;
 
+    /**
+     * Lookup entries in the directory. Requests are sent to server without waiting for previous responses
+     *
+     * @param dns
+     * @param attributes
+     * @return Map DN -> EntryData. Not found entries are not included
+     * @throws ConnectionException
+     */
+    Map<String, EntryData> lookup(Collection<String> dns, String... attributes) throws ConnectionException, SearchException;
+
     /**
      * Use this method to add new entry
      *
@@ -105,6 +125,15 @@ public interface LdapOperationService extends PersistenceOperationService {
      */
     boolean delete(String dn) throws ConnectionException;
 
+    /**
+     * Send add, modify and delete requests over one connection without waiting for responses of previous requests
+     *
+     * @param requests
+     * @return Results in requests order
+     * @throws ConnectionException
+     */
+    List<LDAPResult> processBatch(List<? extends UpdatableLDAPRequest> requests) throws ConnectionException;
+
     /**
      * Delete entry from the directory
      *
@@ -23,12 +23,16 @@ public class LdapAuthConnectionProvider extends LdapConnectionProvider {
 	private static final Logger LOG = LoggerFactory.getLogger(LdapAuthConnectionProvider.class);
 
     public LdapAuthConnectionProvider(Properties connectionProperties) {
-        Properties bindConnectionProperties = prepareBindConnectionProperties(connectionProperties);
+        // Bind requests always go to primary servers
+        Properties authConnectionProperties = (Properties) connectionProperties.clone();
+        authConnectionProperties.remove("read.servers");
+
+        Properties bindConnectionProperties = prepareBindConnectionProperties(authConnectionProperties);
         create(bindConnectionProperties);
         if (ResultCode.INAPPROPRIATE_AUTHENTICATION.equals(getCreationResultCode())) {
             LOG.warn("It's not possible to create authentication LDAP connection pool using anonymous bind. "
                     + "Attempting to create it using binDN/bindPassword");
-            create(connectionProperties);
+            create(authConnectionProperties);
         }
     }
 
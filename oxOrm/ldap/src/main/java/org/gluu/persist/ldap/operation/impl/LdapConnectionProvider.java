@@ -9,6 +9,8 @@ package org.gluu.persist.ldap.operation.impl;
 import java.security.GeneralSecurityException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 
 import org.gluu.persist.exception.operation.ConfigurationException;
@@ -28,6 +30,7 @@ import com.unboundid.ldap.sdk.LDAPConnectionPool;
 import com.unboundid.ldap.sdk.LDAPException;
 import com.unboundid.ldap.sdk.ResultCode;
 import com.unboundid.ldap.sdk.SimpleBindRequest;
+import com.unboundid.ldap.sdk.SingleServerSet;
 import com.unboundid.util.ssl.SSLUtil;
 import com.unboundid.util.ssl.TrustAllTrustManager;
 import com.unboundid.util.ssl.TrustStoreTrustManager;
@@ -44,7 +47,19 @@ public class LdapConnectionProvider {
 
     private static final String[] SSL_PROTOCOLS = {"TLSv1.2", "TLSv1.1", "TLSv1", "SSLv3"};
 
+    private static final long DEFAULT_READ_YOUR_WRITES_MILLIS = 5 * 1000;
+    private static final long DEFAULT_READ_FAILURE_BACKOFF_MILLIS = 30 * 1000;
+
+    // Time of last modification made by current thread
+    private final ThreadLocal<Long> lastWriteTime = new ThreadLocal<Long>();
+
+    // Nesting level of reads which current thread should send to primary servers
+    private final ThreadLocal<Integer> primaryReads = new ThreadLocal<Integer>();
+
     private LDAPConnectionPool connectionPool;
+    private LdapReadReplica primaryReadReplica;
+    private List<LdapReadReplica> readReplicas = Collections.emptyList();
+    private long readYourWritesMillis = DEFAULT_READ_YOUR_WRITES_MILLIS;
     private ResultCode creationResultCode;
 
     private int supportedLDAPVersion = DEFAULT_SUPPORTED_LDAP_VERSION;
@@ -164,37 +179,14 @@ public class LdapConnectionProvider {
         int maxConnections = StringHelper.toInt(props.getProperty("maxconnections"), 10);
         this.connectionPool = createConnectionPoolWithWaitImpl(props, failoverSet, bindRequest, connectionOptions, maxConnections, sslUtil);
         if (this.connectionPool != null) {
-            this.connectionPool.setCreateIfNecessary(true);
-            String connectionMaxWaitTime = props.getProperty("connection.max-wait-time-millis");
-            if (StringHelper.isNotEmpty(connectionMaxWaitTime)) {
-                this.connectionPool.setMaxWaitTimeMillis(Long.parseLong(connectionMaxWaitTime));
-            }
-            String maxConnectionAge = props.getProperty("connection.max-age-time-millis");
-            if (StringHelper.isNotEmpty(connectionMaxWaitTime)) {
-                this.connectionPool.setMaxConnectionAgeMillis(Long.parseLong(maxConnectionAge));
-            }
-            boolean onCheckoutHealthCheckEnabled = StringHelper.toBoolean(props.getProperty("connection-pool.health-check.on-checkout.enabled"), false);
-            long healthCheckIntervalMillis = StringHelper.toLong(props.getProperty("connection-pool.health-check.interval-millis"), 0);
-            long healthCheckMaxResponsetimeMillis = StringHelper.toLong(props.getProperty("connection-pool.health-check.max-response-time-millis"), 0);
-            boolean backgroundHealthCheckEnabled = !onCheckoutHealthCheckEnabled && (healthCheckIntervalMillis > 0);
-            // Because otherwise it has no effect anyway
-            if (backgroundHealthCheckEnabled) {
-                this.connectionPool.setHealthCheckIntervalMillis(healthCheckIntervalMillis);
-            }
-            if (onCheckoutHealthCheckEnabled || backgroundHealthCheckEnabled) {
-                GetEntryLDAPConnectionPoolHealthCheck healthChecker = new GetEntryLDAPConnectionPoolHealthCheck(// entryDN (null means root DSE)
-                        null, // maxResponseTime
-                        healthCheckMaxResponsetimeMillis, // invokeOnCreate
-                        false, // invokeOnCheckout
-                        onCheckoutHealthCheckEnabled, // invokeOnRelease
-                        false, // invokeForBackgroundChecks
-                        backgroundHealthCheckEnabled, // invokeOnException
-                        false);
-                
-                this.connectionPool.setHealthCheck(healthChecker);
-            }
+            configureConnectionPool(props, this.connectionPool);
         }
 
+        long readFailureBackoffMillis = StringHelper.toLong(props.getProperty("read.failure-backoff-millis"), DEFAULT_READ_FAILURE_BACKOFF_MILLIS);
+        this.readYourWritesMillis = StringHelper.toLong(props.getProperty("read.read-your-writes-millis"), DEFAULT_READ_YOUR_WRITES_MILLIS);
+        this.primaryReadReplica = new LdapReadReplica(serverProp, this.connectionPool, true, readFailureBackoffMillis);
+        this.readReplicas = createReadReplicas(props, bindRequest, connectionOptions, maxConnections, sslUtil, readFailureBackoffMillis);
+
         this.additionalPasswordMethods = new ArrayList<PasswordEncryptionMethod>();
         if (props.containsKey("additionalPasswordMethods")) {
             String[] additionalPasswordMethodsArray = StringHelper.split(props.get("additionalPasswordMethods").toString(), ",");
@@ -227,6 +219,83 @@ public class LdapConnectionProvider {
         this.creationResultCode = ResultCode.SUCCESS;
     }
 
+    private void configureConnectionPool(Properties props, LDAPConnectionPool connectionPool) {
+        connectionPool.setCreateIfNecessary(true);
+        String connectionMaxWaitTime = props.getProperty("connection.max-wait-time-millis");
+        if (StringHelper.isNotEmpty(connectionMaxWaitTime)) {
+            connectionPool.setMaxWaitTimeMillis(Long.parseLong(connectionMaxWaitTime));
+        }
+        String maxConnectionAge = props.getProperty("connection.max-age-time-millis");
+        if (StringHelper.isNotEmpty(connectionMaxWaitTime)) {
+            connectionPool.setMaxConnectionAgeMillis(Long.parseLong(maxConnectionAge));
+        }
+        boolean onCheckoutHealthCheckEnabled = StringHelper.toBoolean(props.getProperty("connection-pool.health-check.on-checkout.enabled"), false);
+        long healthCheckIntervalMillis = StringHelper.toLong(props.getProperty("connection-pool.health-check.interval-millis"), 0);
+        long healthCheckMaxResponsetimeMillis = StringHelper.toLong(props.getProperty("connection-pool.health-check.max-response-time-millis"), 0);
+        boolean backgroundHealthCheckEnabled = !onCheckoutHealthCheckEnabled && (healthCheckIntervalMillis > 0);
+        // Because otherwise it has no effect anyway
+        if (backgroundHealthCheckEnabled) {
+            connectionPool.setHealthCheckIntervalMillis(healthCheckIntervalMillis);
+        }
+        if (onCheckoutHealthCheckEnabled || backgroundHealthCheckEnabled) {
+            GetEntryLDAPConnectionPoolHealthCheck healthChecker = new GetEntryLDAPConnectionPoolHealthCheck(// entryDN (null means root DSE)
+                    null, // maxResponseTime
+                    healthCheckMaxResponsetimeMillis, // invokeOnCreate
+                    false, // invokeOnCheckout
+                    onCheckoutHealthCheckEnabled, // invokeOnRelease
+                    false, // invokeForBackgroundChecks
+                    backgroundHealthCheckEnabled, // invokeOnException
+                    false);
+            
+            connectionPool.setHealthCheck(healthChecker);
+        }
+    }
+
+    private List<LdapReadReplica> createReadReplicas(Properties props, BindRequest bindRequest, LDAPConnectionOptions connectionOptions,
+            int defaultMaxConnections, SSLUtil sslUtil, long readFailureBackoffMillis) throws GeneralSecurityException {
+        String readServersProp = props.getProperty("read.servers");
+        if (StringHelper.isEmpty(readServersProp)) {
+            return Collections.emptyList();
+        }
+
+        if (!StringHelper.toBoolean(props.getProperty("read.enabled"), false)) {
+            LOG.info("Routing of reads to LDAP read servers is disabled");
+            return Collections.emptyList();
+        }
+
+        int maxConnections = StringHelper.toInt(props.getProperty("read.maxconnections"), defaultMaxConnections);
+
+        List<LdapReadReplica> result = new ArrayList<LdapReadReplica>();
+        for (String readServer : StringHelper.split(readServersProp, ",")) {
+            int idx = readServer.indexOf(":");
+            if (idx == -1) {
+                throw new ConfigurationException("Ldap read server settings should be in format server:port");
+            }
+            String address = readServer.substring(0, idx).trim();
+            int port = Integer.parseInt(readServer.substring(idx + 1).trim());
+
+            SingleServerSet serverSet;
+            if (this.useSSL) {
+                serverSet = new SingleServerSet(address, port, sslUtil.createSSLSocketFactory(SSL_PROTOCOLS[0]), connectionOptions);
+            } else {
+                serverSet = new SingleServerSet(address, port, connectionOptions);
+            }
+
+            try {
+                // Replica which is down on startup should not prevent application start
+                LDAPConnectionPool readConnectionPool = new LDAPConnectionPool(serverSet, bindRequest, 1, maxConnections, 1, null, false);
+                configureConnectionPool(props, readConnectionPool);
+
+                result.add(new LdapReadReplica(readServer, readConnectionPool, false, readFailureBackoffMillis));
+                LOG.info("Added LDAP read server: '" + readServer + "'");
+            } catch (LDAPException ex) {
+                LOG.error("Failed to create connection pool for LDAP read server: '" + readServer + "'", ex);
+            }
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
     private LDAPConnectionPool createConnectionPoolWithWaitImpl(Properties props, FailoverServerSet failoverSet, BindRequest bindRequest,
             LDAPConnectionOptions connectionOptions, int maxConnections, SSLUtil sslUtil) throws LDAPException {
         int connectionPoolMaxWaitTimeSeconds = StringHelper.toInt(props.getProperty("connection-pool-max-wait-time"), 30);
@@ -461,8 +530,99 @@ public class LdapConnectionProvider {
         return connectionPool;
     }
 
+    /**
+     * Select connection pool for read request. It's fastest available read server
+     * by moving average of response time. Primary servers are used if there are no
+     * read servers, all of them are unavailable, current thread prepares modification
+     * or current thread modified data recently.
+     *
+     * Read your writes is guaranteed only to the thread which made modification. Other
+     * threads of the same request or user session can read stale data from read servers
+     * till it gets replicated. Because of this routing is disabled by default and should
+     * be enabled with read.enabled=true only if application tolerates such reads
+     *
+     * @return LdapReadReplica to execute read request
+     */
+    public LdapReadReplica getReadReplica() {
+        if (primaryReadReplica == null) {
+            // Provider was not initialized by init method
+            primaryReadReplica = new LdapReadReplica(null, connectionPool, true, DEFAULT_READ_FAILURE_BACKOFF_MILLIS);
+        }
+
+        if (readReplicas.isEmpty() || (primaryReads.get() != null) || isReadYourWrites()) {
+            return primaryReadReplica;
+        }
+
+        LdapReadReplica result = null;
+        for (LdapReadReplica readReplica : readReplicas) {
+            if (!readReplica.isAvailable()) {
+                continue;
+            }
+
+            if ((result == null) || (readReplica.getRoutingResponseTimeMillis() < result.getRoutingResponseTimeMillis())) {
+                result = readReplica;
+            }
+        }
+
+        if (result == null) {
+            return primaryReadReplica;
+        }
+
+        return result;
+    }
+
+    /**
+     * Route next reads of current thread to primary servers to allow it to see own
+     * modifications before they get replicated
+     */
+    public void markWrite() {
+        if (!readReplicas.isEmpty() && (readYourWritesMillis > 0)) {
+            lastWriteTime.set(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Route reads of current thread to primary servers till {@link #endPrimaryReads()}.
+     * It should be used for reads which prepare modifications
+     */
+    public void beginPrimaryReads() {
+        Integer level = primaryReads.get();
+        primaryReads.set(level == null ? 1 : level + 1);
+    }
+
+    public void endPrimaryReads() {
+        Integer level = primaryReads.get();
+        if ((level == null) || (level <= 1)) {
+            primaryReads.remove();
+        } else {
+            primaryReads.set(level - 1);
+        }
+    }
+
+    private boolean isReadYourWrites() {
+        Long lastWrite = lastWriteTime.get();
+        if (lastWrite == null) {
+            return false;
+        }
+
+        if (System.currentTimeMillis() - lastWrite < readYourWritesMillis) {
+            return true;
+        }
+        lastWriteTime.remove();
+
+        return false;
+    }
+
+    public List<LdapReadReplica> getReadReplicas() {
+        return readReplicas;
+    }
+
     public void closeConnectionPool() {
         connectionPool.close();
+
+        for (LdapReadReplica readReplica : readReplicas) {
+            readReplica.getConnectionPool().close();
+        }
     }
 
     public boolean isConnected() {
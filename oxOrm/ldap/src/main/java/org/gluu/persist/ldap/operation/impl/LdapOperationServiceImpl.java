@@ -16,6 +16,7 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -44,10 +45,14 @@ import org.gluu.persist.model.PagedResult;
 import org.gluu.persist.model.SortOrder;
 import org.gluu.persist.operation.auth.PasswordEncryptionHelper;
 import org.gluu.persist.operation.auth.PasswordEncryptionMethod;
+import org.gluu.persist.watch.OperationMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.sdk.AddRequest;
+import com.unboundid.ldap.sdk.AsyncRequestID;
+import com.unboundid.ldap.sdk.AsyncSearchResultListener;
 import com.unboundid.ldap.sdk.Attribute;
 import com.unboundid.ldap.sdk.BindResult;
 import com.unboundid.ldap.sdk.Control;
@@ -65,7 +70,9 @@ import com.unboundid.ldap.sdk.ResultCode;
 import com.unboundid.ldap.sdk.SearchRequest;
 import com.unboundid.ldap.sdk.SearchResult;
 import com.unboundid.ldap.sdk.SearchResultEntry;
+import com.unboundid.ldap.sdk.SearchResultReference;
 import com.unboundid.ldap.sdk.SearchScope;
+import com.unboundid.ldap.sdk.UpdatableLDAPRequest;
 import com.unboundid.ldap.sdk.controls.SimplePagedResultsControl;
 import com.unboundid.ldap.sdk.controls.SubtreeDeleteRequestControl;
 import com.unboundid.ldap.sdk.schema.AttributeTypeDefinition;
@@ -88,6 +95,8 @@ public class LdapOperationServiceImpl implements LdapOperationService {
 
 	private PersistenceExtension persistenceExtension;
 
+	private OperationMetrics operationMetrics = new OperationMetrics("ldap");
+
     private static Map<String, Class<?>> ATTRIBUTE_DATA_TYPES = new HashMap<String, Class<?>>();
     private static final Map<String, Class<?>> OID_SYNTAX_CLASS_MAPPING;
 
@@ -219,6 +228,7 @@ public class LdapOperationServiceImpl implements LdapOperationService {
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("LDAP operation: bind, duration: {}, dn: {}", duration, bindDn);
+        operationMetrics.record("bind", getParentDn(bindDn), duration, null);
 
         return result;
     }
@@ -268,10 +278,17 @@ public class LdapOperationServiceImpl implements LdapOperationService {
                                    int count, int pageSize, Control[] controls, String... attributes) throws SearchException {
         Instant startTime = OperationDurationUtil.instance().now();
         
-        PagedResult<EntryData> result = searchImpl(dn, filter, scope, batchOperationWraper, start, count, pageSize, controls, attributes);
+        PagedResult<EntryData> result;
+        try {
+        	result = searchImpl(dn, filter, scope, batchOperationWraper, start, count, pageSize, controls, attributes);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("search", dn, startTime, filter);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("LDAP operation: search, duration: {}, dn: {}, filter: {}, scope: {}, batchOperationWraper: {}, start: {}, searchLimit: {}, count: {}, controls: {}, attributes: {}", duration, dn, filter, scope, batchOperationWraper, start, pageSize, count, controls, attributes);
+        operationMetrics.record("search", dn, duration, filter);
 
         return result;
     }
@@ -307,9 +324,10 @@ public class LdapOperationServiceImpl implements LdapOperationService {
                 pageSize = 100;
             }
 
+            LdapReadReplica readReplica = connectionProvider.getReadReplica();
             LDAPConnection ldapConnection = null;
             try {
-                ldapConnection = getConnection();
+                ldapConnection = readReplica.getConnection();
                 ASN1OctetString cookie = null;
                 SimplePagedResponse simplePagedResponse = null;
                 if (start > 0) {
@@ -384,12 +402,14 @@ public class LdapOperationServiceImpl implements LdapOperationService {
             } catch (LDAPException ex) {
                 throw new SearchException("Failed to scroll to specified start", ex, ex.getResultCode().intValue());
             } finally {
-            	releaseConnection(ldapConnection);
+            	if (ldapConnection != null) {
+            		readReplica.releaseConnection(ldapConnection);
+            	}
             }
         } else {
             setControls(searchRequest, controls);
             try {
-                searchResult = getConnectionPool().search(searchRequest);
+                searchResult = connectionProvider.getReadReplica().search(searchRequest);
                 if (!ResultCode.SUCCESS.equals(searchResult.getResultCode())) {
                     throw new SearchEntryException(String.format("Failed to ssearch entries with baseDN: %s, filter: %s", dn, filter));
                 }
@@ -421,6 +441,78 @@ public class LdapOperationServiceImpl implements LdapOperationService {
         return result;
     }
 
+    @Override
+    public PagedResult<EntryData> searchPage(String dn, Filter filter, SearchScope scope, LdapSearchPosition searchPosition, int pageSize,
+                                   String... attributes) throws SearchException {
+        Instant startTime = OperationDurationUtil.instance().now();
+
+        PagedResult<EntryData> result;
+        try {
+        	result = searchPageImpl(dn, filter, scope, searchPosition, pageSize, attributes);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("search", dn, startTime, filter);
+        	throw ex;
+        }
+
+        Duration duration = OperationDurationUtil.instance().duration(startTime);
+        OperationDurationUtil.instance().logDebug("LDAP operation: search page, duration: {}, dn: {}, filter: {}, scope: {}, pageSize: {}, attributes: {}", duration, dn, filter, scope, pageSize, attributes);
+        operationMetrics.record("search", dn, duration, filter);
+
+        return result;
+    }
+
+    private PagedResult<EntryData> searchPageImpl(String dn, Filter filter, SearchScope scope, LdapSearchPosition searchPosition, int pageSize,
+            String... attributes) throws SearchException {
+        List<EntryData> searchResultList = new LinkedList<EntryData>();
+        if (!searchPosition.isFinished()) {
+            SearchRequest searchRequest;
+            if (attributes == null) {
+                searchRequest = new SearchRequest(dn, scope, filter);
+            } else {
+                searchRequest = new SearchRequest(dn, scope, filter, attributes);
+            }
+            searchRequest.setControls(new Control[] {new SimplePagedResultsControl(pageSize, searchPosition.getCookie())});
+
+            try {
+                if (searchPosition.getConnection() == null) {
+                    LdapReadReplica readReplica = connectionProvider.getReadReplica();
+                    searchPosition.setConnection(readReplica, readReplica.getConnection());
+                }
+
+                SearchResult searchResult = searchPosition.getConnection().search(searchRequest);
+                if (!ResultCode.SUCCESS.equals(searchResult.getResultCode())) {
+                    throw new SearchEntryException(String.format("Failed to search entries with baseDN: %s, filter: %s", dn, filter));
+                }
+                searchResultList.addAll(getEntryDataList(searchResult));
+
+                ASN1OctetString cookie = null;
+                SimplePagedResultsControl c = SimplePagedResultsControl.get(searchResult);
+                if (c != null) {
+                    cookie = c.getCookie();
+                }
+
+                if ((cookie == null) || (cookie.getValueLength() == 0)) {
+                    // Server returned last page
+                    searchPosition.close();
+                } else {
+                    searchPosition.setCookie(cookie);
+                }
+            } catch (LDAPException ex) {
+                searchPosition.close();
+                throw new SearchException(String.format("Failed to search page of entries with baseDN: %s, filter: %s", dn, filter), ex, ex.getResultCode().intValue());
+            } catch (RuntimeException ex) {
+                searchPosition.close();
+                throw ex;
+            }
+        }
+
+        PagedResult<EntryData> result = new PagedResult<EntryData>();
+        result.setEntries(searchResultList);
+        result.setEntriesCount(searchResultList.size());
+
+        return result;
+    }
+
     private SimplePagedResponse scrollSimplePagedResultsControl(LDAPConnection ldapConnection, String dn, Filter filter, SearchScope scope,
             Control[] controls, int start) throws LDAPException, InvalidSimplePageControlException {
         SearchRequest searchRequest = new SearchRequest(dn, scope, filter, "dn");
@@ -455,10 +547,17 @@ public class LdapOperationServiceImpl implements LdapOperationService {
                                                                String... attributes) throws Exception {
         Instant startTime = OperationDurationUtil.instance().now();
         
-		PagedResult<EntryData> result = searchSearchResultEntryListImpl(dn, filter, scope, startIndex, count, pageSize, sortBy, sortOrder, attributes);
+		PagedResult<EntryData> result;
+		try {
+			result = searchSearchResultEntryListImpl(dn, filter, scope, startIndex, count, pageSize, sortBy, sortOrder, attributes);
+		} catch (Exception ex) {
+			operationMetrics.recordFailure("search_result_list", dn, startTime, filter);
+			throw ex;
+		}
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("LDAP operation: search_result_list, duration: {}, dn: {}, filter: {}, scope: {}, startIndex: {}, count: {}, pageSize: {}, sortBy: {}, sortOrder: {}, attributes: {}, result: {}", duration, dn, filter, scope, startIndex, count, pageSize, sortBy, sortOrder, attributes, result);
+        operationMetrics.record("search_result_list", dn, duration, filter);
 
         return result;
     }
@@ -472,9 +571,10 @@ public class LdapOperationServiceImpl implements LdapOperationService {
         int totalResults = 0;
 
         ASN1OctetString resumeCookie = null;
+        LdapReadReplica readReplica = connectionProvider.getReadReplica();
         LDAPConnection conn = null;
         try {
-        	conn = getConnection();
+        	conn = readReplica.getConnection();
 	        SearchRequest searchRequest = new SearchRequest(dn, scope, filter, attributes);
 	
 	
@@ -524,7 +624,9 @@ public class LdapOperationServiceImpl implements LdapOperationService {
 	            searchResultEntryList = sortListByAttributes(searchResultEntryList, SearchResultEntry.class, false, ascending, sortBy);
 	        }
         } finally {
-        	releaseConnection(conn);
+        	if (conn != null) {
+        		readReplica.releaseConnection(conn);
+        	}
         }
 
 
@@ -576,22 +678,24 @@ public class LdapOperationServiceImpl implements LdapOperationService {
     public EntryData lookup(String dn, String... attributes) throws ConnectionException, SearchException {
         Instant startTime = OperationDurationUtil.instance().now();
         
-        EntryData result = lookupImpl(dn, attributes);
+        EntryData result;
+        try {
+        	result = lookupImpl(dn, attributes);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("lookup", getParentDn(dn), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("LDAP operation: lookup, duration: {}, dn: {}, attributes: {}", duration, dn, attributes);
+        operationMetrics.record("lookup", getParentDn(dn), duration, null);
 
         return result;
     }
 
     private EntryData lookupImpl(String dn, String... attributes) throws SearchException {
         try {
-        	SearchResultEntry searchResultEntry;
-            if (attributes == null) {
-            	searchResultEntry = getConnectionPool().getEntry(dn);
-            } else {
-            	searchResultEntry = getConnectionPool().getEntry(dn, attributes);
-            }
+        	SearchResultEntry searchResultEntry = connectionProvider.getReadReplica().getEntry(dn, attributes);
 
             EntryData result = getEntryData(searchResultEntry);
             if (result != null) {
@@ -604,14 +708,94 @@ public class LdapOperationServiceImpl implements LdapOperationService {
         throw new SearchException(String.format("Failed to lookup entry by DN: '%s'", dn));
     }
 
+    @Override
+    public Map<String, EntryData> lookup(Collection<String> dns, String... attributes) throws ConnectionException, SearchException {
+        Instant startTime = OperationDurationUtil.instance().now();
+
+        Map<String, EntryData> result;
+        try {
+        	result = lookupImpl(dns, attributes);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("lookup", null, startTime, null);
+        	throw ex;
+        }
+
+        Duration duration = OperationDurationUtil.instance().duration(startTime);
+        OperationDurationUtil.instance().logDebug("LDAP operation: lookup, duration: {}, dns: {}, attributes: {}", duration, dns, attributes);
+        operationMetrics.record("lookup", null, duration, null);
+
+        return result;
+    }
+
+    private Map<String, EntryData> lookupImpl(Collection<String> dns, String... attributes) throws SearchException {
+        Map<String, EntryData> result = new HashMap<String, EntryData>();
+        if ((dns == null) || dns.isEmpty()) {
+            return result;
+        }
+
+        LdapReadReplica readReplica = connectionProvider.getReadReplica();
+        LDAPConnection connection = null;
+        boolean success = false;
+        try {
+            connection = readReplica.getConnection();
+
+            // Send all requests before waiting for first response
+            Map<String, LookupResultListener> listeners = new LinkedHashMap<String, LookupResultListener>(dns.size());
+            for (String dn : dns) {
+                LookupResultListener listener = new LookupResultListener();
+                SearchRequest searchRequest = new SearchRequest(listener, dn, SearchScope.BASE, Filter.createPresenceFilter(OBJECT_CLASS), attributes);
+                listener.setRequestId(connection.asyncSearch(searchRequest));
+                listeners.put(dn, listener);
+            }
+
+            for (Map.Entry<String, LookupResultListener> listenerEntry : listeners.entrySet()) {
+                LookupResultListener listener = listenerEntry.getValue();
+                LDAPResult ldapResult = listener.getRequestId().get();
+                if (ResultCode.NO_SUCH_OBJECT.equals(ldapResult.getResultCode())) {
+                    continue;
+                }
+                if (!ResultCode.SUCCESS.equals(ldapResult.getResultCode())) {
+                    throw new LDAPException(ldapResult);
+                }
+
+                EntryData entryData = getEntryData(listener.getSearchResultEntry());
+                if (entryData != null) {
+                    result.put(listenerEntry.getKey(), entryData);
+                }
+            }
+            success = true;
+        } catch (LDAPException ex) {
+            throw new SearchException(String.format("Failed to lookup entries by DNs: '%s'", dns), ex, ex.getResultCode().intValue());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SearchException(String.format("Failed to lookup entries by DNs: '%s'", dns), ex);
+        } finally {
+            if (success) {
+                readReplica.releaseConnection(connection);
+            } else if (connection != null) {
+                // Connection can have unprocessed responses
+                readReplica.closeDefunctConnection(connection);
+            }
+        }
+
+        return result;
+    }
+
     @Override
     public boolean addEntry(String dn, Collection<Attribute> attributes) throws DuplicateEntryException, ConnectionException {
         Instant startTime = OperationDurationUtil.instance().now();
         
-        boolean result = addEntryImpl(dn, attributes);
+        boolean result;
+        try {
+        	result = addEntryImpl(dn, attributes);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("add", getParentDn(dn), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("LDAP operation: add, duration: {}, dn: {}, attributes: {}", duration, dn, attributes);
+        operationMetrics.record("add", getParentDn(dn), duration, null);
         
         return result;
     }
@@ -621,6 +805,7 @@ public class LdapOperationServiceImpl implements LdapOperationService {
     		updateUserPasswordAttribute(attributes);
     	}
 
+    	connectionProvider.markWrite();
     	try {
             LDAPResult result = getConnectionPool().add(dn, attributes);
             if (result.getResultCode().getName().equalsIgnoreCase(SUCCESS)) {
@@ -672,10 +857,17 @@ public class LdapOperationServiceImpl implements LdapOperationService {
     public boolean updateEntry(String dn, List<Modification> modifications) throws DuplicateEntryException, ConnectionException {
         Instant startTime = OperationDurationUtil.instance().now();
         
-        boolean result = updateEntryImpl(dn, modifications);
+        boolean result;
+        try {
+        	result = updateEntryImpl(dn, modifications);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("modify", getParentDn(dn), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("LDAP operation: modify, duration: {}, dn: {}, modifications: {}", duration, dn, modifications);
+        operationMetrics.record("modify", getParentDn(dn), duration, null);
 
         return result;
     }
@@ -699,6 +891,7 @@ public class LdapOperationServiceImpl implements LdapOperationService {
      */
     protected boolean modifyEntry(ModifyRequest modifyRequest) throws DuplicateEntryException, ConnectionException {
         LDAPResult modifyResult = null;
+        connectionProvider.markWrite();
         try {
             modifyResult = getConnectionPool().modify(modifyRequest);
             return ResultCode.SUCCESS.equals(modifyResult.getResultCode());
@@ -722,15 +915,23 @@ public class LdapOperationServiceImpl implements LdapOperationService {
     public boolean delete(String dn) throws ConnectionException {
         Instant startTime = OperationDurationUtil.instance().now();
 
-        boolean result = deleteImpl(dn);
+        boolean result;
+        try {
+        	result = deleteImpl(dn);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("delete", getParentDn(dn), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("LDAP operation: delete, duration: {}, dn: {}", duration, dn);
+        operationMetrics.record("delete", getParentDn(dn), duration, null);
 
         return result;
     }
 
     private boolean deleteImpl(String dn) {
+        connectionProvider.markWrite();
         try {
             LDAPResult result = getConnectionPool().delete(dn);
             
@@ -740,19 +941,106 @@ public class LdapOperationServiceImpl implements LdapOperationService {
         }
     }
 
+    @Override
+    public List<LDAPResult> processBatch(List<? extends UpdatableLDAPRequest> requests) throws ConnectionException {
+        Instant startTime = OperationDurationUtil.instance().now();
+
+        List<LDAPResult> result;
+        try {
+        	result = processBatchImpl(requests);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("batch", null, startTime, null);
+        	throw ex;
+        }
+
+        Duration duration = OperationDurationUtil.instance().duration(startTime);
+        OperationDurationUtil.instance().logDebug("LDAP operation: batch, duration: {}, count: {}", duration, requests.size());
+        operationMetrics.record("batch", null, duration, null);
+
+        return result;
+    }
+
+    private List<LDAPResult> processBatchImpl(List<? extends UpdatableLDAPRequest> requests) {
+        List<LDAPResult> results = new ArrayList<LDAPResult>(requests.size());
+        if (requests.isEmpty()) {
+            return results;
+        }
+
+        connectionProvider.markWrite();
+
+        LDAPConnection connection = null;
+        boolean success = false;
+        try {
+            connection = getConnection();
+
+            // Send all requests before waiting for first response
+            List<AsyncRequestID> requestIds = new ArrayList<AsyncRequestID>(requests.size());
+            for (UpdatableLDAPRequest request : requests) {
+                if (request instanceof AddRequest) {
+                    AddRequest addRequest = (AddRequest) request;
+                    if (this.persistenceExtension != null) {
+                        List<Attribute> attributes = new ArrayList<Attribute>(addRequest.getAttributes());
+                        updateUserPasswordAttribute(attributes);
+                        addRequest.setAttributes(attributes);
+                    }
+                    requestIds.add(connection.asyncAdd(addRequest, null));
+                } else if (request instanceof ModifyRequest) {
+                    ModifyRequest modifyRequest = (ModifyRequest) request;
+                    if (this.persistenceExtension != null) {
+                        List<Modification> modifications = new ArrayList<Modification>(modifyRequest.getModifications());
+                        updateUserPasswordModification(modifications);
+                        modifyRequest.setModifications(modifications);
+                    }
+                    requestIds.add(connection.asyncModify(modifyRequest, null));
+                } else if (request instanceof DeleteRequest) {
+                    requestIds.add(connection.asyncDelete((DeleteRequest) request, null));
+                } else {
+                    throw new UnsupportedOperationException(String.format("Request type '%s' is not supported in batch", request.getClass()));
+                }
+            }
+
+            for (AsyncRequestID requestId : requestIds) {
+                results.add(requestId.get());
+            }
+            success = true;
+        } catch (LDAPException ex) {
+            throw new ConnectionException("Failed to process batch", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConnectionException("Failed to process batch", ex);
+        } finally {
+            if (success) {
+                releaseConnection(connection);
+            } else if (connection != null) {
+                // Connection can have unprocessed responses
+                connectionProvider.closeDefunctConnection(connection);
+            }
+        }
+
+        return results;
+    }
+
     @Override
     public boolean deleteRecursively(String dn) throws ConnectionException {
         Instant startTime = OperationDurationUtil.instance().now();
 
-        boolean result = deleteRecursivelyImpl(dn);
+        boolean result;
+        try {
+        	result = deleteRecursivelyImpl(dn);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("delete_tree", getParentDn(dn), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("LDAP operation: delete_tree, duration: {}, dn: {}", duration, dn);
+        operationMetrics.record("delete_tree", getParentDn(dn), duration, null);
 
         return result;
     }
 
     protected boolean deleteRecursivelyImpl(String dn) {
+        connectionProvider.markWrite();
         try {
             final DeleteRequest deleteRequest = new DeleteRequest(dn);
             deleteRequest.addControl(new SubtreeDeleteRequestControl());
@@ -766,6 +1054,7 @@ public class LdapOperationServiceImpl implements LdapOperationService {
 
     @Override
     public boolean processChange(LDIFChangeRecord ldifRecord) throws LDAPException {
+        connectionProvider.markWrite();
         LDAPConnection connection = getConnection();
         try {
             LDAPResult ldapResult = ldifRecord.processChange(connection);
@@ -790,6 +1079,8 @@ public class LdapOperationServiceImpl implements LdapOperationService {
     public boolean destroy() {
         boolean result = true;
 
+        operationMetrics.unregisterMBean();
+
         if (connectionProvider != null) {
             try {
                 connectionProvider.closeConnectionPool();
@@ -811,6 +1102,20 @@ public class LdapOperationServiceImpl implements LdapOperationService {
         return result;
     }
 
+    private String getParentDn(String dn) {
+        // Entry DNs are unique, use container DN to keep number of metrics bounded
+        if (dn == null) {
+            return null;
+        }
+
+        int idx = dn.indexOf(',');
+        if (idx == -1) {
+            return dn;
+        }
+
+        return dn.substring(idx + 1);
+    }
+
     private EntryData getEntryData(SearchResultEntry entry) {
     	List<AttributeData> attributeData = getAttributeDataList(entry);
     	if (attributeData == null) {
@@ -1195,6 +1500,11 @@ public class LdapOperationServiceImpl implements LdapOperationService {
 		this.persistenceExtension = persistenceExtension;
 	}
 
+	@Override
+	public OperationMetrics getOperationMetrics() {
+		return operationMetrics;
+	}
+
 	@Override
 	public boolean isSupportObjectClass(String objectClass) {
 		return true;
@@ -1219,5 +1529,37 @@ public class LdapOperationServiceImpl implements LdapOperationService {
 		}
     }
 
-}
+    private static final class LookupResultListener implements AsyncSearchResultListener {
+
+        private static final long serialVersionUID = -2718603423117523186L;
+
+        private transient AsyncRequestID requestId;
+        private volatile SearchResultEntry searchResultEntry;
 
+        @Override
+        public void searchEntryReturned(SearchResultEntry searchEntry) {
+            this.searchResultEntry = searchEntry;
+        }
+
+        @Override
+        public void searchReferenceReturned(SearchResultReference searchReference) {
+        }
+
+        @Override
+        public void searchResultReceived(AsyncRequestID requestID, SearchResult searchResult) {
+        }
+
+        public AsyncRequestID getRequestId() {
+            return requestId;
+        }
+
+        public void setRequestId(AsyncRequestID requestId) {
+            this.requestId = requestId;
+        }
+
+        public SearchResultEntry getSearchResultEntry() {
+            return searchResultEntry;
+        }
+    }
+
+}
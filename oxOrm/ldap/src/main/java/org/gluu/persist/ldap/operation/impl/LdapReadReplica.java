@@ -0,0 +1,170 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.ldap.operation.impl;
+
+import org.gluu.orm.util.ArrayHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.unboundid.ldap.sdk.LDAPConnection;
+import com.unboundid.ldap.sdk.LDAPConnectionPool;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.LDAPSearchException;
+import com.unboundid.ldap.sdk.ResultCode;
+import com.unboundid.ldap.sdk.SearchRequest;
+import com.unboundid.ldap.sdk.SearchResult;
+import com.unboundid.ldap.sdk.SearchResultEntry;
+
+/**
+ * Connection pool which serves read requests. It keeps moving average of response
+ * time and excludes server from routing for some time after connection failure
+ */
+public class LdapReadReplica {
+
+	private static final Logger LOG = LoggerFactory.getLogger(LdapReadReplica.class);
+
+	// Weight of last response time in moving average
+	private static final double RESPONSE_TIME_WEIGHT = 0.2;
+
+	// Server which was not used for routing for this time should be measured again
+	private static final long RESPONSE_TIME_EXPIRATION_MILLIS = 10 * 1000;
+
+	private final String server;
+	private final LDAPConnectionPool connectionPool;
+	private final boolean primary;
+	private final long failureBackoffMillis;
+
+	private volatile double averageResponseTimeMillis = -1;
+	private volatile long lastResponseTimeUpdateMillis;
+	private volatile long unavailableUntilMillis;
+
+	public LdapReadReplica(String server, LDAPConnectionPool connectionPool, boolean primary, long failureBackoffMillis) {
+		this.server = server;
+		this.connectionPool = connectionPool;
+		this.primary = primary;
+		this.failureBackoffMillis = failureBackoffMillis;
+	}
+
+	public SearchResult search(SearchRequest searchRequest) throws LDAPSearchException {
+		long startTime = System.nanoTime();
+		try {
+			SearchResult searchResult = connectionPool.search(searchRequest);
+			updateResponseTime(System.nanoTime() - startTime);
+
+			return searchResult;
+		} catch (LDAPSearchException ex) {
+			processException(ex, System.nanoTime() - startTime);
+			throw ex;
+		}
+	}
+
+	public SearchResultEntry getEntry(String dn, String... attributes) throws LDAPException {
+		long startTime = System.nanoTime();
+		try {
+			SearchResultEntry searchResultEntry;
+			if (ArrayHelper.isEmpty(attributes)) {
+				searchResultEntry = connectionPool.getEntry(dn);
+			} else {
+				searchResultEntry = connectionPool.getEntry(dn, attributes);
+			}
+			updateResponseTime(System.nanoTime() - startTime);
+
+			return searchResultEntry;
+		} catch (LDAPException ex) {
+			processException(ex, System.nanoTime() - startTime);
+			throw ex;
+		}
+	}
+
+	public LDAPConnection getConnection() throws LDAPException {
+		try {
+			return connectionPool.getConnection();
+		} catch (LDAPException ex) {
+			processException(ex, -1);
+			throw ex;
+		}
+	}
+
+	public void releaseConnection(LDAPConnection connection) {
+		connectionPool.releaseConnection(connection);
+	}
+
+	public void closeDefunctConnection(LDAPConnection connection) {
+		connectionPool.releaseDefunctConnection(connection);
+	}
+
+	public void updateResponseTime(long durationNanos) {
+		double durationMillis = durationNanos / 1000000.0d;
+
+		// Lost updates under concurrency are acceptable for moving average
+		double currentAverage = getRoutingResponseTimeMillis();
+		if (currentAverage < 0) {
+			this.averageResponseTimeMillis = durationMillis;
+		} else {
+			this.averageResponseTimeMillis = currentAverage + RESPONSE_TIME_WEIGHT * (durationMillis - currentAverage);
+		}
+		this.lastResponseTimeUpdateMillis = System.currentTimeMillis();
+	}
+
+	/*
+	 * Returns -1 if there is no recent measurement. Such server is preferred by
+	 * routing to get new response time
+	 */
+	public double getRoutingResponseTimeMillis() {
+		if (System.currentTimeMillis() - lastResponseTimeUpdateMillis > RESPONSE_TIME_EXPIRATION_MILLIS) {
+			return -1;
+		}
+
+		return averageResponseTimeMillis;
+	}
+
+	private void processException(LDAPException ex, long durationNanos) {
+		if (ResultCode.isConnectionUsable(ex.getResultCode())) {
+			// Server is alive, request failed because of data or request itself
+			if (durationNanos >= 0) {
+				updateResponseTime(durationNanos);
+			}
+			return;
+		}
+
+		if (!primary) {
+			LOG.warn("Excluding LDAP read server '{}' from routing for {} ms after error: {}", server, failureBackoffMillis, ex.getResultCode());
+		}
+		this.unavailableUntilMillis = System.currentTimeMillis() + failureBackoffMillis;
+	}
+
+	public boolean isAvailable() {
+		if (connectionPool.isClosed()) {
+			return false;
+		}
+
+		return System.currentTimeMillis() >= unavailableUntilMillis;
+	}
+
+	public String getServer() {
+		return server;
+	}
+
+	public LDAPConnectionPool getConnectionPool() {
+		return connectionPool;
+	}
+
+	public boolean isPrimary() {
+		return primary;
+	}
+
+	public double getAverageResponseTimeMillis() {
+		return averageResponseTimeMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "LdapReadReplica [server=" + server + ", primary=" + primary + ", averageResponseTimeMillis=" + averageResponseTimeMillis
+				+ ", available=" + isAvailable() + "]";
+	}
+
+}
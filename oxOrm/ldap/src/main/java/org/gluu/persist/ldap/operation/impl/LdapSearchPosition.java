@@ -0,0 +1,56 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.ldap.operation.impl;
+
+import java.io.Closeable;
+
+import com.unboundid.asn1.ASN1OctetString;
+import com.unboundid.ldap.sdk.LDAPConnection;
+
+/**
+ * Position of simple paged results search which is continued page by page with separate requests.
+ * Server binds paging cookie to connection, so connection is held until search is finished or closed
+ */
+public class LdapSearchPosition implements Closeable {
+
+	private LdapReadReplica readReplica;
+	private LDAPConnection connection;
+	private ASN1OctetString cookie;
+	private boolean finished;
+
+	public boolean isFinished() {
+		return finished;
+	}
+
+	@Override
+	public void close() {
+		finished = true;
+		cookie = null;
+		if (connection != null) {
+			readReplica.releaseConnection(connection);
+			connection = null;
+		}
+	}
+
+	LDAPConnection getConnection() {
+		return connection;
+	}
+
+	void setConnection(LdapReadReplica readReplica, LDAPConnection connection) {
+		this.readReplica = readReplica;
+		this.connection = connection;
+	}
+
+	ASN1OctetString getCookie() {
+		return cookie;
+	}
+
+	void setCookie(ASN1OctetString cookie) {
+		this.cookie = cookie;
+	}
+
+}
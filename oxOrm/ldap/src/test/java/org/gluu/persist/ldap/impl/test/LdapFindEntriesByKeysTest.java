@@ -0,0 +1,180 @@
+package org.gluu.persist.ldap.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.gluu.persist.ldap.impl.LdapEntryManager;
+import org.gluu.persist.ldap.operation.impl.LdapConnectionProvider;
+import org.gluu.persist.ldap.operation.impl.LdapOperationServiceImpl;
+import org.gluu.persist.model.SearchScope;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.InMemoryListenerConfig;
+import com.unboundid.ldap.sdk.Attribute;
+import com.unboundid.ldap.sdk.Entry;
+import com.unboundid.ldap.sdk.LDAPException;
+
+/**
+ * Loading of entries by DNs with asynchronous requests and streaming of entries against in-memory directory server
+ */
+public class LdapFindEntriesByKeysTest {
+
+	private static final String BASE_DN = "o=gluu";
+	private static final String[] PARENT_DNS = { "ou=people,o=gluu", "ou=staff,o=gluu" };
+	private static final int ENTRIES_COUNT = 20;
+
+	private static final String BIND_DN = "cn=directory manager";
+	private static final String BIND_PASSWORD = "secret";
+
+	private InMemoryDirectoryServer directoryServer;
+	private LdapEntryManager entryManager;
+
+	@BeforeClass
+	public void init() throws LDAPException {
+		InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(BASE_DN);
+		config.addAdditionalBindCredentials(BIND_DN, BIND_PASSWORD);
+		config.setListenerConfigs(InMemoryListenerConfig.createLDAPConfig("default", 0));
+		config.setSchema(null);
+
+		this.directoryServer = new InMemoryDirectoryServer(config);
+		directoryServer.add(new Entry(BASE_DN, new Attribute("objectClass", "top", "organization"), new Attribute("o", "gluu")));
+		for (String parentDn : PARENT_DNS) {
+			directoryServer.add(new Entry(parentDn, new Attribute("objectClass", "top", "organizationalUnit")));
+		}
+
+		// Entries live under different parents
+		for (int i = 0; i < ENTRIES_COUNT; i++) {
+			directoryServer.add(new Entry(getDn(i), new Attribute("objectClass", "top", "gluuPerson"), new Attribute("inum", String.valueOf(i)),
+					new Attribute("uid", "user" + i), new Attribute("displayName", "User " + i)));
+		}
+		directoryServer.startListening();
+
+		Properties props = new Properties();
+		props.setProperty("servers", "localhost:" + directoryServer.getListenPort());
+		props.setProperty("bindDN", BIND_DN);
+		props.setProperty("bindPassword", BIND_PASSWORD);
+		props.setProperty("useSSL", "false");
+		props.setProperty("maxconnections", "2");
+
+		LdapConnectionProvider connectionProvider = new LdapConnectionProvider(props);
+		connectionProvider.create();
+		assertTrue(connectionProvider.isCreated());
+
+		this.entryManager = new LdapEntryManager(new LdapOperationServiceImpl(connectionProvider));
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void destroy() {
+		if (entryManager != null) {
+			entryManager.destroy();
+		}
+
+		if (directoryServer != null) {
+			directoryServer.shutDown(true);
+		}
+	}
+
+	@Test
+	public void findEntriesInKeysOrder() {
+		List<String> dns = Arrays.asList(getDn(7), getDn(2), getDn(11), getDn(0));
+
+		List<SimpleUser> users = entryManager.findEntriesByKeys(SimpleUser.class, dns, null);
+
+		assertEquals(getDns(users), dns);
+		assertEquals(users.get(0).getUid(), "user7");
+		assertEquals(users.get(0).getDisplayName(), "User 7");
+	}
+
+	@Test
+	public void skipMissingAndDuplicateKeys() {
+		// Missing entry under existing parent and entry under missing parent
+		List<String> dns = Arrays.asList(getDn(5), getDn(-1), getDn(2), "inum=1,ou=groups,o=gluu", getDn(5), getDn(9));
+
+		List<SimpleUser> users = entryManager.findEntriesByKeys(SimpleUser.class, dns, null);
+
+		assertEquals(getDns(users), Arrays.asList(getDn(5), getDn(2), getDn(9)));
+	}
+
+	@Test
+	public void findEntriesWithAttributes() {
+		List<SimpleUser> users = entryManager.findEntriesByKeys(SimpleUser.class, Arrays.asList(getDn(4), getDn(1)), new String[] { "uid" });
+
+		assertEquals(getDns(users), Arrays.asList(getDn(4), getDn(1)));
+		assertEquals(users.get(0).getUid(), "user4");
+		assertNull(users.get(0).getDisplayName());
+	}
+
+	@Test(dependsOnMethods = "skipMissingAndDuplicateKeys")
+	public void reuseConnectionsAfterMissingEntries() {
+		// Pool has 2 connections. Each lookup should return connection to pool
+		for (int i = 0; i < 5; i++) {
+			List<String> dns = new ArrayList<String>();
+			for (int j = ENTRIES_COUNT; j >= -1; j--) {
+				dns.add(getDn(j));
+			}
+
+			List<SimpleUser> users = entryManager.findEntriesByKeys(SimpleUser.class, dns, null);
+			assertEquals(users.size(), ENTRIES_COUNT);
+			assertEquals(users.get(0).getDn(), getDn(ENTRIES_COUNT - 1));
+		}
+	}
+
+	@Test
+	public void findEntriesWithoutKeys() {
+		assertTrue(entryManager.findEntriesByKeys(SimpleUser.class, Collections.<String>emptyList(), null).isEmpty());
+		assertTrue(entryManager.findEntriesByKeys(SimpleUser.class, Arrays.asList(getDn(-1), getDn(-2)), null).isEmpty());
+	}
+
+	@Test
+	public void streamEntriesPageByPage() {
+		try (Stream<SimpleUser> stream = entryManager.streamEntries(BASE_DN, SimpleUser.class, null, null, 3)) {
+			List<String> dns = stream.map(SimpleUser::getDn).collect(Collectors.toList());
+
+			assertEquals(dns.size(), ENTRIES_COUNT);
+			assertEquals(dns.stream().distinct().count(), ENTRIES_COUNT);
+		}
+
+		try (Stream<SimpleUser> stream = entryManager.streamEntries(BASE_DN, SimpleUser.class, null, SearchScope.SUB, null, 7, 3)) {
+			assertEquals(stream.count(), 7);
+		}
+	}
+
+	@Test
+	public void releaseConnectionOfClosedStream() {
+		// Pool has 2 connections. Stream holds connection of paged search until it's closed
+		for (int i = 0; i < 5; i++) {
+			try (Stream<SimpleUser> stream = entryManager.streamEntries(BASE_DN, SimpleUser.class, null, null, 3)) {
+				assertEquals(stream.limit(4).count(), 4);
+			}
+		}
+
+		assertEquals(entryManager.findEntriesByKeys(SimpleUser.class, Arrays.asList(getDn(3)), null).size(), 1);
+	}
+
+	private static String getDn(int i) {
+		return String.format("inum=%d,%s", i, PARENT_DNS[Math.abs(i) % PARENT_DNS.length]);
+	}
+
+	private static List<String> getDns(List<SimpleUser> users) {
+		List<String> dns = new ArrayList<String>(users.size());
+		for (SimpleUser user : users) {
+			dns.add(user.getDn());
+		}
+
+		return dns;
+	}
+
+}
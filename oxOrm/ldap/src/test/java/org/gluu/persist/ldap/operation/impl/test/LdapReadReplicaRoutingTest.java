@@ -0,0 +1,218 @@
+package org.gluu.persist.ldap.operation.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.gluu.persist.ldap.operation.impl.LdapConnectionProvider;
+import org.gluu.persist.ldap.operation.impl.LdapReadReplica;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.unboundid.ldap.listener.InMemoryDirectoryServer;
+import com.unboundid.ldap.listener.InMemoryDirectoryServerConfig;
+import com.unboundid.ldap.listener.InMemoryListenerConfig;
+import com.unboundid.ldap.listener.interceptor.InMemoryInterceptedSearchRequest;
+import com.unboundid.ldap.listener.interceptor.InMemoryOperationInterceptor;
+import com.unboundid.ldap.sdk.LDAPException;
+import com.unboundid.ldap.sdk.SearchResultEntry;
+import com.unboundid.ldif.LDIFException;
+
+/**
+ * Routing of read requests between primary and read servers. Each server is
+ * separate in-memory directory server without replication
+ */
+public class LdapReadReplicaRoutingTest {
+
+	private static final String BASE_DN = "o=gluu";
+	private static final String PEOPLE_DN = "ou=people,o=gluu";
+	private static final String USER_DN = "inum=1,ou=people,o=gluu";
+
+	private static final String BIND_DN = "cn=directory manager";
+	private static final String BIND_PASSWORD = "secret";
+
+	private InMemoryDirectoryServer primaryServer;
+	private InMemoryDirectoryServer slowReadServer;
+	private InMemoryDirectoryServer fastReadServer;
+
+	private LdapConnectionProvider connectionProvider;
+
+	@BeforeClass
+	public void init() throws LDAPException, LDIFException {
+		this.primaryServer = startServer(0);
+		this.slowReadServer = startServer(50);
+		this.fastReadServer = startServer(2);
+
+		Properties props = createProperties();
+		props.setProperty("read.enabled", "true");
+
+		this.connectionProvider = new LdapConnectionProvider(props);
+		connectionProvider.create();
+		assertTrue(connectionProvider.isCreated());
+		assertEquals(connectionProvider.getReadReplicas().size(), 2);
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void destroy() {
+		if (connectionProvider != null) {
+			connectionProvider.closeConnectionPool();
+		}
+
+		for (InMemoryDirectoryServer server : new InMemoryDirectoryServer[] { primaryServer, slowReadServer, fastReadServer }) {
+			if (server != null) {
+				server.shutDown(true);
+			}
+		}
+	}
+
+	@Test
+	public void routeReadsToFastestReadServer() throws LDAPException {
+		for (int i = 0; i < 10; i++) {
+			LdapReadReplica readReplica = connectionProvider.getReadReplica();
+			assertFalse(readReplica.isPrimary());
+			assertNotNull(readReplica.getEntry(USER_DN));
+		}
+
+		LdapReadReplica readReplica = connectionProvider.getReadReplica();
+		assertEquals(readReplica.getServer(), getServer(fastReadServer));
+		assertTrue(readReplica.getAverageResponseTimeMillis() < connectionProvider.getReadReplicas().get(0).getAverageResponseTimeMillis());
+	}
+
+	@Test
+	public void readYourWrites() throws Exception {
+		final String newUserDn = "inum=2,ou=people,o=gluu";
+
+		ExecutorService executorService = Executors.newSingleThreadExecutor();
+		try {
+			// Modification is visible only on primary server
+			SearchResultEntry entry = executorService.submit(new Callable<SearchResultEntry>() {
+				@Override
+				public SearchResultEntry call() throws Exception {
+					connectionProvider.markWrite();
+					connectionProvider.getConnectionPool().add("dn: " + newUserDn, "objectClass: top", "objectClass: gluuPerson", "inum: 2");
+
+					LdapReadReplica readReplica = connectionProvider.getReadReplica();
+					assertTrue(readReplica.isPrimary());
+
+					return readReplica.getEntry(newUserDn);
+				}
+			}).get();
+			assertNotNull(entry);
+		} finally {
+			executorService.shutdownNow();
+		}
+
+		// Other threads still use read servers
+		LdapReadReplica readReplica = connectionProvider.getReadReplica();
+		assertFalse(readReplica.isPrimary());
+		assertNull(readReplica.getEntry(newUserDn));
+	}
+
+	@Test
+	public void primaryReadsForWritePreparation() {
+		connectionProvider.beginPrimaryReads();
+		try {
+			connectionProvider.beginPrimaryReads();
+			connectionProvider.endPrimaryReads();
+
+			// Nested scope doesn't end outer one
+			assertTrue(connectionProvider.getReadReplica().isPrimary());
+		} finally {
+			connectionProvider.endPrimaryReads();
+		}
+
+		assertFalse(connectionProvider.getReadReplica().isPrimary());
+	}
+
+	@Test
+	public void routingDisabledByDefault() {
+		LdapConnectionProvider defaultConnectionProvider = new LdapConnectionProvider(createProperties());
+		defaultConnectionProvider.create();
+		try {
+			assertTrue(defaultConnectionProvider.isCreated());
+			assertTrue(defaultConnectionProvider.getReadReplicas().isEmpty());
+			assertTrue(defaultConnectionProvider.getReadReplica().isPrimary());
+		} finally {
+			defaultConnectionProvider.closeConnectionPool();
+		}
+	}
+
+	@Test(dependsOnMethods = { "routeReadsToFastestReadServer", "readYourWrites", "primaryReadsForWritePreparation" })
+	public void excludeFailedReadServer() throws LDAPException {
+		LdapReadReplica fastReadReplica = connectionProvider.getReadReplica();
+		assertEquals(fastReadReplica.getServer(), getServer(fastReadServer));
+
+		fastReadServer.shutDown(true);
+		try {
+			fastReadReplica.getEntry(USER_DN);
+			fail("Read server is down");
+		} catch (LDAPException ex) {
+			// Expected
+		}
+		assertFalse(fastReadReplica.isAvailable());
+
+		LdapReadReplica readReplica = connectionProvider.getReadReplica();
+		assertEquals(readReplica.getServer(), getServer(slowReadServer));
+		assertNotNull(readReplica.getEntry(USER_DN));
+	}
+
+	private Properties createProperties() {
+		Properties props = new Properties();
+		props.setProperty("servers", getServer(primaryServer));
+		props.setProperty("read.servers", getServer(slowReadServer) + "," + getServer(fastReadServer));
+		props.setProperty("read.read-your-writes-millis", "60000");
+		props.setProperty("bindDN", BIND_DN);
+		props.setProperty("bindPassword", BIND_PASSWORD);
+		props.setProperty("useSSL", "false");
+		props.setProperty("maxconnections", "2");
+
+		return props;
+	}
+
+	private InMemoryDirectoryServer startServer(final long searchDelayMillis) throws LDAPException, LDIFException {
+		InMemoryDirectoryServerConfig config = new InMemoryDirectoryServerConfig(BASE_DN);
+		config.addAdditionalBindCredentials(BIND_DN, BIND_PASSWORD);
+		config.setListenerConfigs(InMemoryListenerConfig.createLDAPConfig("default", 0));
+		config.setSchema(null);
+		config.addInMemoryOperationInterceptor(new InMemoryOperationInterceptor() {
+			@Override
+			public void processSearchRequest(InMemoryInterceptedSearchRequest request) throws LDAPException {
+				sleep(searchDelayMillis);
+			}
+		});
+
+		InMemoryDirectoryServer server = new InMemoryDirectoryServer(config);
+		server.add("dn: " + BASE_DN, "objectClass: top", "objectClass: organization", "o: gluu");
+		server.add("dn: " + PEOPLE_DN, "objectClass: top", "objectClass: organizationalUnit", "ou: people");
+		server.add("dn: " + USER_DN, "objectClass: top", "objectClass: gluuPerson", "inum: 1");
+		server.startListening();
+
+		return server;
+	}
+
+	private String getServer(InMemoryDirectoryServer server) {
+		return "localhost:" + server.getListenPort();
+	}
+
+	private static void sleep(long millis) {
+		if (millis <= 0) {
+			return;
+		}
+
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -10,10 +10,12 @@ import java.io.Serializable;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -40,6 +42,7 @@ import org.gluu.persist.model.PagedResult;
 import org.gluu.persist.model.SearchScope;
 import org.gluu.persist.model.Sort;
 import org.gluu.persist.model.SortOrder;
+import org.gluu.persist.model.WriteOperation;
 import org.gluu.persist.model.AttributeDataModification.AttributeModificationType;
 import org.gluu.persist.reflect.property.PropertyAnnotation;
 import org.gluu.search.filter.Filter;
@@ -173,6 +176,21 @@ public class SpannerEntryManager extends BaseEntryManager<SpannerOperationServic
 
     @Override
     protected void persist(String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
+        // Persist entry
+        try {
+        	ParsedKey parsedKey = toSQLKey(dn);
+        	List<AttributeData> resultAttributes = toPersistAttributes(dn, parsedKey, attributes);
+
+            boolean result = getOperationService().addEntry(parsedKey.getKey(), getBaseObjectClass(objectClasses), resultAttributes);
+            if (!result) {
+                throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn));
+            }
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn), ex);
+        }
+    }
+
+    private List<AttributeData> toPersistAttributes(String dn, ParsedKey parsedKey, List<AttributeData> attributes) {
     	ArrayList<AttributeData> resultAttributes = new ArrayList<>(attributes.size() + 1);
         for (AttributeData attribute : attributes) {
             String attributeName = attribute.getName();
@@ -208,68 +226,48 @@ public class SpannerEntryManager extends BaseEntryManager<SpannerOperationServic
             }
         }
 
-        // Persist entry
-        try {
-        	ParsedKey parsedKey = toSQLKey(dn);
-            resultAttributes.add(new AttributeData(SpannerOperationService.DN, dn));
-            resultAttributes.add(new AttributeData(SpannerOperationService.DOC_ID, parsedKey.getKey()));
+        resultAttributes.add(new AttributeData(SpannerOperationService.DN, dn));
+        resultAttributes.add(new AttributeData(SpannerOperationService.DOC_ID, parsedKey.getKey()));
 
-            boolean result = getOperationService().addEntry(parsedKey.getKey(), getBaseObjectClass(objectClasses), resultAttributes);
-            if (!result) {
-                throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn));
-            }
-        } catch (Exception ex) {
-            throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn), ex);
-        }
+        return resultAttributes;
+    }
+
+    @Override
+    protected void persistBatch(List<WriteOperation> operations) {
+    	for (Entry<String, List<WriteOperation>> tableOperations : groupByBaseObjectClass(operations).entrySet()) {
+    		List<WriteOperation> pendingOperations = new ArrayList<WriteOperation>(tableOperations.getValue().size());
+    		for (WriteOperation operation : tableOperations.getValue()) {
+    	        try {
+    	        	ParsedKey parsedKey = toSQLKey(operation.getDn());
+    	        	operation.setKey(parsedKey.getKey());
+    	        	operation.setData(toPersistAttributes(operation.getDn(), parsedKey, operation.getAttributes()));
+    	        	pendingOperations.add(operation);
+    	        } catch (Exception ex) {
+    	        	operation.setException(ex);
+    	        }
+    		}
+
+    		if (!pendingOperations.isEmpty()) {
+	    		try {
+	    			getOperationService().addEntries(tableOperations.getKey(), pendingOperations);
+	    		} catch (Exception ex) {
+	    			setBatchException(pendingOperations, ex);
+	    		}
+    		}
+
+    		for (WriteOperation operation : tableOperations.getValue()) {
+    			if (operation.isFailed()) {
+    				operation.setException(new EntryPersistenceException(String.format("Failed to persist entry: '%s'", operation.getDn()), operation.getException()));
+    			}
+    		}
+    	}
     }
 
     @Override
     public void merge(String dn, String[] objectClasses, List<AttributeDataModification> attributeDataModifications, Integer expirationValue) {
         // Update entry
         try {
-            List<AttributeDataModification> modifications = new ArrayList<AttributeDataModification>(attributeDataModifications.size());
-            for (AttributeDataModification attributeDataModification : attributeDataModifications) {
-                AttributeData attribute = attributeDataModification.getAttribute();
-                AttributeData oldAttribute = attributeDataModification.getOldAttribute();
-
-                String attributeName = null;
-                Object[] attributeValues = null;
-                Boolean multiValued = null;
-                if (attribute != null) {
-                    attributeName = attribute.getName();
-                    attributeValues = attribute.getValues();
-                    multiValued = attribute.getMultiValued();
-                }
-
-                String oldAttributeName = null;
-                Object[] oldAttributeValues = null;
-                if (oldAttribute != null) {
-                    oldAttributeName = oldAttribute.getName();
-                    oldAttributeValues = oldAttribute.getValues();
-                }
-                
-                AttributeDataModification modification = null;
-                AttributeModificationType modificationType = attributeDataModification.getModificationType();
-				if ((AttributeModificationType.ADD == modificationType) ||
-                	(AttributeModificationType.FORCE_UPDATE == modificationType)) {
-                    modification = createModification(modificationType, toInternalAttribute(attributeName), multiValued, attributeValues, oldAttributeValues);
-                } else {
-                    if ((AttributeModificationType.REMOVE == modificationType)) {
-                		if ((attribute == null) && isEmptyAttributeValues(oldAttribute)) {
-							// It's RDBS case. We don't need to set null to already empty table cell
-                			continue;
-                		}
-                        modification = createModification(AttributeModificationType.REMOVE, toInternalAttribute(oldAttributeName), multiValued, oldAttributeValues, null);
-                    } else if ((AttributeModificationType.REPLACE == modificationType)) {
-                        modification = createModification(AttributeModificationType.REPLACE, toInternalAttribute(attributeName), multiValued, attributeValues, oldAttributeValues);
-                    }
-                }
-
-                if (modification != null) {
-                    modifications.add(modification);
-                }
-            }
-
+            List<AttributeDataModification> modifications = toUpdateModifications(attributeDataModifications);
             if (modifications.size() > 0) {
                 boolean result = getOperationService().updateEntry(toSQLKey(dn).getKey(), getBaseObjectClass(objectClasses), modifications);
                 if (!result) {
@@ -281,6 +279,86 @@ public class SpannerEntryManager extends BaseEntryManager<SpannerOperationServic
         }
     }
 
+    private List<AttributeDataModification> toUpdateModifications(List<AttributeDataModification> attributeDataModifications) {
+        List<AttributeDataModification> modifications = new ArrayList<AttributeDataModification>(attributeDataModifications.size());
+        for (AttributeDataModification attributeDataModification : attributeDataModifications) {
+            AttributeData attribute = attributeDataModification.getAttribute();
+            AttributeData oldAttribute = attributeDataModification.getOldAttribute();
+
+            String attributeName = null;
+            Object[] attributeValues = null;
+            Boolean multiValued = null;
+            if (attribute != null) {
+                attributeName = attribute.getName();
+                attributeValues = attribute.getValues();
+                multiValued = attribute.getMultiValued();
+            }
+
+            String oldAttributeName = null;
+            Object[] oldAttributeValues = null;
+            if (oldAttribute != null) {
+                oldAttributeName = oldAttribute.getName();
+                oldAttributeValues = oldAttribute.getValues();
+            }
+            
+            AttributeDataModification modification = null;
+            AttributeModificationType modificationType = attributeDataModification.getModificationType();
+				if ((AttributeModificationType.ADD == modificationType) ||
+            	(AttributeModificationType.FORCE_UPDATE == modificationType)) {
+                modification = createModification(modificationType, toInternalAttribute(attributeName), multiValued, attributeValues, oldAttributeValues);
+            } else {
+                if ((AttributeModificationType.REMOVE == modificationType)) {
+            		if ((attribute == null) && isEmptyAttributeValues(oldAttribute)) {
+							// It's RDBS case. We don't need to set null to already empty table cell
+            			continue;
+            		}
+                    modification = createModification(AttributeModificationType.REMOVE, toInternalAttribute(oldAttributeName), multiValued, oldAttributeValues, null);
+                } else if ((AttributeModificationType.REPLACE == modificationType)) {
+                    modification = createModification(AttributeModificationType.REPLACE, toInternalAttribute(attributeName), multiValued, attributeValues, oldAttributeValues);
+                }
+            }
+
+            if (modification != null) {
+                modifications.add(modification);
+            }
+        }
+
+        return modifications;
+    }
+
+    @Override
+    protected void mergeBatch(List<WriteOperation> operations) {
+    	for (Entry<String, List<WriteOperation>> tableOperations : groupByBaseObjectClass(operations).entrySet()) {
+    		List<WriteOperation> pendingOperations = new ArrayList<WriteOperation>(tableOperations.getValue().size());
+    		for (WriteOperation operation : tableOperations.getValue()) {
+    	        try {
+    	            List<AttributeDataModification> modifications = toUpdateModifications(operation.getModifications());
+    	            if (modifications.size() > 0) {
+	    	        	operation.setKey(toSQLKey(operation.getDn()).getKey());
+	    	        	operation.setData(modifications);
+	    	        	pendingOperations.add(operation);
+    	            }
+    	        } catch (Exception ex) {
+    	        	operation.setException(ex);
+    	        }
+    		}
+
+    		if (!pendingOperations.isEmpty()) {
+	    		try {
+	    			getOperationService().updateEntries(tableOperations.getKey(), pendingOperations);
+	    		} catch (Exception ex) {
+	    			setBatchException(pendingOperations, ex);
+	    		}
+    		}
+
+    		for (WriteOperation operation : tableOperations.getValue()) {
+    			if (operation.isFailed()) {
+    				operation.setException(new EntryPersistenceException(String.format("Failed to update entry: '%s'", operation.getDn()), operation.getException()));
+    			}
+    		}
+    	}
+    }
+
     @Override
     public <T> void removeByDn(String dn, String[] objectClasses) {
     	if (ArrayHelper.isEmpty(objectClasses)) {
@@ -301,6 +379,73 @@ public class SpannerEntryManager extends BaseEntryManager<SpannerOperationServic
         }
     }
 
+    @Override
+    protected void removeBatch(List<WriteOperation> operations) {
+    	for (Entry<String, List<WriteOperation>> tableOperations : groupByBaseObjectClass(operations).entrySet()) {
+    		List<WriteOperation> pendingOperations = new ArrayList<WriteOperation>(tableOperations.getValue().size());
+    		for (WriteOperation operation : tableOperations.getValue()) {
+    	        try {
+    	        	if (ArrayHelper.isEmpty(operation.getObjectClasses())) {
+    	        		throw new UnsupportedOperationException("Entry class is manadatory for remove operation!");
+    	        	}
+
+    	        	operation.setKey(toSQLKey(operation.getDn()).getKey());
+    	            for (DeleteNotifier subscriber : subscribers) {
+    	                subscriber.onBeforeRemove(operation.getDn(), operation.getObjectClasses());
+    	            }
+    	        	pendingOperations.add(operation);
+    	        } catch (Exception ex) {
+    	        	operation.setException(ex);
+    	        }
+    		}
+
+    		if (!pendingOperations.isEmpty()) {
+	    		try {
+	    			getOperationService().deleteEntries(tableOperations.getKey(), pendingOperations);
+	    		} catch (Exception ex) {
+	    			setBatchException(pendingOperations, ex);
+	    		}
+    		}
+
+    		for (WriteOperation operation : pendingOperations) {
+    			if (!operation.isFailed()) {
+		            for (DeleteNotifier subscriber : subscribers) {
+		                subscriber.onAfterRemove(operation.getDn(), operation.getObjectClasses());
+		            }
+    			}
+    		}
+
+    		for (WriteOperation operation : tableOperations.getValue()) {
+    			if (operation.isFailed()) {
+    				operation.setException(new EntryDeleteException(String.format("Failed to remove entry: '%s'", operation.getDn()), operation.getException()));
+    			}
+    		}
+    	}
+    }
+
+    private Map<String, List<WriteOperation>> groupByBaseObjectClass(List<WriteOperation> operations) {
+    	Map<String, List<WriteOperation>> result = new LinkedHashMap<String, List<WriteOperation>>();
+    	for (WriteOperation operation : operations) {
+    		String objectClass = ArrayHelper.isEmpty(operation.getObjectClasses()) ? null : getBaseObjectClass(operation.getObjectClasses());
+    		List<WriteOperation> tableOperations = result.get(objectClass);
+    		if (tableOperations == null) {
+    			tableOperations = new ArrayList<WriteOperation>();
+    			result.put(objectClass, tableOperations);
+    		}
+    		tableOperations.add(operation);
+    	}
+
+    	return result;
+    }
+
+    private void setBatchException(List<WriteOperation> operations, Exception ex) {
+    	for (WriteOperation operation : operations) {
+    		if (!operation.isFailed()) {
+    			operation.setException(ex);
+    		}
+    	}
+    }
+
     @Override
     public <T> void removeRecursivelyFromDn(String dn, String[] objectClasses) {
     	if (ArrayHelper.isEmpty(objectClasses)) {
@@ -387,6 +532,28 @@ public class SpannerEntryManager extends BaseEntryManager<SpannerOperationServic
         throw new EntryPersistenceException(String.format("Failed to find entry: '%s'", dn));
     }
 
+	@Override
+	protected Map<String, List<AttributeData>> find(List<String> dns, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap, String... ldapReturnAttributes) {
+		try {
+			Map<String, String> keysToDns = new HashMap<String, String>(dns.size());
+			for (String dn : dns) {
+				keysToDns.put(toSQLKey(dn).getKey(), dn);
+			}
+
+			// Load entries with one read request
+			Map<String, List<AttributeData>> entries = getOperationService().lookup(keysToDns.keySet(), getBaseObjectClass(objectClasses), toInternalAttributes(ldapReturnAttributes));
+
+			Map<String, List<AttributeData>> result = new HashMap<String, List<AttributeData>>(entries.size());
+			for (Entry<String, List<AttributeData>> entry : entries.entrySet()) {
+				result.put(keysToDns.get(entry.getKey()), entry.getValue());
+			}
+
+			return result;
+		} catch (Exception ex) {
+			throw new EntryPersistenceException(String.format("Failed to find entries: '%s'", dns), ex);
+		}
+	}
+
     @Override
     public <T> List<T> findEntries(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope, String[] ldapReturnAttributes,
                                    BatchOperation<T> batchOperation, int start, int count, int chunkSize) {
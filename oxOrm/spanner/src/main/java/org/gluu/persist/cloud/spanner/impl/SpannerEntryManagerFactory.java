@@ -75,6 +75,7 @@ public class SpannerEntryManagerFactory implements PersistenceEntryManagerFactor
 
         
         SpannerEntryManager sqlEntryManager = new SpannerEntryManager(new SpannerOperationServiceImpl(entryManagerConf, connectionProvider));
+        sqlEntryManager.getOperationService().getOperationMetrics().init(entryManagerConf);
         LOG.info("Created SpannerEntryManager: {}", sqlEntryManager.getOperationService());
 
         return sqlEntryManager;
@@ -28,6 +28,7 @@ import org.gluu.persist.model.EntryData;
 import org.gluu.persist.model.PagedResult;
 import org.gluu.persist.model.SearchScope;
 import org.gluu.persist.model.Sort;
+import org.gluu.persist.model.WriteOperation;
 import org.gluu.persist.operation.PersistenceOperationService;
 
 import com.google.cloud.spanner.DatabaseClient;
@@ -60,12 +61,27 @@ public interface SpannerOperationService extends PersistenceOperationService {
     boolean updateEntry(String key, String objectClass, List<AttributeDataModification> mods) throws UnsupportedOperationException, PersistenceException;
 
     boolean delete(String key, String objectClass) throws EntryNotFoundException;
+
+	/**
+	 * Add, update or delete entries of one table with one commit. Each operation should contain key and
+	 * prepared data. If commit fails entries are written one by one to store failure of each entry in operation
+	 */
+	void addEntries(String objectClass, List<WriteOperation> operations);
+	void updateEntries(String objectClass, List<WriteOperation> operations);
+	void deleteEntries(String objectClass, List<WriteOperation> operations);
 	long delete(String key, String objectClass, ConvertedExpression expression, int count) throws DeleteException;
 
 	boolean deleteRecursively(String key, String objectClass) throws EntryNotFoundException, SearchException;
 
 	List<AttributeData> lookup(String key, String objectClass, String... attributes) throws SearchException, EntryConvertationException;
 
+	/**
+	 * Lookup entries by keys with one read request
+	 *
+	 * @return Map key -> entry attributes. Not found keys are not included
+	 */
+	Map<String, List<AttributeData>> lookup(Collection<String> keys, String objectClass, String... attributes) throws SearchException, EntryConvertationException;
+
     <O> PagedResult<EntryData> search(String key, String objectClass, ConvertedExpression expression, SearchScope scope,
             String[] attributes, Sort[] orderBy, SpannerBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType,
             int start, int count, int pageSize) throws SearchException;
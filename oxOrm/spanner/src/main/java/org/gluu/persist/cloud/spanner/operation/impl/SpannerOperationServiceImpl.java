@@ -18,6 +18,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -51,9 +52,11 @@ import org.gluu.persist.model.BatchOperation;
 import org.gluu.persist.model.EntryData;
 import org.gluu.persist.model.PagedResult;
 import org.gluu.persist.model.SearchScope;
+import org.gluu.persist.model.WriteOperation;
 import org.gluu.persist.model.Sort;
 import org.gluu.persist.model.SortOrder;
 import org.gluu.persist.operation.auth.PasswordEncryptionHelper;
+import org.gluu.persist.watch.OperationMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -112,6 +115,8 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 
 	private PersistenceExtension persistenceExtension;
 
+	private OperationMetrics operationMetrics = new OperationMetrics("spanner");
+
 	private DatabaseClient databaseClient;
 
 	private Table tableAlias = new Table("doc");
@@ -177,6 +182,7 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
         OperationDurationUtil.instance().logDebug("Spanner operation: bind, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
+        operationMetrics.record("bind", tableMapping.getTableName(), duration, null);
 
         return result;
     }
@@ -187,75 +193,120 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
 
-        boolean result = addEntryImpl(tableMapping, key, attributes);
+        boolean result;
+        try {
+        	result = addEntryImpl(tableMapping, key, attributes);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("add", tableMapping.getTableName(), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("SQL operation: add, duration: {}, table: {}, key: {}, attributes: {}", duration, tableMapping.getTableName(), key, attributes);
+        operationMetrics.record("add", tableMapping.getTableName(), duration, null);
         
         return result;
     }
 
 	private boolean addEntryImpl(TableMapping tableMapping, String key, Collection<AttributeData> attributes) throws PersistenceException {
 		try {
-			MessageDigest messageDigest = getMessageDigestInstance();
-			Map<String, StructField> columTypes = tableMapping.getColumTypes();
-
-			WriteBuilder mutationBuilder = Mutation.newInsertOrUpdateBuilder(tableMapping.getTableName());
-			List<Mutation> mutations = new LinkedList<>();
-			for (AttributeData attribute : attributes) {
-				String attributeName = attribute.getName();
-				StructField attributeType = columTypes.get(attributeName.toLowerCase());
-
-				// If column not inside table we should check if there is child table
-				if (attributeType == null) {
-					TableMapping childTableMapping = connectionProvider.getChildTableMappingByKey(key, tableMapping, attributeName);
-					if (childTableMapping == null) {
-			            throw new PersistenceException(String.format("Failed to add entry. Column '%s' is undefined", attributeName));
-					}
+			List<Mutation> mutations = buildAddMutations(tableMapping, key, attributes);
 
-					Map<String, StructField> childColumTypes = childTableMapping.getColumTypes();
-					if (childColumTypes == null) {
-			            throw new PersistenceException(String.format("Failed to add entry. Column '%s' is undefined", attributeName));
-					}
-					StructField childAttributeType = childColumTypes.get(attributeName.toLowerCase());
-					
+			databaseClient.write(mutations);
+
+			return true;
+        } catch (SpannerException | IllegalStateException ex) {
+            throw new PersistenceException("Failed to add entry", ex);
+        }
+	}
+
+	private List<Mutation> buildAddMutations(TableMapping tableMapping, String key, Collection<AttributeData> attributes) throws PersistenceException {
+		MessageDigest messageDigest = getMessageDigestInstance();
+		Map<String, StructField> columTypes = tableMapping.getColumTypes();
+
+		WriteBuilder mutationBuilder = Mutation.newInsertOrUpdateBuilder(tableMapping.getTableName());
+		List<Mutation> mutations = new LinkedList<>();
+		for (AttributeData attribute : attributes) {
+			String attributeName = attribute.getName();
+			StructField attributeType = columTypes.get(attributeName.toLowerCase());
+
+			// If column not inside table we should check if there is child table
+			if (attributeType == null) {
+				TableMapping childTableMapping = connectionProvider.getChildTableMappingByKey(key, tableMapping, attributeName);
+				if (childTableMapping == null) {
+		            throw new PersistenceException(String.format("Failed to add entry. Column '%s' is undefined", attributeName));
+				}
+
+				Map<String, StructField> childColumTypes = childTableMapping.getColumTypes();
+				if (childColumTypes == null) {
+		            throw new PersistenceException(String.format("Failed to add entry. Column '%s' is undefined", attributeName));
+				}
+				StructField childAttributeType = childColumTypes.get(attributeName.toLowerCase());
+				
+				// Build Mutation for child table
+				for (Object value : attribute.getValues()) {
 					// Build Mutation for child table
-					for (Object value : attribute.getValues()) {
-						// Build Mutation for child table
-						String dictDocId = getStringUniqueKey(messageDigest, value);
+					String dictDocId = getStringUniqueKey(messageDigest, value);
 
-						WriteBuilder childMutationBuilder = Mutation.newInsertOrUpdateBuilder(childTableMapping.getTableName());
-						childMutationBuilder.
-							set(SpannerOperationService.DOC_ID).to(key).
-							set(SpannerOperationService.DICT_DOC_ID).to(dictDocId);
-						
-						setMutationBuilderValue(childMutationBuilder, childAttributeType, value);
+					WriteBuilder childMutationBuilder = Mutation.newInsertOrUpdateBuilder(childTableMapping.getTableName());
+					childMutationBuilder.
+						set(SpannerOperationService.DOC_ID).to(key).
+						set(SpannerOperationService.DICT_DOC_ID).to(dictDocId);
+					
+					setMutationBuilderValue(childMutationBuilder, childAttributeType, value);
 
-						mutations.add(childMutationBuilder.build());
-					}
-				} else {
-					setMutationBuilderValue(mutationBuilder, attributeType, attribute.getValues());
+					mutations.add(childMutationBuilder.build());
 				}
+			} else {
+				setMutationBuilderValue(mutationBuilder, attributeType, attribute.getValues());
 			}
-			mutations.add(0, mutationBuilder.build());
+		}
+		mutations.add(0, mutationBuilder.build());
 
-			databaseClient.write(mutations);
+		return mutations;
+	}
 
-			return true;
-        } catch (SpannerException | IllegalStateException ex) {
-            throw new PersistenceException("Failed to add entry", ex);
+    @Override
+    public void addEntries(String objectClass, List<WriteOperation> operations) {
+        Instant startTime = OperationDurationUtil.instance().now();
+
+        TableMapping tableMapping = connectionProvider.getTableMappingByKey(operations.get(0).getKey(), objectClass);
+
+        List<WriteOperation> batchOperations = new ArrayList<>(operations.size());
+        List<List<Mutation>> batchMutations = new ArrayList<>(operations.size());
+        for (WriteOperation operation : operations) {
+        	try {
+        		Collection<AttributeData> attributes = operation.getData();
+        		batchMutations.add(buildAddMutations(tableMapping, operation.getKey(), attributes));
+        		batchOperations.add(operation);
+        	} catch (PersistenceException | RuntimeException ex) {
+        		operation.setException(ex);
+        	}
         }
-	}
+
+        boolean result = writeBatch(batchOperations, batchMutations, "Failed to add entry");
+
+        Duration duration = OperationDurationUtil.instance().duration(startTime);
+        OperationDurationUtil.instance().logDebug("SQL operation: add_batch, duration: {}, table: {}, count: {}, batch: {}", duration, tableMapping.getTableName(), operations.size(), result);
+        operationMetrics.record("add_batch", tableMapping.getTableName(), duration, null);
+    }
 
 	@Override
     public boolean updateEntry(String key, String objectClass, List<AttributeDataModification> mods) throws UnsupportedOperationException, PersistenceException {
         Instant startTime = OperationDurationUtil.instance().now();
         
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
-        boolean result = updateEntryImpl(tableMapping, key, mods);
+        boolean result;
+        try {
+        	result = updateEntryImpl(tableMapping, key, mods);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("modify", tableMapping.getTableName(), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("SQL operation: modify, duration: {}, table: {}, key: {}, mods: {}", duration, tableMapping.getTableName(), key, mods);
+        operationMetrics.record("modify", tableMapping.getTableName(), duration, null);
 
         return result;
     }
@@ -263,114 +314,153 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 	private boolean updateEntryImpl(TableMapping tableMapping, String key, List<AttributeDataModification> mods)
 			throws PersistenceException {
 		try {
-			MessageDigest messageDigest = getMessageDigestInstance();
-			Map<String, StructField> columTypes = tableMapping.getColumTypes();
-
-			WriteBuilder mutationBuilder = Mutation.newInsertOrUpdateBuilder(tableMapping.getTableName()).
-					set(SpannerOperationService.DOC_ID).to(key);
-			List<Mutation> mutations = new LinkedList<>();
-			for (AttributeDataModification attributeMod : mods) {
-				AttributeData attribute = attributeMod.getAttribute();
-				AttributeModificationType type = attributeMod.getModificationType();
-
-				String attributeName = attribute.getName();
-				StructField attributeType = columTypes.get(attributeName.toLowerCase());
-
-				// If column not inside table we should check if there is child table
-				if (attributeType == null) {
-					TableMapping childTableMapping = connectionProvider.getChildTableMappingByKey(key, tableMapping, attributeName);
-					if (childTableMapping == null) {
-						throw new PersistenceException(
-								String.format("Failed to update entry. Column '%s' is undefined", attributeName));
-					}
+			List<Mutation> mutations = buildUpdateMutations(tableMapping, key, mods);
 
-					Map<String, StructField> childColumTypes = childTableMapping.getColumTypes();
-					StructField childAttributeType = childColumTypes.get(attributeName.toLowerCase());
+			databaseClient.write(mutations);
 
-					// Build Mutation for child table
-					Map<String, Object> oldValues = null;
-					if ((attributeMod.getOldAttribute() != null) && (attributeMod.getOldAttribute().getValues() != null)) {
-						oldValues = new HashMap<>();
-						for (Object oldValue : attributeMod.getOldAttribute().getValues()) {
-							String dictDocId = getStringUniqueKey(messageDigest, oldValue);
-							oldValues.put(dictDocId, oldValue);
-						}
-					}
-					
-					if ((AttributeModificationType.ADD == type) ||
-							(AttributeModificationType.FORCE_UPDATE == type) || (AttributeModificationType.REPLACE == type)) {
-						for (Object value : attribute.getValues()) {
-							WriteBuilder childMutationBuilder = Mutation.newInsertOrUpdateBuilder(childTableMapping.getTableName());
+			return true;
+		} catch (SpannerException | IllegalStateException ex) {
+			throw new PersistenceException("Failed to update entry", ex);
+		}
+	}
 
-							String dictDocId = getStringUniqueKey(messageDigest, value);
-							childMutationBuilder.
-								set(SpannerOperationService.DOC_ID).to(key).
-								set(SpannerOperationService.DICT_DOC_ID).to(dictDocId);
+	private List<Mutation> buildUpdateMutations(TableMapping tableMapping, String key, List<AttributeDataModification> mods)
+			throws PersistenceException {
+		MessageDigest messageDigest = getMessageDigestInstance();
+		Map<String, StructField> columTypes = tableMapping.getColumTypes();
 
-							setMutationBuilderValue(childMutationBuilder, childAttributeType, value);
+		WriteBuilder mutationBuilder = Mutation.newInsertOrUpdateBuilder(tableMapping.getTableName()).
+				set(SpannerOperationService.DOC_ID).to(key);
+		List<Mutation> mutations = new LinkedList<>();
+		for (AttributeDataModification attributeMod : mods) {
+			AttributeData attribute = attributeMod.getAttribute();
+			AttributeModificationType type = attributeMod.getModificationType();
 
-							mutations.add(childMutationBuilder.build());
+			String attributeName = attribute.getName();
+			StructField attributeType = columTypes.get(attributeName.toLowerCase());
 
-							if (oldValues != null) {
-								oldValues.remove(dictDocId);
-							}
-						}
-					} else if (AttributeModificationType.REMOVE == type) {
-						// Build Mutation for child table
-						com.google.cloud.spanner.KeySet.Builder keySetBuilder = KeySet.newBuilder();
-						for (Object value : attribute.getValues()) {
-							String dictDocId = getStringUniqueKey(messageDigest, value);
-							keySetBuilder.addKey(Key.of(key, dictDocId));
-						}
+			// If column not inside table we should check if there is child table
+			if (attributeType == null) {
+				TableMapping childTableMapping = connectionProvider.getChildTableMappingByKey(key, tableMapping, attributeName);
+				if (childTableMapping == null) {
+					throw new PersistenceException(
+							String.format("Failed to update entry. Column '%s' is undefined", attributeName));
+				}
 
-						Mutation childMutation = Mutation.delete(childTableMapping.getTableName(), keySetBuilder.build());
+				Map<String, StructField> childColumTypes = childTableMapping.getColumTypes();
+				StructField childAttributeType = childColumTypes.get(attributeName.toLowerCase());
 
-						mutations.add(childMutation);
-					} else {
-						throw new UnsupportedOperationException("Operation type '" + type + "' is not implemented");
+				// Build Mutation for child table
+				Map<String, Object> oldValues = null;
+				if ((attributeMod.getOldAttribute() != null) && (attributeMod.getOldAttribute().getValues() != null)) {
+					oldValues = new HashMap<>();
+					for (Object oldValue : attributeMod.getOldAttribute().getValues()) {
+						String dictDocId = getStringUniqueKey(messageDigest, oldValue);
+						oldValues.put(dictDocId, oldValue);
 					}
+				}
+				
+				if ((AttributeModificationType.ADD == type) ||
+						(AttributeModificationType.FORCE_UPDATE == type) || (AttributeModificationType.REPLACE == type)) {
+					for (Object value : attribute.getValues()) {
+						WriteBuilder childMutationBuilder = Mutation.newInsertOrUpdateBuilder(childTableMapping.getTableName());
 
-					if ((oldValues != null) && (oldValues.size() > 0)) {
-						com.google.cloud.spanner.KeySet.Builder keySetBuilder = KeySet.newBuilder();
-						for (String removeDictDocId : oldValues.keySet()) {
-							keySetBuilder.addKey(Key.of(key, removeDictDocId));
-						}
+						String dictDocId = getStringUniqueKey(messageDigest, value);
+						childMutationBuilder.
+							set(SpannerOperationService.DOC_ID).to(key).
+							set(SpannerOperationService.DICT_DOC_ID).to(dictDocId);
 
-						Mutation childMutation = Mutation.delete(childTableMapping.getTableName(), keySetBuilder.build());
+						setMutationBuilderValue(childMutationBuilder, childAttributeType, value);
+
+						mutations.add(childMutationBuilder.build());
 
-						mutations.add(childMutation);
+						if (oldValues != null) {
+							oldValues.remove(dictDocId);
+						}
 					}
-				} else {
-					if ((AttributeModificationType.ADD == type) || (AttributeModificationType.FORCE_UPDATE == type)
-							|| (AttributeModificationType.REPLACE == type)) {
-						setMutationBuilderValue(mutationBuilder, attributeType, attribute.getValues());
-					} else if (AttributeModificationType.REMOVE == type) {
-						removeMutationBuilderValue(mutationBuilder, attribute, attributeType);
-					} else {
-						throw new UnsupportedOperationException("Operation type '" + type + "' is not implemented");
+				} else if (AttributeModificationType.REMOVE == type) {
+					// Build Mutation for child table
+					com.google.cloud.spanner.KeySet.Builder keySetBuilder = KeySet.newBuilder();
+					for (Object value : attribute.getValues()) {
+						String dictDocId = getStringUniqueKey(messageDigest, value);
+						keySetBuilder.addKey(Key.of(key, dictDocId));
 					}
 
+					Mutation childMutation = Mutation.delete(childTableMapping.getTableName(), keySetBuilder.build());
+
+					mutations.add(childMutation);
+				} else {
+					throw new UnsupportedOperationException("Operation type '" + type + "' is not implemented");
 				}
-			}
-			mutations.add(0, mutationBuilder.build());
 
-			databaseClient.write(mutations);
+				if ((oldValues != null) && (oldValues.size() > 0)) {
+					com.google.cloud.spanner.KeySet.Builder keySetBuilder = KeySet.newBuilder();
+					for (String removeDictDocId : oldValues.keySet()) {
+						keySetBuilder.addKey(Key.of(key, removeDictDocId));
+					}
 
-			return true;
-		} catch (SpannerException | IllegalStateException ex) {
-			throw new PersistenceException("Failed to update entry", ex);
+					Mutation childMutation = Mutation.delete(childTableMapping.getTableName(), keySetBuilder.build());
+
+					mutations.add(childMutation);
+				}
+			} else {
+				if ((AttributeModificationType.ADD == type) || (AttributeModificationType.FORCE_UPDATE == type)
+						|| (AttributeModificationType.REPLACE == type)) {
+					setMutationBuilderValue(mutationBuilder, attributeType, attribute.getValues());
+				} else if (AttributeModificationType.REMOVE == type) {
+					removeMutationBuilderValue(mutationBuilder, attribute, attributeType);
+				} else {
+					throw new UnsupportedOperationException("Operation type '" + type + "' is not implemented");
+				}
+
+			}
 		}
+		mutations.add(0, mutationBuilder.build());
+
+		return mutations;
 	}
 
+    @Override
+    public void updateEntries(String objectClass, List<WriteOperation> operations) {
+        Instant startTime = OperationDurationUtil.instance().now();
+
+        TableMapping tableMapping = connectionProvider.getTableMappingByKey(operations.get(0).getKey(), objectClass);
+
+        List<WriteOperation> batchOperations = new ArrayList<>(operations.size());
+        List<List<Mutation>> batchMutations = new ArrayList<>(operations.size());
+        for (WriteOperation operation : operations) {
+        	try {
+        		List<AttributeDataModification> mods = operation.getData();
+        		batchMutations.add(buildUpdateMutations(tableMapping, operation.getKey(), mods));
+        		batchOperations.add(operation);
+        	} catch (PersistenceException | RuntimeException ex) {
+        		operation.setException(ex);
+        	}
+        }
+
+        boolean result = writeBatch(batchOperations, batchMutations, "Failed to update entry");
+
+        Duration duration = OperationDurationUtil.instance().duration(startTime);
+        OperationDurationUtil.instance().logDebug("SQL operation: modify_batch, duration: {}, table: {}, count: {}, batch: {}", duration, tableMapping.getTableName(), operations.size(), result);
+        operationMetrics.record("modify_batch", tableMapping.getTableName(), duration, null);
+    }
+
 	@Override
     public boolean delete(String key, String objectClass) throws EntryNotFoundException {
         Instant startTime = OperationDurationUtil.instance().now();
 
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
-        boolean result = deleteImpl(tableMapping, key);
+        boolean result;
+        try {
+        	result = deleteImpl(tableMapping, key);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("delete", tableMapping.getTableName(), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("SQL operation: delete, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
+        operationMetrics.record("delete", tableMapping.getTableName(), duration, null);
 
         return result;
     }
@@ -390,16 +480,71 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
         }
 	}
 
+    @Override
+    public void deleteEntries(String objectClass, List<WriteOperation> operations) {
+        Instant startTime = OperationDurationUtil.instance().now();
+
+        TableMapping tableMapping = connectionProvider.getTableMappingByKey(operations.get(0).getKey(), objectClass);
+
+        List<List<Mutation>> batchMutations = new ArrayList<>(operations.size());
+        for (WriteOperation operation : operations) {
+        	batchMutations.add(Collections.singletonList(Mutation.delete(tableMapping.getTableName(), Key.of(operation.getKey()))));
+        }
+
+        boolean result = writeBatch(operations, batchMutations, "Failed to delete entry");
+
+        Duration duration = OperationDurationUtil.instance().duration(startTime);
+        OperationDurationUtil.instance().logDebug("SQL operation: delete_batch, duration: {}, table: {}, count: {}, batch: {}", duration, tableMapping.getTableName(), operations.size(), result);
+        operationMetrics.record("delete_batch", tableMapping.getTableName(), duration, null);
+    }
+
+	private boolean writeBatch(List<WriteOperation> operations, List<List<Mutation>> operationsMutations, String errorMessage) {
+		if (operations.isEmpty()) {
+			return true;
+		}
+
+		List<Mutation> mutations = new ArrayList<>();
+		for (List<Mutation> operationMutations : operationsMutations) {
+			mutations.addAll(operationMutations);
+		}
+
+		try {
+			databaseClient.write(mutations);
+
+			return true;
+		} catch (SpannerException | IllegalStateException ex) {
+			LOG.debug("Failed to write batch of {} entries", operations.size(), ex);
+		}
+
+		// Batch is committed atomically. Write entries one by one to determine result of each entry
+		for (int i = 0; i < operations.size(); i++) {
+			try {
+				databaseClient.write(operationsMutations.get(i));
+			} catch (SpannerException | IllegalStateException ex) {
+				operations.get(i).setException(new PersistenceException(errorMessage, ex));
+			}
+		}
+
+		return false;
+	}
+
     @Override
     public long delete(String key, String objectClass, ConvertedExpression expression, int count) throws DeleteException {
         Instant startTime = OperationDurationUtil.instance().now();
 
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
 
-    	long result = deleteImpl(tableMapping, expression, count);
+    	long result;
+    	try {
+    		result = deleteImpl(tableMapping, expression, count);
+    	} catch (Exception ex) {
+    		operationMetrics.recordFailure("delete_search", tableMapping.getTableName(), startTime, expression);
+    		throw ex;
+    	}
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("SQL operation: delete_search, duration: {}, table: {}, key: {}, expression: {}, count: {}", duration, tableMapping.getTableName(), key, expression, count);
+        operationMetrics.record("delete_search", tableMapping.getTableName(), duration, expression);
 
         return result;
     }
@@ -465,10 +610,17 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
         Instant startTime = OperationDurationUtil.instance().now();
 
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
-        boolean result = deleteRecursivelyImpl(tableMapping, key);
+        boolean result;
+        try {
+        	result = deleteRecursivelyImpl(tableMapping, key);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("delete_tree", tableMapping.getTableName(), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("SQL operation: delete_tree, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
+        operationMetrics.record("delete_tree", tableMapping.getTableName(), duration, null);
 
         return result;
     }
@@ -484,15 +636,31 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
         
     	TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
 
-    	List<AttributeData> result = lookupImpl(tableMapping, key, attributes);
+    	List<AttributeData> result;
+    	try {
+    		result = lookupImpl(tableMapping, key, attributes);
+    	} catch (Exception ex) {
+    		operationMetrics.recordFailure("lookup", tableMapping.getTableName(), startTime, null);
+    		throw ex;
+    	}
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("SQL operation: lookup, duration: {}, table: {}, key: {}, attributes: {}", duration, tableMapping.getTableName(), key, attributes);
+        operationMetrics.record("lookup", tableMapping.getTableName(), duration, null);
 
         return result;
     }
 
 	private List<AttributeData> lookupImpl(TableMapping tableMapping, String key, String... attributes) throws SearchException, EntryConvertationException {
+		List<AttributeData> result = lookupRowImpl(tableMapping, key, attributes);
+		if (result != null) {
+			return result;
+		}
+
+		throw new SearchException(String.format("Failed to lookup entry by key: '%s'", key));
+	}
+
+	private List<AttributeData> lookupRowImpl(TableMapping tableMapping, String key, String... attributes) throws SearchException, EntryConvertationException {
 		try {
 			String tableName = tableMapping.getTableName();
 
@@ -538,14 +706,74 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
                 }
 			}
 
-			if (result != null) {
-				return result;
-			}
+			return result;
 		} catch (SpannerException ex) {
 			throw new SearchException(String.format("Failed to lookup query by key: '%s'", key), ex);
 		}
+	}
 
-		throw new SearchException(String.format("Failed to lookup entry by key: '%s'", key));
+	@Override
+	public Map<String, List<AttributeData>> lookup(Collection<String> keys, String objectClass, String... attributes) throws SearchException, EntryConvertationException {
+		Map<String, List<AttributeData>> result = new HashMap<String, List<AttributeData>>();
+		if ((keys == null) || keys.isEmpty()) {
+			return result;
+		}
+
+		Instant startTime = OperationDurationUtil.instance().now();
+
+		TableMapping tableMapping = connectionProvider.getTableMappingByKey(keys.iterator().next(), objectClass);
+
+		lookupImpl(tableMapping, keys, result, attributes);
+
+		Duration duration = OperationDurationUtil.instance().duration(startTime);
+		OperationDurationUtil.instance().logDebug("SQL operation: lookup, duration: {}, table: {}, keys: {}, attributes: {}", duration, tableMapping.getTableName(), keys, attributes);
+		operationMetrics.record("lookup", tableMapping.getTableName(), duration, null);
+
+		return result;
+	}
+
+	private void lookupImpl(TableMapping tableMapping, Collection<String> keys, Map<String, List<AttributeData>> result, String... attributes) throws SearchException, EntryConvertationException {
+		String tableName = tableMapping.getTableName();
+
+		Set<String> childTables = connectionProvider.getTableChildAttributes(tableName);
+		if (childTables != null) {
+			// Child tables need join query per entry
+			for (String key : keys) {
+				List<AttributeData> attributeDataList = lookupRowImpl(tableMapping, key, attributes);
+				if (attributeDataList != null) {
+					result.put(key, attributeDataList);
+				}
+			}
+
+			return;
+		}
+
+		try {
+			KeySet.Builder keySetBuilder = KeySet.newBuilder();
+			for (String key : keys) {
+				keySetBuilder.addKey(Key.of(key));
+			}
+
+			Collection<String> columns;
+			if (attributes == null) {
+				// Request all attributes
+				columns = tableMapping.getColumTypes().keySet();
+			} else {
+				// Request only required attributes and key to match rows
+				columns = new HashSet<String>(Arrays.asList(attributes));
+				columns.add(DOC_ID);
+			}
+
+			try (ResultSet resultSet = databaseClient.singleUse().read(tableName, keySetBuilder.build(), columns)) {
+				List<AttributeData> attributeDataList;
+				while ((attributeDataList = getAttributeDataList(tableMapping.getObjectClass(), resultSet, true)) != null) {
+					// Result set still points to current row
+					result.put(resultSet.getString(DOC_ID), attributeDataList);
+				}
+			}
+		} catch (SpannerException ex) {
+			throw new SearchException(String.format("Failed to lookup query by keys: '%s'", keys), ex);
+		}
 	}
 
 	@Override
@@ -555,11 +783,18 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
 
-        PagedResult<EntryData> result = searchImpl(tableMapping, key, expression, scope, attributes, orderBy, batchOperationWraper,
-						returnDataType, start, count, pageSize);
+        PagedResult<EntryData> result;
+        try {
+        	result = searchImpl(tableMapping, key, expression, scope, attributes, orderBy, batchOperationWraper,
+							returnDataType, start, count, pageSize);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("search", tableMapping.getTableName(), startTime, expression);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("SQL operation: search, duration: {}, table: {}, key: {}, expression: {}, scope: {}, attributes: {}, orderBy: {}, batchOperationWraper: {}, returnDataType: {}, start: {}, count: {}, pageSize: {}", duration, tableMapping.getTableName(), key, expression, scope, attributes, orderBy, batchOperationWraper, returnDataType, start, count, pageSize);
+        operationMetrics.record("search", tableMapping.getTableName(), duration, expression);
 
         return result;
 	}
@@ -872,6 +1107,8 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
     public boolean destroy() {
         boolean result = true;
 
+        operationMetrics.unregisterMBean();
+
         if (connectionProvider != null) {
             try {
                 connectionProvider.destroy();
@@ -920,6 +1157,11 @@ public class SpannerOperationServiceImpl implements SpannerOperationService {
 		this.persistenceExtension = persistenceExtension;
 	}
 
+	@Override
+	public OperationMetrics getOperationMetrics() {
+		return operationMetrics;
+	}
+
 	@Override
 	public boolean isSupportObjectClass(String objectClass) {
 		return connectionProvider.getDatabaseMetaData().containsKey(objectClass);
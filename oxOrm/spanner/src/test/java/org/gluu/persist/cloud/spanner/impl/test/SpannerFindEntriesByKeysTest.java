@@ -0,0 +1,240 @@
+package org.gluu.persist.cloud.spanner.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.gluu.persist.cloud.spanner.impl.SpannerEntryManager;
+import org.gluu.persist.cloud.spanner.model.TableMapping;
+import org.gluu.persist.cloud.spanner.operation.SpannerOperationService;
+import org.gluu.persist.cloud.spanner.operation.impl.SpannerConnectionProvider;
+import org.gluu.persist.cloud.spanner.operation.impl.SpannerOperationServiceImpl;
+import org.gluu.persist.impl.GenericKeyConverter;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.google.cloud.spanner.DatabaseClient;
+import com.google.cloud.spanner.Key;
+import com.google.cloud.spanner.KeySet;
+import com.google.cloud.spanner.ReadContext;
+import com.google.cloud.spanner.ResultSets;
+import com.google.cloud.spanner.Struct;
+import com.google.cloud.spanner.Type;
+import com.google.cloud.spanner.Type.StructField;
+
+/**
+ * Loading of entries by DNs with one KeySet read. Database client returns rows from in-memory table
+ */
+public class SpannerFindEntriesByKeysTest {
+
+	private static final String TABLE_NAME = "gluuPerson";
+	private static final String[] TABLE_COLUMNS = { "doc_id", "objectClass", "dn", "inum", "uid", "displayName" };
+	private static final int ENTRIES_COUNT = 20;
+
+	private static final GenericKeyConverter KEY_CONVERTER = new GenericKeyConverter(false);
+
+	private Map<String, Map<String, String>> tableRows;
+	private List<KeySet> reads;
+
+	private SpannerEntryManager entryManager;
+
+	@BeforeMethod
+	public void init() {
+		this.tableRows = new LinkedHashMap<String, Map<String, String>>();
+		for (int i = 0; i < ENTRIES_COUNT; i++) {
+			String dn = getDn(i);
+			Map<String, String> row = new HashMap<String, String>();
+			row.put("doc_id", KEY_CONVERTER.convertToKey(dn).getKey());
+			row.put("objectClass", TABLE_NAME);
+			row.put("dn", dn);
+			row.put("inum", String.valueOf(i));
+			row.put("uid", "user" + i);
+			row.put("displayName", "User " + i);
+			tableRows.put(row.get("doc_id"), row);
+		}
+		this.reads = new ArrayList<KeySet>();
+
+		this.entryManager = new TestSpannerEntryManager(new SpannerOperationServiceImpl(new Properties(), new TestSpannerConnectionProvider()));
+	}
+
+	@Test
+	public void findEntriesWithOneRead() {
+		List<String> dns = Arrays.asList(getDn(7), getDn(2), getDn(11), getDn(0));
+
+		List<SimpleUser> users = entryManager.findEntriesByKeys(SimpleUser.class, dns, null);
+
+		// Rows are returned in table order but entries should be in keys order
+		assertEquals(getDns(users), dns);
+		assertEquals(users.get(0).getUid(), "user7");
+		assertEquals(users.get(0).getDisplayName(), "User 7");
+
+		assertEquals(reads.size(), 1);
+		assertEquals(getKeys(reads.get(0)), getKeys(dns));
+	}
+
+	@Test
+	public void skipMissingAndDuplicateKeys() {
+		List<String> dns = Arrays.asList(getDn(5), getDn(-1), getDn(2), getDn(5), getDn(ENTRIES_COUNT), getDn(9));
+
+		List<SimpleUser> users = entryManager.findEntriesByKeys(SimpleUser.class, dns, null);
+
+		assertEquals(getDns(users), Arrays.asList(getDn(5), getDn(2), getDn(9)));
+		assertEquals(reads.size(), 1);
+		assertEquals(getKeys(reads.get(0)).size(), 5);
+	}
+
+	@Test
+	public void findEntriesWithAttributes() {
+		List<SimpleUser> users = entryManager.findEntriesByKeys(SimpleUser.class, Arrays.asList(getDn(4), getDn(1)), new String[] { "uid" });
+
+		assertEquals(getDns(users), Arrays.asList(getDn(4), getDn(1)));
+		assertEquals(users.get(0).getUid(), "user4");
+		assertNull(users.get(0).getDisplayName());
+	}
+
+	@Test
+	public void findEntriesWithoutKeys() {
+		assertTrue(entryManager.findEntriesByKeys(SimpleUser.class, Collections.<String>emptyList(), null).isEmpty());
+		assertTrue(reads.isEmpty());
+
+		assertTrue(entryManager.findEntriesByKeys(SimpleUser.class, Arrays.asList(getDn(-1), getDn(-2)), null).isEmpty());
+		assertEquals(reads.size(), 1);
+	}
+
+	private static String getDn(int i) {
+		return String.format("inum=%d,ou=people,o=gluu", i);
+	}
+
+	private static List<String> getDns(List<SimpleUser> users) {
+		List<String> dns = new ArrayList<String>(users.size());
+		for (SimpleUser user : users) {
+			dns.add(user.getDn());
+		}
+
+		return dns;
+	}
+
+	private static Set<String> getKeys(List<String> dns) {
+		Set<String> keys = new HashSet<String>();
+		for (String dn : dns) {
+			keys.add(KEY_CONVERTER.convertToKey(dn).getKey());
+		}
+
+		return keys;
+	}
+
+	private static Set<String> getKeys(KeySet keySet) {
+		Set<String> keys = new HashSet<String>();
+		for (Key key : keySet.getKeys()) {
+			keys.add((String) key.getParts().iterator().next());
+		}
+
+		return keys;
+	}
+
+	private com.google.cloud.spanner.ResultSet read(KeySet keySet, Iterable<String> columns) {
+		reads.add(keySet);
+
+		List<StructField> structFields = new ArrayList<StructField>();
+		for (String column : columns) {
+			structFields.add(StructField.of(column, Type.string()));
+		}
+
+		List<Struct> rows = new ArrayList<Struct>();
+		for (Map<String, String> row : tableRows.values()) {
+			if (!getKeys(keySet).contains(row.get("doc_id"))) {
+				continue;
+			}
+
+			Struct.Builder rowBuilder = Struct.newBuilder();
+			for (String column : columns) {
+				rowBuilder.set(column).to(row.get(column));
+			}
+			rows.add(rowBuilder.build());
+		}
+
+		return ResultSets.forRows(Type.struct(structFields), rows);
+	}
+
+	private Object createProxy(Class<?> type, final Map<String, Object> results) {
+		return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if ("read".equals(method.getName())) {
+					return read((KeySet) args[1], (Iterable<String>) args[2]);
+				}
+				if (results.containsKey(method.getName())) {
+					return results.get(method.getName());
+				}
+
+				throw new UnsupportedOperationException(method.getName());
+			}
+		});
+	}
+
+	private static class TestSpannerEntryManager extends SpannerEntryManager {
+
+		private static final long serialVersionUID = -2340829263728516352L;
+
+		TestSpannerEntryManager(SpannerOperationService operationService) {
+			super(operationService);
+		}
+
+	}
+
+	private class TestSpannerConnectionProvider extends SpannerConnectionProvider {
+
+		private final Map<String, StructField> columnTypes;
+		private final DatabaseClient databaseClient;
+
+		TestSpannerConnectionProvider() {
+			this.columnTypes = new HashMap<String, StructField>();
+			for (String column : TABLE_COLUMNS) {
+				columnTypes.put(column.toLowerCase(), StructField.of(column, Type.string()));
+			}
+
+			ReadContext readContext = (ReadContext) createProxy(ReadContext.class, Collections.<String, Object>emptyMap());
+			this.databaseClient = (DatabaseClient) createProxy(DatabaseClient.class, Collections.<String, Object>singletonMap("singleUse", readContext));
+		}
+
+		@Override
+		public DatabaseClient getClient() {
+			return databaseClient;
+		}
+
+		@Override
+		public TableMapping getTableMappingByKey(String key, String objectClass) {
+			String baseKeyName = "_".equals(key) ? "" : key.split("_")[0];
+
+			return new TableMapping(baseKeyName, objectClass, objectClass, columnTypes);
+		}
+
+		@Override
+		public Set<String> getTableChildAttributes(String objectClass) {
+			return null;
+		}
+
+		@Override
+		public Set<String> getTableNullableColumns(String objectClass) {
+			return new HashSet<String>(columnTypes.keySet());
+		}
+
+	}
+
+}
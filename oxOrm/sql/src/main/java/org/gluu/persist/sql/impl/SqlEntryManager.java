@@ -12,10 +12,12 @@ import java.time.Instant;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import javax.inject.Inject;
 
@@ -30,6 +32,7 @@ import org.gluu.persist.exception.MappingException;
 import org.gluu.persist.exception.operation.SearchException;
 import org.gluu.persist.impl.BaseEntryManager;
 import org.gluu.persist.impl.GenericKeyConverter;
+import org.gluu.persist.impl.PagedEntryIterator;
 import org.gluu.persist.impl.model.ParsedKey;
 import org.gluu.persist.model.AttributeData;
 import org.gluu.persist.model.AttributeDataModification;
@@ -40,8 +43,10 @@ import org.gluu.persist.model.EntryData;
 import org.gluu.persist.model.PagedResult;
 import org.gluu.persist.model.SearchScope;
 import org.gluu.persist.model.SortOrder;
+import org.gluu.persist.model.WriteOperation;
 import org.gluu.persist.reflect.property.PropertyAnnotation;
 import org.gluu.persist.sql.model.ConvertedExpression;
+import org.gluu.persist.sql.model.SearchPosition;
 import org.gluu.persist.sql.model.SearchReturnDataType;
 import org.gluu.persist.sql.model.TableMapping;
 import org.gluu.persist.sql.operation.SqlOperationService;
@@ -95,6 +100,10 @@ public class SqlEntryManager extends BaseEntryManager<SqlOperationService> imple
         return ((SqlOperationService) operationService);
     }
 
+    public SqlFilterShapeCache getFilterShapeCache() {
+        return filterConverter.getShapeCache();
+    }
+
     @Override
     public void addDeleteSubscriber(DeleteNotifier subscriber) {
         subscribers.add(subscriber);
@@ -165,6 +174,21 @@ public class SqlEntryManager extends BaseEntryManager<SqlOperationService> imple
 
     @Override
     protected void persist(String dn, String[] objectClasses, List<AttributeData> attributes, Integer expiration) {
+        // Persist entry
+        try {
+        	ParsedKey parsedKey = toSQLKey(dn);
+        	List<AttributeData> resultAttributes = toPersistAttributes(dn, parsedKey, attributes);
+
+            boolean result = getOperationService().addEntry(parsedKey.getKey(), getBaseObjectClass(objectClasses), resultAttributes);
+            if (!result) {
+                throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn));
+            }
+        } catch (Exception ex) {
+            throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn), ex);
+        }
+    }
+
+    private List<AttributeData> toPersistAttributes(String dn, ParsedKey parsedKey, List<AttributeData> attributes) {
     	ArrayList<AttributeData> resultAttributes = new ArrayList<>(attributes.size() + 1);
         for (AttributeData attribute : attributes) {
             String attributeName = attribute.getName();
@@ -200,68 +224,48 @@ public class SqlEntryManager extends BaseEntryManager<SqlOperationService> imple
             }
         }
 
-        // Persist entry
-        try {
-        	ParsedKey parsedKey = toSQLKey(dn);
-            resultAttributes.add(new AttributeData(SqlOperationService.DN, dn));
-            resultAttributes.add(new AttributeData(SqlOperationService.DOC_ID, parsedKey.getKey()));
+        resultAttributes.add(new AttributeData(SqlOperationService.DN, dn));
+        resultAttributes.add(new AttributeData(SqlOperationService.DOC_ID, parsedKey.getKey()));
 
-            boolean result = getOperationService().addEntry(parsedKey.getKey(), getBaseObjectClass(objectClasses), resultAttributes);
-            if (!result) {
-                throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn));
-            }
-        } catch (Exception ex) {
-            throw new EntryPersistenceException(String.format("Failed to persist entry: '%s'", dn), ex);
-        }
+        return resultAttributes;
+    }
+
+    @Override
+    protected void persistBatch(List<WriteOperation> operations) {
+    	for (Entry<String, List<WriteOperation>> tableOperations : groupByBaseObjectClass(operations).entrySet()) {
+    		List<WriteOperation> pendingOperations = new ArrayList<WriteOperation>(tableOperations.getValue().size());
+    		for (WriteOperation operation : tableOperations.getValue()) {
+    	        try {
+    	        	ParsedKey parsedKey = toSQLKey(operation.getDn());
+    	        	operation.setKey(parsedKey.getKey());
+    	        	operation.setData(toPersistAttributes(operation.getDn(), parsedKey, operation.getAttributes()));
+    	        	pendingOperations.add(operation);
+    	        } catch (Exception ex) {
+    	        	operation.setException(ex);
+    	        }
+    		}
+
+    		if (!pendingOperations.isEmpty()) {
+	    		try {
+	    			getOperationService().addEntries(tableOperations.getKey(), pendingOperations);
+	    		} catch (Exception ex) {
+	    			setBatchException(pendingOperations, ex);
+	    		}
+    		}
+
+    		for (WriteOperation operation : tableOperations.getValue()) {
+    			if (operation.isFailed()) {
+    				operation.setException(new EntryPersistenceException(String.format("Failed to persist entry: '%s'", operation.getDn()), operation.getException()));
+    			}
+    		}
+    	}
     }
 
     @Override
     public void merge(String dn, String[] objectClasses, List<AttributeDataModification> attributeDataModifications, Integer expirationValue) {
         // Update entry
         try {
-            List<AttributeDataModification> modifications = new ArrayList<AttributeDataModification>(attributeDataModifications.size());
-            for (AttributeDataModification attributeDataModification : attributeDataModifications) {
-                AttributeData attribute = attributeDataModification.getAttribute();
-                AttributeData oldAttribute = attributeDataModification.getOldAttribute();
-
-                String attributeName = null;
-                Object[] attributeValues = null;
-                Boolean multiValued = null;
-                if (attribute != null) {
-                    attributeName = attribute.getName();
-                    attributeValues = attribute.getValues();
-                    multiValued = attribute.getMultiValued();
-                }
-
-                String oldAttributeName = null;
-                Object[] oldAttributeValues = null;
-                if (oldAttribute != null) {
-                    oldAttributeName = oldAttribute.getName();
-                    oldAttributeValues = oldAttribute.getValues();
-                }
-                
-                AttributeDataModification modification = null;
-                AttributeModificationType modificationType = attributeDataModification.getModificationType();
-				if ((AttributeModificationType.ADD == modificationType) ||
-                	(AttributeModificationType.FORCE_UPDATE == modificationType)) {
-                    modification = createModification(modificationType, toInternalAttribute(attributeName), multiValued, attributeValues);
-                } else {
-                    if ((AttributeModificationType.REMOVE == modificationType)) {
-                		if ((attribute == null) && isEmptyAttributeValues(oldAttribute)) {
-							// It's RDBS case. We don't need to set null to already empty table cell
-                			continue;
-                		}
-                        modification = createModification(AttributeModificationType.REMOVE, toInternalAttribute(oldAttributeName), multiValued, oldAttributeValues);
-                    } else if ((AttributeModificationType.REPLACE == modificationType)) {
-                        modification = createModification(AttributeModificationType.REPLACE, toInternalAttribute(attributeName), multiValued, attributeValues);
-                    }
-                }
-
-                if (modification != null) {
-                    modifications.add(modification);
-                }
-            }
-
+            List<AttributeDataModification> modifications = toUpdateModifications(attributeDataModifications);
             if (modifications.size() > 0) {
                 boolean result = getOperationService().updateEntry(toSQLKey(dn).getKey(), getBaseObjectClass(objectClasses), modifications);
                 if (!result) {
@@ -273,6 +277,86 @@ public class SqlEntryManager extends BaseEntryManager<SqlOperationService> imple
         }
     }
 
+    private List<AttributeDataModification> toUpdateModifications(List<AttributeDataModification> attributeDataModifications) {
+        List<AttributeDataModification> modifications = new ArrayList<AttributeDataModification>(attributeDataModifications.size());
+        for (AttributeDataModification attributeDataModification : attributeDataModifications) {
+            AttributeData attribute = attributeDataModification.getAttribute();
+            AttributeData oldAttribute = attributeDataModification.getOldAttribute();
+
+            String attributeName = null;
+            Object[] attributeValues = null;
+            Boolean multiValued = null;
+            if (attribute != null) {
+                attributeName = attribute.getName();
+                attributeValues = attribute.getValues();
+                multiValued = attribute.getMultiValued();
+            }
+
+            String oldAttributeName = null;
+            Object[] oldAttributeValues = null;
+            if (oldAttribute != null) {
+                oldAttributeName = oldAttribute.getName();
+                oldAttributeValues = oldAttribute.getValues();
+            }
+            
+            AttributeDataModification modification = null;
+            AttributeModificationType modificationType = attributeDataModification.getModificationType();
+				if ((AttributeModificationType.ADD == modificationType) ||
+            	(AttributeModificationType.FORCE_UPDATE == modificationType)) {
+                modification = createModification(modificationType, toInternalAttribute(attributeName), multiValued, attributeValues);
+            } else {
+                if ((AttributeModificationType.REMOVE == modificationType)) {
+            		if ((attribute == null) && isEmptyAttributeValues(oldAttribute)) {
+							// It's RDBS case. We don't need to set null to already empty table cell
+            			continue;
+            		}
+                    modification = createModification(AttributeModificationType.REMOVE, toInternalAttribute(oldAttributeName), multiValued, oldAttributeValues);
+                } else if ((AttributeModificationType.REPLACE == modificationType)) {
+                    modification = createModification(AttributeModificationType.REPLACE, toInternalAttribute(attributeName), multiValued, attributeValues);
+                }
+            }
+
+            if (modification != null) {
+                modifications.add(modification);
+            }
+        }
+
+        return modifications;
+    }
+
+    @Override
+    protected void mergeBatch(List<WriteOperation> operations) {
+    	for (Entry<String, List<WriteOperation>> tableOperations : groupByBaseObjectClass(operations).entrySet()) {
+    		List<WriteOperation> pendingOperations = new ArrayList<WriteOperation>(tableOperations.getValue().size());
+    		for (WriteOperation operation : tableOperations.getValue()) {
+    	        try {
+    	            List<AttributeDataModification> modifications = toUpdateModifications(operation.getModifications());
+    	            if (modifications.size() > 0) {
+	    	        	operation.setKey(toSQLKey(operation.getDn()).getKey());
+	    	        	operation.setData(modifications);
+	    	        	pendingOperations.add(operation);
+    	            }
+    	        } catch (Exception ex) {
+    	        	operation.setException(ex);
+    	        }
+    		}
+
+    		if (!pendingOperations.isEmpty()) {
+	    		try {
+	    			getOperationService().updateEntries(tableOperations.getKey(), pendingOperations);
+	    		} catch (Exception ex) {
+	    			setBatchException(pendingOperations, ex);
+	    		}
+    		}
+
+    		for (WriteOperation operation : tableOperations.getValue()) {
+    			if (operation.isFailed()) {
+    				operation.setException(new EntryPersistenceException(String.format("Failed to update entry: '%s'", operation.getDn()), operation.getException()));
+    			}
+    		}
+    	}
+    }
+
     @Override
     public <T> void removeByDn(String dn, String[] objectClasses) {
     	if (ArrayHelper.isEmpty(objectClasses)) {
@@ -293,6 +377,73 @@ public class SqlEntryManager extends BaseEntryManager<SqlOperationService> imple
         }
     }
 
+    @Override
+    protected void removeBatch(List<WriteOperation> operations) {
+    	for (Entry<String, List<WriteOperation>> tableOperations : groupByBaseObjectClass(operations).entrySet()) {
+    		List<WriteOperation> pendingOperations = new ArrayList<WriteOperation>(tableOperations.getValue().size());
+    		for (WriteOperation operation : tableOperations.getValue()) {
+    	        try {
+    	        	if (ArrayHelper.isEmpty(operation.getObjectClasses())) {
+    	        		throw new UnsupportedOperationException("Entry class is manadatory for remove operation!");
+    	        	}
+
+    	        	operation.setKey(toSQLKey(operation.getDn()).getKey());
+    	            for (DeleteNotifier subscriber : subscribers) {
+    	                subscriber.onBeforeRemove(operation.getDn(), operation.getObjectClasses());
+    	            }
+    	        	pendingOperations.add(operation);
+    	        } catch (Exception ex) {
+    	        	operation.setException(ex);
+    	        }
+    		}
+
+    		if (!pendingOperations.isEmpty()) {
+	    		try {
+	    			getOperationService().deleteEntries(tableOperations.getKey(), pendingOperations);
+	    		} catch (Exception ex) {
+	    			setBatchException(pendingOperations, ex);
+	    		}
+    		}
+
+    		for (WriteOperation operation : pendingOperations) {
+    			if (!operation.isFailed()) {
+		            for (DeleteNotifier subscriber : subscribers) {
+		                subscriber.onAfterRemove(operation.getDn(), operation.getObjectClasses());
+		            }
+    			}
+    		}
+
+    		for (WriteOperation operation : tableOperations.getValue()) {
+    			if (operation.isFailed()) {
+    				operation.setException(new EntryDeleteException(String.format("Failed to remove entry: '%s'", operation.getDn()), operation.getException()));
+    			}
+    		}
+    	}
+    }
+
+    private Map<String, List<WriteOperation>> groupByBaseObjectClass(List<WriteOperation> operations) {
+    	Map<String, List<WriteOperation>> result = new LinkedHashMap<String, List<WriteOperation>>();
+    	for (WriteOperation operation : operations) {
+    		String objectClass = ArrayHelper.isEmpty(operation.getObjectClasses()) ? null : getBaseObjectClass(operation.getObjectClasses());
+    		List<WriteOperation> tableOperations = result.get(objectClass);
+    		if (tableOperations == null) {
+    			tableOperations = new ArrayList<WriteOperation>();
+    			result.put(objectClass, tableOperations);
+    		}
+    		tableOperations.add(operation);
+    	}
+
+    	return result;
+    }
+
+    private void setBatchException(List<WriteOperation> operations, Exception ex) {
+    	for (WriteOperation operation : operations) {
+    		if (!operation.isFailed()) {
+    			operation.setException(ex);
+    		}
+    	}
+    }
+
     @Override
     public <T> void removeRecursivelyFromDn(String dn, String[] objectClasses) {
     	if (ArrayHelper.isEmpty(objectClasses)) {
@@ -380,6 +531,28 @@ public class SqlEntryManager extends BaseEntryManager<SqlOperationService> imple
         throw new EntryPersistenceException(String.format("Failed to find entry: '%s'", dn));
     }
 
+	@Override
+	protected Map<String, List<AttributeData>> find(List<String> dns, String[] objectClasses, Map<String, PropertyAnnotation> propertiesAnnotationsMap, String... ldapReturnAttributes) {
+		try {
+			Map<String, String> keysToDns = new HashMap<String, String>(dns.size());
+			for (String dn : dns) {
+				keysToDns.put(toSQLKey(dn).getKey(), dn);
+			}
+
+			// Load entries with one query
+			Map<String, List<AttributeData>> entries = getOperationService().lookup(keysToDns.keySet(), getBaseObjectClass(objectClasses), toInternalAttributes(ldapReturnAttributes));
+
+			Map<String, List<AttributeData>> result = new HashMap<String, List<AttributeData>>(entries.size());
+			for (Entry<String, List<AttributeData>> entry : entries.entrySet()) {
+				result.put(keysToDns.get(entry.getKey()), entry.getValue());
+			}
+
+			return result;
+		} catch (Exception ex) {
+			throw new EntryPersistenceException(String.format("Failed to find entries: '%s'", dns), ex);
+		}
+	}
+
     @Override
     public <T> List<T> findEntries(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope, String[] ldapReturnAttributes,
                                    BatchOperation<T> batchOperation, int start, int count, int chunkSize) {
@@ -388,7 +561,7 @@ public class SqlEntryManager extends BaseEntryManager<SqlOperationService> imple
         }
 
         PagedResult<EntryData> searchResult = findEntriesImpl(baseDN, entryClass, filter, scope, ldapReturnAttributes, null, null, batchOperation,
-        		SearchReturnDataType.SEARCH, start, count, chunkSize);
+        		SearchReturnDataType.SEARCH, start, count, chunkSize, null);
         if (searchResult.getEntriesCount() == 0) {
             return new ArrayList<T>(0);
         }
@@ -406,7 +579,7 @@ public class SqlEntryManager extends BaseEntryManager<SqlOperationService> imple
         }
 
         PagedResult<EntryData> searchResult = findEntriesImpl(baseDN, entryClass, filter, SearchScope.SUB, ldapReturnAttributes, sortBy, sortOrder,
-                null, SearchReturnDataType.SEARCH_COUNT, start, count, chunkSize);
+                null, SearchReturnDataType.SEARCH_COUNT, start, count, chunkSize, null);
 
         PagedResult<T> result = new PagedResult<T>();
         result.setEntriesCount(searchResult.getEntriesCount());
@@ -424,9 +597,51 @@ public class SqlEntryManager extends BaseEntryManager<SqlOperationService> imple
         return result;
     }
 
+    @Override
+    protected <T> PagedEntryIterator.PageLoader<T> createPageLoader(final String baseDN, final Class<T> entryClass, final Filter filter,
+            SearchScope scope, final String[] ldapReturnAttributes, final int count, final int pageSize) {
+        if (StringHelper.isEmptyString(baseDN)) {
+            throw new MappingException("Base DN to find entries is null");
+        }
+
+        // Next page query continues after sort values of last returned row
+        final SearchPosition searchPosition = new SearchPosition();
+
+        return new PagedEntryIterator.PageLoader<T>() {
+
+            private boolean finished;
+
+            @Override
+            public List<T> loadNextPage() {
+                if (finished) {
+                    return null;
+                }
+
+                int limit = pageSize;
+                if (count > 0) {
+                    limit = Math.min(pageSize, count - searchPosition.getReturnedCount());
+                }
+
+                PagedResult<EntryData> searchResult = findEntriesImpl(baseDN, entryClass, filter, SearchScope.SUB, ldapReturnAttributes, null, null, null,
+                        SearchReturnDataType.SEARCH, 0, 0, limit, searchPosition);
+                finished = searchResult.getEntriesCount() < limit;
+                if (searchResult.getEntriesCount() == 0) {
+                    return null;
+                }
+
+                return createEntities(baseDN, entryClass, searchResult);
+            }
+
+            @Override
+            public void close() {
+                finished = true;
+            }
+        };
+    }
+
     protected <T> PagedResult<EntryData> findEntriesImpl(String baseDN, Class<T> entryClass, Filter filter, SearchScope scope,
             String[] ldapReturnAttributes, String sortBy, SortOrder sortOrder, BatchOperation<T> batchOperation, SearchReturnDataType returnDataType, int start,
-            int count, int chunkSize) {
+            int count, int chunkSize, SearchPosition searchPosition) {
         // Check entry class
         checkEntryClass(entryClass, false);
         String[] objectClasses = getTypeObjectClasses(entryClass);
@@ -483,8 +698,13 @@ public class SqlEntryManager extends BaseEntryManager<SqlOperationService> imple
             if (batchOperation != null) {
                 batchOperationWraper = new SqlBatchOperationWraper<T>(batchOperation, this, entryClass, propertiesAnnotations);
             }
-            searchResult = searchImpl(key, getBaseObjectClass(entryClass, objectClasses), convertedExpression, scope, currentLdapReturnAttributes,
-                    defaultSort, batchOperationWraper, returnDataType, start, count, chunkSize);
+            if (searchPosition == null) {
+            	searchResult = searchImpl(key, getBaseObjectClass(entryClass, objectClasses), convertedExpression, scope, currentLdapReturnAttributes,
+            			defaultSort, batchOperationWraper, returnDataType, start, count, chunkSize);
+            } else {
+            	searchResult = getOperationService().searchPage(key, getBaseObjectClass(entryClass, objectClasses), convertedExpression,
+            			toInternalAttributes(currentLdapReturnAttributes), defaultSort, searchPosition, chunkSize);
+            }
 
             if (searchResult == null) {
                 throw new EntryPersistenceException(String.format("Failed to find entries with key: '%s', expression: '%s'", key, convertedExpression));
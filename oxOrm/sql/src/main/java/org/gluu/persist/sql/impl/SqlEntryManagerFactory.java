@@ -75,6 +75,7 @@ public class SqlEntryManagerFactory implements PersistenceEntryManagerFactory {
 
         
         SqlEntryManager sqlEntryManager = new SqlEntryManager(new SqlOperationServiceImpl(entryManagerConf, connectionProvider));
+        sqlEntryManager.getOperationService().getOperationMetrics().init(entryManagerConf);
         LOG.info("Created SqlEntryManager: {}", sqlEntryManager.getOperationService());
 
         return sqlEntryManager;
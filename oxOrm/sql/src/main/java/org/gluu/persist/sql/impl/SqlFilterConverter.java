@@ -56,6 +56,7 @@ public class SqlFilterConverter {
 
 	private SqlOperationService operationService;
 	private SupportedDbType dbType;
+	private SqlFilterShapeCache shapeCache;
 
 	private Path<String> stringDocAlias = ExpressionUtils.path(String.class, "doc");
 	private Path<Boolean> booleanDocAlias = ExpressionUtils.path(Boolean.class, "doc");
@@ -68,8 +69,13 @@ public class SqlFilterConverter {
 
 
     public SqlFilterConverter(SqlOperationService operationService) {
+    	this(operationService, SqlFilterShapeCache.DEFAULT_MAX_SIZE);
+	}
+
+    public SqlFilterConverter(SqlOperationService operationService, int shapeCacheSize) {
     	this.operationService = operationService;
     	this.dbType = operationService.getConnectionProvider().getDbType();
+    	this.shapeCache = new SqlFilterShapeCache(shapeCacheSize);
 	}
 
 	public ConvertedExpression convertToSqlFilter(TableMapping tableMapping, Filter genericFilter, Map<String, PropertyAnnotation> propertiesAnnotationsMap) throws SearchException {
@@ -81,14 +87,84 @@ public class SqlFilterConverter {
     }
 
 	public ConvertedExpression convertToSqlFilter(TableMapping tableMapping, Filter genericFilter, Map<String, PropertyAnnotation> propertiesAnnotationsMap, Function<? super Filter, Boolean> processor, boolean skipAlias) throws SearchException {
-    	Map<String, Class<?>> jsonAttributes = new HashMap<>();
-    	ConvertedExpression convertedExpression = convertToSqlFilterImpl(tableMapping, genericFilter, propertiesAnnotationsMap, jsonAttributes, processor, skipAlias);
-    	
-    	return convertedExpression;
+    	// Processor can change filter during conversion. Such filters are not cached
+    	String shapeKey = null;
+    	if ((processor == null) && (genericFilter != null) && shapeCache.isEnabled()) {
+    		shapeKey = buildShapeKey(tableMapping, genericFilter, propertiesAnnotationsMap, skipAlias);
+    	}
+
+    	if (shapeKey == null) {
+        	Map<String, Class<?>> jsonAttributes = new HashMap<>();
+        	ConvertedExpression convertedExpression = convertToSqlFilterImpl(tableMapping, genericFilter, propertiesAnnotationsMap, jsonAttributes, processor, skipAlias, null);
+
+        	return convertedExpression;
+    	}
+
+    	SqlFilterTemplate filterTemplate = shapeCache.get(shapeKey);
+    	if (filterTemplate == null) {
+    		filterTemplate = new SqlFilterTemplate(genericFilter);
+
+    		Map<String, Class<?>> jsonAttributes = new HashMap<>();
+        	ConvertedExpression convertedExpression = convertToSqlFilterImpl(tableMapping, genericFilter, propertiesAnnotationsMap, jsonAttributes, null, skipAlias, filterTemplate);
+        	filterTemplate.complete(convertedExpression);
+
+        	shapeCache.put(shapeKey, filterTemplate);
+    	}
+
+    	return filterTemplate.bind(tableMapping, genericFilter);
     }
 
+	public SqlFilterShapeCache getShapeCache() {
+		return shapeCache;
+	}
+
+	private String buildShapeKey(TableMapping tableMapping, Filter genericFilter, Map<String, PropertyAnnotation> propertiesAnnotationsMap, boolean skipAlias) {
+		StringBuilder shapeKey = new StringBuilder(128);
+		shapeKey.append(tableMapping == null ? "" : tableMapping.getTableName()).append('|').append(skipAlias).append('|');
+
+		if (!appendShapeKey(shapeKey, genericFilter, propertiesAnnotationsMap)) {
+			return null;
+		}
+
+		return shapeKey.toString();
+	}
+
+	private boolean appendShapeKey(StringBuilder shapeKey, Filter filter, Map<String, PropertyAnnotation> propertiesAnnotationsMap) {
+		FilterType type = filter.getType();
+		if (FilterType.RAW == type) {
+			return false;
+		}
+
+		Object assertionValue = filter.getAssertionValue();
+		shapeKey.append(type.name()).append('(').append(filter.getAttributeName())
+			.append(',').append(filter.getMultiValued()).append(',').append(filter.getMultiValuedCount())
+			.append(',').append(determineMultiValuedByType(filter.getAttributeName(), propertiesAnnotationsMap))
+			.append(',').append(assertionValue == null ? null : assertionValue.getClass().getName());
+
+		if (FilterType.SUBSTRING == type) {
+			String[] subAny = filter.getSubAny();
+			shapeKey.append(',').append(filter.getSubInitial() != null)
+				.append(',').append(subAny == null ? -1 : subAny.length)
+				.append(',').append(filter.getSubFinal() != null);
+		}
+
+		Filter[] filters = filter.getFilters();
+		if (filters != null) {
+			shapeKey.append(",[");
+			for (Filter childFilter : filters) {
+				if (!appendShapeKey(shapeKey, childFilter, propertiesAnnotationsMap)) {
+					return false;
+				}
+			}
+			shapeKey.append(']');
+		}
+		shapeKey.append(')');
+
+		return true;
+	}
+
 	private ConvertedExpression convertToSqlFilterImpl(TableMapping tableMapping, Filter genericFilter, Map<String, PropertyAnnotation> propertiesAnnotationsMap,
-			Map<String, Class<?>> jsonAttributes, Function<? super Filter, Boolean> processor, boolean skipAlias) throws SearchException {
+			Map<String, Class<?>> jsonAttributes, Function<? super Filter, Boolean> processor, boolean skipAlias, SqlFilterTemplate filterTemplate) throws SearchException {
 		if (genericFilter == null) {
 			return null;
 		}
@@ -116,7 +192,7 @@ public class SqlFilterConverter {
             	String joinOrAttributeName = null;
                 for (int i = 0; i < genericFilters.length; i++) {
                 	Filter tmpFilter = genericFilters[i];
-                    expFilters[i] = (Predicate) convertToSqlFilterImpl(tableMapping, tmpFilter, propertiesAnnotationsMap, jsonAttributes, processor, skipAlias).expression();
+                    expFilters[i] = (Predicate) convertToSqlFilterImpl(tableMapping, tmpFilter, propertiesAnnotationsMap, jsonAttributes, processor, skipAlias, filterTemplate).expression();
 
                     // Check if we can replace OR with IN
                 	if (!canJoinOrFilters) {
@@ -159,19 +235,22 @@ public class SqlFilterConverter {
                     return ConvertedExpression.build(ExpressionUtils.allOf(expFilters), jsonAttributes);
                 } else if (FilterType.OR == type) {
                     if (canJoinOrFilters) {
-                    	List<Object> rightObjs = new ArrayList<>(joinOrFilters.size());
-                    	Filter lastEqFilter = null;
-                		for (Filter eqFilter : joinOrFilters) {
-                			lastEqFilter = eqFilter;
-
-                			Object assertionValue = eqFilter.getAssertionValue();
-                			if (assertionValue instanceof AttributeEnum) {
-                				assertionValue = ((AttributeEnum) assertionValue).getValue();
-                			}
-                			rightObjs.add(assertionValue);
-            			}
-                		
-                		return ConvertedExpression.build(ExpressionUtils.in(buildTypedPath(tableMapping, lastEqFilter, propertiesAnnotationsMap, jsonAttributes, processor, skipAlias), rightObjs), jsonAttributes);
+                    	Filter lastEqFilter = joinOrFilters.get(joinOrFilters.size() - 1);
+                    	Expression columnExpression = buildTypedPath(tableMapping, lastEqFilter, propertiesAnnotationsMap, jsonAttributes, processor, skipAlias, filterTemplate);
+                    	if (filterTemplate == null) {
+                    		List<Object> rightObjs = buildInExpressionValues(joinOrFilters);
+
+                    		return ConvertedExpression.build(ExpressionUtils.in(columnExpression, rightObjs), jsonAttributes);
+                    	}
+
+                    	// All sub-filters are joined. Template has same number of values as filter with same shape
+                    	if (joinOrFilters.size() == 1) {
+                    		return ConvertedExpression.build(ExpressionUtils.eq(columnExpression,
+                    				filterTemplate.addParameter(lastEqFilter, (tm, f) -> buildInExpressionValues(Arrays.asList(f)).get(0))), jsonAttributes);
+                    	}
+
+                		return ConvertedExpression.build(ExpressionUtils.predicate(Ops.IN, columnExpression,
+                				filterTemplate.addParameter(currentGenericFilter, (tm, f) -> buildInExpressionValues(Arrays.asList(f.getFilters())))), jsonAttributes);
                 	} else {
                         return ConvertedExpression.build(ExpressionUtils.anyOf(expFilters), jsonAttributes);
                 	}
@@ -180,37 +259,37 @@ public class SqlFilterConverter {
         }
 
         boolean multiValued = isMultiValue(tableMapping, currentGenericFilter, propertiesAnnotationsMap);
-    	Expression columnExpression = buildTypedPath(tableMapping, currentGenericFilter, propertiesAnnotationsMap, jsonAttributes, processor, skipAlias);
+    	Expression columnExpression = buildTypedPath(tableMapping, currentGenericFilter, propertiesAnnotationsMap, jsonAttributes, processor, skipAlias, filterTemplate);
 
     	if (FilterType.EQUALITY == type) {
     		if (multiValued) {
     			if (SupportedDbType.POSTGRESQL == this.dbType) {
         			Operation<Boolean> operation = ExpressionUtils.predicate(SqlOps.PGSQL_JSON_CONTAINS, columnExpression,
-        					buildTypedArrayExpression(tableMapping, currentGenericFilter));
+        					buildTypedArrayExpression(tableMapping, currentGenericFilter, filterTemplate));
 
             		return ConvertedExpression.build(operation, jsonAttributes);
     			} else {
 	    			Operation<Boolean> operation = ExpressionUtils.predicate(SqlOps.JSON_CONTAINS, columnExpression,
-	    					buildTypedArrayExpression(tableMapping, currentGenericFilter), Expressions.constant("$.v"));
+	    					buildTypedArrayExpression(tableMapping, currentGenericFilter, filterTemplate), Expressions.constant("$.v"));
 	
 	        		return ConvertedExpression.build(operation, jsonAttributes);
     			}
             }
-        	return ConvertedExpression.build(ExpressionUtils.eq(columnExpression, buildTypedExpression(tableMapping, currentGenericFilter)), jsonAttributes);
+        	return ConvertedExpression.build(ExpressionUtils.eq(columnExpression, buildTypedExpression(tableMapping, currentGenericFilter, filterTemplate)), jsonAttributes);
         }
 
         if (FilterType.LESS_OR_EQUAL == type) {
             if (multiValued) {
     			if (SupportedDbType.POSTGRESQL == this.dbType) {
 	            	return buildPostgreSqlMultivaluedComparisionExpression(tableMapping, jsonAttributes,
-							currentGenericFilter, columnExpression);
+							currentGenericFilter, columnExpression, filterTemplate);
     			} else {
 	            	if (currentGenericFilter.getMultiValuedCount() > 1) {
 	                	Collection<Predicate> expressions = new ArrayList<>(currentGenericFilter.getMultiValuedCount());
 	            		for (int i = 0; i < currentGenericFilter.getMultiValuedCount(); i++) {
 	                		Operation<Boolean> operation = ExpressionUtils.predicate(SqlOps.JSON_EXTRACT,
 	                				columnExpression, Expressions.constant("$.v[" + i + "]"));
-	                		Predicate predicate = Expressions.asComparable(operation).loe(buildTypedExpression(tableMapping, currentGenericFilter));
+	                		Predicate predicate = Expressions.asComparable(operation).loe(buildTypedExpression(tableMapping, currentGenericFilter, filterTemplate));
 	
 	                		expressions.add(predicate);
 	            		}
@@ -222,12 +301,12 @@ public class SqlFilterConverter {
 	
 	            	Operation<Boolean> operation = ExpressionUtils.predicate(SqlOps.JSON_EXTRACT,
 	        				columnExpression, Expressions.constant("$.v[0]"));
-	        		Expression expression = Expressions.asComparable(operation).loe(buildTypedExpression(tableMapping, currentGenericFilter));
+	        		Expression expression = Expressions.asComparable(operation).loe(buildTypedExpression(tableMapping, currentGenericFilter, filterTemplate));
 	
 	            	return ConvertedExpression.build(expression, jsonAttributes);
     			}
             } else {
-            	return ConvertedExpression.build(Expressions.asComparable(columnExpression).loe(buildTypedExpression(tableMapping, currentGenericFilter)), jsonAttributes);
+            	return ConvertedExpression.build(Expressions.asComparable(columnExpression).loe(buildTypedExpression(tableMapping, currentGenericFilter, filterTemplate)), jsonAttributes);
             }
         }
 
@@ -235,14 +314,14 @@ public class SqlFilterConverter {
             if (multiValued) {
     			if (SupportedDbType.POSTGRESQL == this.dbType) {
 	            	return buildPostgreSqlMultivaluedComparisionExpression(tableMapping, jsonAttributes,
-							currentGenericFilter, columnExpression);
+							currentGenericFilter, columnExpression, filterTemplate);
     			} else {
 	            	if (currentGenericFilter.getMultiValuedCount() > 1) {
 	                	Collection<Predicate> expressions = new ArrayList<>(currentGenericFilter.getMultiValuedCount());
 	            		for (int i = 0; i < currentGenericFilter.getMultiValuedCount(); i++) {
 	                		Operation<Boolean> operation = ExpressionUtils.predicate(SqlOps.JSON_EXTRACT,
 	                				columnExpression, Expressions.constant("$.v[" + i + "]"));
-	                		Predicate predicate = Expressions.asComparable(operation).goe(buildTypedExpression(tableMapping, currentGenericFilter));
+	                		Predicate predicate = Expressions.asComparable(operation).goe(buildTypedExpression(tableMapping, currentGenericFilter, filterTemplate));
 	
 	                		expressions.add(predicate);
 	            		}
@@ -253,12 +332,12 @@ public class SqlFilterConverter {
 	
 	            	Operation<Boolean> operation = ExpressionUtils.predicate(SqlOps.JSON_EXTRACT,
 	        				columnExpression, Expressions.constant("$.v[0]"));
-	        		Expression expression = Expressions.asComparable(operation).goe(buildTypedExpression(tableMapping, currentGenericFilter));
+	        		Expression expression = Expressions.asComparable(operation).goe(buildTypedExpression(tableMapping, currentGenericFilter, filterTemplate));
 	
 	            	return ConvertedExpression.build(expression, jsonAttributes);
     			}
             } else {
-            	return ConvertedExpression.build(Expressions.asComparable(columnExpression).goe(buildTypedExpression(tableMapping, currentGenericFilter)), jsonAttributes);
+            	return ConvertedExpression.build(Expressions.asComparable(columnExpression).goe(buildTypedExpression(tableMapping, currentGenericFilter, filterTemplate)), jsonAttributes);
             }
         }
 
@@ -297,47 +376,20 @@ public class SqlFilterConverter {
         }
 
         if (FilterType.SUBSTRING == type) {
-        	String matchChar = multiValued && (SupportedDbType.POSTGRESQL == this.dbType) ? ".*" : "%";
-        	StringBuilder like = new StringBuilder();
-            if (currentGenericFilter.getSubInitial() != null) {
-                like.append(currentGenericFilter.getSubInitial());
-            }
-            like.append(matchChar);
-
-            String[] subAny = currentGenericFilter.getSubAny();
-            if ((subAny != null) && (subAny.length > 0)) {
-                for (String any : subAny) {
-        			if (SupportedDbType.POSTGRESQL == this.dbType) {
-        				if (multiValued) {
-        					like.append(escapeRegex(any));
-        				} else {
-        					like.append(any);
-        				}
-        			} else {
-        				like.append(any);
-        			}
-                    like.append(matchChar);
-                }
-            }
-
-            if (currentGenericFilter.getSubFinal() != null) {
-                like.append(currentGenericFilter.getSubFinal());
-            }
-
             Expression expression;
             if (multiValued) {
     			if (SupportedDbType.POSTGRESQL == this.dbType) {
-    				String likeString = "\"" + StringEscapeUtils.escapeJava(like.toString()) + "\"";
 	            	return buildPostgreSqlMultivaluedComparisionExpression(tableMapping, jsonAttributes,
 							currentGenericFilter, columnExpression, Expressions.constant("like_regex"),
-							likeString);
+							buildValueExpression(tableMapping, currentGenericFilter, filterTemplate, (tm, f) -> "\"" + StringEscapeUtils.escapeJava(buildLikeString(f, true)) + "\""));
     			} else {
 	            	if (currentGenericFilter.getMultiValuedCount() > 1) {
 	                	Collection<Predicate> expressions = new ArrayList<>(currentGenericFilter.getMultiValuedCount());
 	            		for (int i = 0; i < currentGenericFilter.getMultiValuedCount(); i++) {
 	                		Operation<Boolean> operation = ExpressionUtils.predicate(SqlOps.JSON_EXTRACT,
 	                				columnExpression, Expressions.constant("$.v[" + i + "]"));
-	                		Predicate predicate = Expressions.booleanOperation(Ops.LIKE, operation, Expressions.constant(like.toString()));
+	                		Predicate predicate = Expressions.booleanOperation(Ops.LIKE, operation,
+	                				buildValueExpression(tableMapping, currentGenericFilter, filterTemplate, (tm, f) -> buildLikeString(f, multiValued)));
 	
 	                		expressions.add(predicate);
 	            		}
@@ -353,7 +405,8 @@ public class SqlFilterConverter {
             	expression = columnExpression;
             }
 
-            return ConvertedExpression.build(Expressions.booleanOperation(Ops.LIKE, expression, Expressions.constant(like.toString())), jsonAttributes);
+            return ConvertedExpression.build(Expressions.booleanOperation(Ops.LIKE, expression,
+            		buildValueExpression(tableMapping, currentGenericFilter, filterTemplate, (tm, f) -> buildLikeString(f, multiValued))), jsonAttributes);
         }
 
         if (FilterType.LOWERCASE == type) {
@@ -365,16 +418,14 @@ public class SqlFilterConverter {
 
 	private ConvertedExpression buildPostgreSqlMultivaluedComparisionExpression(TableMapping tableMapping,
 			Map<String, Class<?>> jsonAttributes, Filter currentGenericFilter,
-			Expression columnExpression) throws SearchException {
-		Object typedArrayExpressionValue = prepareTypedArrayExpressionValue(tableMapping, currentGenericFilter);		
+			Expression columnExpression, SqlFilterTemplate filterTemplate) throws SearchException {
+		Expression<?> typedArrayExpression = buildValueExpression(tableMapping, currentGenericFilter, filterTemplate, this::prepareTypedArrayExpressionValue);
 		return buildPostgreSqlMultivaluedComparisionExpression(tableMapping, jsonAttributes, currentGenericFilter, columnExpression,
-				Expressions.constant(currentGenericFilter.getType().getSign()), typedArrayExpressionValue);
+				Expressions.constant(currentGenericFilter.getType().getSign()), typedArrayExpression);
 	}
 
 	private ConvertedExpression buildPostgreSqlMultivaluedComparisionExpression(TableMapping tableMapping,
-			Map<String, Class<?>> jsonAttributes, Filter currentGenericFilter, Expression columnExpression, Expression operationExpession, Object expressionValue) {
-		Expression<?> typedArrayExpression = expressionValue == null ? Expressions.nullExpression() : Expressions.constant(expressionValue); 
-
+			Map<String, Class<?>> jsonAttributes, Filter currentGenericFilter, Expression columnExpression, Expression operationExpession, Expression<?> typedArrayExpression) {
 		Operation<Boolean> operation = ExpressionUtils.predicate(SqlOps.PGSQL_JSON_NOT_EMPTY_ARRAY,
 				ExpressionUtils.predicate(SqlOps.PGSQL_JSON_PATH_QUERY_ARRAY,
 				columnExpression, operationExpession,
@@ -447,18 +498,76 @@ public class SqlFilterConverter {
 		return operationService.toInternalAttribute(attributeName);
 	}
 
-	private Expression buildTypedExpression(TableMapping tableMapping, Filter filter) throws SearchException {
-		Object expressionValue = prepareTypedExpressionValue(tableMapping, filter);
-		Expression<?> expression = expressionValue == null ? Expressions.nullExpression() : Expressions.constant(expressionValue); 
-		return expression;
+	private Expression buildTypedExpression(TableMapping tableMapping, Filter filter, SqlFilterTemplate filterTemplate) throws SearchException {
+		return buildValueExpression(tableMapping, filter, filterTemplate, this::prepareTypedExpressionValue);
+	}
+
+	private Expression buildTypedArrayExpression(TableMapping tableMapping, Filter filter, SqlFilterTemplate filterTemplate) throws SearchException {
+		return buildValueExpression(tableMapping, filter, filterTemplate, this::prepareTypedArrayExpressionJson);
+	}
+
+	private Expression<?> buildValueExpression(TableMapping tableMapping, Filter filter, SqlFilterTemplate filterTemplate, SqlFilterTemplate.ValueExtractor valueExtractor) throws SearchException {
+		Object expressionValue = valueExtractor.extract(tableMapping, filter);
+		if (expressionValue == null) {
+			// Value presence is part of filter shape
+			return Expressions.nullExpression();
+		}
+
+		if (filterTemplate == null) {
+			return Expressions.constant(expressionValue);
+		}
+
+		return filterTemplate.addParameter(filter, valueExtractor);
 	}
 
-	private Expression buildTypedArrayExpression(TableMapping tableMapping, Filter filter) throws SearchException {
+	private String prepareTypedArrayExpressionJson(TableMapping tableMapping, Filter filter) throws SearchException {
 		Object assertionValue = prepareTypedArrayExpressionValue(tableMapping, filter);
 
-		String assertionValueJson = convertValueToJson(Arrays.asList(assertionValue));
+		return convertValueToJson(Arrays.asList(assertionValue));
+	}
+
+	private List<Object> buildInExpressionValues(List<Filter> eqFilters) {
+		List<Object> values = new ArrayList<>(eqFilters.size());
+		for (Filter eqFilter : eqFilters) {
+			Object assertionValue = eqFilter.getAssertionValue();
+			if (assertionValue instanceof AttributeEnum) {
+				assertionValue = ((AttributeEnum) assertionValue).getValue();
+			}
+			values.add(assertionValue);
+		}
+
+		return values;
+	}
+
+	private String buildLikeString(Filter filter, boolean multiValued) {
+    	String matchChar = multiValued && (SupportedDbType.POSTGRESQL == this.dbType) ? ".*" : "%";
+    	StringBuilder like = new StringBuilder();
+        if (filter.getSubInitial() != null) {
+            like.append(filter.getSubInitial());
+        }
+        like.append(matchChar);
+
+        String[] subAny = filter.getSubAny();
+        if ((subAny != null) && (subAny.length > 0)) {
+            for (String any : subAny) {
+    			if (SupportedDbType.POSTGRESQL == this.dbType) {
+    				if (multiValued) {
+    					like.append(escapeRegex(any));
+    				} else {
+    					like.append(any);
+    				}
+    			} else {
+    				like.append(any);
+    			}
+                like.append(matchChar);
+            }
+        }
+
+        if (filter.getSubFinal() != null) {
+            like.append(filter.getSubFinal());
+        }
 
-		return Expressions.constant(assertionValueJson);
+        return like.toString();
 	}
 
 	private Object prepareTypedArrayExpressionValue(TableMapping tableMapping, Filter filter) throws SearchException {
@@ -498,11 +607,11 @@ public class SqlFilterConverter {
 	}
 
 	private Expression buildTypedPath(TableMapping tableMapping, Filter genericFilter, Map<String, PropertyAnnotation> propertiesAnnotationsMap,
-			Map<String, Class<?>> jsonAttributes, Function<? super Filter, Boolean> processor, boolean skipAlias) throws SearchException {
+			Map<String, Class<?>> jsonAttributes, Function<? super Filter, Boolean> processor, boolean skipAlias, SqlFilterTemplate filterTemplate) throws SearchException {
     	boolean hasSubFilters = ArrayHelper.isNotEmpty(genericFilter.getFilters());
 
 		if (hasSubFilters) {
-    		return convertToSqlFilterImpl(tableMapping, genericFilter.getFilters()[0], propertiesAnnotationsMap, jsonAttributes, processor, skipAlias).expression();
+    		return convertToSqlFilterImpl(tableMapping, genericFilter.getFilters()[0], propertiesAnnotationsMap, jsonAttributes, processor, skipAlias, filterTemplate).expression();
 		}
 		
 		String internalAttribute = toInternalAttribute(genericFilter);
@@ -0,0 +1,79 @@
+/*
+ * oxCore is available under the MIT License (2014). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.sql.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of converted filter templates. Key is filter shape: attribute names, filter types
+ * and filter structure without values
+ */
+public class SqlFilterShapeCache {
+
+	public static final int DEFAULT_MAX_SIZE = 1000;
+
+	private final int maxSize;
+	private final ConcurrentMap<String, SqlFilterTemplate> templates;
+
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+
+	public SqlFilterShapeCache(int maxSize) {
+		this.maxSize = maxSize;
+		this.templates = new ConcurrentHashMap<>();
+	}
+
+	public boolean isEnabled() {
+		return maxSize > 0;
+	}
+
+	SqlFilterTemplate get(String shapeKey) {
+		SqlFilterTemplate template = templates.get(shapeKey);
+		if (template == null) {
+			missCount.incrementAndGet();
+		} else {
+			hitCount.incrementAndGet();
+		}
+
+		return template;
+	}
+
+	void put(String shapeKey, SqlFilterTemplate template) {
+		// Application builds limited number of filter shapes. Stop adding new ones if there are too many of them
+		if (templates.size() < maxSize) {
+			templates.putIfAbsent(shapeKey, template);
+		}
+	}
+
+	public void clear() {
+		templates.clear();
+	}
+
+	public int getSize() {
+		return templates.size();
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	@Override
+	public String toString() {
+		return "SqlFilterShapeCache [size=" + templates.size() + ", maxSize=" + maxSize + ", hitCount=" + hitCount + ", missCount=" + missCount + "]";
+	}
+
+}
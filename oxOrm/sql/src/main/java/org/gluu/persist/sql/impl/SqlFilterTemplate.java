@@ -0,0 +1,140 @@
+/*
+ * oxCore is available under the MIT License (2014). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.sql.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.gluu.persist.exception.operation.SearchException;
+import org.gluu.persist.sql.model.ConvertedExpression;
+import org.gluu.persist.sql.model.TableMapping;
+import org.gluu.search.filter.Filter;
+
+import com.querydsl.core.support.ReplaceVisitor;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.ParamExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.Param;
+
+/**
+ * Converted filter with values replaced by parameters. Template is shared between
+ * filters with same shape, each search binds own filter values into it
+ */
+class SqlFilterTemplate {
+
+	private final List<Binding> bindings;
+
+	private Map<Filter, Integer> filterIndexes;
+
+	private Expression<?> expression;
+	private Map<String, Class<?>> jsonAttributes;
+
+	SqlFilterTemplate(Filter filter) {
+		this.filterIndexes = new IdentityHashMap<>();
+		this.bindings = new ArrayList<>();
+
+		List<Filter> filters = flatten(filter);
+		for (int i = 0; i < filters.size(); i++) {
+			filterIndexes.putIfAbsent(filters.get(i), i);
+		}
+	}
+
+	Expression<?> addParameter(Filter filter, ValueExtractor valueExtractor) throws SearchException {
+		Integer filterIndex = filterIndexes.get(filter);
+		if (filterIndex == null) {
+			throw new SearchException(String.format("Filter '%s' is not part of template filter", filter));
+		}
+
+		Param<Object> param = new Param<Object>(Object.class, "p" + bindings.size());
+		bindings.add(new Binding(param, filterIndex, valueExtractor));
+
+		return param;
+	}
+
+	void complete(ConvertedExpression convertedExpression) {
+		this.expression = convertedExpression.expression();
+		this.jsonAttributes = convertedExpression.jsonAttributes();
+
+		// Don't keep filter which was used to build template
+		this.filterIndexes = null;
+	}
+
+	ConvertedExpression bind(TableMapping tableMapping, Filter filter) throws SearchException {
+		Map<String, Class<?>> boundJsonAttributes = jsonAttributes == null ? null : new HashMap<>(jsonAttributes);
+		if (bindings.isEmpty()) {
+			return ConvertedExpression.build(expression, boundJsonAttributes);
+		}
+
+		List<Filter> filters = flatten(filter);
+		Map<String, Expression<?>> values = new HashMap<>();
+		for (Binding binding : bindings) {
+			Object value = binding.valueExtractor.extract(tableMapping, filters.get(binding.filterIndex));
+			values.put(binding.param.getName(), value == null ? Expressions.nullExpression() : Expressions.constant(value));
+		}
+
+		Expression<?> boundExpression = expression.accept(new ParamReplaceVisitor(), values);
+
+		return ConvertedExpression.build(boundExpression, boundJsonAttributes);
+	}
+
+	private static List<Filter> flatten(Filter filter) {
+		List<Filter> result = new ArrayList<>();
+		flatten(filter, result);
+
+		return result;
+	}
+
+	private static void flatten(Filter filter, List<Filter> result) {
+		result.add(filter);
+
+		Filter[] childFilters = filter.getFilters();
+		if (childFilters != null) {
+			for (Filter childFilter : childFilters) {
+				flatten(childFilter, result);
+			}
+		}
+	}
+
+	@FunctionalInterface
+	interface ValueExtractor {
+
+		Object extract(TableMapping tableMapping, Filter filter) throws SearchException;
+
+	}
+
+	private static final class Binding {
+
+		private final Param<Object> param;
+		private final int filterIndex;
+		private final ValueExtractor valueExtractor;
+
+		private Binding(Param<Object> param, int filterIndex, ValueExtractor valueExtractor) {
+			this.param = param;
+			this.filterIndex = filterIndex;
+			this.valueExtractor = valueExtractor;
+		}
+
+	}
+
+	private static final class ParamReplaceVisitor extends ReplaceVisitor<Map<String, Expression<?>>> {
+
+		@Override
+		public Expression<?> visit(ParamExpression<?> expr, Map<String, Expression<?>> values) {
+			Expression<?> value = values.get(expr.getName());
+			if (value == null) {
+				return expr;
+			}
+
+			return value;
+		}
+
+	}
+
+}
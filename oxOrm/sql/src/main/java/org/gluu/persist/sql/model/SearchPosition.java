@@ -0,0 +1,35 @@
+/*
+ * oxCore is available under the MIT License (2008). See http://opensource.org/licenses/MIT for full text.
+ *
+ * Copyright (c) 2014, Gluu
+ */
+
+package org.gluu.persist.sql.model;
+
+/**
+ * Position of paged search which is continued page by page with separate queries
+ */
+public class SearchPosition {
+
+	private int returnedCount;
+
+	// Last returned row. It's maintained by operation service to build keyset condition of next page query
+	private Object keyset;
+
+	public int getReturnedCount() {
+		return returnedCount;
+	}
+
+	public void setReturnedCount(int returnedCount) {
+		this.returnedCount = returnedCount;
+	}
+
+	public Object getKeyset() {
+		return keyset;
+	}
+
+	public void setKeyset(Object keyset) {
+		this.keyset = keyset;
+	}
+
+}
@@ -11,6 +11,7 @@ import java.sql.DatabaseMetaData;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import org.gluu.persist.exception.operation.DeleteException;
 import org.gluu.persist.exception.operation.DuplicateEntryException;
@@ -23,9 +24,11 @@ import org.gluu.persist.model.AttributeDataModification;
 import org.gluu.persist.model.EntryData;
 import org.gluu.persist.model.PagedResult;
 import org.gluu.persist.model.SearchScope;
+import org.gluu.persist.model.WriteOperation;
 import org.gluu.persist.operation.PersistenceOperationService;
 import org.gluu.persist.sql.impl.SqlBatchOperationWraper;
 import org.gluu.persist.sql.model.ConvertedExpression;
+import org.gluu.persist.sql.model.SearchPosition;
 import org.gluu.persist.sql.model.SearchReturnDataType;
 import org.gluu.persist.sql.model.TableMapping;
 import org.gluu.persist.sql.operation.impl.SqlConnectionProvider;
@@ -65,16 +68,39 @@ public interface SqlOperationService extends PersistenceOperationService {
     boolean updateEntry(String key, String objectClass, List<AttributeDataModification> mods) throws UnsupportedOperationException, PersistenceException;
 
     boolean delete(String key, String objectClass) throws EntryNotFoundException;
+
+	/**
+	 * Add, update or delete entries of one table in one transaction. Each operation should contain key and
+	 * prepared data. If transaction fails it's rolled back and entries are processed one by one to store
+	 * failure of each entry in operation
+	 */
+	void addEntries(String objectClass, List<WriteOperation> operations);
+	void updateEntries(String objectClass, List<WriteOperation> operations);
+	void deleteEntries(String objectClass, List<WriteOperation> operations);
+
 	long delete(String key, String objectClass, ConvertedExpression expression, int count) throws DeleteException;
 
 	boolean deleteRecursively(String key, String objectClass) throws EntryNotFoundException, SearchException;
 
 	List<AttributeData> lookup(String key, String objectClass, String... attributes) throws SearchException, EntryConvertationException;
 
+	/**
+	 * Lookup entries by keys with IN condition
+	 *
+	 * @return Map key -> entry attributes. Not found keys are not included
+	 */
+	Map<String, List<AttributeData>> lookup(Collection<String> keys, String objectClass, String... attributes) throws SearchException, EntryConvertationException;
+
     <O> PagedResult<EntryData> search(String key, String objectClass, ConvertedExpression expression, SearchScope scope,
             String[] attributes, OrderSpecifier<?>[] orderBy, SqlBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType,
             int start, int count, int pageSize) throws SearchException;
 
+	/**
+	 * Load next page of search. Query continues after last row of previous page which is stored in search position
+	 */
+    PagedResult<EntryData> searchPage(String key, String objectClass, ConvertedExpression expression, String[] attributes,
+            OrderSpecifier<?>[] orderBy, SearchPosition searchPosition, int pageSize) throws SearchException;
+
     String[] createStoragePassword(String[] passwords);
     
     boolean isBinaryAttribute(String attribute);
@@ -64,6 +64,8 @@ public class SqlConnectionProvider {
 
     private static final String DRIVER_PROPERTIES_PREFIX = "connection.driver-property";
 
+    private static final int DEFAULT_MAX_OPEN_PREPARED_STATEMENTS = 100;
+
     private Properties props;
 
     private String connectionUri;
@@ -71,6 +73,7 @@ public class SqlConnectionProvider {
 
     private GenericObjectPoolConfig<PoolableConnection> objectPoolConfig;
     private PoolingDataSource<PoolableConnection> poolingDataSource;
+    private int maxOpenPreparedStatements;
 
     private int creationResultCode;
 
@@ -181,6 +184,10 @@ public class SqlConnectionProvider {
 			objectPoolConfig.setTestOnReturn(testOnReturn);
 		}
 
+		// Filters with same shape produce same SQL. Keep prepared statements per connection to reuse them. 0 disables pool
+		this.maxOpenPreparedStatements = StringHelper.toInteger(props.getProperty("connection.pool.max-open-prepared-statements"),
+				DEFAULT_MAX_OPEN_PREPARED_STATEMENTS);
+
         openWithWaitImpl();
         LOG.info("Created connection pool");
 
@@ -382,6 +389,10 @@ public class SqlConnectionProvider {
     private void open() {
 		ConnectionFactory connectionFactory = new DriverManagerConnectionFactory(connectionUri, connectionProperties);
 		PoolableConnectionFactory poolableConnectionFactory = new PoolableConnectionFactory(connectionFactory, null);
+		if (maxOpenPreparedStatements > 0) {
+			poolableConnectionFactory.setPoolStatements(true);
+			poolableConnectionFactory.setMaxOpenPreparedStatements(maxOpenPreparedStatements);
+		}
 		ObjectPool<PoolableConnection> objectPool = new GenericObjectPool<>(poolableConnectionFactory,
 				objectPoolConfig);
 
@@ -21,6 +21,7 @@ import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -44,16 +45,19 @@ import org.gluu.persist.model.BatchOperation;
 import org.gluu.persist.model.EntryData;
 import org.gluu.persist.model.PagedResult;
 import org.gluu.persist.model.SearchScope;
+import org.gluu.persist.model.WriteOperation;
 import org.gluu.persist.operation.auth.PasswordEncryptionHelper;
 import org.gluu.persist.sql.impl.SqlBatchOperationWraper;
 import org.gluu.persist.sql.model.ConvertedExpression;
 import org.gluu.persist.sql.model.JsonAttributeValue;
 import org.gluu.persist.sql.model.JsonString;
+import org.gluu.persist.sql.model.SearchPosition;
 import org.gluu.persist.sql.model.SearchReturnDataType;
 import org.gluu.persist.sql.model.TableMapping;
 import org.gluu.persist.sql.operation.SqlOperationService;
 import org.gluu.persist.sql.operation.SupportedDbType;
 import org.gluu.persist.sql.operation.watch.OperationDurationUtil;
+import org.gluu.persist.watch.OperationMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,6 +65,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.querydsl.core.QueryException;
 import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Order;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.Path;
 import com.querydsl.core.types.Predicate;
@@ -70,6 +76,7 @@ import com.querydsl.core.types.dsl.Wildcard;
 import com.querydsl.sql.RelationalPathBase;
 import com.querydsl.sql.SQLQuery;
 import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.StatementOptions;
 import com.querydsl.sql.dml.SQLDeleteClause;
 import com.querydsl.sql.dml.SQLInsertClause;
 import com.querydsl.sql.dml.SQLUpdateClause;
@@ -83,6 +90,8 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 
     private static final Logger LOG = LoggerFactory.getLogger(SqlOperationServiceImpl.class);
 
+	private static final int MAX_LOOKUP_KEYS = 500;
+
 	private static final ObjectMapper JSON_OBJECT_MAPPER = new ObjectMapper();
 
     private Properties props;
@@ -94,6 +103,8 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 
 	private PersistenceExtension persistenceExtension;
 
+	private OperationMetrics operationMetrics = new OperationMetrics("sql");
+
 	private SQLQueryFactory sqlQueryFactory;
 
 	private String schemaName;
@@ -164,6 +175,7 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
         OperationDurationUtil.instance().logDebug("SQL operation: bind, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
+        operationMetrics.record("bind", tableMapping.getTableName(), duration, null);
 
         return result;
     }
@@ -173,37 +185,27 @@ public class SqlOperationServiceImpl implements SqlOperationService {
         Instant startTime = OperationDurationUtil.instance().now();
 
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
-        boolean result = addEntryImpl(tableMapping, key, attributes);
+        boolean result;
+        try {
+        	result = addEntryImpl(tableMapping, key, attributes);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("add", tableMapping.getTableName(), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("SQL operation: add, duration: {}, table: {}, key: {}, attributes: {}", duration, tableMapping.getTableName(), key, attributes);
+        operationMetrics.record("add", tableMapping.getTableName(), duration, null);
         
         return result;
     }
 
 	private boolean addEntryImpl(TableMapping tableMapping, String key, Collection<AttributeData> attributes) throws PersistenceException {
 		try {
-			Map<String, AttributeType> columTypes = tableMapping.getColumTypes();
-
 			RelationalPathBase<Object> tableRelationalPath = buildTableRelationalPath(tableMapping);
 			SQLInsertClause sqlInsertQuery = this.sqlQueryFactory.insert(tableRelationalPath);
 
-			for (AttributeData attribute : attributes) {
-				AttributeType attributeType = getAttributeType(columTypes, attribute);
-				if (attributeType == null) {
-		            throw new PersistenceException(String.format("Failed to find attribute type for '%s'", attribute.getName()));
-				}
-
-				boolean multiValued = (attributeType != null) && isJsonColumn(tableMapping.getTableName(), attributeType.getType());
-
-				if (multiValued || Boolean.TRUE.equals(attribute.getMultiValued())) {
-					sqlInsertQuery.columns(Expressions.path(Object.class, attribute.getName()));
-					sqlInsertQuery.values(convertValueToDbJson(attribute.getValues()));
-				} else {
-					sqlInsertQuery.columns(Expressions.stringPath(attribute.getName()));
-					sqlInsertQuery.values(attribute.getValue());
-				}
-			}
+			setInsertValues(sqlInsertQuery, tableMapping, attributes);
 			
 			long rowInserted = sqlInsertQuery.execute();
 
@@ -213,66 +215,211 @@ public class SqlOperationServiceImpl implements SqlOperationService {
         }
 	}
 
+	private void setInsertValues(SQLInsertClause sqlInsertQuery, TableMapping tableMapping, Collection<AttributeData> attributes) throws PersistenceException {
+		Map<String, AttributeType> columTypes = tableMapping.getColumTypes();
+
+		for (AttributeData attribute : attributes) {
+			AttributeType attributeType = getAttributeType(columTypes, attribute);
+			if (attributeType == null) {
+	            throw new PersistenceException(String.format("Failed to find attribute type for '%s'", attribute.getName()));
+			}
+
+			boolean multiValued = (attributeType != null) && isJsonColumn(tableMapping.getTableName(), attributeType.getType());
+
+			if (multiValued || Boolean.TRUE.equals(attribute.getMultiValued())) {
+				sqlInsertQuery.columns(Expressions.path(Object.class, attribute.getName()));
+				sqlInsertQuery.values(convertValueToDbJson(attribute.getValues()));
+			} else {
+				sqlInsertQuery.columns(Expressions.stringPath(attribute.getName()));
+				sqlInsertQuery.values(attribute.getValue());
+			}
+		}
+	}
+
+    @Override
+    public void addEntries(String objectClass, List<WriteOperation> operations) {
+        Instant startTime = OperationDurationUtil.instance().now();
+
+        TableMapping tableMapping = connectionProvider.getTableMappingByKey(operations.get(0).getKey(), objectClass);
+        boolean result = addEntriesImpl(tableMapping, operations);
+        if (!result) {
+        	// Batch was rolled back. Add entries one by one to determine result of each entry
+        	for (WriteOperation operation : operations) {
+        		try {
+        			Collection<AttributeData> attributes = operation.getData();
+        			if (!addEntryImpl(tableMapping, operation.getKey(), attributes)) {
+        				operation.setException(new PersistenceException(String.format("Failed to add entry: '%s'", operation.getKey())));
+        			}
+        		} catch (PersistenceException | RuntimeException ex) {
+        			operation.setException(ex);
+        		}
+        	}
+        }
+
+        Duration duration = OperationDurationUtil.instance().duration(startTime);
+        OperationDurationUtil.instance().logDebug("SQL operation: add_batch, duration: {}, table: {}, count: {}, batch: {}", duration, tableMapping.getTableName(), operations.size(), result);
+        if (result) {
+        	operationMetrics.record("add_batch", tableMapping.getTableName(), duration, null);
+        } else {
+        	// Batch failed even if entries were written one by one after rollback
+        	operationMetrics.recordFailure("add_batch", tableMapping.getTableName(), startTime, null);
+        }
+    }
+
+	private boolean addEntriesImpl(TableMapping tableMapping, List<WriteOperation> operations) {
+		RelationalPathBase<Object> tableRelationalPath = buildTableRelationalPath(tableMapping);
+
+		Connection connection = connectionProvider.getConnection();
+		try {
+			connection.setAutoCommit(false);
+
+			SQLInsertClause sqlInsertQuery = new SQLInsertClause(connection, this.sqlQueryFactory.getConfiguration(), tableRelationalPath);
+			for (WriteOperation operation : operations) {
+				Collection<AttributeData> attributes = operation.getData();
+				setInsertValues(sqlInsertQuery, tableMapping, attributes);
+				sqlInsertQuery.addBatch();
+			}
+
+			long rowInserted = sqlInsertQuery.execute();
+
+			return completeBatch(connection, rowInserted == operations.size());
+		} catch (QueryException | SQLException | PersistenceException ex) {
+			LOG.debug("Failed to add entries batch to table '{}'", tableMapping.getTableName(), ex);
+			rollbackBatch(connection);
+			return false;
+		} finally {
+			releaseBatchConnection(connection);
+		}
+	}
+
     @Override
     public boolean updateEntry(String key, String objectClass, List<AttributeDataModification> mods) throws UnsupportedOperationException, PersistenceException {
         Instant startTime = OperationDurationUtil.instance().now();
         
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
-        boolean result = updateEntryImpl(tableMapping, key, mods);
+        boolean result;
+        try {
+        	result = updateEntryImpl(tableMapping, key, mods);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("modify", tableMapping.getTableName(), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("SQL operation: modify, duration: {}, table: {}, key: {}, mods: {}", duration, tableMapping.getTableName(), key, mods);
+        operationMetrics.record("modify", tableMapping.getTableName(), duration, null);
 
         return result;
     }
 
 	private boolean updateEntryImpl(TableMapping tableMapping, String key, List<AttributeDataModification> mods) throws PersistenceException {
 		try {
-			Map<String, AttributeType> columTypes = tableMapping.getColumTypes();
-
 			RelationalPathBase<Object> tableRelationalPath = buildTableRelationalPath(tableMapping);
 			SQLUpdateClause sqlUpdateQuery = this.sqlQueryFactory.update(tableRelationalPath);
 
-			for (AttributeDataModification attributeMod : mods) {
-				AttributeData attribute = attributeMod.getAttribute();
-				Path path = Expressions.stringPath(attribute.getName());
+			setUpdateValues(sqlUpdateQuery, tableMapping, key, mods);
 
-				AttributeType attributeType = getAttributeType(columTypes, attribute);
-				if (attributeType == null) {
-		            throw new PersistenceException(String.format("Failed to find attribute type for '%s'", attribute.getName()));
-				}
+			long rowInserted = sqlUpdateQuery.execute();
 
-				boolean multiValued = (attributeType != null) && isJsonColumn(tableMapping.getTableName(), attributeType.getType());
-				
-				AttributeModificationType type = attributeMod.getModificationType();
-                if ((AttributeModificationType.ADD == type) || (AttributeModificationType.FORCE_UPDATE == type)) {
-					if (multiValued || Boolean.TRUE.equals(attribute.getMultiValued())) {
-    					sqlUpdateQuery.set(path, convertValueToDbJson(attribute.getValues()));
-    				} else {
-    					sqlUpdateQuery.set(path, attribute.getValue());
-    				}
-                } else if (AttributeModificationType.REPLACE == type) {
-					if (multiValued || Boolean.TRUE.equals(attribute.getMultiValued())) {
-    					sqlUpdateQuery.set(path, convertValueToDbJson(attribute.getValues()));
-    				} else {
-    					sqlUpdateQuery.set(path, attribute.getValue());
-    				}
-                } else if (AttributeModificationType.REMOVE == type) {
-    				sqlUpdateQuery.setNull(path);
-                } else {
-                    throw new UnsupportedOperationException("Operation type '" + type + "' is not implemented");
-                }
+			return rowInserted == 1;
+        } catch (QueryException ex) {
+            throw new PersistenceException("Failed to update entry", ex);
+        }
+	}
+
+	private void setUpdateValues(SQLUpdateClause sqlUpdateQuery, TableMapping tableMapping, String key, List<AttributeDataModification> mods) throws PersistenceException {
+		Map<String, AttributeType> columTypes = tableMapping.getColumTypes();
+
+		for (AttributeDataModification attributeMod : mods) {
+			AttributeData attribute = attributeMod.getAttribute();
+			Path path = Expressions.stringPath(attribute.getName());
+
+			AttributeType attributeType = getAttributeType(columTypes, attribute);
+			if (attributeType == null) {
+	            throw new PersistenceException(String.format("Failed to find attribute type for '%s'", attribute.getName()));
 			}
 
-			Predicate whereExp = ExpressionUtils.eq(Expressions.stringPath(SqlOperationService.DOC_ID),
-					Expressions.constant(key));
+			boolean multiValued = (attributeType != null) && isJsonColumn(tableMapping.getTableName(), attributeType.getType());
+			
+			AttributeModificationType type = attributeMod.getModificationType();
+            if ((AttributeModificationType.ADD == type) || (AttributeModificationType.FORCE_UPDATE == type)) {
+				if (multiValued || Boolean.TRUE.equals(attribute.getMultiValued())) {
+					sqlUpdateQuery.set(path, convertValueToDbJson(attribute.getValues()));
+				} else {
+					sqlUpdateQuery.set(path, attribute.getValue());
+				}
+            } else if (AttributeModificationType.REPLACE == type) {
+				if (multiValued || Boolean.TRUE.equals(attribute.getMultiValued())) {
+					sqlUpdateQuery.set(path, convertValueToDbJson(attribute.getValues()));
+				} else {
+					sqlUpdateQuery.set(path, attribute.getValue());
+				}
+            } else if (AttributeModificationType.REMOVE == type) {
+				sqlUpdateQuery.setNull(path);
+            } else {
+                throw new UnsupportedOperationException("Operation type '" + type + "' is not implemented");
+            }
+		}
 
-			long rowInserted = sqlUpdateQuery.where(whereExp).execute();
+		Predicate whereExp = ExpressionUtils.eq(Expressions.stringPath(SqlOperationService.DOC_ID),
+				Expressions.constant(key));
 
-			return rowInserted == 1;
-        } catch (QueryException ex) {
-            throw new PersistenceException("Failed to update entry", ex);
+		sqlUpdateQuery.where(whereExp);
+	}
+
+    @Override
+    public void updateEntries(String objectClass, List<WriteOperation> operations) {
+        Instant startTime = OperationDurationUtil.instance().now();
+
+        TableMapping tableMapping = connectionProvider.getTableMappingByKey(operations.get(0).getKey(), objectClass);
+        boolean result = updateEntriesImpl(tableMapping, operations);
+        if (!result) {
+        	// Batch was rolled back. Update entries one by one to determine result of each entry
+        	for (WriteOperation operation : operations) {
+        		try {
+        			List<AttributeDataModification> mods = operation.getData();
+        			if (!updateEntryImpl(tableMapping, operation.getKey(), mods)) {
+        				operation.setException(new PersistenceException(String.format("Failed to update entry: '%s'", operation.getKey())));
+        			}
+        		} catch (PersistenceException | RuntimeException ex) {
+        			operation.setException(ex);
+        		}
+        	}
+        }
+
+        Duration duration = OperationDurationUtil.instance().duration(startTime);
+        OperationDurationUtil.instance().logDebug("SQL operation: modify_batch, duration: {}, table: {}, count: {}, batch: {}", duration, tableMapping.getTableName(), operations.size(), result);
+        if (result) {
+        	operationMetrics.record("modify_batch", tableMapping.getTableName(), duration, null);
+        } else {
+        	operationMetrics.recordFailure("modify_batch", tableMapping.getTableName(), startTime, null);
         }
+    }
+
+	private boolean updateEntriesImpl(TableMapping tableMapping, List<WriteOperation> operations) {
+		RelationalPathBase<Object> tableRelationalPath = buildTableRelationalPath(tableMapping);
+
+		Connection connection = connectionProvider.getConnection();
+		try {
+			connection.setAutoCommit(false);
+
+			SQLUpdateClause sqlUpdateQuery = new SQLUpdateClause(connection, this.sqlQueryFactory.getConfiguration(), tableRelationalPath);
+			for (WriteOperation operation : operations) {
+				List<AttributeDataModification> mods = operation.getData();
+				setUpdateValues(sqlUpdateQuery, tableMapping, operation.getKey(), mods);
+				sqlUpdateQuery.addBatch();
+			}
+
+			long rowUpdated = sqlUpdateQuery.execute();
+
+			return completeBatch(connection, rowUpdated == operations.size());
+		} catch (QueryException | SQLException | PersistenceException | UnsupportedOperationException ex) {
+			LOG.debug("Failed to update entries batch in table '{}'", tableMapping.getTableName(), ex);
+			rollbackBatch(connection);
+			return false;
+		} finally {
+			releaseBatchConnection(connection);
+		}
 	}
 
     @Override
@@ -280,10 +427,17 @@ public class SqlOperationServiceImpl implements SqlOperationService {
         Instant startTime = OperationDurationUtil.instance().now();
 
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
-        boolean result = deleteImpl(tableMapping, key);
+        boolean result;
+        try {
+        	result = deleteImpl(tableMapping, key);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("delete", tableMapping.getTableName(), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("SQL operation: delete, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
+        operationMetrics.record("delete", tableMapping.getTableName(), duration, null);
 
         return result;
     }
@@ -304,16 +458,108 @@ public class SqlOperationServiceImpl implements SqlOperationService {
         }
 	}
 
+    @Override
+    public void deleteEntries(String objectClass, List<WriteOperation> operations) {
+        Instant startTime = OperationDurationUtil.instance().now();
+
+        TableMapping tableMapping = connectionProvider.getTableMappingByKey(operations.get(0).getKey(), objectClass);
+        boolean result = deleteEntriesImpl(tableMapping, operations);
+        if (!result) {
+        	// Batch was rolled back. Delete entries one by one to determine result of each entry
+        	for (WriteOperation operation : operations) {
+        		try {
+        			deleteImpl(tableMapping, operation.getKey());
+        		} catch (EntryNotFoundException | RuntimeException ex) {
+        			operation.setException(ex);
+        		}
+        	}
+        }
+
+        Duration duration = OperationDurationUtil.instance().duration(startTime);
+        OperationDurationUtil.instance().logDebug("SQL operation: delete_batch, duration: {}, table: {}, count: {}, batch: {}", duration, tableMapping.getTableName(), operations.size(), result);
+        if (result) {
+        	operationMetrics.record("delete_batch", tableMapping.getTableName(), duration, null);
+        } else {
+        	operationMetrics.recordFailure("delete_batch", tableMapping.getTableName(), startTime, null);
+        }
+    }
+
+	private boolean deleteEntriesImpl(TableMapping tableMapping, List<WriteOperation> operations) {
+		RelationalPathBase<Object> tableRelationalPath = buildTableRelationalPath(tableMapping);
+
+		Connection connection = connectionProvider.getConnection();
+		try {
+			connection.setAutoCommit(false);
+
+			SQLDeleteClause sqlDeleteQuery = new SQLDeleteClause(connection, this.sqlQueryFactory.getConfiguration(), tableRelationalPath);
+			for (WriteOperation operation : operations) {
+				Predicate exp = ExpressionUtils.eq(Expressions.stringPath(SqlOperationService.DOC_ID), Expressions.constant(operation.getKey()));
+				sqlDeleteQuery.where(exp);
+				sqlDeleteQuery.addBatch();
+			}
+
+			sqlDeleteQuery.execute();
+
+			// Single entry delete doesn't fail if entry not exists
+			return completeBatch(connection, true);
+		} catch (QueryException | SQLException ex) {
+			LOG.debug("Failed to delete entries batch from table '{}'", tableMapping.getTableName(), ex);
+			rollbackBatch(connection);
+			return false;
+		} finally {
+			releaseBatchConnection(connection);
+		}
+	}
+
+	private boolean completeBatch(Connection connection, boolean success) throws SQLException {
+		if (success) {
+			connection.commit();
+		} else {
+			connection.rollback();
+		}
+
+		return success;
+	}
+
+	private void rollbackBatch(Connection connection) {
+		try {
+			connection.rollback();
+		} catch (SQLException ex) {
+			LOG.warn("Failed to rollback batch", ex);
+		}
+	}
+
+	private void releaseBatchConnection(Connection connection) {
+		try {
+			connection.setAutoCommit(true);
+		} catch (SQLException ex) {
+			LOG.warn("Failed to restore auto commit mode", ex);
+		}
+
+		try {
+			connection.close();
+		} catch (SQLException ex) {
+			LOG.warn("Failed to release connection", ex);
+		}
+	}
+
     @Override
     public long delete(String key, String objectClass, ConvertedExpression expression, int count) throws DeleteException {
         Instant startTime = OperationDurationUtil.instance().now();
 
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
 
-    	long result = deleteImpl(tableMapping, expression, count);
+    	long result;
+    	try {
+    		result = deleteImpl(tableMapping, expression, count);
+    	} catch (Exception ex) {
+    		operationMetrics.recordFailure("delete_search", tableMapping.getTableName(), startTime, expression);
+    		throw ex;
+    	}
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("SQL operation: delete_search, duration: {}, table: {}, key: {}, expression: {}, count: {}", duration, tableMapping.getTableName(), key, expression, count);
+        operationMetrics.record("delete_search", tableMapping.getTableName(), duration, expression);
 
         return result;
     }
@@ -354,10 +600,17 @@ public class SqlOperationServiceImpl implements SqlOperationService {
         Instant startTime = OperationDurationUtil.instance().now();
 
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
-        boolean result = deleteRecursivelyImpl(tableMapping, key);
+        boolean result;
+        try {
+        	result = deleteRecursivelyImpl(tableMapping, key);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("delete_tree", tableMapping.getTableName(), startTime, null);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("SQL operation: delete_tree, duration: {}, table: {}, key: {}", duration, tableMapping.getTableName(), key);
+        operationMetrics.record("delete_tree", tableMapping.getTableName(), duration, null);
 
         return result;
     }
@@ -373,10 +626,17 @@ public class SqlOperationServiceImpl implements SqlOperationService {
         
     	TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
 
-    	List<AttributeData> result = lookupImpl(tableMapping, key, attributes);
+    	List<AttributeData> result;
+    	try {
+    		result = lookupImpl(tableMapping, key, attributes);
+    	} catch (Exception ex) {
+    		operationMetrics.recordFailure("lookup", tableMapping.getTableName(), startTime, null);
+    		throw ex;
+    	}
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("SQL operation: lookup, duration: {}, table: {}, key: {}, attributes: {}", duration, tableMapping.getTableName(), key, attributes);
+        operationMetrics.record("lookup", tableMapping.getTableName(), duration, null);
 
         return result;
     }
@@ -405,6 +665,53 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 		throw new SearchException(String.format("Failed to lookup entry by key: '%s'", key));
 	}
 
+	@Override
+	public Map<String, List<AttributeData>> lookup(Collection<String> keys, String objectClass, String... attributes) throws SearchException, EntryConvertationException {
+		Map<String, List<AttributeData>> result = new HashMap<String, List<AttributeData>>();
+		if ((keys == null) || keys.isEmpty()) {
+			return result;
+		}
+
+		Instant startTime = OperationDurationUtil.instance().now();
+
+		TableMapping tableMapping = connectionProvider.getTableMappingByKey(keys.iterator().next(), objectClass);
+
+		// Split keys to keep statement size reasonable
+		List<String> keysList = new ArrayList<String>(keys);
+		for (int i = 0; i < keysList.size(); i += MAX_LOOKUP_KEYS) {
+			List<String> keysChunk = keysList.subList(i, Math.min(i + MAX_LOOKUP_KEYS, keysList.size()));
+			lookupImpl(tableMapping, keysChunk, result, attributes);
+		}
+
+		Duration duration = OperationDurationUtil.instance().duration(startTime);
+		OperationDurationUtil.instance().logDebug("SQL operation: lookup, duration: {}, table: {}, keys: {}, attributes: {}", duration, tableMapping.getTableName(), keys, attributes);
+		operationMetrics.record("lookup", tableMapping.getTableName(), duration, null);
+
+		return result;
+	}
+
+	private void lookupImpl(TableMapping tableMapping, Collection<String> keys, Map<String, List<AttributeData>> result, String... attributes) throws SearchException, EntryConvertationException {
+		try {
+			RelationalPathBase<Object> tableRelationalPath = buildTableRelationalPath(tableMapping);
+
+			Predicate whereExp = ExpressionUtils.in(Expressions.stringPath(SqlOperationService.DOC_ID), keys);
+			Expression<?> attributesExp = buildSelectAttributes(attributes);
+
+			SQLQuery<?> sqlSelectQuery = sqlQueryFactory.select(attributesExp).from(tableRelationalPath)
+					.where(whereExp);
+
+			try (ResultSet resultSet = sqlSelectQuery.getResults();) {
+				List<AttributeData> attributeDataList;
+				while ((attributeDataList = getAttributeDataList(tableMapping, resultSet, true)) != null) {
+					// Result set still points to current row
+					result.put(resultSet.getString(SqlOperationService.DOC_ID), attributeDataList);
+				}
+			}
+		} catch (SQLException | QueryException ex) {
+			throw new SearchException(String.format("Failed to lookup query by keys: '%s'", keys), ex);
+		}
+	}
+
 	@Override
     public <O> PagedResult<EntryData> search(String key, String objectClass, ConvertedExpression expression, SearchScope scope, String[] attributes, OrderSpecifier<?>[] orderBy,
                                               SqlBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, int start, int count, int pageSize) throws SearchException {
@@ -412,17 +719,49 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 
         TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
 
-        PagedResult<EntryData> result = searchImpl(tableMapping, key, expression, scope, attributes, orderBy, batchOperationWraper,
-						returnDataType, start, count, pageSize);
+        PagedResult<EntryData> result;
+        try {
+        	result = searchImpl(tableMapping, key, expression, scope, attributes, orderBy, batchOperationWraper,
+							returnDataType, start, count, pageSize, null);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("search", tableMapping.getTableName(), startTime, expression);
+        	throw ex;
+        }
 
         Duration duration = OperationDurationUtil.instance().duration(startTime);
         OperationDurationUtil.instance().logDebug("SQL operation: search, duration: {}, table: {}, key: {}, expression: {}, scope: {}, attributes: {}, orderBy: {}, batchOperationWraper: {}, returnDataType: {}, start: {}, count: {}, pageSize: {}", duration, tableMapping.getTableName(), key, expression, scope, attributes, orderBy, batchOperationWraper, returnDataType, start, count, pageSize);
+        operationMetrics.record("search", tableMapping.getTableName(), duration, expression);
+
+        return result;
+	}
+
+	@Override
+	public PagedResult<EntryData> searchPage(String key, String objectClass, ConvertedExpression expression, String[] attributes,
+			OrderSpecifier<?>[] orderBy, SearchPosition searchPosition, int pageSize) throws SearchException {
+        Instant startTime = OperationDurationUtil.instance().now();
+
+        TableMapping tableMapping = connectionProvider.getTableMappingByKey(key, objectClass);
+
+        PagedResult<EntryData> result;
+        try {
+        	// Page size is count of one loop iteration
+        	result = searchImpl(tableMapping, key, expression, SearchScope.SUB, attributes, orderBy, null,
+							SearchReturnDataType.SEARCH, searchPosition.getReturnedCount(), pageSize, pageSize, searchPosition);
+        } catch (Exception ex) {
+        	operationMetrics.recordFailure("search", tableMapping.getTableName(), startTime, expression);
+        	throw ex;
+        }
+
+        Duration duration = OperationDurationUtil.instance().duration(startTime);
+        OperationDurationUtil.instance().logDebug("SQL operation: search page, duration: {}, table: {}, key: {}, expression: {}, attributes: {}, orderBy: {}, returnedCount: {}, pageSize: {}", duration, tableMapping.getTableName(), key, expression, attributes, orderBy, searchPosition.getReturnedCount(), pageSize);
+        operationMetrics.record("search", tableMapping.getTableName(), duration, expression);
 
         return result;
 	}
 
 	private <O> PagedResult<EntryData> searchImpl(TableMapping tableMapping, String key, ConvertedExpression expression, SearchScope scope, String[] attributes, OrderSpecifier<?>[] orderBy,
-            SqlBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, int start, int count, int pageSize) throws SearchException {
+            SqlBatchOperationWraper<O> batchOperationWraper, SearchReturnDataType returnDataType, int start, int count, int pageSize,
+            SearchPosition searchPosition) throws SearchException {
         BatchOperation<O> batchOperation = null;
         if (batchOperationWraper != null) {
             batchOperation = (BatchOperation<O>) batchOperationWraper.getBatchOperation();
@@ -440,14 +779,33 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 			sqlSelectQuery = sqlQueryFactory.select(attributesExp).from(tableRelationalPath).where(whereExp);
 		}
 
+        // Paged search uses keyset pagination if it's possible
+        KeysetPosition keysetPosition = null;
+        OrderSpecifier<?>[] queryOrderBy = orderBy;
+        if ((pageSize > 0) && ((SearchReturnDataType.SEARCH == returnDataType) || (SearchReturnDataType.SEARCH_COUNT == returnDataType))) {
+        	OrderSpecifier<?>[] keysetOrderBy = buildKeysetOrderBy(orderBy);
+        	if (keysetOrderBy != null) {
+        		if ((searchPosition != null) && (searchPosition.getKeyset() != null)) {
+        			keysetPosition = (KeysetPosition) searchPosition.getKeyset();
+        		} else {
+        			keysetPosition = new KeysetPosition(keysetOrderBy, SupportedDbType.POSTGRESQL == dbType);
+        			if (searchPosition != null) {
+        				searchPosition.setKeyset(keysetPosition);
+        			}
+        		}
+        		queryOrderBy = keysetOrderBy;
+        	}
+        }
+
         SQLQuery<?> baseQuery = sqlSelectQuery;
-        if (orderBy != null) {
-            baseQuery = sqlSelectQuery.orderBy(orderBy);
+        if (queryOrderBy != null) {
+            baseQuery = sqlSelectQuery.orderBy(queryOrderBy);
         }
 
         List<EntryData> searchResultList = new LinkedList<EntryData>();
 
-        String queryStr = null;
+        // SQL is rendered only for logging. Statement text is stable for filters with same shape
+        SQLQuery<?> lastQuery = null;
         if ((SearchReturnDataType.SEARCH == returnDataType) || (SearchReturnDataType.SEARCH_COUNT == returnDataType)) {
         	List<EntryData> lastResult = null;
 	        if (pageSize > 0) {
@@ -465,13 +823,35 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 	                        currentLimit = Math.min(pageSize, count - resultCount);
 	                    }
 	
-	                    query = baseQuery.limit(currentLimit).offset(start + resultCount);
+	                    if ((keysetPosition != null) && keysetPosition.isSeekable()) {
+	                    	// Continue after last returned row instead of skipping rows with offset
+	                    	Predicate keysetExp = keysetPosition.toPredicate();
+	                    	Predicate whereExp = expression == null ? keysetExp : ExpressionUtils.and((Predicate) expression.expression(), keysetExp);
+	                    	query = sqlQueryFactory.select(attributesExp).from(tableRelationalPath).where(whereExp)
+	                    			.orderBy(queryOrderBy).limit(currentLimit);
+	                    } else {
+	                    	// Querydsl query can't be executed again after result set was closed
+	                    	query = sqlQueryFactory.select(attributesExp).from(tableRelationalPath);
+	                    	if (expression != null) {
+	                    		query.where((Predicate) expression.expression());
+	                    	}
+	                    	if (queryOrderBy != null) {
+	                    		query.orderBy(queryOrderBy);
+	                    	}
+	                    	query.limit(currentLimit).offset(start + resultCount);
+	                    }
+	                    // Allow driver to load page rows in one round trip
+	                    query.setStatementOptions(StatementOptions.builder().setFetchSize(currentLimit).build());
 
-	                    queryStr = query.getSQL().getSQL();
-	                    LOG.debug("Executing query: '" + queryStr + "'");
+	                    lastQuery = query;
+	                    if (LOG.isDebugEnabled()) {
+	                    	LOG.debug("Executing query: '" + toQueryString(query) + "'");
+	                    }
 
 	                    resultSet = query.getResults();
-	                    lastResult = getEntryDataList(tableMapping, resultSet);
+	                    lastResult = getEntryDataList(tableMapping, resultSet, keysetPosition);
+	                    resultSet.close();
+	                    resultSet = null;
 
 		    			lastCountRows = lastResult.size();
 		    			
@@ -495,15 +875,16 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 	                    }
 	                } while (lastCountRows > 0);
         		} catch (QueryException ex) {
-        			throw new SearchException(String.format("Failed to build search entries query. Key: '%s', expression: '%s'", key, expression.expression()), ex);
+        			Object sqlExpression = expression == null ? null : expression.expression();
+        			throw new SearchException(String.format("Failed to build search entries query. Key: '%s', expression: '%s'", key, sqlExpression), ex);
 	    		} catch (SQLException | EntryConvertationException ex) {
-	    			throw new SearchException(String.format("Failed to execute query '%s'  with key: '%s'", queryStr, key), ex);
+	    			throw new SearchException(String.format("Failed to execute query '%s'  with key: '%s'", toQueryString(lastQuery), key), ex);
 	    		} finally {
 	    			if (resultSet != null) {
 	    				try {
 							resultSet.close();
 						} catch (SQLException ex) {
-			    			throw new SearchException(String.format("Failed to close query after paged result collection. Query '%s'  with key: '%s'", queryStr, key), ex);
+			    			throw new SearchException(String.format("Failed to close query after paged result collection. Query '%s'  with key: '%s'", toQueryString(lastQuery), key), ex);
 						}
 	    			}
 	    		}
@@ -517,26 +898,28 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 	                    query = query.offset(start);
 	                }
 	
-                    queryStr = query.getSQL().getSQL();
-
-                    LOG.debug("Execution query: '" + queryStr + "'");
+                    lastQuery = query;
+                    if (LOG.isDebugEnabled()) {
+                    	LOG.debug("Execution query: '" + toQueryString(query) + "'");
+                    }
 
                     try (ResultSet resultSet = query.getResults()) {
 		    			lastResult = getEntryDataList(tableMapping, resultSet);
 		    			searchResultList.addAll(lastResult);
                     }
         		} catch (QueryException ex) {
-        			String sqlExpression = queryStr;
-        			if (StringHelper.isNotEmpty(sqlExpression)) {
-        				sqlExpression = expression.expression().toString();
-        			}
+        			Object sqlExpression = expression == null ? null : expression.expression();
 					throw new SearchException(String.format("Failed to build search entries query. Key: '%s', expression: '%s'", key, sqlExpression), ex);
 	            } catch (SQLException | EntryConvertationException ex) {
-	                throw new SearchException("Failed to search entries. Query: '" + queryStr + "'", ex);
+	                throw new SearchException("Failed to search entries. Query: '" + toQueryString(lastQuery) + "'", ex);
 	            }
 	        }
         }
 
+        if (searchPosition != null) {
+        	searchPosition.setReturnedCount(start + searchResultList.size());
+        }
+
         PagedResult<EntryData> result = new PagedResult<EntryData>();
         result.setEntries(searchResultList);
         result.setEntriesCount(searchResultList.size());
@@ -552,26 +935,40 @@ public class SqlOperationServiceImpl implements SqlOperationService {
     		}
 
     		try {
-                queryStr = sqlCountSelectQuery.getSQL().getSQL();
-                LOG.debug("Calculating count. Execution query: '" + queryStr + "'");
+                if (LOG.isDebugEnabled()) {
+                	LOG.debug("Calculating count. Execution query: '" + toQueryString(sqlCountSelectQuery) + "'");
+                }
 
                 try (ResultSet countResult = sqlCountSelectQuery.getResults()) {
                 	if (!countResult.next()) {
-                        throw new SearchException("Failed to calculate count entries. Query: '" + queryStr + "'");
+                        throw new SearchException("Failed to calculate count entries. Query: '" + toQueryString(sqlCountSelectQuery) + "'");
                 	}
 
                 	result.setTotalEntriesCount(countResult.getInt("TOTAL"));
                 }
     		} catch (QueryException ex) {
-    			throw new SearchException(String.format("Failed to build count search entries query. Key: '%s', expression: '%s'", key, expression.expression()), ex);
+    			Object sqlExpression = expression == null ? null : expression.expression();
+    			throw new SearchException(String.format("Failed to build count search entries query. Key: '%s', expression: '%s'", key, sqlExpression), ex);
             } catch (SQLException ex) {
-                throw new SearchException("Failed to calculate count entries. Query: '" + queryStr + "'", ex);
+                throw new SearchException("Failed to calculate count entries. Query: '" + toQueryString(sqlCountSelectQuery) + "'", ex);
             }
         }
 
         return result;
     }
 
+    private String toQueryString(SQLQuery<?> query) {
+    	if (query == null) {
+    		return null;
+    	}
+
+    	try {
+    		return query.getSQL().getSQL();
+    	} catch (QueryException ex) {
+    		return null;
+    	}
+    }
+
 	public String[] createStoragePassword(String[] passwords) {
         if (ArrayHelper.isEmpty(passwords)) {
             return passwords;
@@ -683,6 +1080,10 @@ public class SqlOperationServiceImpl implements SqlOperationService {
     }
 
     private List<EntryData> getEntryDataList(TableMapping tableMapping, ResultSet resultSet) throws EntryConvertationException, SQLException {
+    	return getEntryDataList(tableMapping, resultSet, null);
+    }
+
+    private List<EntryData> getEntryDataList(TableMapping tableMapping, ResultSet resultSet, KeysetPosition keysetPosition) throws EntryConvertationException, SQLException {
     	List<EntryData> entryDataList = new LinkedList<>();
 
     	while (!resultSet.isLast()) {
@@ -691,6 +1092,10 @@ public class SqlOperationServiceImpl implements SqlOperationService {
     			break;
     		}
 
+    		if (keysetPosition != null) {
+    			keysetPosition.update(resultSet);
+    		}
+
     		EntryData entryData = new EntryData(attributeDataList);
     		entryDataList.add(entryData);
     	}
@@ -716,6 +1121,8 @@ public class SqlOperationServiceImpl implements SqlOperationService {
     public boolean destroy() {
         boolean result = true;
 
+        operationMetrics.unregisterMBean();
+
         if (connectionProvider != null) {
             try {
                 connectionProvider.destroy();
@@ -755,6 +1162,11 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 		this.persistenceExtension = persistenceExtension;
 	}
 
+	@Override
+	public OperationMetrics getOperationMetrics() {
+		return operationMetrics;
+	}
+
 	@Override
 	public boolean isSupportObjectClass(String objectClass) {
 		return true;
@@ -786,6 +1198,29 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 		return Expressions.list(expresisons.toArray(new Expression<?>[0]));
 	}
 
+	/*
+	 * Appends doc_id to sort order to get unique rows order. Returns null if order can't be used for keyset pagination
+	 */
+	private OrderSpecifier<?>[] buildKeysetOrderBy(OrderSpecifier<?>[] orderBy) {
+		OrderSpecifier<?> docIdOrder = new OrderSpecifier<String>(Order.ASC, Expressions.stringPath(docAlias, DOC_ID));
+		if (ArrayHelper.isEmpty(orderBy)) {
+			return new OrderSpecifier<?>[] { docIdOrder };
+		}
+
+		for (OrderSpecifier<?> orderSpecifier : orderBy) {
+			if (!(orderSpecifier.getTarget() instanceof Path)) {
+				return null;
+			}
+
+			String columnName = ((Path<?>) orderSpecifier.getTarget()).getMetadata().getName();
+			if (DOC_ID.equalsIgnoreCase(columnName)) {
+				return null;
+			}
+		}
+
+		return ArrayHelper.arrayMerge(orderBy, new OrderSpecifier<?>[] { docIdOrder });
+	}
+
 	private RelationalPathBase<Object> buildTableRelationalPath(TableMapping tableMapping) {
 		RelationalPathBase<Object> tableRelationalPath = new RelationalPathBase<>(Object.class, DOC_ALIAS, this.schemaName, tableMapping.getTableName());
 
@@ -992,4 +1427,109 @@ public class SqlOperationServiceImpl implements SqlOperationService {
 		return columTypes.get(attribute.getName().toLowerCase());
 	}
 
+	/**
+	 * Position of last returned row in keyset paged search. Values of sort columns and doc_id of this row are used to
+	 * build condition of next page query
+	 */
+	private class KeysetPosition {
+
+		private final OrderSpecifier<?>[] orderBy;
+		private final String[] columnNames;
+		private final boolean nullsLastInAscOrder;
+
+		private final Object[] values;
+		private boolean supported = true;
+		private boolean columnsChecked = false;
+		private boolean hasValues = false;
+
+		KeysetPosition(OrderSpecifier<?>[] orderBy, boolean nullsLastInAscOrder) {
+			this.orderBy = orderBy;
+			this.nullsLastInAscOrder = nullsLastInAscOrder;
+			this.columnNames = new String[orderBy.length];
+			for (int i = 0; i < orderBy.length; i++) {
+				columnNames[i] = ((Path<?>) orderBy[i].getTarget()).getMetadata().getName();
+			}
+			this.values = new Object[orderBy.length];
+		}
+
+		public void update(ResultSet resultSet) throws SQLException {
+			if (!supported) {
+				return;
+			}
+
+			if (!columnsChecked) {
+				columnsChecked = true;
+				// All sort columns should be in result and JSON columns can't be compared
+				ResultSetMetaData metaData = resultSet.getMetaData();
+				for (String columnName : columnNames) {
+					int columnIndex = findColumn(metaData, columnName);
+					if ((columnIndex == -1) || isJsonColumn(null, metaData.getColumnTypeName(columnIndex).toLowerCase())) {
+						LOG.debug("Keyset pagination is not possible with sort column '{}'. Offset will be used", columnName);
+						supported = false;
+						return;
+					}
+				}
+			}
+
+			for (int i = 0; i < columnNames.length; i++) {
+				values[i] = resultSet.getObject(columnNames[i]);
+			}
+			hasValues = true;
+		}
+
+		public boolean isSeekable() {
+			if (!supported || !hasValues) {
+				return false;
+			}
+
+			// Position in NULL values can't be expressed in condition
+			for (Object value : values) {
+				if (value == null) {
+					return false;
+				}
+			}
+
+			return true;
+		}
+
+		/*
+		 * (c1 > v1) OR (c1 = v1 AND c2 > v2) OR ... OR (c1 = v1 AND ... AND doc_id > vN)
+		 */
+		public Predicate toPredicate() {
+			List<Predicate> orExps = new ArrayList<Predicate>(orderBy.length);
+			for (int i = 0; i < orderBy.length; i++) {
+				List<Predicate> andExps = new ArrayList<Predicate>(i + 1);
+				for (int j = 0; j < i; j++) {
+					andExps.add(ExpressionUtils.eq((Expression<Object>) orderBy[j].getTarget(), Expressions.constant(values[j])));
+				}
+
+				Expression<?> target = orderBy[i].getTarget();
+				boolean desc = orderBy[i].getOrder() == Order.DESC;
+				Predicate afterExp = ExpressionUtils.predicate(desc ? Ops.LT : Ops.GT, target, Expressions.constant(values[i]));
+
+				// Rows with NULL values which DB sort after not NULL values
+				boolean nullsAfter = nullsLastInAscOrder != desc;
+				if (nullsAfter && (i < orderBy.length - 1)) {
+					afterExp = ExpressionUtils.or(afterExp, ExpressionUtils.predicate(Ops.IS_NULL, target));
+				}
+				andExps.add(afterExp);
+
+				orExps.add(ExpressionUtils.allOf(andExps));
+			}
+
+			return ExpressionUtils.anyOf(orExps);
+		}
+
+		private int findColumn(ResultSetMetaData metaData, String columnName) throws SQLException {
+			for (int i = 1; i <= metaData.getColumnCount(); i++) {
+				if (columnName.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+					return i;
+				}
+			}
+
+			return -1;
+		}
+
+	}
+
 }
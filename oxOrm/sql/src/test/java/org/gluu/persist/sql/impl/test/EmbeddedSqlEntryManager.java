@@ -0,0 +1,147 @@
+package org.gluu.persist.sql.impl.test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.gluu.persist.exception.operation.ConnectionException;
+import org.gluu.persist.model.AttributeType;
+import org.gluu.persist.sql.impl.SqlEntryManager;
+import org.gluu.persist.sql.model.TableMapping;
+import org.gluu.persist.sql.operation.SupportedDbType;
+import org.gluu.persist.sql.operation.impl.SqlConnectionProvider;
+import org.gluu.persist.sql.operation.impl.SqlOperationServiceImpl;
+import org.h2.jdbcx.JdbcDataSource;
+
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLQueryFactory;
+
+/**
+ * Entry manager connected to embedded in-memory H2 database with gluuPerson table
+ */
+public class EmbeddedSqlEntryManager extends SqlEntryManager {
+
+	private static final long serialVersionUID = -6040325371391843812L;
+
+	private static final String TABLE_NAME = "gluuPerson";
+
+	private static final String[][] TABLE_COLUMNS = { { "doc_id", "varchar(64)" }, { "objectClass", "varchar(48)" },
+			{ "dn", "varchar(128)" }, { "inum", "varchar(64)" }, { "uid", "varchar(64)" }, { "displayName", "varchar(32)" },
+			{ "loginCount", "integer" } };
+
+	private final transient Connection keepAliveConnection;
+
+	private EmbeddedSqlEntryManager(SqlOperationServiceImpl operationService, Connection keepAliveConnection) {
+		super(operationService);
+		this.keepAliveConnection = keepAliveConnection;
+	}
+
+	public static EmbeddedSqlEntryManager create(String dbName) throws SQLException {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:" + dbName + ";DB_CLOSE_DELAY=-1");
+
+		// In memory DB lives while there is open connection
+		Connection keepAliveConnection = dataSource.getConnection();
+
+		StringBuilder createTableStatement = new StringBuilder("CREATE TABLE ").append(TABLE_NAME).append(" (");
+		Map<String, AttributeType> columnTypes = new HashMap<String, AttributeType>();
+		for (String[] column : TABLE_COLUMNS) {
+			createTableStatement.append(column[0]).append(' ').append(column[1]).append(", ");
+			columnTypes.put(column[0].toLowerCase(), new AttributeType(column[0], column[1].replaceAll("\\(.*\\)", "")));
+		}
+		createTableStatement.append("PRIMARY KEY (doc_id))");
+
+		try (Statement statement = keepAliveConnection.createStatement()) {
+			statement.execute(createTableStatement.toString());
+		}
+
+		SQLQueryFactory sqlQueryFactory = new SQLQueryFactory(new Configuration(new H2Templates()), dataSource);
+		EmbeddedSqlConnectionProvider connectionProvider = new EmbeddedSqlConnectionProvider(dataSource, sqlQueryFactory, columnTypes);
+
+		return new EmbeddedSqlEntryManager(new SqlOperationServiceImpl(new Properties(), connectionProvider), keepAliveConnection);
+	}
+
+	public int countRows() throws SQLException {
+		try (Statement statement = keepAliveConnection.createStatement()) {
+			try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + TABLE_NAME)) {
+				resultSet.next();
+				return resultSet.getInt(1);
+			}
+		}
+	}
+
+	@Override
+	public boolean destroy() {
+		try {
+			keepAliveConnection.close();
+		} catch (SQLException ex) {
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Connection provider which uses predefined table structure instead of loading it from MySQL/PostgreSQL metadata
+	 */
+	private static class EmbeddedSqlConnectionProvider extends SqlConnectionProvider {
+
+		private final JdbcDataSource dataSource;
+		private final SQLQueryFactory sqlQueryFactory;
+		private final Map<String, AttributeType> columnTypes;
+
+		EmbeddedSqlConnectionProvider(JdbcDataSource dataSource, SQLQueryFactory sqlQueryFactory, Map<String, AttributeType> columnTypes) {
+			this.dataSource = dataSource;
+			this.sqlQueryFactory = sqlQueryFactory;
+			this.columnTypes = columnTypes;
+		}
+
+		@Override
+		public SQLQueryFactory getSqlQueryFactory() {
+			return sqlQueryFactory;
+		}
+
+		@Override
+		public Connection getConnection() {
+			try {
+				return dataSource.getConnection();
+			} catch (SQLException ex) {
+				throw new ConnectionException("Failed to get connection", ex);
+			}
+		}
+
+		@Override
+		public String getSchemaName() {
+			return "PUBLIC";
+		}
+
+		@Override
+		public SupportedDbType getDbType() {
+			return SupportedDbType.MYSQL;
+		}
+
+		@Override
+		public TableMapping getTableMappingByKey(String key, String objectClass) {
+			String baseKeyName = "_".equals(key) ? "" : key.split("_")[0];
+
+			return new TableMapping(baseKeyName, objectClass, objectClass, columnTypes);
+		}
+
+		@Override
+		public boolean isBinaryAttribute(String attributeName) {
+			return false;
+		}
+
+		@Override
+		public boolean isCertificateAttribute(String attributeName) {
+			return false;
+		}
+
+	}
+
+}
@@ -0,0 +1,81 @@
+package org.gluu.persist.sql.impl.test;
+
+import java.io.Serializable;
+
+import org.gluu.persist.annotation.AttributeName;
+import org.gluu.persist.annotation.DN;
+import org.gluu.persist.annotation.DataEntry;
+import org.gluu.persist.annotation.ObjectClass;
+
+@DataEntry
+@ObjectClass(value = "gluuPerson")
+public class SimpleUser implements Serializable {
+
+	private static final long serialVersionUID = 5489377271567351283L;
+
+	@DN
+	private String dn;
+
+	@AttributeName(name = "inum")
+	private String inum;
+
+	@AttributeName(name = "uid")
+	private String uid;
+
+	@AttributeName(name = "displayName")
+	private String displayName;
+
+	@AttributeName(name = "loginCount")
+	private Integer loginCount;
+
+	public SimpleUser() {
+	}
+
+	public SimpleUser(String inum, String uid, String displayName) {
+		this.dn = String.format("inum=%s,ou=people,o=gluu", inum);
+		this.inum = inum;
+		this.uid = uid;
+		this.displayName = displayName;
+	}
+
+	public String getDn() {
+		return dn;
+	}
+
+	public void setDn(String dn) {
+		this.dn = dn;
+	}
+
+	public String getInum() {
+		return inum;
+	}
+
+	public void setInum(String inum) {
+		this.inum = inum;
+	}
+
+	public String getUid() {
+		return uid;
+	}
+
+	public void setUid(String uid) {
+		this.uid = uid;
+	}
+
+	public String getDisplayName() {
+		return displayName;
+	}
+
+	public void setDisplayName(String displayName) {
+		this.displayName = displayName;
+	}
+
+	public Integer getLoginCount() {
+		return loginCount;
+	}
+
+	public void setLoginCount(Integer loginCount) {
+		this.loginCount = loginCount;
+	}
+
+}
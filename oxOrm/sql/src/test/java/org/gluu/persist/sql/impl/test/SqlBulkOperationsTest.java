@@ -0,0 +1,260 @@
+package org.gluu.persist.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.gluu.persist.annotation.DN;
+import org.gluu.persist.annotation.DataEntry;
+import org.gluu.persist.annotation.SchemaEntry;
+import org.gluu.persist.exception.EntryPersistenceException;
+import org.gluu.persist.exception.MappingException;
+import org.gluu.persist.model.EntryOperationResult;
+import org.gluu.persist.watch.OperationMetrics;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Single and bulk write operations against embedded H2 DB
+ */
+public class SqlBulkOperationsTest {
+
+	private static int dbCounter;
+
+	private EmbeddedSqlEntryManager entryManager;
+
+	@BeforeMethod
+	public void init() throws SQLException {
+		this.entryManager = EmbeddedSqlEntryManager.create("bulk" + (dbCounter++));
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void destroy() {
+		if (entryManager != null) {
+			entryManager.destroy();
+		}
+	}
+
+	@Test
+	public void persistAndMergeEntry() {
+		SimpleUser user = createUser(1);
+		user.setLoginCount(3);
+		entryManager.persist(user);
+
+		SimpleUser loadedUser = entryManager.find(SimpleUser.class, user.getDn());
+		assertEquals(loadedUser.getDn(), user.getDn());
+		assertEquals(loadedUser.getInum(), "1");
+		assertEquals(loadedUser.getUid(), "user1");
+		assertEquals(loadedUser.getDisplayName(), "User 1");
+		assertEquals(loadedUser.getLoginCount(), Integer.valueOf(3));
+
+		loadedUser.setDisplayName("Changed");
+		loadedUser.setLoginCount(null);
+		entryManager.merge(loadedUser);
+
+		SimpleUser mergedUser = entryManager.find(SimpleUser.class, user.getDn());
+		assertEquals(mergedUser.getUid(), "user1");
+		assertEquals(mergedUser.getDisplayName(), "Changed");
+		assertNull(mergedUser.getLoginCount());
+	}
+
+	@Test
+	public void persistDuplicateEntry() {
+		entryManager.persist(createUser(1));
+		try {
+			entryManager.persist(createUser(1));
+			fail("Entry already exists");
+		} catch (EntryPersistenceException ex) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void mergeMissingEntry() {
+		try {
+			entryManager.merge(createUser(1));
+			fail("Entry doesn't exist");
+		} catch (EntryPersistenceException ex) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void persistAllWithDuplicates() throws SQLException {
+		entryManager.persist(createUser(5));
+
+		// Entry 5 exists in DB, entry 2 appears twice in chunk
+		List<SimpleUser> users = new ArrayList<SimpleUser>();
+		for (int i = 0; i < 10; i++) {
+			users.add(createUser(i));
+		}
+		SimpleUser duplicateUser = createUser(2);
+		duplicateUser.setDisplayName("Duplicate");
+		users.set(7, duplicateUser);
+
+		List<EntryOperationResult<SimpleUser>> results = entryManager.persistAll(users, 100);
+
+		assertFailed(results, 5, 7);
+		assertTrue(results.get(7).getException() instanceof EntryPersistenceException);
+		assertEquals(results.get(7).getDn(), duplicateUser.getDn());
+		assertEquals(entryManager.countRows(), 9);
+		assertEquals(entryManager.find(SimpleUser.class, createUser(2).getDn()).getDisplayName(), "User 2");
+	}
+
+	@Test
+	public void persistAllWithInvalidEntries() throws SQLException {
+		SimpleUser userWithoutDn = createUser(3);
+		userWithoutDn.setDn(null);
+		List<SimpleUser> users = Arrays.asList(createUser(0), createUser(1), null, userWithoutDn, createUser(4));
+
+		List<EntryOperationResult<SimpleUser>> results = entryManager.persistAll(users, 2);
+
+		assertFailed(results, 2, 3);
+		assertTrue(results.get(2).getException() instanceof MappingException);
+		assertEquals(entryManager.countRows(), 3);
+	}
+
+	@Test
+	public void mergeAllWithMissingEntry() {
+		List<SimpleUser> users = new ArrayList<SimpleUser>();
+		for (int i = 0; i < 6; i++) {
+			SimpleUser user = createUser(i);
+			if (i != 3) {
+				entryManager.persist(user);
+			}
+			user.setDisplayName("Changed " + i);
+			users.add(user);
+		}
+
+		List<EntryOperationResult<SimpleUser>> results = entryManager.mergeAll(users, 4);
+
+		assertFailed(results, 3);
+		assertTrue(results.get(3).getException() instanceof EntryPersistenceException);
+		for (int i = 0; i < 6; i++) {
+			List<SimpleUser> loadedUsers = entryManager.findEntriesByKeys(SimpleUser.class, Arrays.asList(createUser(i).getDn()), null);
+			if (i == 3) {
+				assertTrue(loadedUsers.isEmpty());
+			} else {
+				assertEquals(loadedUsers.get(0).getDisplayName(), "Changed " + i);
+			}
+		}
+	}
+
+	@Test
+	public void mergeAllRetriesEntriesAfterBatchFailure() {
+		List<SimpleUser> users = new ArrayList<SimpleUser>();
+		for (int i = 0; i < 5; i++) {
+			SimpleUser user = createUser(i);
+			entryManager.persist(user);
+			user.setDisplayName("Changed " + i);
+			users.add(user);
+		}
+
+		// Value is longer than column size. Batch is rolled back and entries are updated one by one
+		users.get(2).setDisplayName("Display name which doesn't fit into column");
+
+		List<EntryOperationResult<SimpleUser>> results = entryManager.mergeAll(users, 100);
+
+		assertFailed(results, 2);
+		assertTrue(results.get(2).getException() instanceof EntryPersistenceException);
+		for (int i = 0; i < 5; i++) {
+			SimpleUser user = entryManager.find(SimpleUser.class, createUser(i).getDn());
+			assertEquals(user.getDisplayName(), i == 2 ? "User 2" : "Changed " + i);
+		}
+		assertBatchMetrics("modify_batch", 0, 1);
+	}
+
+	@Test
+	public void mergeAllRejectsSchemaEntry() {
+		entryManager.persist(createUser(1));
+		SimpleUser user = createUser(1);
+		user.setDisplayName("Changed 1");
+
+		SimpleSchemaEntry schemaEntry = new SimpleSchemaEntry();
+		schemaEntry.setDn("cn=schema");
+
+		List<EntryOperationResult<Object>> results = entryManager.mergeAll(Arrays.<Object>asList(user, schemaEntry), 100);
+
+		assertTrue(results.get(0).isSuccess());
+		assertTrue(results.get(1).getException() instanceof UnsupportedOperationException);
+		assertEquals(entryManager.find(SimpleUser.class, user.getDn()).getDisplayName(), "Changed 1");
+	}
+
+	@Test
+	public void persistAllRetriesEntriesAfterBatchFailure() throws SQLException {
+		List<SimpleUser> users = new ArrayList<SimpleUser>();
+		for (int i = 0; i < 5; i++) {
+			users.add(createUser(i));
+		}
+		users.get(1).setDisplayName("Display name which doesn't fit into column");
+		users.get(4).setDisplayName("Another display name which doesn't fit into column");
+
+		List<EntryOperationResult<SimpleUser>> results = entryManager.persistAll(users, 100);
+
+		assertFailed(results, 1, 4);
+		assertEquals(entryManager.countRows(), 3);
+		assertEquals(entryManager.find(SimpleUser.class, createUser(3).getDn()).getDisplayName(), "User 3");
+		assertBatchMetrics("add_batch", 0, 1);
+	}
+
+	@Test
+	public void removeAllWithMissingAndInvalidEntries() throws SQLException {
+		for (int i = 0; i < 5; i++) {
+			entryManager.persist(createUser(i));
+		}
+
+		SimpleUser userWithoutDn = createUser(2);
+		userWithoutDn.setDn(null);
+		List<SimpleUser> users = Arrays.asList(createUser(0), userWithoutDn, createUser(7), createUser(3), createUser(4));
+
+		List<EntryOperationResult<SimpleUser>> results = entryManager.removeAll(users, 2);
+
+		// Remove of missing entry doesn't fail as single entry remove
+		assertFailed(results, 1);
+		assertEquals(entryManager.countRows(), 2);
+		assertEquals(entryManager.findEntriesByKeys(SimpleUser.class, Arrays.asList(createUser(1).getDn(), createUser(2).getDn()), null).size(), 2);
+	}
+
+	private static SimpleUser createUser(int i) {
+		return new SimpleUser(String.valueOf(i), "user" + i, "User " + i);
+	}
+
+	private void assertBatchMetrics(String operation, long expectedSuccess, long expectedFailure) {
+		OperationMetrics operationMetrics = entryManager.getOperationService().getOperationMetrics();
+		assertEquals(operationMetrics.getHistogram(operation, "gluuPerson", OperationMetrics.RESULT_SUCCESS).getTotalCount(), expectedSuccess);
+		assertEquals(operationMetrics.getHistogram(operation, "gluuPerson", OperationMetrics.RESULT_FAILURE).getTotalCount(), expectedFailure);
+	}
+
+	private static void assertFailed(List<EntryOperationResult<SimpleUser>> results, Integer... failedIndexes) {
+		List<Integer> expectedFailed = Arrays.asList(failedIndexes);
+		for (int i = 0; i < results.size(); i++) {
+			EntryOperationResult<SimpleUser> result = results.get(i);
+			assertEquals(result.isSuccess(), !expectedFailed.contains(i), String.format("Unexpected result of entry %d: %s", i, result));
+		}
+	}
+
+	@DataEntry
+	@SchemaEntry
+	public static class SimpleSchemaEntry {
+
+		@DN
+		private String dn;
+
+		public String getDn() {
+			return dn;
+		}
+
+		public void setDn(String dn) {
+			this.dn = dn;
+		}
+
+	}
+
+}
@@ -0,0 +1,143 @@
+package org.gluu.persist.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+
+import org.gluu.persist.exception.operation.SearchException;
+import org.gluu.persist.sql.dsl.template.MySQLJsonTemplates;
+import org.gluu.persist.sql.impl.SqlFilterConverter;
+import org.gluu.persist.sql.impl.SqlFilterShapeCache;
+import org.gluu.persist.sql.model.ConvertedExpression;
+import org.gluu.persist.sql.operation.impl.SqlConnectionProvider;
+import org.gluu.persist.sql.operation.impl.SqlOperationServiceImpl;
+import org.gluu.search.filter.Filter;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.SimpleExpression;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.SQLQuery;
+
+@SuppressWarnings({ "rawtypes" })
+public class SqlFilterShapeCacheTest {
+
+	private SqlFilterConverter converter;
+	private SimpleExpression<Object> tableAlieasPath;
+	private StringPath allPath;
+	private Configuration configuration;
+
+	@BeforeClass
+	public void init() {
+		Path<Object> tablePath = ExpressionUtils.path(Object.class, "table");
+		Path<Object> docAlias = ExpressionUtils.path(Object.class, "doc");
+		this.tableAlieasPath = Expressions.as(tablePath, docAlias);
+		this.allPath = Expressions.stringPath(docAlias, "*");
+
+		this.configuration = new Configuration(MySQLJsonTemplates.builder().printSchema().build());
+	}
+
+	@BeforeMethod
+	public void initConverter() {
+		this.converter = new SqlFilterConverter(new SqlOperationServiceImpl(null, new SqlConnectionProvider(null)));
+	}
+
+	@Test
+	public void checkSameShapeBindsNewValues() throws SearchException {
+		Filter filter1 = Filter.createANDFilter(Filter.createEqualityFilter("uid", "test"), Filter.createLessOrEqualFilter("age", 23));
+		assertEquals(toSelectSQL(converter.convertToSqlFilter(null, filter1, null)),
+				"select doc.`*` from `table` as doc where doc.uid = 'test' and doc.age <= 23");
+
+		Filter filter2 = Filter.createANDFilter(Filter.createEqualityFilter("uid", "test2"), Filter.createLessOrEqualFilter("age", 25));
+		assertEquals(toSelectSQL(converter.convertToSqlFilter(null, filter2, null)),
+				"select doc.`*` from `table` as doc where doc.uid = 'test2' and doc.age <= 25");
+
+		SqlFilterShapeCache shapeCache = converter.getShapeCache();
+		assertEquals(shapeCache.getMissCount(), 1);
+		assertEquals(shapeCache.getHitCount(), 1);
+		assertEquals(shapeCache.getSize(), 1);
+	}
+
+	@Test
+	public void checkDifferentShapes() throws SearchException {
+		assertEquals(toSelectSQL(converter.convertToSqlFilter(null, Filter.createEqualityFilter("uid", "test"), null)),
+				"select doc.`*` from `table` as doc where doc.uid = 'test'");
+		assertEquals(toSelectSQL(converter.convertToSqlFilter(null, Filter.createEqualityFilter("mail", "test"), null)),
+				"select doc.`*` from `table` as doc where doc.mail = 'test'");
+		assertEquals(toSelectSQL(converter.convertToSqlFilter(null, Filter.createEqualityFilter("uid", "test").multiValued(), null)),
+				"select doc.`*` from `table` as doc where JSON_CONTAINS(doc.uid->'$.v', CAST('[\"test\"]' AS JSON))");
+		assertEquals(toSelectSQL(converter.convertToSqlFilter(null, Filter.createEqualityFilter("age", 23), null)),
+				"select doc.`*` from `table` as doc where doc.age = 23");
+
+		SqlFilterShapeCache shapeCache = converter.getShapeCache();
+		assertEquals(shapeCache.getMissCount(), 4);
+		assertEquals(shapeCache.getHitCount(), 0);
+		assertEquals(shapeCache.getSize(), 4);
+	}
+
+	@Test
+	public void checkSubstringAndMultiValued() throws SearchException {
+		converter.convertToSqlFilter(null, Filter.createSubstringFilter("uid", "a", new String[] { "test" }, null).multiValued(), null);
+		assertEquals(toSelectSQL(converter.convertToSqlFilter(null, Filter.createSubstringFilter("uid", "b", new String[] { "value" }, null).multiValued(), null)),
+				"select doc.`*` from `table` as doc where doc.uid->'$.v[0]' like 'b%value%'");
+
+		converter.convertToSqlFilter(null, Filter.createEqualityFilter(Filter.createLowercaseFilter("uid"), "test").multiValued(), null);
+		assertEquals(toSelectSQL(converter.convertToSqlFilter(null, Filter.createEqualityFilter(Filter.createLowercaseFilter("uid"), "value").multiValued(), null)),
+				"select doc.`*` from `table` as doc where JSON_CONTAINS(lower(doc.uid)->'$.v', CAST('[\"value\"]' AS JSON))");
+
+		assertEquals(converter.getShapeCache().getHitCount(), 2);
+	}
+
+	@Test
+	public void checkOrJoinedToIn() throws SearchException {
+		Filter filter1 = Filter.createORFilter(Filter.createEqualityFilter("uid", "test"), Filter.createEqualityFilter("uid", "test2")).multiValued(false);
+		converter.convertToSqlFilter(null, filter1, null);
+
+		Filter filter2 = Filter.createORFilter(Filter.createEqualityFilter("uid", "value"), Filter.createEqualityFilter("uid", "value2")).multiValued(false);
+		assertEquals(toSelectSQL(converter.convertToSqlFilter(null, filter2, null)),
+				"select doc.`*` from `table` as doc where doc.uid in ('value', 'value2')");
+
+		Filter filter3 = Filter.createORFilter(Filter.createEqualityFilter("uid", "value")).multiValued(false);
+		converter.convertToSqlFilter(null, filter3, null);
+		assertEquals(toSelectSQL(converter.convertToSqlFilter(null, Filter.createORFilter(Filter.createEqualityFilter("uid", "value3")).multiValued(false), null)),
+				"select doc.`*` from `table` as doc where doc.uid = 'value3'");
+
+		assertEquals(converter.getShapeCache().getHitCount(), 2);
+	}
+
+	@Test
+	public void checkProcessorSkipsCache() throws SearchException {
+		Filter filter = Filter.createEqualityFilter("uid", "test");
+		converter.convertToSqlFilter(null, filter, null, f -> true, false);
+		converter.convertToSqlFilter(null, filter, null, f -> true, false);
+
+		SqlFilterShapeCache shapeCache = converter.getShapeCache();
+		assertEquals(shapeCache.getMissCount(), 0);
+		assertEquals(shapeCache.getHitCount(), 0);
+		assertEquals(shapeCache.getSize(), 0);
+	}
+
+	@Test
+	public void checkDisabledCache() throws SearchException {
+		SqlFilterConverter notCachingConverter = new SqlFilterConverter(new SqlOperationServiceImpl(null, new SqlConnectionProvider(null)), 0);
+		notCachingConverter.convertToSqlFilter(null, Filter.createEqualityFilter("uid", "test"), null);
+		assertEquals(toSelectSQL(notCachingConverter.convertToSqlFilter(null, Filter.createEqualityFilter("uid", "test2"), null)),
+				"select doc.`*` from `table` as doc where doc.uid = 'test2'");
+
+		assertEquals(notCachingConverter.getShapeCache().getSize(), 0);
+		assertEquals(notCachingConverter.getShapeCache().getHitCount(), 0);
+	}
+
+	private String toSelectSQL(ConvertedExpression convertedExpression) {
+		SQLQuery sqlQuery = (SQLQuery) new SQLQuery(configuration).select(allPath).from(tableAlieasPath)
+				.where((Predicate) convertedExpression.expression());
+		sqlQuery.setUseLiterals(true);
+
+		return sqlQuery.getSQL().getSQL().replace("\n", " ");
+	}
+
+}
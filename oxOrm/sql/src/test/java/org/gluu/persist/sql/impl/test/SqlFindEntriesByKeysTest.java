@@ -0,0 +1,101 @@
+package org.gluu.persist.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Loading of entries by DNs with IN condition against embedded H2 DB
+ */
+public class SqlFindEntriesByKeysTest {
+
+	private static final int ENTRIES_COUNT = 1200;
+
+	private EmbeddedSqlEntryManager entryManager;
+
+	@BeforeClass
+	public void init() throws SQLException {
+		this.entryManager = EmbeddedSqlEntryManager.create("findByKeys");
+		for (int i = 0; i < ENTRIES_COUNT; i++) {
+			entryManager.persist(new SimpleUser(String.valueOf(i), "user" + i, "User " + i));
+		}
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void destroy() {
+		if (entryManager != null) {
+			entryManager.destroy();
+		}
+	}
+
+	@Test
+	public void findEntriesInKeysOrder() {
+		List<String> dns = Arrays.asList(getDn(7), getDn(3), getDn(11), getDn(0));
+
+		List<SimpleUser> users = entryManager.findEntriesByKeys(SimpleUser.class, dns, null);
+
+		assertEquals(getDns(users), dns);
+		assertEquals(users.get(0).getUid(), "user7");
+		assertEquals(users.get(0).getDisplayName(), "User 7");
+	}
+
+	@Test
+	public void skipMissingAndDuplicateKeys() {
+		List<String> dns = Arrays.asList(getDn(5), getDn(-1), getDn(2), getDn(5), getDn(ENTRIES_COUNT), getDn(9));
+
+		List<SimpleUser> users = entryManager.findEntriesByKeys(SimpleUser.class, dns, null);
+
+		assertEquals(getDns(users), Arrays.asList(getDn(5), getDn(2), getDn(9)));
+	}
+
+	@Test
+	public void findEntriesWithAttributes() {
+		List<SimpleUser> users = entryManager.findEntriesByKeys(SimpleUser.class, Arrays.asList(getDn(4), getDn(1)), new String[] { "uid" });
+
+		assertEquals(getDns(users), Arrays.asList(getDn(4), getDn(1)));
+		assertEquals(users.get(0).getUid(), "user4");
+		assertEquals(users.get(0).getDisplayName(), null);
+	}
+
+	@Test
+	public void findEntriesInSeveralChunks() {
+		// Keys list is longer than one IN condition
+		List<String> dns = new ArrayList<String>();
+		for (int i = ENTRIES_COUNT - 1; i >= 0; i--) {
+			dns.add(getDn(i));
+		}
+
+		List<SimpleUser> users = entryManager.findEntriesByKeys(SimpleUser.class, dns, null);
+
+		assertEquals(getDns(users), dns);
+	}
+
+	@Test
+	public void findEntriesWithoutKeys() {
+		assertTrue(entryManager.findEntriesByKeys(SimpleUser.class, Collections.<String>emptyList(), null).isEmpty());
+		assertTrue(entryManager.findEntriesByKeys(SimpleUser.class, Arrays.asList(getDn(-1), getDn(-2)), null).isEmpty());
+	}
+
+	private static String getDn(int i) {
+		return String.format("inum=%d,ou=people,o=gluu", i);
+	}
+
+	private static List<String> getDns(List<SimpleUser> users) {
+		List<String> dns = new ArrayList<String>(users.size());
+		for (SimpleUser user : users) {
+			dns.add(user.getDn());
+		}
+
+		return dns;
+	}
+
+}
@@ -0,0 +1,243 @@
+package org.gluu.persist.sql.impl.test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+
+import org.gluu.persist.exception.operation.SearchException;
+import org.gluu.persist.model.AttributeData;
+import org.gluu.persist.model.BatchOperation;
+import org.gluu.persist.model.EntryData;
+import org.gluu.persist.model.PagedResult;
+import org.gluu.persist.model.SearchScope;
+import org.gluu.persist.sql.impl.SqlBatchOperationWraper;
+import org.gluu.persist.sql.model.SearchPosition;
+import org.gluu.persist.sql.model.SearchReturnDataType;
+import org.gluu.persist.sql.model.TableMapping;
+import org.gluu.persist.sql.operation.SupportedDbType;
+import org.gluu.persist.sql.operation.impl.SqlConnectionProvider;
+import org.gluu.persist.sql.operation.impl.SqlOperationServiceImpl;
+import org.h2.jdbcx.JdbcDataSource;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLQueryFactory;
+
+/**
+ * Checks paged search against embedded H2 DB. Paged search should return every row once
+ */
+public class SqlKeysetPaginationTest {
+
+	private static final String TABLE_NAME = "oxAuthToken";
+	private static final int ENTRIES_COUNT = 100000;
+	private static final int PAGE_SIZE = 500;
+
+	private Connection keepAliveConnection;
+	private SQLQueryFactory sqlQueryFactory;
+	private SqlOperationServiceImpl operationService;
+
+	@BeforeClass
+	public void init() throws SQLException {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:keyset;DB_CLOSE_DELAY=-1");
+
+		// In memory DB lives while there is open connection
+		this.keepAliveConnection = dataSource.getConnection();
+		try (Statement statement = keepAliveConnection.createStatement()) {
+			statement.execute("CREATE TABLE " + TABLE_NAME + " (doc_id VARCHAR(64) PRIMARY KEY, dn VARCHAR(128) NOT NULL, exp TIMESTAMP NULL)");
+			statement.execute("CREATE INDEX " + TABLE_NAME + "_exp ON " + TABLE_NAME + " (exp, doc_id)");
+		}
+
+		long now = System.currentTimeMillis();
+		try (PreparedStatement statement = keepAliveConnection.prepareStatement("INSERT INTO " + TABLE_NAME + " (doc_id, dn, exp) VALUES (?, ?, ?)")) {
+			for (int i = 0; i < ENTRIES_COUNT; i++) {
+				String docId = UUID.randomUUID().toString();
+				statement.setString(1, docId);
+				statement.setString(2, String.format("tknCde=%s,ou=tokens,o=gluu", docId));
+				// Many rows with same and NULL values in sort column
+				statement.setTimestamp(3, i % 10 == 0 ? null : new Timestamp(now + (i % 1000) * 60000L));
+				statement.addBatch();
+
+				if (i % 1000 == 999) {
+					statement.executeBatch();
+				}
+			}
+			statement.executeBatch();
+		}
+
+		this.sqlQueryFactory = new SQLQueryFactory(new Configuration(new H2Templates()), dataSource);
+		this.operationService = new SqlOperationServiceImpl(new Properties(), new TestSqlConnectionProvider());
+	}
+
+	@AfterClass
+	public void destroy() throws SQLException {
+		if (keepAliveConnection != null) {
+			keepAliveConnection.close();
+		}
+	}
+
+	@Test
+	public void pagedSearchReturnsAllEntries() throws SearchException {
+		PagedResult<EntryData> result = operationService.search("_", TABLE_NAME, null, SearchScope.SUB, null, null, null,
+				SearchReturnDataType.SEARCH, 0, 0, PAGE_SIZE);
+
+		assertEquals(result.getEntriesCount(), ENTRIES_COUNT);
+		assertEquals(uniqueDns(result.getEntries()).size(), ENTRIES_COUNT);
+	}
+
+	@Test
+	public void pagedSearchWithStartAndCount() throws SearchException {
+		PagedResult<EntryData> allResult = operationService.search("_", TABLE_NAME, null, SearchScope.SUB, null, null, null,
+				SearchReturnDataType.SEARCH, 0, 0, 0);
+		PagedResult<EntryData> result = operationService.search("_", TABLE_NAME, null, SearchScope.SUB, null, null, null,
+				SearchReturnDataType.SEARCH, 1234, 5000, PAGE_SIZE);
+
+		assertEquals(result.getEntriesCount(), 5000);
+		assertEquals(uniqueDns(result.getEntries()).size(), 5000);
+		assertEquals(result.getEntries().get(0).getAttributeData("dn").getValue(),
+				getSortedDns(allResult.getEntries()).get(1234));
+	}
+
+	@Test
+	public void pagedSearchSortedByNullableColumn() throws SearchException {
+		for (Order order : new Order[] { Order.ASC, Order.DESC }) {
+			OrderSpecifier<?>[] orderBy = new OrderSpecifier[] { new OrderSpecifier<String>(order, Expressions.stringPath("exp")) };
+			PagedResult<EntryData> result = operationService.search("_", TABLE_NAME, null, SearchScope.SUB, null, orderBy, null,
+					SearchReturnDataType.SEARCH, 0, 0, PAGE_SIZE);
+
+			assertEquals(result.getEntriesCount(), ENTRIES_COUNT);
+			assertEquals(uniqueDns(result.getEntries()).size(), ENTRIES_COUNT);
+
+			// NULL values are first in ascending order and last in descending order in H2
+			Date previous = null;
+			boolean nullFound = false, nonNullFound = false;
+			for (EntryData entryData : result.getEntries()) {
+				AttributeData expAttribute = entryData.getAttributeData("exp");
+				Date current = expAttribute == null ? null : (Date) expAttribute.getValue();
+				if (current == null) {
+					assertTrue((order == Order.DESC) || !nonNullFound, "Unexpected NULL value position");
+					nullFound = true;
+				} else {
+					assertTrue((order == Order.ASC) || !nullFound, "Unexpected NULL value position");
+					if (previous != null) {
+						int compare = current.compareTo(previous);
+						assertTrue(order == Order.ASC ? compare >= 0 : compare <= 0, "Wrong entries order");
+					}
+					nonNullFound = true;
+				}
+				previous = current;
+			}
+		}
+	}
+
+	@Test
+	public void pagedSearchWithBatchOperation() throws SearchException {
+		final List<Integer> pageSizes = new ArrayList<Integer>();
+		BatchOperation<Object> batchOperation = new BatchOperation<Object>() {
+
+			@Override
+			public boolean collectSearchResult(int size) {
+				if (size > 0) {
+					pageSizes.add(size);
+				}
+
+				return false;
+			}
+
+			@Override
+			public void performAction(List<Object> entries) {
+			}
+		};
+
+		PagedResult<EntryData> result = operationService.search("_", TABLE_NAME, null, SearchScope.SUB, null, null,
+				new SqlBatchOperationWraper<Object>(batchOperation), SearchReturnDataType.SEARCH, 0, 0, PAGE_SIZE);
+
+		assertEquals(result.getEntriesCount(), 0);
+		assertEquals(pageSizes.size(), ENTRIES_COUNT / PAGE_SIZE);
+		for (Integer pageSize : pageSizes) {
+			assertEquals(pageSize.intValue(), PAGE_SIZE);
+		}
+	}
+
+	@Test
+	public void searchPageByPage() throws SearchException {
+		OrderSpecifier<?>[] orderBy = new OrderSpecifier[] { new OrderSpecifier<String>(Order.ASC, Expressions.stringPath("exp")) };
+		SearchPosition searchPosition = new SearchPosition();
+
+		// Every page is loaded with separate query which continues after last row of previous page
+		List<EntryData> entries = new ArrayList<EntryData>();
+		PagedResult<EntryData> page;
+		do {
+			page = operationService.searchPage("_", TABLE_NAME, null, null, orderBy, searchPosition, PAGE_SIZE);
+			entries.addAll(page.getEntries());
+			assertEquals(searchPosition.getReturnedCount(), entries.size());
+		} while (page.getEntriesCount() == PAGE_SIZE);
+
+		assertEquals(entries.size(), ENTRIES_COUNT);
+		assertEquals(uniqueDns(entries).size(), ENTRIES_COUNT);
+	}
+
+	private Set<Object> uniqueDns(List<EntryData> entries) {
+		Set<Object> dns = new HashSet<Object>();
+		for (EntryData entryData : entries) {
+			dns.add(entryData.getAttributeData("dn").getValue());
+		}
+
+		return dns;
+	}
+
+	private List<Object> getSortedDns(List<EntryData> entries) {
+		// Without sort order entries are sorted by doc_id which is part of DN
+		List<Object> dns = new ArrayList<Object>();
+		for (EntryData entryData : entries) {
+			dns.add(entryData.getAttributeData("dn").getValue());
+		}
+		dns.sort(null);
+
+		return dns;
+	}
+
+	private class TestSqlConnectionProvider extends SqlConnectionProvider {
+
+		@Override
+		public SQLQueryFactory getSqlQueryFactory() {
+			return sqlQueryFactory;
+		}
+
+		@Override
+		public String getSchemaName() {
+			return "PUBLIC";
+		}
+
+		@Override
+		public SupportedDbType getDbType() {
+			return SupportedDbType.MYSQL;
+		}
+
+		@Override
+		public TableMapping getTableMappingByKey(String key, String objectClass) {
+			return new TableMapping("", objectClass, objectClass, new HashMap<>());
+		}
+
+	}
+
+}